@@ -0,0 +1,16 @@
+#!/bin/sh
+# Builds out/chess.jar and a class-data sharing archive (out/chess.jsa) recorded from a headless startup run, so the
+# game starts with the Swing and engine classes already parsed and verified. Run from the project root.
+set -e
+rm -rf out/classes
+mkdir -p out/classes
+javac -d out/classes $(find src -name '*.java')
+jar --create --file out/chess.jar -C out/classes .
+
+# training run: builds and paints the game window off screen, plays a move and searches, then dumps the classes
+java -XX:ArchiveClassesAtExit=out/chess.jsa -Djava.awt.headless=true -cp out/chess.jar gameComponents.Startup --train
+
+echo "without the archive:"
+java -Xshare:auto -cp out/chess.jar gameComponents.Startup
+echo "with the archive:"
+java -XX:SharedArchiveFile=out/chess.jsa -cp out/chess.jar gameComponents.Startup
@@ -0,0 +1,105 @@
+package gameEngine;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static gameEngine.AttackBatch.*;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Vector kernel of AttackBatch. Each lane holds one position. Pawn, knight and king attacks are shifts
+ * of the whole piece bitboard with the columns that would wrap around masked off, and the sliding attacks of all
+ * bishops and queens (or rooks and queens) are filled together, one direction at a time, with the occluded fill
+ * (Kogge-Stone) that stops at the first occupied square. Positions left over after the last full vector go through
+ * the scalar kernel.
+ *
+ * This class needs the incubator module: compile it with
+ * javac --add-modules jdk.incubator.vector -cp out -d out $(find src-vector -name '*.java')
+ * and run with --add-modules jdk.incubator.vector. AttackBatch finds it by name, so the rest of the program does not
+ * depend on it.
+ *
+ * Method List:
+ * public void compute(AttackBatch batch, int count) - Method to compute the attack sets, mobility and check flags
+ */
+
+public final class VectorAttacks implements AttackBatch.Kernel {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Method to compute the attack sets, mobility and check flags of the first positions of a batch
+     * @param batch batch holding the positions
+     * @param count number of positions
+     */
+    @Override
+    public void compute(AttackBatch batch, int count) {
+        long[][] planes = batch.planes;
+        int lanes = SPECIES.length();
+        int end = count - count % lanes;
+        for (int i = 0; i < end; i += lanes) {
+            LongVector whiteOwn = LongVector.fromArray(SPECIES, planes[OWN], i);
+            LongVector blackOwn = LongVector.fromArray(SPECIES, planes[PLANES_PER_COLOUR + OWN], i);
+            LongVector empty = whiteOwn.or(blackOwn).not();
+            for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+                int base = colour * PLANES_PER_COLOUR;
+                LongVector attacked = pawnAttacks(LongVector.fromArray(SPECIES, planes[base + PAWNS], i), colour)
+                        .or(knightAttacks(LongVector.fromArray(SPECIES, planes[base + KNIGHTS], i)))
+                        .or(kingAttacks(LongVector.fromArray(SPECIES, planes[base + KINGS], i)))
+                        .or(diagonalAttacks(LongVector.fromArray(SPECIES, planes[base + DIAGONAL], i), empty))
+                        .or(straightAttacks(LongVector.fromArray(SPECIES, planes[base + STRAIGHT], i), empty));
+                attacked.intoArray(batch.attacks[colour], i);
+            }
+        }
+        batch.computeScalar(end, count);
+        batch.finish(0, count);
+    }
+
+    private static LongVector pawnAttacks(LongVector pawns, int colour) {
+        if (colour == Position.WHITE)
+            return shift(pawns, -7).and(~COLUMN_A).or(shift(pawns, -9).and(~COLUMN_H));
+        return shift(pawns, 9).and(~COLUMN_A).or(shift(pawns, 7).and(~COLUMN_H));
+    }
+
+    //a knight step of one column must not wrap from column H to A or back, a step of two columns likewise
+    private static LongVector knightAttacks(LongVector knights) {
+        return shift(knights, 17).or(shift(knights, -15)).and(~COLUMN_A)
+                .or(shift(knights, 15).or(shift(knights, -17)).and(~COLUMN_H))
+                .or(shift(knights, 10).or(shift(knights, -6)).and(~COLUMNS_AB))
+                .or(shift(knights, 6).or(shift(knights, -10)).and(~COLUMNS_GH));
+    }
+
+    //the king and its east and west neighbours, moved one row up and down, without the king's own square
+    private static LongVector kingAttacks(LongVector kings) {
+        LongVector row = shift(kings, 1).and(~COLUMN_A).or(shift(kings, -1).and(~COLUMN_H));
+        LongVector wide = row.or(kings);
+        return row.or(shift(wide, 8)).or(shift(wide, -8));
+    }
+
+    private static LongVector diagonalAttacks(LongVector sliders, LongVector empty) {
+        return fill(sliders, empty, 9, ~COLUMN_A).or(fill(sliders, empty, 7, ~COLUMN_H))
+                .or(fill(sliders, empty, -7, ~COLUMN_A)).or(fill(sliders, empty, -9, ~COLUMN_H));
+    }
+
+    private static LongVector straightAttacks(LongVector sliders, LongVector empty) {
+        return fill(sliders, empty, 1, ~COLUMN_A).or(fill(sliders, empty, -1, ~COLUMN_H))
+                .or(fill(sliders, empty, 8, -1L)).or(fill(sliders, empty, -8, -1L));
+    }
+
+    //occluded fill in one direction, then one more step so the first blocker is attacked too
+    private static LongVector fill(LongVector sliders, LongVector empty, int step, long notWrapped) {
+        LongVector propagate = empty.and(notWrapped);
+        LongVector generate = sliders;
+        generate = generate.or(propagate.and(shift(generate, step)));
+        propagate = propagate.and(shift(propagate, step));
+        generate = generate.or(propagate.and(shift(generate, 2 * step)));
+        propagate = propagate.and(shift(propagate, 2 * step));
+        generate = generate.or(propagate.and(shift(generate, 4 * step)));
+        return shift(generate, step).and(notWrapped);
+    }
+
+    //towards higher square numbers for a positive step, lower ones for a negative step
+    private static LongVector shift(LongVector bits, int step) {
+        return step > 0 ? bits.lanewise(VectorOperators.LSHL, step) : bits.lanewise(VectorOperators.LSHR, -step);
+    }
+}
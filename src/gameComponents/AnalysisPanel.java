@@ -0,0 +1,161 @@
+package gameComponents;
+
+import gameEngine.SearchInfo;
+import gameEngine.SearchListener;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Panel showing the live evaluation bar, search depth and expected line of the background analysis.
+ * Search reports arrive on the analysis threads; only the newest report of each line is kept and at most one update
+ * is queued on the Swing event thread at a time, so a fast search can never flood the user interface. With more than
+ * one line (MultiPV) each of the best moves gets its own row with its score; the bar and depth follow the best line.
+ *
+ * Method List:
+ * public void onInfo(SearchInfo info) - Method called by the search thread with a new report
+ * public void clearInfo() - Method to reset the panel while a new position is being analysed
+ * protected void paintComponent(Graphics g) - Method to draw the evaluation bar
+ * public static void main(String[] args) - Self-testing main method
+ */
+
+public class AnalysisPanel extends JPanel implements SearchListener {
+    private static final long serialVersionUID = 1L;
+
+    //Global Variables
+    private final AtomicReferenceArray<SearchInfo> latest;     //newest report of each line, null once shown
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final JLabel evaluation;
+    private final JLabel[] lines;
+    private int whiteScore;        //score shown by the bar, from white's point of view
+
+    /**
+     * Default analysis panel constructor to create the labels for the best line
+     */
+    public AnalysisPanel() {
+        this(1);
+    }
+
+    /**
+     * Analysis panel constructor showing several of the best lines
+     * @param lineCount number of lines shown, one row each
+     */
+    public AnalysisPanel(int lineCount) {
+        super();
+        this.setLayout(null); //uses null layout
+
+        evaluation = new JLabel("Analysing...");                 //Displays score and depth
+        evaluation.setFont(new Font("TimesRoman", Font.BOLD, 20));
+        evaluation.setBounds(20, 25, 560, 25);
+        this.add(evaluation);
+
+        latest = new AtomicReferenceArray<>(Math.max(1, lineCount));
+        lines = new JLabel[latest.length()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new JLabel(" ");                          //Displays an expected line
+            lines[i].setFont(new Font("TimesRoman", Font.PLAIN, 14));
+            lines[i].setBounds(20, 50 + 25 * i, 560, 25);
+            this.add(lines[i]);
+        }
+
+        //sets panel features
+        this.setPreferredSize(new Dimension(600, 80 + 25 * (lines.length - 1)));
+        this.setBackground(new Color(238, 238, 210));
+        this.setVisible(true);
+    }
+
+    /**
+     * Method called by the search thread with a new report
+     * @param info search report
+     */
+    @Override
+    public void onInfo(SearchInfo info) {
+        int index = info.getMultiPv() - 1;
+        if (index >= latest.length())
+            return;
+        latest.set(index, info);
+        //only queues an update if the previous one has already been shown
+        if (queued.compareAndSet(false, true))
+            SwingUtilities.invokeLater(this::showLatest);
+    }
+
+    /**
+     * Method to reset the panel while a new position is being analysed, the previous search has to be stopped first
+     * (AnalysisService.stop()) so none of its reports arrive afterwards
+     */
+    public void clearInfo() {
+        for (int i = 0; i < latest.length(); i++)
+            latest.set(i, null);
+        SwingUtilities.invokeLater(() -> {
+            evaluation.setText("Analysing...");
+            for (JLabel label : lines)
+                label.setText(" ");
+        });
+    }
+
+    //runs on the event thread and shows the newest report of each line
+    private void showLatest() {
+        queued.set(false);      //reports from now on queue another update
+        for (int i = 0; i < lines.length; i++) {
+            SearchInfo info = latest.getAndSet(i, null);
+            if (info == null)
+                continue;
+
+            String score = scoreText(info);
+            lines[i].setText(lines.length == 1 ? info.getPrincipalVariationText() :
+                    score + "   " + info.getPrincipalVariationText());
+            if (i == 0) {
+                evaluation.setText(score + "   depth " + info.getDepth() + "   " + info.getNodes() / 1000 +
+                        "k nodes");
+                whiteScore = info.isMate() ? (info.getWhiteScore() > 0 ? 1000 : -1000) : info.getWhiteScore();
+                repaint(0, 0, getWidth(), 20);
+            }
+        }
+    }
+
+    private static String scoreText(SearchInfo info) {
+        if (info.isMate())
+            return (info.getWhiteScore() > 0 ? "#" : "#-") + Math.abs(info.getMateIn());
+        return String.format("%+.2f", info.getWhiteScore() / 100.0);
+    }
+
+    /**
+     * Method to draw the evaluation bar across the top of the panel
+     * @param g graphics object used to draw the component
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        //white's share of the bar follows a smooth curve, +/-4 pawns fill about 90% of it
+        double share = 1.0 / (1.0 + Math.exp(-whiteScore / 180.0));
+        int whiteWidth = (int) (getWidth() * share);
+
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, whiteWidth, 20);
+        g.setColor(Color.BLACK);
+        g.fillRect(whiteWidth, 0, getWidth() - whiteWidth, 20);
+    }
+
+    /**
+     * Self-testing main method
+     * @param args
+     */
+    public static void main(String[] args) {
+        JFrame testFrame = new JFrame("Testing Frame");
+
+        AnalysisPanel panel = new AnalysisPanel(3);
+        testFrame.add(panel);
+        panel.onInfo(new SearchInfo(12, 85, 0, 1_250_000, 900, new int[0], 1));
+        panel.onInfo(new SearchInfo(12, 40, 0, 1_250_000, 900, new int[0], 2));
+        panel.onInfo(new SearchInfo(12, -15, 0, 1_250_000, 900, new int[0], 3));
+
+        testFrame.setSize(600, 170);
+        testFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        testFrame.setVisible(true);
+    }
+}
@@ -1,12 +1,18 @@
 package gameComponents;
 
 import java.awt.Color;
+import java.awt.Graphics;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 
+import gameEngine.Move;
+import gameEngine.MoveGenerator;
+import gameEngine.Position;
+import gameEngine.PositionSnapshot;
+import gameEngine.StaticExchange;
 import gameEntities.*;
 
 /**
@@ -23,14 +29,21 @@ import gameEntities.*;
  *                                                the button that has been selected
  * public void clearSelection () - Method to clear user's piece selection
  * public void moveOptions() - Method responsible for showing all of the possible moves when a given piece is selected
- * public void move() - Method to move Pieces around the board
+ *                             (captures that lose material are shown in orange)
+ * public void move() - Method to move Pieces around the board (also moves the rook when castling and removes a pawn
+ *                      captured en passant)
  * public void undoMove() - Method to undo the last move made by the user
  * public Tile getTile(int row, int column) - Method to return a tile based on the given row and column values
  * public void setTilePiece(Tile tile, Piece newPiece) - Method to assign a piece to a given tile
  * public boolean getFirstClick() - Method to check if the user has only clicked once
  * public Tile getStartTile() - Method to get starting tile selected by user
  * public Tile getEndTile() - Method to get ending tile selected by the user
+ * public Tile getCaptureTile() - Method to get the tile of the piece the selected move captures
  * public Tile[][] getTileMap() - Method to return the entire tileMap (provides board information)
+ * public int getCastlingRights() - Method to get the castling rights that are still available
+ * public PositionSnapshot toSnapshot(Alliance sideToMove) - Method to take an immutable snapshot of the board
+ * public void loadSnapshot(PositionSnapshot snapshot) - Method to place the pieces of a snapshot onto the board
+ * protected void paintComponent(Graphics g) - Method to paint the board, the first paint is reported to Startup
  * public static void main(String[] args) - Self-testing main method
  */
 
@@ -39,10 +52,19 @@ public class Board extends JPanel implements ActionListener {
     private static Tile[][] tileMap;          //array to hold the tiles that make up the game board
     private boolean firstClick;
     private Piece tempPiece;
+    private boolean startMoved, endMoved;    //moved flags of the last move's tiles, restored by undoMove()
+    private Tile rookStart, rookEnd;          //rook tiles of the last move if it was castling, otherwise null
+    private boolean rookEndMoved;             //moved flag of the rook's end tile, the start tile had not moved
+    private Tile passedPawnTile;              //tile of the pawn the last move captured en passant, otherwise null
+    private Tile enPassantTile;               //tile skipped by the last move's double pawn step, otherwise null
+    private Tile lastEnPassantTile;           //value of enPassantTile before the last move, restored by undoMove()
     private Tile startTile;
     private Tile endTile;
     private final Color SQUARE_COLOUR_ONE = new Color(186, 202, 68);   //Dark green colour
     private final Color SQUARE_COLOUR_TWO = new Color(238, 238, 210);  //light green colour
+    private static final Color LOSING_CAPTURE_COLOUR = new Color(255, 176, 92, 207);   //orange colour
+    private final Position options = new Position();                 //headless copy of the board for moveOptions
+    private final int[] optionMoves = new int[MoveGenerator.MAX_MOVES];
 
     /**
      * Default board constructor to set up game baord
@@ -114,29 +136,39 @@ public class Board extends JPanel implements ActionListener {
      * Method places all of the pieces onto the game board
      */
     public void resetBoard() {
+        //pieces are shared instances so placing them does not create any objects
         for (int i = 0; i < tileMap.length; i++) { //pawns
-            tileMap[1][i].setPiece(new Pawn(Alliance.BLACK));
-            tileMap[6][i].setPiece(new Pawn(Alliance.WHITE));
+            tileMap[1][i].setPiece(Pawn.BLACK);
+            tileMap[6][i].setPiece(Pawn.WHITE);
 
             if (i == 0 || i == 7) { //rooks
-                tileMap[0][i].setPiece(new Rook(Alliance.BLACK));
-                tileMap[7][i].setPiece(new Rook(Alliance.WHITE));
+                tileMap[0][i].setPiece(Rook.BLACK);
+                tileMap[7][i].setPiece(Rook.WHITE);
             }
             else if (i == 1 || i == 6) { //knights
-                tileMap[0][i].setPiece(new Knight(Alliance.BLACK));
-                tileMap[7][i].setPiece(new Knight(Alliance.WHITE));
+                tileMap[0][i].setPiece(Knight.BLACK);
+                tileMap[7][i].setPiece(Knight.WHITE);
             }
             else if (i == 2 || i == 5) { //bishops
-                tileMap[0][i].setPiece(new Bishop(Alliance.BLACK));
-                tileMap[7][i].setPiece(new Bishop(Alliance.WHITE));
+                tileMap[0][i].setPiece(Bishop.BLACK);
+                tileMap[7][i].setPiece(Bishop.WHITE);
             }
         }
 
         //sets the queens and kings
-        tileMap[0][3].setPiece(new Queen(Alliance.BLACK));
-        tileMap[7][3].setPiece(new Queen(Alliance.WHITE));
-        tileMap[0][4].setPiece(new King(Alliance.BLACK));
-        tileMap[7][4].setPiece(new King(Alliance.WHITE));
+        tileMap[0][3].setPiece(Queen.BLACK);
+        tileMap[7][3].setPiece(Queen.WHITE);
+        tileMap[0][4].setPiece(King.BLACK);
+        tileMap[7][4].setPiece(King.WHITE);
+
+        //no piece has moved yet
+        for (Tile[] tiles : tileMap) {
+            for (Tile tile : tiles) {
+                tile.setMoved(false);
+                tile.setEnPassant(false);
+            }
+        }
+        enPassantTile = null;
 
         refreshBoard();  //displays the different pieces
     }
@@ -187,25 +219,69 @@ public class Board extends JPanel implements ActionListener {
      * Method responsible for showing all of the possible moves when a given piece is selected
      */
     public void moveOptions() {
-        for (Tile[] tiles : tileMap) {
-            for (int j = 0; j < tileMap.length; j++) {
-                if (startTile.getPiece() != null && startTile.getPiece().isValidMove(startTile, tiles[j])) {
-                    if (startTile.getPiece().isValidPath(startTile, tiles[j], tileMap)) {
-                        //changes to yellow colour for all squares where piece is allowed to move
-                        tiles[j].setBackground(new Color(255, 251, 133, 207));
-                    }
-                }
-            }
-        } //first for
+        if (startTile.getPiece() == null)
+            return;
+        //headless copy of the board, its generated moves follow the same piece rules as isValidMove and
+        //isValidPath, and static exchange evaluation judges the captures
+        setUpPosition(options, startTile.getPiece().getPieceAlliance());
+        int from = startTile.getRow() * 8 + startTile.getColumn();
+        int count = MoveGenerator.generate(options, optionMoves, 0);
+
+        for (int i = 0; i < count; i++) {
+            int move = optionMoves[i];
+            if (Move.from(move) != from)
+                continue;
+            //moves that leave the king in check are not shown, as isValidPath rejects them
+            if (!options.makeLegalMove(move))
+                continue;
+            options.undoMove();
+            //changes to yellow colour for all squares where piece is allowed to move, orange if a capture there
+            //loses material once the opponent recaptures
+            Tile tile = tileMap[Move.to(move) / 8][Move.to(move) % 8];
+            if (options.isCapture(move) && StaticExchange.evaluate(options, move) < 0)
+                tile.setBackground(LOSING_CAPTURE_COLOUR);
+            else
+                tile.setBackground(new Color(255, 251, 133, 207));
+        }
     } //end method
 
     /**
      * Method to move pieces around the board
      */
     public void move() {
-        tempPiece = endTile.getPiece();
-        setTilePiece(endTile, startTile.getPiece());
+        Piece moving = startTile.getPiece();
+        int rowChange = endTile.getRow() - startTile.getRow();
+        int colChange = endTile.getColumn() - startTile.getColumn();
+
+        //the pawn captured en passant is not on the end tile
+        passedPawnTile = getCaptureTile() != endTile ? getCaptureTile() : null;
+        tempPiece = passedPawnTile != null ? passedPawnTile.getPiece() : endTile.getPiece();
+        if (passedPawnTile != null)
+            setTilePiece(passedPawnTile, null);
+
+        startMoved = startTile.hasMoved();
+        endMoved = endTile.hasMoved();
+        setTilePiece(endTile, moving);
         setTilePiece(startTile, null);
+        startTile.setMoved(true);
+        endTile.setMoved(true);
+
+        //castling also moves the rook to the tile the king passed
+        rookStart = rookEnd = null;
+        if (moving.getPieceType() == PieceType.KING && Math.abs(colChange) == 2) {
+            rookStart = tileMap[startTile.getRow()][colChange > 0 ? 7 : 0];
+            rookEnd = tileMap[startTile.getRow()][startTile.getColumn() + colChange / 2];
+            rookEndMoved = rookEnd.hasMoved();
+            setTilePiece(rookEnd, rookStart.getPiece());
+            setTilePiece(rookStart, null);
+            rookStart.setMoved(true);
+            rookEnd.setMoved(true);
+        }
+
+        //a pawn moving two tiles can be captured en passant on the tile it skipped, for one move only
+        lastEnPassantTile = enPassantTile;
+        setEnPassantTile(moving.getPieceType() == PieceType.PAWN && Math.abs(rowChange) == 2 ?
+                tileMap[startTile.getRow() + rowChange / 2][startTile.getColumn()] : null);
         refreshBoard();
     }
 
@@ -214,10 +290,34 @@ public class Board extends JPanel implements ActionListener {
      */
     public void undoMove() {
         setTilePiece(startTile, endTile.getPiece());
-        setTilePiece(endTile, tempPiece);
+        if (passedPawnTile != null) {
+            setTilePiece(endTile, null);
+            setTilePiece(passedPawnTile, tempPiece);
+        }
+        else {
+            setTilePiece(endTile, tempPiece);
+        }
+        startTile.setMoved(startMoved);
+        endTile.setMoved(endMoved);
+        if (rookStart != null) {
+            setTilePiece(rookStart, rookEnd.getPiece());
+            setTilePiece(rookEnd, null);
+            rookStart.setMoved(false);
+            rookEnd.setMoved(rookEndMoved);
+        }
+        setEnPassantTile(lastEnPassantTile);
         refreshBoard();
     }
 
+    //moves the en passant flag to a new tile, null when no pawn can be captured en passant
+    private void setEnPassantTile(Tile tile) {
+        if (enPassantTile != null)
+            enPassantTile.setEnPassant(false);
+        enPassantTile = tile;
+        if (tile != null)
+            tile.setEnPassant(true);
+    }
+
     /**
      * Method to return a tile when given a row and colour
      * @param row location of tile
@@ -261,6 +361,18 @@ public class Board extends JPanel implements ActionListener {
         return endTile;
     }
 
+    /**
+     * Method to get the tile of the piece the selected move captures. This is the end tile, except for a pawn
+     * capturing en passant, where the captured pawn stands beside the start tile.
+     * @return tile of the captured piece (it may be empty if the move captures nothing)
+     */
+    public Tile getCaptureTile() {
+        if (startTile.isOccupied() && startTile.getPiece().getPieceType() == PieceType.PAWN && !endTile.isOccupied() &&
+                endTile.isEnPassant() && endTile.getColumn() != startTile.getColumn())
+            return tileMap[startTile.getRow()][endTile.getColumn()];
+        return endTile;
+    }
+
     /**
      * Method to return the entire tileMap (gives other classes an idea of what the board looks like)
      * @return two dimensional array for all the tiles on the board
@@ -269,6 +381,100 @@ public class Board extends JPanel implements ActionListener {
         return tileMap;
     }
 
+    /**
+     * Method to get the castling rights that are still available. A right is lost as soon as a piece moves from or
+     * onto the king's or the rook's starting tile.
+     * @return castling rights as Position.WHITE_KINGSIDE, Position.WHITE_QUEENSIDE etc. combined
+     */
+    public int getCastlingRights() {
+        int rights = 0;
+        if (!tileMap[7][4].hasMoved()) {   //white king
+            if (!tileMap[7][7].hasMoved())
+                rights |= Position.WHITE_KINGSIDE;
+            if (!tileMap[7][0].hasMoved())
+                rights |= Position.WHITE_QUEENSIDE;
+        }
+        if (!tileMap[0][4].hasMoved()) {   //black king
+            if (!tileMap[0][7].hasMoved())
+                rights |= Position.BLACK_KINGSIDE;
+            if (!tileMap[0][0].hasMoved())
+                rights |= Position.BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    /**
+     * Method to take an immutable snapshot of the board. The snapshot can be passed to other threads (for example
+     * for analysis) without touching the Swing tiles again.
+     * @param sideToMove alliance whose turn it is
+     * @return snapshot of the current board
+     */
+    public PositionSnapshot toSnapshot(Alliance sideToMove) {
+        Position position = new Position();
+        setUpPosition(position, sideToMove);
+        return PositionSnapshot.of(position);
+    }
+
+    //sets up a position with the pieces, castling rights and en passant tile of the board
+    private void setUpPosition(Position position, Alliance sideToMove) {
+        position.clear();
+        for (int i = 0; i < tileMap.length; i++) {
+            for (int j = 0; j < tileMap.length; j++) {
+                Piece piece = tileMap[i][j].getPiece();
+                if (piece != null) {
+                    position.putPiece(i * 8 + j, Position.pieceCode(Position.colourOf(piece.getPieceAlliance()),
+                            piece.getPieceType().ordinal() + 1));
+                }
+            }
+        }
+        position.setSideToMove(Position.colourOf(sideToMove));
+        position.setCastlingRights(getCastlingRights());
+        if (enPassantTile != null)
+            position.setEnPassantSquare(enPassantTile.getRow() * 8 + enPassantTile.getColumn());
+    }
+
+    /**
+     * Method to place the pieces of a snapshot onto the board. Castling rights that are missing from the snapshot
+     * are recorded by marking the rook's (or king's) starting tile as moved.
+     * @param snapshot position to show
+     */
+    public void loadSnapshot(PositionSnapshot snapshot) {
+        for (int i = 0; i < tileMap.length; i++) {
+            for (int j = 0; j < tileMap.length; j++) {
+                int code = snapshot.getPiece(i * 8 + j);
+                if (code == Position.EMPTY)
+                    tileMap[i][j].setPiece(null);
+                else
+                    tileMap[i][j].setPiece(Piece.of(PieceType.values()[Position.pieceType(code) - 1],
+                            Position.pieceColour(code) == Position.WHITE ? Alliance.WHITE : Alliance.BLACK));
+                tileMap[i][j].setMoved(false);
+                tileMap[i][j].setEnPassant(false);
+            }
+        }
+        int enPassant = snapshot.getEnPassantSquare();
+        enPassantTile = null;
+        if (enPassant != Position.NO_SQUARE)
+            setEnPassantTile(tileMap[enPassant / 8][enPassant % 8]);
+
+        int rights = snapshot.getCastlingRights();
+        tileMap[7][7].setMoved((rights & Position.WHITE_KINGSIDE) == 0);
+        tileMap[7][0].setMoved((rights & Position.WHITE_QUEENSIDE) == 0);
+        tileMap[0][7].setMoved((rights & Position.BLACK_KINGSIDE) == 0);
+        tileMap[0][0].setMoved((rights & Position.BLACK_QUEENSIDE) == 0);
+        clearSelection();
+        refreshBoard();
+    }
+
+    /**
+     * Method to paint the board, the first paint is the first frame of the startup timing
+     * @param g graphics to paint with
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Startup.firstFrame();
+    }
+
     /**
      * Self testing main method
      * @param args
@@ -1,38 +1,99 @@
 package gameComponents;
+import gameEngine.AnalysisService;
+import gameEngine.ChessClock;
+import gameEngine.ClockScheduler;
+import gameEngine.DrawReason;
+import gameEngine.GameListener;
+import gameEngine.GameResult;
+import gameEngine.GameSession;
+import gameEngine.MoveResult;
+import gameEngine.Position;
+import gameEngine.PositionSnapshot;
+import gameEngine.TimeControl;
 import gameEntities.*;
+import gameServer.GameServer;
+import gameServer.MoveBroadcaster;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * @author Shivam Sood
  * Date: 2020-04-03
  * Description: Chess game class controls turns and other interactions between the users, board, score panel, and
- * other entities.
+ * other entities. The rules are those of a headless GameSession: the selected tiles are submitted to it as a move,
+ * and the window is one of its listeners, showing captures, check, the clocks and the end of the game.
  *
  * Method List:
  * public Alliance testCheck() - Method to check if the king is under check
- * public void movePiece() - Method to move piece and handle changes to piece once moved
- * public void pawnPromotion(Board gb) - Method to prompt user for pawn promotion and change piece type
+ * public void movePiece() - Method to submit the selected move and show it on the board once it is accepted
+ * public int pawnPromotion() - Method to ask the user which piece a pawn becomes
+ * public void startAnalysis() - Method to restart the background analysis on the current position
+ * public void onMove(MoveResult result) - Method to pass the turn, press the clock and broadcast an accepted move
+ * public void onCapture(int square, int pieceCode) - Method to add a captured piece to the capturing player's score
+ * public void onCheck(int colour) - Method to mark the player in check
+ * public void onCheckmate(int winner) - Method to mark the checkmated player
+ * public void onGameOver(GameResult result, DrawReason reason) - Method to end the game loop
  * public static void main(String[] args) - Method to run game window
  */
 
-public class Game {
+public class Game implements GameListener {
     //Global Variables
     private final Board gb;
     private final ScorePanel playerOnePanel, playerTwoPanel;
     private final Player playerOne, playerTwo;
+    private final AnalysisPanel analysisPanel;      //null unless analysis mode is on
+    private final AnalysisService analysis;
+    private final MoveBroadcaster broadcaster;      //null unless the game is broadcast
+    private final GameSession session;              //rules of the game, the tiles show its position
+    private final ChessClock clock;                 //null unless the game has a time control
     boolean gameOver;
 
+    //pause between two passes of the game loop, about 60 updates a second
+    private static final long FRAME_MILLIS = 16;
+
     /**
      * Default Game constructor to handle running the chess game
      */
     public Game () {
+        this(false, null, null);
+    }
+
+    /**
+     * Game constructor with optional background analysis
+     * @param analysisMode true to search the current position on background threads and show the evaluation
+     */
+    public Game (boolean analysisMode) {
+        this(analysisMode, null, null);
+    }
+
+    /**
+     * Game constructor with optional background analysis, spectator broadcast and chess clock
+     * @param analysisMode true to search the current position on background threads and show the evaluation
+     * @param broadcaster receives every accepted move for the spectators, null to play without a broadcast
+     * @param timeControl time control for the chess clock, null to play without a clock
+     */
+    public Game (boolean analysisMode, MoveBroadcaster broadcaster, TimeControl timeControl) {
+        this(analysisMode ? 1 : 0, broadcaster, timeControl);
+    }
+
+    /**
+     * Game constructor showing several of the best lines of the background analysis
+     * @param analysisLines number of best moves analysed and shown, 0 to play without analysis
+     * @param broadcaster receives every accepted move for the spectators, null to play without a broadcast
+     * @param timeControl time control for the chess clock, null to play without a clock
+     */
+    public Game (int analysisLines, MoveBroadcaster broadcaster, TimeControl timeControl) {
+        boolean analysisMode = analysisLines > 0;
+
         //creates new frame and sets box layout along the y-axis
         JFrame gameFrame = new JFrame("Chess Game");
         gameFrame.setLayout(new BoxLayout(gameFrame.getContentPane(), BoxLayout.Y_AXIS));
 
         //initializes data and sets defaults
         gameOver = false;
+        this.broadcaster = broadcaster;
         gb = new Board();
         playerOne = new Player(Alliance.BLACK, false);
         playerTwo = new Player (Alliance.WHITE, true);
@@ -42,14 +103,55 @@ public class Game {
         gameFrame.add(gb);
         gameFrame.add(playerTwoPanel);
 
+        //the flag fall is noticed by the shared clock scheduler, the game loop ends the game on its next pass
+        if (timeControl != null) {
+            clock = new ChessClock(timeControl, ClockScheduler.shared(), null);
+            playerOnePanel.setClock(clock);
+            playerTwoPanel.setClock(clock);
+        }
+        else {
+            clock = null;
+        }
+        session = new GameSession(PositionSnapshot.START, clock);
+        session.addListener(this);
+
+        //adds the evaluation bar below the board, the search threads leave one core for the user interface
+        if (analysisMode) {
+            analysisPanel = new AnalysisPanel(analysisLines);
+            analysis = new AnalysisService(AnalysisService.defaultThreads(), 64, analysisPanel);
+            analysis.setLines(analysisLines);
+            gameFrame.add(analysisPanel);
+        }
+        else {
+            analysisPanel = null;
+            analysis = null;
+        }
+
         //Edits window preferences
-        gameFrame.setSize(600,800);
+        gameFrame.setSize(600, analysisMode ? 880 + 25 * (analysisLines - 1) : 800);
         gameFrame.setLocation(400, 10);
         gameFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         gameFrame.setVisible(true);
+        startAnalysis();
+        if (clock != null) {
+            clock.start(Position.WHITE);
+            playerTwoPanel.refreshClock();
+        }
 
         while(!gameOver) { //runs until the game is over
             gb.repaint(); //refreshes the board
+            if (clock != null && clock.getFlagged() >= 0) {
+                session.flag(clock.getFlagged());      //a player ran out of time
+                break;
+            }
+
+            //waits for the next frame instead of spinning so the analysis threads get the remaining cores
+            try {
+                Thread.sleep(FRAME_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
 
             //sets turn colours in score panel to show whose turn it is
             if (testCheck() == null) {
@@ -67,19 +169,9 @@ public class Game {
                 if(playerTwo.isTurn() && gb.getStartTile().getPiece().getPieceAlliance() == Alliance.WHITE ||
                     playerOne.isTurn() && gb.getStartTile().getPiece().getPieceAlliance() == Alliance.BLACK) {
                     if (gb.getFirstClick()) {
-                        movePiece();   //calls method to move pieces
+                        movePiece();   //calls method to move pieces, the listener methods show check or mate
 
                         gb.clearSelection();   //clears selection for next itteration of the loop
-
-                        //Tests to see if any of the player are in check or checkmate
-                        if (testCheck() == Alliance.WHITE) {
-                            playerTwoPanel.setCheck();
-                        } else if (testCheck() == Alliance.BLACK) {
-                            playerOnePanel.setCheck();
-                        } else {
-                            playerOnePanel.clearText();
-                            playerTwoPanel.clearText();
-                        }
                     }
                 } //end of player turn check statement
                 else {
@@ -88,7 +180,20 @@ public class Game {
                 }
             }
         } //end of while loop
-        if (testCheck() == Alliance.WHITE) //displays winning message depending on the king in check
+        if (analysis != null)
+            analysis.shutdown();
+        if (session.getFlagged() >= 0) { //displays winning message for the side with time left
+            playerOnePanel.refreshClock();
+            playerTwoPanel.refreshClock();
+            if (session.getResult() == GameResult.DRAW)
+                JOptionPane.showMessageDialog(null, "Game Over, Draw, the flag fell but a lone king cannot win!");
+            else
+                JOptionPane.showMessageDialog(null, session.getFlagged() == Position.WHITE ?
+                        "Game Over, Black Wins on time!" : "Game Over, White Wins on time!");
+        }
+        else if (session.getDrawReason() != null)
+            JOptionPane.showMessageDialog(null, "Game Over, " + drawMessage(session.getDrawReason()));
+        else if (session.getResult() == GameResult.BLACK_WINS) //displays winning message for the side that mated
             JOptionPane.showMessageDialog(null, "Game Over, Black Wins!");
         else
             JOptionPane.showMessageDialog(null, "Game Over, White Wins!");
@@ -100,127 +205,183 @@ public class Game {
      * @return Alliance value for the king who is in check or null if neither king is in check
      */
     public Alliance testCheck() {
-        King whiteKing = null, blackKing = null; //variables to hold white and black kings
-
-        //finds the locations of the two kings
-        for (int i = 0; i < gb.getTileMap().length; i++) {
-            for (int j = 0; j < gb.getTileMap().length; j++) {
-                if(gb.getTile(i, j).isOccupied() && gb.getTile(i, j).getPiece().getPieceType() == PieceType.KING) {
-                    if (gb.getTile(i, j).getPiece().getPieceAlliance() == Alliance.WHITE)
-                        whiteKing = (King) gb.getTile(i, j).getPiece();
-                    else
-                        blackKing = (King) gb.getTile(i, j).getPiece();
-                }
-            }
-        }
-
-        assert whiteKing != null; //makes sure both the white and black kings are present on the board
-        assert blackKing != null;
-
-        //returns the appropriate value depending on if and which kings are under check
-        if (whiteKing.inCheck(gb.getTileMap(), whiteKing.findKing(gb.getTileMap()))) {
-            if(whiteKing.checkMate(gb.getTileMap())) {    //tests for white checkmate
-                gameOver = true;
-            }
-            return Alliance.WHITE;
-        }
-        else if (blackKing.inCheck(gb.getTileMap(), blackKing.findKing(gb.getTileMap()))) {
-            if(blackKing.checkMate(gb.getTileMap())) {      //tests for black checkmate
-                gameOver = true;
-            }
-            return Alliance.BLACK;
-        }
-        else {
+        //only the side to move can be in check, a move that leaves the own king in check is refused
+        if (!session.inCheck())
             return null;
-        }
+        return session.getSideToMove() == Position.WHITE ? Alliance.WHITE : Alliance.BLACK;
     }
 
     /**
-     * Method to move piece and handle changes to the piece once moved
+     * Method to submit the selected move to the game session and show it on the board once it is accepted
      */
     public void movePiece() {
-        //checks if the move is valid
-        if (gb.getStartTile().isOccupied() && gb.getStartTile().getPiece().isValidMove(gb.getStartTile(), gb.getEndTile())) {
-            if (gb.getStartTile().getPiece().isValidPath(gb.getStartTile(), gb.getEndTile(), gb.getTileMap())) {
-                if(gb.getEndTile().isOccupied()) {
-                    //updates score for black player if white piece is captured
-                    if(gb.getEndTile().getPiece().getPieceAlliance() == Alliance.WHITE) {
-                        playerOne.updateScore(gb.getEndTile().getPiece());
-                        playerOnePanel.setScore();
-                    }
-                    //updates score for white player if black piece is captured
-                    else {
-                        playerTwo.updateScore((gb.getEndTile().getPiece()));
-                        playerTwoPanel.setScore();
-                    }
-                }
-                gb.move();      //moves piece
-
-                //checks if moved piece is pawn
-                if (gb.getEndTile().getPiece().getPieceType() == PieceType.PAWN) {
-                    gb.getEndTile().getPawn().setFirstMove(false); //stops pawn from moving 2 spaces after initial move
-                    //handles pawn promotion if pawn has made it to the appropriate square
-                    if ((gb.getEndTile().getPawn().getPieceAlliance() == Alliance.WHITE && gb.getEndTile().getRow() == 0) ||
-                            (gb.getEndTile().getPawn().getPieceAlliance() == Alliance.BLACK && gb.getEndTile().getRow() == 7)) {
-                        pawnPromotion(gb);
-                    }
-                }
-                //if moving a piece results in check than undoes move
-                if (testCheck() != null && gb.getEndTile().getPiece().getPieceAlliance() == testCheck()) {
-                    if (gb.getEndTile().getPiece().getPieceType() == PieceType.PAWN) {
-                        gb.getEndTile().getPawn().setFirstMove(true);
-                    }
-                    gb.undoMove();
-                    if (gb.getStartTile().getPiece().getPieceAlliance() == Alliance.WHITE) {
-                        playerTwo.fixScore(gb.getEndTile().getPiece());
-                    }
-                    else {
-                        playerOne.fixScore(gb.getEndTile().getPiece());
-                    }
-                    playerOnePanel.setScore();
-                    playerTwoPanel.setScore();
-                    gb.clearSelection();
-                }
-                else { //if move is successful moves onto next turn
-                    playerOne.setTurn(!playerOne.isTurn());
-                    playerTwo.setTurn(!playerTwo.isTurn());
-                }
-            }
+        int from = gb.getStartTile().getRow() * 8 + gb.getStartTile().getColumn();
+        int to = gb.getEndTile().getRow() * 8 + gb.getEndTile().getColumn();
+
+        //the player picks the new piece only for a move that can be played, a pawn move to the last row without
+        //a piece is never played but answered with PROMOTION_NEEDED or ILLEGAL
+        int promotion = 0;
+        if (session.needsPromotion(from, to) &&
+                session.submitMove(from, to, 0).getStatus() == MoveResult.Status.PROMOTION_NEEDED)
+            promotion = pawnPromotion();
+
+        //the listener methods update the scores, turns and clocks before the tiles change
+        MoveResult result = session.submitMove(from, to, promotion);
+        if (!result.isAccepted())
+            return;
+        gb.move();      //moves piece, and the rook when castling or the pawn captured en passant
+        if (result.getPromotion() != 0) {
+            Alliance alliance = gb.getEndTile().getPiece().getPieceAlliance();
+            gb.getEndTile().setPiece(Piece.of(PieceType.values()[result.getPromotion() - 1], alliance));
+            gb.refreshBoard();
         }
+        startAnalysis();
     } //end of method
 
     /**
-     * Method to prompt user for pawn promotion and change piece type
-     * @param gb is the game board
+     * Method to ask the user which piece a pawn on the last row becomes
+     * @return Position.QUEEN, ROOK, KNIGHT or BISHOP, a queen if the dialog is closed
      */
-    public void pawnPromotion(Board gb) {
+    public int pawnPromotion() {
         //gets letter from user
-        char letter = JOptionPane.showInputDialog(null, "Pawn promotion: enter the corresponding character: \n" +
-                "q - Queen \n r - Rook \n k - Knight \n b - Bishop").charAt(0);
+        String answer = JOptionPane.showInputDialog(null, "Pawn promotion: enter the corresponding character: \n" +
+                "q - Queen \n r - Rook \n k - Knight \n b - Bishop");
+        char letter = answer != null && !answer.isEmpty() ? answer.charAt(0) : 'q';
 
-        //depending on the letter entered promotes pawn
+        //depending on the letter entered chooses the piece
         switch (letter) {
             case 'r':
-                gb.getEndTile().setPiece(new Rook(gb.getEndTile().getPiece().getPieceAlliance()));
-                break;
+                return Position.ROOK;
             case 'k':
-                gb.getEndTile().setPiece(new Knight(gb.getEndTile().getPiece().getPieceAlliance()));
-                break;
+                return Position.KNIGHT;
             case 'b':
-                gb.getEndTile().setPiece(new Bishop(gb.getEndTile().getPiece().getPieceAlliance()));
-                break;
+                return Position.BISHOP;
             default:
-                gb.getEndTile().setPiece(new Queen(gb.getEndTile().getPiece().getPieceAlliance()));
-                break;
+                return Position.QUEEN;
+        }
+    }
+
+    /**
+     * Method to restart the background analysis on the current position, does nothing if analysis mode is off
+     */
+    public void startAnalysis() {
+        if (analysis == null)
+            return;
+        analysis.stop();        //the old search cannot report any more once stopped
+        analysisPanel.clearInfo();
+        analysis.analyse(session.getSnapshot());
+    }
+
+    /**
+     * Method to pass the turn, update the clocks and send an accepted move to the spectators if the game is broadcast
+     * @param result the accepted move
+     */
+    @Override
+    public void onMove(MoveResult result) {
+        playerOne.setTurn(!playerOne.isTurn());
+        playerTwo.setTurn(!playerTwo.isTurn());
+        playerOnePanel.clearText();
+        playerTwoPanel.clearText();
+        if (clock != null) {
+            playerOnePanel.refreshClock();
+            playerTwoPanel.refreshClock();
+        }
+        if (broadcaster != null)
+            broadcaster.publish(result.getMove(), result.getCaptured(), result.getHash(), result.getResult());
+        Startup.firstMove();
+    }
+
+    /**
+     * Method to add a captured piece to the score of the player who took it
+     * @param square square the piece stood on
+     * @param pieceCode piece code of the captured piece
+     */
+    @Override
+    public void onCapture(int square, int pieceCode) {
+        Piece captured = Piece.of(PieceType.values()[Position.pieceType(pieceCode) - 1],
+                Position.pieceColour(pieceCode) == Position.WHITE ? Alliance.WHITE : Alliance.BLACK);
+        //a white piece counts for black (player one), a black piece for white (player two)
+        if (captured.getPieceAlliance() == Alliance.WHITE) {
+            playerOne.updateScore(captured);
+            playerOnePanel.setScore();
+        }
+        else {
+            playerTwo.updateScore(captured);
+            playerTwoPanel.setScore();
+        }
+    }
+
+    /**
+     * Method to mark the player whose king is in check
+     * @param colour colour of the king in check
+     */
+    @Override
+    public void onCheck(int colour) {
+        if (colour == Position.WHITE)
+            playerTwoPanel.setCheck();
+        else
+            playerOnePanel.setCheck();
+    }
+
+    /**
+     * Method to mark the player who was checkmated
+     * @param winner colour that gave mate
+     */
+    @Override
+    public void onCheckmate(int winner) {
+        onCheck(winner ^ 1);
+    }
+
+    /**
+     * Method to end the game loop once the session reports the end of the game
+     * @param result final result
+     * @param reason why the game is drawn, null if it is won
+     */
+    @Override
+    public void onGameOver(GameResult result, DrawReason reason) {
+        gameOver = true;
+    }
+
+    //text shown when the game ends in a draw
+    private static String drawMessage(DrawReason reason) {
+        switch (reason) {
+            case STALEMATE:
+                return "Draw by stalemate!";
+            case REPETITION:
+                return "Draw by threefold repetition!";
+            case FIFTY_MOVES:
+                return "Draw by the 50-move rule!";
+            default:
+                return "Draw, neither side can checkmate!";
         }
-        gb.refreshBoard();
     }
 
     /**
      * Main method to run game window
-     * @param args
+     * @param args "--analysis" turns on the background analysis, "--broadcast" streams the moves to spectators that
+     *             connect to localhost:5050 and send "SUBSCRIBE 1", "--clock 300+2" plays with a chess clock,
+     *             "--multipv 3" analyses and shows the three best moves, -Dchess.startupTiming=true prints the
+     *             time to the first frame and the first move
+     * @throws IOException if the broadcast port cannot be opened
      */
-    public static void main(String[] args) {
-        new Game();
+    public static void main(String[] args) throws IOException {
+        Startup.begin();        //pictures and engine tables load while Swing starts
+        int analysisLines = Arrays.asList(args).contains("--analysis") ? 1 : 0;
+        int linesArgument = Arrays.asList(args).indexOf("--multipv");
+        if (linesArgument >= 0 && linesArgument + 1 < args.length)
+            analysisLines = Math.max(1, Integer.parseInt(args[linesArgument + 1]));
+        int clockArgument = Arrays.asList(args).indexOf("--clock");
+        TimeControl timeControl = clockArgument >= 0 && clockArgument + 1 < args.length ?
+                TimeControl.parse(args[clockArgument + 1]) : null;
+        MoveBroadcaster broadcaster = null;
+        if (Arrays.asList(args).contains("--broadcast")) {
+            GameServer server = new GameServer();
+            server.bind(GameServer.DEFAULT_PORT);
+            server.start();
+            broadcaster = server.createBroadcast(PositionSnapshot.START);
+            System.out.println("Broadcasting on localhost:" + server.getPort() + ", subscribe to game " +
+                    broadcaster.getId());
+        }
+        new Game(analysisLines, broadcaster, timeControl);
     }
 }
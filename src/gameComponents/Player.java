@@ -1,5 +1,6 @@
 package gameComponents;
 
+import gameEngine.PieceValues;
 import gameEntities.Piece;
 
 /**
@@ -39,24 +40,8 @@ public class Player {
      * @param killedPiece takes in type of piece captured
      */
     public void updateScore(Piece killedPiece) {
-        //assigns a score from 1,3,5,and 8 depending on the piece captured
-        switch (killedPiece.getPieceType()) {
-            case PAWN :
-                this.score += 1;
-                break;
-            case ROOK:
-                this.score += 5;
-                break;
-            case KNIGHT:
-            case BISHOP:
-                this.score += 3;
-                break;
-            case QUEEN:
-                this.score += 8;
-                break;
-            default:
-                break;
-        }
+        //adds the value from the shared table (1, 3, 5 and 8 unless configured otherwise)
+        this.score += PieceValues.get(killedPiece.getPieceType());
     }
 
     /**
@@ -65,25 +50,8 @@ public class Player {
      */
     public void fixScore(Piece revivedPiece) {
         //subtracts the corresponding value (added previously) for the piece that is revived
-        if (revivedPiece != null) {
-            switch (revivedPiece.getPieceType()) {
-                case PAWN:
-                    this.score -= 1;
-                    break;
-                case ROOK:
-                    this.score -= 5;
-                    break;
-                case KNIGHT:
-                case BISHOP:
-                    this.score -= 3;
-                    break;
-                case QUEEN:
-                    this.score -= 8;
-                    break;
-                default:
-                    break;
-            }
-        }
+        if (revivedPiece != null)
+            this.score -= PieceValues.get(revivedPiece.getPieceType());
     }
 
     /**
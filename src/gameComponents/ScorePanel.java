@@ -1,7 +1,13 @@
 package gameComponents;
 
+import gameEngine.ChessClock;
+import gameEngine.ClockScheduler;
+import gameEngine.Position;
+import gameEngine.TimeControl;
+
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Shivam Sood
@@ -13,6 +19,8 @@ import java.awt.*;
  * public void setTurn() - Method to set text colout to green if its the current players turn
  * public void clearText() - Method to restore text colour to default (Black)
  * public void setScore () - Method to update score on panel
+ * public void setClock(ChessClock clock) - Method to show the player's time on the panel
+ * public void refreshClock() - Method to update the clock display after the clock was pressed, started or stopped
  * public static void main(String[] args) - Self-testing main method
  */
 
@@ -21,6 +29,9 @@ public class ScorePanel extends JPanel {
     private Player gamePlayer;
     private JLabel name;
     private JLabel score;
+    private JLabel time;
+    private ChessClock clock;
+    private final AtomicLong clockVersion = new AtomicLong();   //makes display updates of earlier turns do nothing
 
     /**
      * Default score panel constructor to create panel with relevant information
@@ -83,6 +94,49 @@ public class ScorePanel extends JPanel {
         this.score.setText(Integer.toString(gamePlayer.getScore()));
     }
 
+    /**
+     * Method to show the player's time on the panel
+     * @param clock clock of the game
+     */
+    public void setClock(ChessClock clock) {
+        this.clock = clock;
+        if (time == null) {
+            time = new JLabel();                                                 //Displays remaining time
+            time.setFont(new Font ("TimesRoman", Font.BOLD, 40));
+            time.setBounds(240,20,150,70);
+            this.add(time);
+        }
+        refreshClock();
+    }
+
+    /**
+     * Method to update the clock display after the clock was pressed, started or stopped. While this player's clock
+     * runs, the label is only updated when the shown time changes (once a second, or ten times a second in the last
+     * ten seconds), using the shared clock scheduler instead of a timer per panel.
+     */
+    public void refreshClock() {
+        if (clock == null)
+            return;
+        long version = clockVersion.incrementAndGet();
+        SwingUtilities.invokeLater(() -> showClock(version));
+    }
+
+    //runs on the event thread, shows the time and plans the next update
+    private void showClock(long version) {
+        if (version != clockVersion.get())
+            return;     //a newer refresh has taken over
+        int colour = Position.colourOf(gamePlayer.getPlayerAlliance());
+        long remaining = clock.getRemainingNanos(colour);
+        String text = ChessClock.format(remaining);
+        if (!text.equals(time.getText()))
+            time.setText(text);     //repaints only the label, and only when the text changes
+
+        if (clock.getRunning() == colour && remaining > 0) {
+            ClockScheduler.shared().schedule(System.nanoTime() + ChessClock.untilDisplayChange(remaining),
+                    () -> SwingUtilities.invokeLater(() -> showClock(version)));
+        }
+    }
+
     /**
      * Self-testing main method
      * @param args
@@ -92,6 +146,10 @@ public class ScorePanel extends JPanel {
 
         ScorePanel sp = new ScorePanel(new Player(Alliance.WHITE, true));
         testFrame.add(sp);
+        ChessClock clock = new ChessClock(TimeControl.of(12, 0), ClockScheduler.shared(), null);
+        sp.setClock(clock);
+        clock.start(Position.WHITE);
+        sp.refreshClock();
 
         testFrame.setSize(600, 100);
         testFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
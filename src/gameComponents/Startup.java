@@ -0,0 +1,142 @@
+package gameComponents;
+
+import gameEngine.GameSession;
+import gameEngine.MoveResult;
+import gameEngine.SearchLimits;
+import gameEngine.Search;
+import gameEngine.TranspositionTable;
+import gameEntities.Piece;
+
+import javax.swing.BoxLayout;
+import javax.swing.JPanel;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Startup of the Swing game. Game.main calls begin() before it touches Swing: the 12 piece pictures and
+ * the engine's precomputed tables (attack tables, hash keys, square bonuses, exchange order and search reductions)
+ * are built on the common pool while the main thread loads the Swing classes and builds the window. None of those
+ * tables depend on each other while they are built, so they are made in parallel.
+ *
+ * With -Dchess.startupTiming=true the game prints the time from the start of the JVM to the first painted board and
+ * to the first accepted move. main() measures the same two points without a display, with the window's components
+ * painted into an image, and with "--train" it is the training run the build uses to record the class-data sharing
+ * archive (see build.sh).
+ *
+ * Method List:
+ * public static void begin() - Method to start loading the pictures and building the engine tables in the background
+ * public static void firstFrame() - Method to note that the board was painted for the first time
+ * public static void firstMove() - Method to note that the first move was accepted
+ * public static void main(String[] args) - Method to measure the startup without a display, or to train the archive
+ */
+
+public final class Startup {
+    //engine classes whose static initialisers build tables, independent of each other
+    private static final String[] TABLE_CLASSES = {"gameEngine.Bitboards", "gameEngine.Zobrist",
+            "gameEngine.Evaluator", "gameEngine.StaticExchange", "gameEngine.Search"};
+
+    //Global variables
+    private static volatile boolean timing = Boolean.getBoolean("chess.startupTiming");
+    private static final AtomicBoolean frameSeen = new AtomicBoolean();
+    private static final AtomicBoolean moveSeen = new AtomicBoolean();
+    private static volatile CompletableFuture<Void> background;
+
+    private Startup() {
+    }
+
+    /**
+     * Method to start loading the pictures and building the engine tables in the background, only the first call
+     * does anything
+     */
+    public static synchronized void begin() {
+        if (background != null)
+            return;
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[TABLE_CLASSES.length + 1];
+        tasks[0] = Piece.preloadImages();
+        for (int i = 0; i < TABLE_CLASSES.length; i++) {
+            String name = TABLE_CLASSES[i];
+            tasks[i + 1] = CompletableFuture.runAsync(() -> {
+                try {
+                    Class.forName(name);
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        background = CompletableFuture.allOf(tasks);
+    }
+
+    /**
+     * Method to note that the board was painted, the first call prints the time since the JVM started if startup
+     * timing is on
+     */
+    public static void firstFrame() {
+        if (timing && frameSeen.compareAndSet(false, true))
+            report("first frame", System.currentTimeMillis());
+    }
+
+    /**
+     * Method to note that a move was accepted, the first call prints the time since the JVM started if startup
+     * timing is on
+     */
+    public static void firstMove() {
+        if (timing && moveSeen.compareAndSet(false, true))
+            report("first move", System.currentTimeMillis());
+    }
+
+    //the management classes are only loaded once the moment is taken, so they do not count in it
+    private static void report(String what, long millis) {
+        long start = ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("startup: " + what + " after " + (millis - start) + " ms");
+    }
+
+    /**
+     * Method to measure the startup without a display: the components of the game window are built and painted into
+     * an image (first frame), then e2e4 is clicked on the board, submitted to a game session and painted (first
+     * move). With "--train" a short search follows, so the archive recorded from this run also holds the engine.
+     * @param args "--train" for the archive training run, or nothing
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        timing = true;
+        begin();
+
+        //the same components Game puts into its frame
+        JPanel window = new JPanel();
+        window.setLayout(new BoxLayout(window, BoxLayout.Y_AXIS));
+        Board gb = new Board();
+        Player playerOne = new Player(Alliance.BLACK, false);
+        Player playerTwo = new Player(Alliance.WHITE, true);
+        window.add(new ScorePanel(playerOne));
+        window.add(gb);
+        window.add(new ScorePanel(playerTwo));
+        window.setSize(600, 800);
+        window.doLayout();
+        BufferedImage frame = new BufferedImage(600, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = frame.createGraphics();
+        window.printAll(graphics);      //paints the board, which reports the first frame
+
+        //the first move, clicked on the tiles as a player would and checked by the session
+        GameSession session = new GameSession();
+        gb.getTile(6, 4).doClick(0);
+        gb.getTile(4, 4).doClick(0);
+        MoveResult result = session.submitMove(52, 36, 0);
+        if (result.isAccepted()) {
+            gb.move();
+            window.printAll(graphics);
+            firstMove();
+        }
+        graphics.dispose();
+
+        if (args.length > 0 && args[0].equals("--train")) {
+            background.join();
+            Search search = new Search(new TranspositionTable(1));
+            search.search(session.getSnapshot(), SearchLimits.depth(6), new AtomicBoolean(), null);
+        }
+    }
+}
@@ -18,6 +18,10 @@ import javax.swing.*;
  * public Piece getPiece() - Method to get piece associated with tile
  * public Pawn getPawn() - Method to get pawn on tile
  * public void setPiece(Piece newPiece) - Method to set new piece on tile
+ * public boolean hasMoved() - Method to check if a piece has moved from or onto this tile during the game
+ * public void setMoved(boolean moved) - Method to set the moved flag for this tile
+ * public boolean isEnPassant() - Method to check if a pawn can capture en passant on this tile
+ * public void setEnPassant(boolean enPassant) - Method to set the en passant flag for this tile
  */
 
 public class Tile extends JButton {
@@ -25,6 +29,8 @@ public class Tile extends JButton {
     private Piece piece;
     private int row;
     private int column;
+    private boolean moved;      //true once a piece has moved from or onto this tile (used for castling rights)
+    private boolean enPassant;  //true if the last move was a pawn skipping this tile
 
     /**
      * Default Tile constructor. When the object is created holds values for object location
@@ -38,6 +44,7 @@ public class Tile extends JButton {
         this.row = row;
         this.column = column;
         this.piece = piece;
+        this.moved = false;
         this.setBorder(javax.swing.BorderFactory.createEmptyBorder());
     }
 
@@ -99,4 +106,37 @@ public class Tile extends JButton {
         this.piece = newPiece;
     }
 
+    /**
+     * Method to check if a piece has moved from or onto this tile during the game
+     * @return true if the tile has been part of a move
+     */
+    public boolean hasMoved() {
+        return this.moved;
+    }
+
+    /**
+     * Method to set the moved flag for this tile
+     * @param moved new value for the flag
+     */
+    public void setMoved(boolean moved) {
+        this.moved = moved;
+    }
+
+    /**
+     * Method to check if a pawn can capture en passant on this tile, that is the last move was a pawn moving two
+     * tiles and skipping this one
+     * @return true if the tile was skipped by the last move
+     */
+    public boolean isEnPassant() {
+        return this.enPassant;
+    }
+
+    /**
+     * Method to set the en passant flag for this tile
+     * @param enPassant new value for the flag
+     */
+    public void setEnPassant(boolean enPassant) {
+        this.enPassant = enPassant;
+    }
+
 }
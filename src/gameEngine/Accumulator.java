@@ -0,0 +1,136 @@
+package gameEngine;
+
+import java.util.Arrays;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: The two int16 accumulators of a Network for one position, kept up to date move by move. The position
+ * reports every piece it puts down or lifts (Position.setAccumulator) and each report adds or subtracts the weights
+ * of one feature, a few hundred additions instead of summing every piece again. Every move starts a new level that
+ * begins as a copy of the one before, so taking a move back only drops a level. When a king moves, every feature of
+ * its own side changes, so that side is marked and summed again from the board the next time the position is
+ * evaluated.
+ *
+ * Method List:
+ * public int evaluate() - Method to score the position for the side to move
+ */
+
+public final class Accumulator {
+    private static final int INITIAL_LEVELS = 128;
+
+    //Global variables
+    private final Network network;
+    private final Position position;
+    private final int hidden;
+    private short[] values;         //[(level * 2 + side) * hidden + i]
+    private boolean[] stale;        //[level * 2 + side], true if that side must be summed again
+    private int level;
+
+    /**
+     * Constructor for the accumulators of a position, the position has to be given it with setAccumulator()
+     * @param network weights
+     * @param position position that reports its changes
+     */
+    public Accumulator(Network network, Position position) {
+        this.network = network;
+        this.position = position;
+        this.hidden = network.hidden;
+        this.values = new short[INITIAL_LEVELS * 2 * hidden];
+        this.stale = new boolean[INITIAL_LEVELS * 2];
+        reset();
+    }
+
+    /**
+     * Method to score the position for the side to move
+     * @return score in hundredths of a pawn, positive if the side to move is better
+     */
+    public int evaluate() {
+        int base = level * 2;
+        for (int side = Position.WHITE; side <= Position.BLACK; side++) {
+            if (stale[base + side])
+                refresh(side);
+        }
+        int us = position.getSideToMove();
+        return network.output(values, (base + us) * hidden, (base + (us ^ 1)) * hidden);
+    }
+
+    //the board was set up again, both sides are summed from scratch
+    void reset() {
+        level = 0;
+        stale[0] = stale[1] = true;
+    }
+
+    //a move starts, the new level starts from the current one, which is summed first if needed so the sum is
+    //not repeated for every move made from here
+    void push() {
+        if ((level + 2) * 2 > stale.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+            stale = Arrays.copyOf(stale, stale.length * 2);
+        }
+        for (int side = Position.WHITE; side <= Position.BLACK; side++) {
+            if (stale[level * 2 + side])
+                refresh(side);
+        }
+        System.arraycopy(values, level * 2 * hidden, values, (level + 1) * 2 * hidden, 2 * hidden);
+        level++;
+        stale[level * 2] = stale[level * 2 + 1] = false;
+    }
+
+    //a move was taken back, the level before it is still correct
+    void pop() {
+        level--;
+    }
+
+    void add(int square, int pieceCode) {
+        update(square, pieceCode, 1);
+    }
+
+    void remove(int square, int pieceCode) {
+        update(square, pieceCode, -1);
+    }
+
+    private void update(int square, int pieceCode, int sign) {
+        for (int side = Position.WHITE; side <= Position.BLACK; side++) {
+            int index = level * 2 + side;
+            if (stale[index])
+                continue;
+            if (Position.pieceType(pieceCode) == Position.KING && Position.pieceColour(pieceCode) == side) {
+                stale[index] = true;      //every feature of this side depends on where its king stands
+                continue;
+            }
+            int feature = Network.feature(side, position.getKingSquare(side), pieceCode, square);
+            short[] weights = network.featureWeights;
+            short[] sums = values;
+            int from = feature * hidden;
+            int to = index * hidden;
+            if (sign > 0) {
+                for (int i = 0; i < hidden; i++)
+                    sums[to + i] += weights[from + i];
+            }
+            else {
+                for (int i = 0; i < hidden; i++)
+                    sums[to + i] -= weights[from + i];
+            }
+        }
+    }
+
+    //sums one side's accumulator from the biases and every piece on the board
+    private void refresh(int side) {
+        int to = (level * 2 + side) * hidden;
+        System.arraycopy(network.featureBias, 0, values, to, hidden);
+        int king = position.getKingSquare(side) & 63;     //a position without this king still gets a score
+        short[] weights = network.featureWeights;
+        for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+            for (int type = Position.PAWN; type <= Position.KING; type++) {
+                int pieceCode = Position.pieceCode(colour, type);
+                for (long b = position.getPieces(pieceCode); b != 0; b &= b - 1) {
+                    int from = Network.feature(side, king, pieceCode, Long.numberOfTrailingZeros(b)) * hidden;
+                    for (int i = 0; i < hidden; i++)
+                        values[to + i] += weights[from + i];
+                }
+            }
+        }
+        stale[level * 2 + side] = false;
+    }
+}
@@ -0,0 +1,137 @@
+package gameEngine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Runs an endless search of a position on a pool of background threads. Starting a new analysis stops
+ * the previous one, so the board can call analyse() after every move. Worker threads are daemon threads with the
+ * lowest priority and by default one core is left free for the user interface. With more than one line set, the
+ * listener gets a report for each of the best moves at every depth (SearchInfo.getMultiPv()). Once stop() or
+ * analyse() has returned the listener hears nothing more from the analysis before it, even though its threads may
+ * still be finishing a depth.
+ *
+ * Method List:
+ * public void analyse(PositionSnapshot snapshot) - Method to stop the current analysis and start on a new position
+ * public void stop() - Method to stop the current analysis
+ * public void setLines(int lines) - Method to set how many best moves are analysed, from the next analysis on
+ * public int getLines() - Method to get how many best moves are analysed
+ * public void shutdown() - Method to stop the analysis and release the worker threads
+ * public int getThreads() - Method to get the number of search threads
+ * public static int defaultThreads() - Method to get the default number of search threads (all cores but one)
+ */
+
+public class AnalysisService {
+    //Global variables
+    private final int threads;
+    private final TranspositionTable table;
+    private final SearchListener listener;
+    private final ExecutorService pool;
+    private final ThreadLocal<Search> searches;
+    private AtomicBoolean stopFlag;
+    private volatile int lines;
+
+    /**
+     * Constructor to create the worker pool
+     * @param threads number of search threads
+     * @param hashMegabytes size of the shared transposition table
+     * @param listener receives the reports of the main search thread
+     */
+    public AnalysisService(int threads, int hashMegabytes, SearchListener listener) {
+        this.threads = Math.max(1, threads);
+        this.table = new TranspositionTable(hashMegabytes);
+        this.listener = listener;
+        this.searches = ThreadLocal.withInitial(() -> new Search(table));
+        this.stopFlag = new AtomicBoolean(true);
+        this.lines = 1;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.threads, task -> {
+            Thread thread = new Thread(task, "analysis-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Method to stop the current analysis and start analysing a new position
+     * @param snapshot position to analyse
+     */
+    public synchronized void analyse(PositionSnapshot snapshot) {
+        stopFlag.set(true);
+        AtomicBoolean stop = new AtomicBoolean(false);
+        stopFlag = stop;
+        //reports are passed on under the same lock that stops the analysis, so none of them arrive late
+        SearchListener reports = info -> {
+            synchronized (this) {
+                if (!stop.get())
+                    listener.onInfo(info);
+            }
+        };
+
+        for (int i = 0; i < threads; i++) {
+            int helperIndex = i;
+            pool.execute(() -> {
+                //a newer analysis may already have been started while this task was queued
+                if (!stop.get()) {
+                    Search search = searches.get();
+                    search.setMultiPv(lines);
+                    search.search(snapshot, SearchLimits.infinite(), stop, helperIndex == 0 ? reports : null,
+                            helperIndex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Method to stop the current analysis
+     */
+    public synchronized void stop() {
+        stopFlag.set(true);
+    }
+
+    /**
+     * Method to set how many best moves are analysed and reported, used from the next call to analyse()
+     * @param lines number of lines, 1 for the best move only
+     */
+    public void setLines(int lines) {
+        this.lines = Math.max(1, lines);
+    }
+
+    /**
+     * Method to get how many best moves are analysed and reported
+     * @return number of lines
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Method to stop the analysis and release the worker threads
+     */
+    public void shutdown() {
+        stop();
+        pool.shutdown();
+    }
+
+    /**
+     * Method to get the number of search threads
+     * @return thread count
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Method to get the default number of search threads, every core except the one used by the user interface
+     * @return thread count, at least 1
+     */
+    public static int defaultThreads() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+}
@@ -0,0 +1,333 @@
+package gameEngine;
+
+import java.util.SplittableRandom;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Attack maps for many positions at once, for bulk analysis. Positions are added to the batch as
+ * bitboard planes (one array per piece group, indexed by position) and compute() works out, for every position, the
+ * squares each side attacks, each side's mobility (attacked squares that are not its own pieces) and whether the
+ * side to move is in check.
+ *
+ * Two kernels give the same results. The scalar kernel walks the pieces one by one with the Bitboards tables, the
+ * same per-piece rules as Position.isAttacked (which in turn match King.inCheck and the pieces' isValidPath). The
+ * vector kernel (VectorAttacks, in the optional src-vector source folder) handles several positions in the lanes of
+ * the jdk.incubator.vector API and fills the sliding attacks of all pieces of a kind together. It is used when it was
+ * compiled and the program runs with "--add-modules jdk.incubator.vector"; otherwise, or with
+ * -Dchess.vectorAttacks=false, the scalar kernel is used.
+ *
+ * Method List:
+ * public void clear() - Method to empty the batch
+ * public int add(Position position) - Method to add a position to the batch
+ * public void compute() - Method to compute the attack maps with the fastest kernel available
+ * public void computeScalar() - Method to compute the attack maps with the scalar kernel
+ * public long getAttacks(int index, int colour) - Method to get the squares a side attacks
+ * public int getMobility(int index, int colour) - Method to get the number of squares a side attacks that it does not
+ *        occupy
+ * public boolean isInCheck(int index) - Method to test if the side to move is in check
+ * public int size() - Method to get the number of positions in the batch
+ * public int getCapacity() - Method to get the largest number of positions the batch holds
+ * public static boolean isVectorAvailable() - Method to test if the vector kernel is used by compute()
+ * public static void main(String[] args) - Method to check both kernels against Position and compare their speed
+ */
+
+public final class AttackBatch {
+    //input planes of each colour, WHITE planes first, then the same for BLACK
+    static final int PAWNS = 0, KNIGHTS = 1, DIAGONAL = 2, STRAIGHT = 3, KINGS = 4, OWN = 5;
+    static final int PLANES_PER_COLOUR = 6;
+
+    //columns, bit index = row * 8 + column
+    static final long COLUMN_A = 0x0101010101010101L;
+    static final long COLUMN_H = COLUMN_A << 7;
+    static final long COLUMNS_AB = COLUMN_A | COLUMN_A << 1;
+    static final long COLUMNS_GH = COLUMN_H | COLUMN_H >>> 1;
+
+    //speed test: warm-up between 1 and 20 seconds, until 5 rounds in a row gain less than 1%, then 1 second timed
+    private static final long MIN_WARMUP_NANOS = 1_000_000_000L;
+    private static final long MAX_WARMUP_NANOS = 20_000_000_000L;
+    private static final int SETTLED_ROUNDS = 5;
+    private static final long TIMED_NANOS = 1_000_000_000L;
+
+    private static final Kernel VECTOR = loadVectorKernel();
+
+    //Global variables
+    final long[][] planes;      //[colour * PLANES_PER_COLOUR + plane][position]
+    final int[] sideToMove;
+    final long[][] attacks;     //[colour][position]
+    final int[][] mobility;
+    final boolean[] inCheck;
+    private final int capacity;
+    private int size;
+
+    //work shared by both kernels, so the vector kernel can live in another source folder
+    interface Kernel {
+        void compute(AttackBatch batch, int count);
+    }
+
+    /**
+     * Constructor for an empty batch
+     * @param capacity largest number of positions the batch holds
+     */
+    public AttackBatch(int capacity) {
+        this.capacity = capacity;
+        this.planes = new long[2 * PLANES_PER_COLOUR][capacity];
+        this.sideToMove = new int[capacity];
+        this.attacks = new long[2][capacity];
+        this.mobility = new int[2][capacity];
+        this.inCheck = new boolean[capacity];
+    }
+
+    /**
+     * Method to empty the batch
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Method to add a position to the batch
+     * @param position position to copy, it is not kept
+     * @return index of the position in the batch
+     * @throws IllegalStateException if the batch is full
+     */
+    public int add(Position position) {
+        if (size == capacity)
+            throw new IllegalStateException("Batch is full");
+        int index = size++;
+        for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+            int base = colour * PLANES_PER_COLOUR;
+            long queens = position.getPieces(colour, Position.QUEEN);
+            planes[base + PAWNS][index] = position.getPieces(colour, Position.PAWN);
+            planes[base + KNIGHTS][index] = position.getPieces(colour, Position.KNIGHT);
+            planes[base + DIAGONAL][index] = position.getPieces(colour, Position.BISHOP) | queens;
+            planes[base + STRAIGHT][index] = position.getPieces(colour, Position.ROOK) | queens;
+            planes[base + KINGS][index] = position.getPieces(colour, Position.KING);
+            planes[base + OWN][index] = position.getColourPieces(colour);
+        }
+        sideToMove[index] = position.getSideToMove();
+        return index;
+    }
+
+    /**
+     * Method to compute the attack maps of every position with the vector kernel if it is available, else the
+     * scalar one
+     */
+    public void compute() {
+        if (VECTOR != null)
+            VECTOR.compute(this, size);
+        else
+            computeScalar();
+    }
+
+    /**
+     * Method to compute the attack maps of every position with the scalar kernel, one piece at a time
+     */
+    public void computeScalar() {
+        computeScalar(0, size);
+        finish(0, size);
+    }
+
+    //attack sets of a range of positions, the vector kernel uses it for the positions that do not fill its lanes
+    void computeScalar(int from, int to) {
+        for (int i = from; i < to; i++) {
+            long occupied = planes[OWN][i] | planes[PLANES_PER_COLOUR + OWN][i];
+            for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+                int base = colour * PLANES_PER_COLOUR;
+                long attacked = 0;
+                for (long b = planes[base + PAWNS][i]; b != 0; b &= b - 1)
+                    attacked |= Bitboards.pawnAttacks(colour, Long.numberOfTrailingZeros(b));
+                for (long b = planes[base + KNIGHTS][i]; b != 0; b &= b - 1)
+                    attacked |= Bitboards.knightAttacks(Long.numberOfTrailingZeros(b));
+                for (long b = planes[base + DIAGONAL][i]; b != 0; b &= b - 1)
+                    attacked |= Bitboards.bishopAttacks(Long.numberOfTrailingZeros(b), occupied);
+                for (long b = planes[base + STRAIGHT][i]; b != 0; b &= b - 1)
+                    attacked |= Bitboards.rookAttacks(Long.numberOfTrailingZeros(b), occupied);
+                for (long b = planes[base + KINGS][i]; b != 0; b &= b - 1)
+                    attacked |= Bitboards.kingAttacks(Long.numberOfTrailingZeros(b));
+                attacks[colour][i] = attacked;
+            }
+        }
+    }
+
+    //mobility and check flags from the attack sets, shared by both kernels
+    void finish(int from, int to) {
+        for (int i = from; i < to; i++) {
+            long white = attacks[Position.WHITE][i];
+            long black = attacks[Position.BLACK][i];
+            mobility[Position.WHITE][i] = Long.bitCount(white & ~planes[OWN][i]);
+            mobility[Position.BLACK][i] = Long.bitCount(black & ~planes[PLANES_PER_COLOUR + OWN][i]);
+            int side = sideToMove[i];
+            inCheck[i] = ((side == Position.WHITE ? black : white) &
+                    planes[side * PLANES_PER_COLOUR + KINGS][i]) != 0;
+        }
+    }
+
+    /**
+     * Method to get the squares a side attacks, after compute()
+     * @param index position index
+     * @param colour Position.WHITE or Position.BLACK
+     * @return bitboard of attacked squares, own pieces included
+     */
+    public long getAttacks(int index, int colour) {
+        return attacks[colour][index];
+    }
+
+    /**
+     * Method to get the number of squares a side attacks that it does not occupy, after compute()
+     * @param index position index
+     * @param colour Position.WHITE or Position.BLACK
+     * @return square count
+     */
+    public int getMobility(int index, int colour) {
+        return mobility[colour][index];
+    }
+
+    /**
+     * Method to test if the side to move is in check, after compute()
+     * @param index position index
+     * @return true if the king of the side to move is attacked
+     */
+    public boolean isInCheck(int index) {
+        return inCheck[index];
+    }
+
+    /**
+     * Method to get the number of positions in the batch
+     * @return position count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method to get the largest number of positions the batch holds
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Method to test if compute() uses the vector kernel
+     * @return true if VectorAttacks was found and the incubator module is present
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR != null;
+    }
+
+    private static Kernel loadVectorKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("chess.vectorAttacks", "true")))
+            return null;
+        try {
+            return (Kernel) Class.forName("gameEngine.VectorAttacks").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;    //not compiled, or the incubator module was not added
+        }
+    }
+
+    /**
+     * Method to check both kernels against Position.isAttacked on random positions and compare their speed
+     * @param args optional number of positions
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        AttackBatch batch = new AttackBatch(count);
+        Position[] positions = randomPositions(count, 1);
+        for (Position position : positions)
+            batch.add(position);
+
+        //the scalar kernel against the per-square rules of Position
+        batch.computeScalar();
+        int errors = 0;
+        for (int i = 0; i < count; i++) {
+            for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+                for (int square = 0; square < 64; square++) {
+                    boolean attacked = (batch.getAttacks(i, colour) & 1L << square) != 0;
+                    if (attacked != positions[i].isAttacked(square, colour))
+                        errors++;
+                }
+            }
+            if (batch.isInCheck(i) != positions[i].inCheck())
+                errors++;
+        }
+        System.out.println("scalar kernel: " + (errors == 0 ? "matches Position" : errors + " errors"));
+
+        long[][] expected = {batch.attacks[0].clone(), batch.attacks[1].clone()};
+        if (VECTOR != null) {
+            batch.compute();
+            int differences = 0;
+            for (int i = 0; i < count; i++) {
+                if (batch.attacks[0][i] != expected[0][i] || batch.attacks[1][i] != expected[1][i])
+                    differences++;
+            }
+            System.out.println("vector kernel: " + (differences == 0 ? "matches the scalar kernel" :
+                    differences + " positions differ"));
+        }
+        else {
+            System.out.println("vector kernel: not available (compile src-vector and run with " +
+                    "--add-modules jdk.incubator.vector)");
+        }
+
+        System.out.printf("scalar: %,.0f positions/s%n", speed(batch, false));
+        if (VECTOR != null)
+            System.out.printf("vector: %,.0f positions/s%n", speed(batch, true));
+    }
+
+    //warms up until the kernel runs compiled, then returns the best rate of a second of timed rounds
+    private static double speed(AttackBatch batch, boolean vector) {
+        //the warm-up lasts at least a second and goes on until the rate stops improving, since the vector kernel is
+        //only fast once C2 has compiled it, which can take longer than a few rounds
+        long warmupStart = System.nanoTime();
+        double warmupBest = 0;
+        int flatRounds = 0;
+        while (System.nanoTime() - warmupStart < MAX_WARMUP_NANOS &&
+                (System.nanoTime() - warmupStart < MIN_WARMUP_NANOS || flatRounds < SETTLED_ROUNDS)) {
+            double rate = round(batch, vector);
+            if (rate > warmupBest * 1.01) {
+                warmupBest = rate;
+                flatRounds = 0;
+            }
+            else {
+                flatRounds++;
+            }
+        }
+
+        double best = 0;
+        long timedStart = System.nanoTime();
+        while (System.nanoTime() - timedStart < TIMED_NANOS)
+            best = Math.max(best, round(batch, vector));
+        return best;
+    }
+
+    //one pass over the batch, returns positions per second
+    private static double round(AttackBatch batch, boolean vector) {
+        long start = System.nanoTime();
+        if (vector)
+            batch.compute();
+        else
+            batch.computeScalar();
+        return batch.size() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    //positions from short random games
+    private static Position[] randomPositions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        Position[] positions = new Position[count];
+        for (int i = 0; i < count; i++) {
+            Position position = new Position();
+            int plies = 4 + random.nextInt(80);
+            for (int ply = 0; ply < plies; ply++) {
+                int moveCount = MoveGenerator.generate(position, moves, 0);
+                boolean played = false;
+                for (int tries = 0; tries < moveCount && !played; tries++)
+                    played = position.makeLegalMove(moves[random.nextInt(moveCount)]);
+                if (!played)
+                    break;
+            }
+            positions[i] = position;
+        }
+        return positions;
+    }
+}
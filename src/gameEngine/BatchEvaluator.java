@@ -0,0 +1,255 @@
+package gameEngine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Scores large numbers of positions without the user interface, for data pipelines such as training
+ * sets and puzzle mining. Positions (FEN text or snapshots) are split into ranges on a work-stealing fork-join pool;
+ * each worker thread keeps its own position, search and small transposition table, so the only objects created per
+ * position are the ones FEN parsing needs. Depth 0 gives the static evaluation; a higher depth runs a fixed depth
+ * search and also returns the best move.
+ *
+ * Scores are in hundredths of a pawn from the side to move's point of view (mate scores as in Search).
+ *
+ * Method List:
+ * public void evaluate(PositionSnapshot[] positions, int[] scores, int[] bestMoves) - Method to score snapshots
+ * public void evaluate(String[] fens, int[] scores, int[] bestMoves) - Method to score FEN positions
+ * public int getDepth() - Method to get the search depth
+ * public static void main(String[] args) - Method to score a FEN file, or to measure throughput on random positions
+ */
+
+public class BatchEvaluator {
+    //score of a position that could not be read
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    //positions per task before a range is split, searches are split finer than static evaluations
+    private static final int STATIC_CHUNK = 1024;
+    private static final int SEARCH_CHUNK = 4;
+    private static final int HASH_MEGABYTES = 4;
+
+    //Global variables
+    private final ForkJoinPool pool;
+    private final int depth;
+    private final ThreadLocal<Worker> workers;
+
+    /**
+     * Constructor for an evaluator that runs on a pool
+     * @param pool work-stealing pool, for example ForkJoinPool.commonPool()
+     * @param depth search depth, 0 for the static evaluation only
+     */
+    public BatchEvaluator(ForkJoinPool pool, int depth) {
+        this.pool = pool;
+        this.depth = Math.max(0, Math.min(depth, Search.MAX_PLY));
+        this.workers = ThreadLocal.withInitial(Worker::new);
+    }
+
+    /**
+     * Method to score snapshots
+     * @param positions positions to score
+     * @param scores receives the score of each position
+     * @param bestMoves receives the best move of each position (Move.NONE for depth 0 or no legal move), may be null
+     */
+    public void evaluate(PositionSnapshot[] positions, int[] scores, int[] bestMoves) {
+        pool.invoke(new Batch(positions, null, scores, bestMoves, 0, positions.length));
+    }
+
+    /**
+     * Method to score FEN positions
+     * @param fens positions to score
+     * @param scores receives the score of each position, INVALID for text that is not a valid FEN
+     * @param bestMoves receives the best move of each position (Move.NONE for depth 0 or no legal move), may be null
+     */
+    public void evaluate(String[] fens, int[] scores, int[] bestMoves) {
+        pool.invoke(new Batch(null, fens, scores, bestMoves, 0, fens.length));
+    }
+
+    /**
+     * Method to get the search depth
+     * @return depth, 0 for static evaluation
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    //per-thread objects that are reused for every position
+    private static final class Worker {
+        final Position position = new Position();
+        final Search search = new Search(new TranspositionTable(HASH_MEGABYTES));
+        final AtomicBoolean stop = new AtomicBoolean();
+    }
+
+    //scores a range of positions, splitting it in half while it is large
+    private final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PositionSnapshot[] snapshots;
+        private final String[] fens;
+        private final int[] scores;
+        private final int[] bestMoves;
+        private final int from, to;
+
+        Batch(PositionSnapshot[] snapshots, String[] fens, int[] scores, int[] bestMoves, int from, int to) {
+            this.snapshots = snapshots;
+            this.fens = fens;
+            this.scores = scores;
+            this.bestMoves = bestMoves;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > (depth == 0 ? STATIC_CHUNK : SEARCH_CHUNK)) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Batch(snapshots, fens, scores, bestMoves, from, middle),
+                        new Batch(snapshots, fens, scores, bestMoves, middle, to));
+                return;
+            }
+
+            Worker worker = workers.get();
+            for (int i = from; i < to; i++) {
+                int move = Move.NONE;
+                int score;
+                if (depth == 0) {
+                    score = load(worker.position, i) ? Evaluator.evaluate(worker.position) : INVALID;
+                }
+                else {
+                    PositionSnapshot snapshot = snapshot(worker.position, i);
+                    if (snapshot == null) {
+                        score = INVALID;
+                    }
+                    else {
+                        worker.stop.set(false);
+                        move = worker.search.search(snapshot, SearchLimits.depth(depth), worker.stop, null);
+                        score = worker.search.getScore();
+                    }
+                }
+                scores[i] = score;
+                if (bestMoves != null)
+                    bestMoves[i] = move;
+            }
+        }
+
+        //sets up position i on the worker's position, false if its FEN cannot be read
+        private boolean load(Position position, int i) {
+            if (snapshots != null) {
+                snapshots[i].copyTo(position);
+                return true;
+            }
+            try {
+                Fen.load(position, fens[i]);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        private PositionSnapshot snapshot(Position position, int i) {
+            if (snapshots != null)
+                return snapshots[i];
+            return load(position, i) ? PositionSnapshot.of(position) : null;
+        }
+    }
+
+    /**
+     * Method to score a FEN file, writing "fen;score;bestmove" lines, or without a file to measure throughput on
+     * random positions with 1, 2, 4 ... threads up to the number of cores
+     * @param args input file, output file, depth and thread count, or "--bench" followed by a position count and
+     *             depth
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && !args[0].equals("--bench")) {
+            int depth = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            scoreFile(args[0], args[1], depth, threads);
+            return;
+        }
+
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        String[] fens = randomPositions(count, 1);
+        int[] scores = new int[count];
+        int[] moves = new int[count];
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads = threads < cores && threads * 2 > cores ? cores : threads * 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            BatchEvaluator evaluator = new BatchEvaluator(pool, depth);
+            evaluator.evaluate(fens, scores, moves);   //warm-up
+            long start = System.nanoTime();
+            evaluator.evaluate(fens, scores, moves);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("depth %d, %d threads: %,.0f positions/s%n", depth, threads, count / seconds);
+            pool.shutdown();
+        }
+    }
+
+    //reads and writes the file in blocks so any number of positions fits in memory
+    private static void scoreFile(String input, String output, int depth, int threads) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        BatchEvaluator evaluator = new BatchEvaluator(pool, depth);
+        int blockSize = depth == 0 ? 1 << 16 : 1 << 12;
+        long total = 0;
+        long start = System.nanoTime();
+
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(input));
+             BufferedWriter out = Files.newBufferedWriter(Paths.get(output))) {
+            List<String> block = new ArrayList<>(blockSize);
+            int[] scores = new int[blockSize];
+            int[] moves = new int[blockSize];
+            String line = in.readLine();
+            while (line != null) {
+                block.clear();
+                for (; line != null && block.size() < blockSize; line = in.readLine()) {
+                    if (!line.isBlank())
+                        block.add(line.trim());
+                }
+                String[] fens = block.toArray(new String[0]);
+                evaluator.evaluate(fens, scores, moves);
+                for (int i = 0; i < fens.length; i++) {
+                    out.write(fens[i] + ";" + (scores[i] == INVALID ? "invalid" : Integer.toString(scores[i])) + ";" +
+                            Move.toString(moves[i]));
+                    out.newLine();
+                }
+                total += fens.length;
+            }
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%,d positions in %.1fs, %,.0f positions/s%n", total, seconds, total / seconds);
+    }
+
+    //positions from short random games, used for the throughput measurement
+    private static String[] randomPositions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Position position = new Position();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        String[] fens = new String[count];
+        for (int i = 0; i < count; i++) {
+            position.reset();
+            int plies = 4 + random.nextInt(60);
+            for (int ply = 0; ply < plies; ply++) {
+                int moveCount = MoveGenerator.generate(position, moves, 0);
+                boolean played = false;
+                for (int tries = 0; tries < moveCount && !played; tries++)
+                    played = position.makeLegalMove(moves[random.nextInt(moveCount)]);
+                if (!played)
+                    break;
+            }
+            fens[i] = Fen.toFen(position);
+        }
+        return fens;
+    }
+}
@@ -0,0 +1,156 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Precomputed attack tables for the headless engine. Squares are numbered the same way as the tiles on
+ * the Swing board (square = row * 8 + column, row 0 is black's back rank) so a bit index converts directly to a tile.
+ *
+ * Method List:
+ * public static long knightAttacks(int square) - Method to get the squares a knight attacks
+ * public static long kingAttacks(int square) - Method to get the squares a king attacks
+ * public static long pawnAttacks(int colour, int square) - Method to get the squares a pawn of the given colour attacks
+ * public static long rookAttacks(int square, long occupied) - Method to get rook attacks given the board occupancy
+ * public static long bishopAttacks(int square, long occupied) - Method to get bishop attacks given the board occupancy
+ * public static long queenAttacks(int square, long occupied) - Method to get queen attacks given the board occupancy
+ * public static int row(int square) - Method to get the row of a square
+ * public static int column(int square) - Method to get the column of a square
+ */
+
+public final class Bitboards {
+    //ray directions, the first four move towards higher square numbers and the last four towards lower ones
+    static final int EAST = 0, SOUTH = 1, SOUTH_EAST = 2, SOUTH_WEST = 3;
+    static final int WEST = 4, NORTH = 5, NORTH_WEST = 6, NORTH_EAST = 7;
+    private static final int[] ROW_STEP = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[] COLUMN_STEP = {1, 0, 1, -1, -1, 0, -1, 1};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+
+        for (int sq = 0; sq < 64; sq++) {
+            int row = row(sq);
+            int col = column(sq);
+
+            for (int[] step : knightSteps)
+                KNIGHT[sq] |= bit(row + step[0], col + step[1]);
+
+            for (int dir = 0; dir < 8; dir++) {
+                KING[sq] |= bit(row + ROW_STEP[dir], col + COLUMN_STEP[dir]);
+                //walks the ray until it falls off the board
+                for (int r = row + ROW_STEP[dir], c = col + COLUMN_STEP[dir]; onBoard(r, c);
+                     r += ROW_STEP[dir], c += COLUMN_STEP[dir]) {
+                    RAYS[dir][sq] |= bit(r, c);
+                }
+            }
+
+            //white pawns move towards row 0 and black pawns towards row 7 (same as the Pawn piece class)
+            PAWN[Position.WHITE][sq] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+            PAWN[Position.BLACK][sq] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * Method to get the squares a knight attacks
+     * @param square knight location
+     * @return bitboard of attacked squares
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * Method to get the squares a king attacks
+     * @param square king location
+     * @return bitboard of attacked squares
+     */
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * Method to get the squares a pawn of the given colour attacks
+     * @param colour pawn colour (Position.WHITE or Position.BLACK)
+     * @param square pawn location
+     * @return bitboard of attacked squares
+     */
+    public static long pawnAttacks(int colour, int square) {
+        return PAWN[colour][square];
+    }
+
+    /**
+     * Method to get rook attacks given the board occupancy
+     * @param square rook location
+     * @param occupied bitboard of all occupied squares
+     * @return bitboard of attacked squares
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return ray(EAST, square, occupied) | ray(SOUTH, square, occupied) |
+                ray(WEST, square, occupied) | ray(NORTH, square, occupied);
+    }
+
+    /**
+     * Method to get bishop attacks given the board occupancy
+     * @param square bishop location
+     * @param occupied bitboard of all occupied squares
+     * @return bitboard of attacked squares
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return ray(SOUTH_EAST, square, occupied) | ray(SOUTH_WEST, square, occupied) |
+                ray(NORTH_WEST, square, occupied) | ray(NORTH_EAST, square, occupied);
+    }
+
+    /**
+     * Method to get queen attacks given the board occupancy
+     * @param square queen location
+     * @param occupied bitboard of all occupied squares
+     * @return bitboard of attacked squares
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Method to get the row of a square
+     * @param square square index
+     * @return row (0 - 7)
+     */
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    /**
+     * Method to get the column of a square
+     * @param square square index
+     * @return column (0 - 7)
+     */
+    public static int column(int square) {
+        return square & 7;
+    }
+
+    //returns the ray in one direction, cut off at (and including) the first blocker
+    static long ray(int dir, int square, long occupied) {
+        long attacks = RAYS[dir][square];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            int blocker = dir < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks ^= RAYS[dir][blocker];
+        }
+        return attacks;
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8;
+    }
+
+    private static long bit(int row, int col) {
+        return onBoard(row, col) ? 1L << (row * 8 + col) : 0L;
+    }
+}
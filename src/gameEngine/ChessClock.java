@@ -0,0 +1,245 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Two-sided chess clock for a time control with increments, delays and several periods. The clock does
+ * not tick by itself: it remembers when the running side's turn started and works out the remaining time from
+ * System.nanoTime() when asked. Only the moment the flag would fall is handed to the shared ClockScheduler, so a
+ * clock costs no thread and thousands of games can share one scheduler. The methods may be called from any thread.
+ *
+ * Method List:
+ * public void start(int colour) - Method to start the clock for the side to move
+ * public boolean press() - Method to end the running side's turn and start the other side's clock
+ * public void stop() - Method to stop the clock, for example when the game ends on the board
+ * public long getRemainingNanos(int colour) - Method to get the time a side has left
+ * public int getRunning() - Method to get the side whose clock is running
+ * public int getFlagged() - Method to get the side that ran out of time
+ * public TimeControl getTimeControl() - Method to get the time control
+ * public static String format(long nanos) - Method to write a remaining time the way a clock displays it
+ * public static long untilDisplayChange(long nanos) - Method to get how long a displayed time stays the same
+ * public static void main(String[] args) - Self-testing main method
+ */
+
+public class ChessClock {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long TENTH = NANOS_PER_SECOND / 10;
+    private static final long SHOW_TENTHS_BELOW = 10 * NANOS_PER_SECOND;
+
+    //Global variables
+    private final TimeControl timeControl;
+    private final ClockScheduler scheduler;
+    private final ClockListener listener;
+    private final long[] remaining;
+    private final int[] period;
+    private final int[] periodMoves;        //moves made in the current period
+    private int running;
+    private int flagged;
+    private long turnStart;
+    private ClockScheduler.Timeout flagTimer;
+
+    /**
+     * Constructor for a stopped clock with the first period's time on both sides
+     * @param timeControl time control to follow
+     * @param scheduler scheduler that detects the flag fall, usually ClockScheduler.shared()
+     * @param listener told when a flag falls, may be null
+     */
+    public ChessClock(TimeControl timeControl, ClockScheduler scheduler, ClockListener listener) {
+        this.timeControl = timeControl;
+        this.scheduler = scheduler;
+        this.listener = listener;
+        this.remaining = new long[]{timeControl.getBaseNanos(0), timeControl.getBaseNanos(0)};
+        this.period = new int[2];
+        this.periodMoves = new int[2];
+        this.running = -1;
+        this.flagged = -1;
+    }
+
+    /**
+     * Method to start the clock for the side to move
+     * @param colour Position.WHITE or Position.BLACK
+     */
+    public synchronized void start(int colour) {
+        if (flagged >= 0)
+            return;
+        running = colour;
+        turnStart = System.nanoTime();
+        arm();
+    }
+
+    /**
+     * Method to end the running side's turn: its used time is charged, the increment is added, the next period
+     * starts if this move completed one, and the other side's clock starts
+     * @return false if the running side had already run out of time (the move does not count)
+     */
+    public synchronized boolean press() {
+        if (running < 0)
+            return flagged < 0;
+        long now = System.nanoTime();
+        int side = running;
+        remaining[side] -= chargedTime(side, now);
+        if (remaining[side] <= 0) {
+            flag(side);
+            return false;
+        }
+
+        remaining[side] += timeControl.getIncrementNanos(period[side]);
+        periodMoves[side]++;
+        int moves = timeControl.getMoves(period[side]);
+        if (moves > 0 && periodMoves[side] == moves && period[side] + 1 < timeControl.getPeriodCount()) {
+            period[side]++;
+            periodMoves[side] = 0;
+            remaining[side] += timeControl.getBaseNanos(period[side]);
+        }
+        else if (moves > 0 && periodMoves[side] == moves) {
+            periodMoves[side] = 0;      //the last period repeats
+            remaining[side] += timeControl.getBaseNanos(period[side]);
+        }
+
+        running = side ^ 1;
+        turnStart = now;
+        arm();
+        return true;
+    }
+
+    /**
+     * Method to stop the clock, for example when the game ends on the board
+     */
+    public synchronized void stop() {
+        if (running >= 0)
+            remaining[running] -= chargedTime(running, System.nanoTime());
+        running = -1;
+        if (flagTimer != null)
+            flagTimer.cancel();
+    }
+
+    /**
+     * Method to get the time a side has left
+     * @param colour Position.WHITE or Position.BLACK
+     * @return remaining time in nanoseconds, never below 0
+     */
+    public synchronized long getRemainingNanos(int colour) {
+        long time = remaining[colour];
+        if (colour == running)
+            time -= chargedTime(colour, System.nanoTime());
+        return Math.max(0, time);
+    }
+
+    /**
+     * Method to get the side whose clock is running
+     * @return Position.WHITE or Position.BLACK, -1 if the clock is stopped
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * Method to get the side that ran out of time
+     * @return Position.WHITE or Position.BLACK, -1 if no flag has fallen
+     */
+    public synchronized int getFlagged() {
+        return flagged;
+    }
+
+    /**
+     * Method to get the time control
+     * @return time control
+     */
+    public TimeControl getTimeControl() {
+        return timeControl;
+    }
+
+    //time of the current turn that counts against the clock, the delay is free
+    private long chargedTime(int side, long now) {
+        return Math.max(0, now - turnStart - timeControl.getDelayNanos(period[side]));
+    }
+
+    //asks the scheduler to look at the clock when the running side's time would be used up
+    private void arm() {
+        if (flagTimer != null)
+            flagTimer.cancel();
+        long deadline = turnStart + timeControl.getDelayNanos(period[running]) + remaining[running];
+        flagTimer = scheduler.schedule(deadline, this::checkFlag);
+    }
+
+    private void checkFlag() {
+        int side;
+        synchronized (this) {
+            side = running;
+            if (side < 0 || getRemainingNanos(side) > 0)
+                return;
+            remaining[side] = 0;
+            flag(side);
+        }
+        if (listener != null)
+            listener.onFlag(this, side);
+    }
+
+    private void flag(int side) {
+        flagged = side;
+        running = -1;
+        remaining[side] = 0;
+        if (flagTimer != null)
+            flagTimer.cancel();
+    }
+
+    /**
+     * Method to write a remaining time the way a clock displays it, "h:mm:ss", "m:ss", or "s.t" below ten seconds
+     * @param nanos remaining time
+     * @return display text
+     */
+    public static String format(long nanos) {
+        if (nanos < SHOW_TENTHS_BELOW) {
+            long tenths = Math.max(0, nanos) / TENTH;
+            return tenths / 10 + "." + tenths % 10;
+        }
+        long seconds = nanos / NANOS_PER_SECOND;
+        if (seconds >= 3600)
+            return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
+    /**
+     * Method to get how long a running clock keeps showing the same text, so a display only updates when it changes
+     * @param nanos remaining time
+     * @return nanoseconds until format() gives a different text
+     */
+    public static long untilDisplayChange(long nanos) {
+        if (nanos <= 0)
+            return Long.MAX_VALUE;
+        return nanos % (nanos < SHOW_TENTHS_BELOW ? TENTH : NANOS_PER_SECOND) + 1;
+    }
+
+    /**
+     * Self-testing main method
+     * @param args not used
+     * @throws InterruptedException if the test is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        TimeControl control = TimeControl.parse("2/0.3+0.1:0.2");
+        System.out.println("time control " + control);
+
+        ChessClock clock = new ChessClock(control, ClockScheduler.shared(),
+                (c, colour) -> System.out.println((colour == Position.WHITE ? "white" : "black") + " flagged"));
+        clock.start(Position.WHITE);
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(50);
+            clock.press();
+            System.out.println("after move " + (i + 1) + ": white " + format(clock.getRemainingNanos(Position.WHITE)) +
+                    ", black " + format(clock.getRemainingNanos(Position.BLACK)));
+        }
+        Thread.sleep(1000);     //white does not move again and runs out
+        System.out.println("flagged side " + clock.getFlagged());
+
+        //many clocks cost no threads
+        int count = 10_000;
+        ChessClock[] clocks = new ChessClock[count];
+        for (int i = 0; i < count; i++) {
+            clocks[i] = new ChessClock(TimeControl.of(180, 2), ClockScheduler.shared(), null);
+            clocks[i].start(Position.WHITE);
+        }
+        Thread.sleep(100);
+        System.out.println(count + " running clocks, " + Thread.activeCount() + " threads, " +
+                ClockScheduler.shared().getPending() + " scheduled flag checks");
+    }
+}
@@ -0,0 +1,21 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Receives the flag fall of a chess clock. It is called on the clock scheduler thread, so
+ * implementations should only hand the event over to their own thread.
+ *
+ * Method List:
+ * void onFlag(ChessClock clock, int colour) - Method called when a side runs out of time
+ */
+
+public interface ClockListener {
+
+    /**
+     * Method called when a side runs out of time
+     * @param clock clock that ran out
+     * @param colour Position.WHITE or Position.BLACK
+     */
+    void onFlag(ChessClock clock, int colour);
+}
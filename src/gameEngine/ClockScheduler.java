@@ -0,0 +1,158 @@
+package gameEngine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: One daemon thread that runs timed tasks for any number of clocks, using a hashed timer wheel: time is
+ * cut into ticks and every task sits in the bucket of the tick it is due in, so adding, cancelling and expiring a
+ * task costs the same no matter how many clocks exist. Deadlines use System.nanoTime(), which never jumps when the
+ * wall clock is changed. While no task is waiting the thread sleeps instead of ticking. A task that throws is logged
+ * through java.util.logging and the other tasks keep running.
+ *
+ * Method List:
+ * public static ClockScheduler shared() - Method to get the scheduler shared by every clock of the program
+ * public Timeout schedule(long deadlineNanos, Runnable task) - Method to run a task once a System.nanoTime() is reached
+ * public int getPending() - Method to get the number of tasks waiting in the wheel
+ */
+
+public final class ClockScheduler {
+    private static final long TICK_NANOS = 5_000_000L;     //5 ms, well below what a clock display shows
+    private static final int WHEEL_SIZE = 512;              //a little over 2.5 seconds per turn of the wheel
+
+    private static final ClockScheduler SHARED = new ClockScheduler("clock-scheduler");
+
+    //Global variables
+    private final Queue<Timeout> incoming;
+    private final List<List<Timeout>> wheel;
+    private final Thread thread;
+    private final long start;
+    private long tick;
+    private volatile int pending;
+
+    private ClockScheduler(String name) {
+        this.incoming = new ConcurrentLinkedQueue<>();
+        this.wheel = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++)
+            wheel.add(new ArrayList<>());
+        this.start = System.nanoTime();
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Method to get the scheduler shared by every clock of the program
+     * @return shared scheduler
+     */
+    public static ClockScheduler shared() {
+        return SHARED;
+    }
+
+    /**
+     * Method to run a task on the scheduler thread once System.nanoTime() reaches a deadline. Tasks must be short;
+     * anything slow should be handed to another thread.
+     * @param deadlineNanos System.nanoTime() value at which the task is due
+     * @param task task to run
+     * @return handle to cancel the task
+     */
+    public Timeout schedule(long deadlineNanos, Runnable task) {
+        Timeout timeout = new Timeout(deadlineNanos, task);
+        incoming.add(timeout);
+        LockSupport.unpark(thread);
+        return timeout;
+    }
+
+    /**
+     * Method to get the number of tasks waiting in the wheel
+     * @return task count, tasks added since the last tick are not counted yet
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    private void run() {
+        int waiting = 0;
+        while (true) {
+            if (waiting == 0 && incoming.isEmpty()) {
+                LockSupport.park(this);
+                tick = Math.max(tick, (System.nanoTime() - start) / TICK_NANOS);
+            }
+            else {
+                long wait = start + (tick + 1) * TICK_NANOS - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(this, wait);
+                    if (System.nanoTime() - start < (tick + 1) * TICK_NANOS)
+                        continue;   //woken early by a new task, it is added at the next tick
+                }
+            }
+
+            Timeout timeout;
+            while ((timeout = incoming.poll()) != null) {
+                long due = Math.max(tick, (timeout.deadline - start) / TICK_NANOS);
+                wheel.get((int) (due & (WHEEL_SIZE - 1))).add(timeout);
+                waiting++;
+            }
+
+            //expires every tick that has fully passed, tasks further than one turn ahead stay in their bucket
+            long now = System.nanoTime();
+            long current = (now - start) / TICK_NANOS;
+            for (; tick < current; tick++) {
+                Iterator<Timeout> bucket = wheel.get((int) (tick & (WHEEL_SIZE - 1))).iterator();
+                while (bucket.hasNext()) {
+                    Timeout entry = bucket.next();
+                    if (entry.cancelled) {
+                        bucket.remove();
+                        waiting--;
+                    }
+                    else if (entry.deadline - now <= 0) {
+                        bucket.remove();
+                        waiting--;
+                        try {
+                            entry.task.run();
+                        } catch (RuntimeException e) {
+                            //one broken task must not stop every clock
+                            Logger.getLogger(ClockScheduler.class.getName()).log(Level.SEVERE,
+                                    "Scheduled clock task failed", e);
+                        }
+                    }
+                }
+            }
+            pending = waiting;
+        }
+    }
+
+    /**
+     * @author Shivam Sood
+     * Date: 2026-10-19
+     * Description: Handle of a scheduled task.
+     *
+     * Method List:
+     * public void cancel() - Method to stop the task from running if it has not run yet
+     */
+    public static final class Timeout {
+        private final long deadline;
+        private final Runnable task;
+        private volatile boolean cancelled;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        /**
+         * Method to stop the task from running if it has not run yet
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package gameEngine;
+
+public enum DrawReason {
+    //Rule that ended a drawn game, as given by Position.getDrawReason()
+    STALEMATE, REPETITION, FIFTY_MOVES, INSUFFICIENT_MATERIAL
+}
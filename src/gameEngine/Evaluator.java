@@ -0,0 +1,67 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Static evaluation used by the search. The score is the material balance, using the PieceValues table
+ * (in hundredths of a pawn), plus small bonuses for well placed pieces.
+ *
+ * Method List:
+ * public static int evaluate(Position position) - Method to score a position for the side to move
+ * public static int pieceValue(int type) - Method to get the value of a piece type in hundredths of a pawn
+ */
+
+public final class Evaluator {
+    //bonus for each piece type on each square, from white's point of view
+    private static final int[][] SQUARE_BONUS = new int[7][64];
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            int row = Bitboards.row(sq);
+            int col = Bitboards.column(sq);
+            //distance from the centre, 0 in the middle four squares up to 6 in the corners
+            int centreDistance = Math.max(3 - row, row - 4) + Math.max(3 - col, col - 4);
+
+            SQUARE_BONUS[Position.PAWN][sq] = (6 - row) * 5 + (col >= 2 && col <= 5 ? 5 : 0);
+            SQUARE_BONUS[Position.KNIGHT][sq] = 15 - centreDistance * 6;
+            SQUARE_BONUS[Position.BISHOP][sq] = 10 - centreDistance * 3;
+            SQUARE_BONUS[Position.ROOK][sq] = row == 1 ? 15 : 0;
+            SQUARE_BONUS[Position.QUEEN][sq] = 5 - centreDistance;
+            SQUARE_BONUS[Position.KING][sq] = row == 7 ? 10 : -row * 5;
+        }
+    }
+
+    private Evaluator() {
+    }
+
+    /**
+     * Method to score a position for the side to move
+     * @param position position to score
+     * @return score in hundredths of a pawn, positive if the side to move is better
+     */
+    public static int evaluate(Position position) {
+        int score = 0;
+        for (int type = Position.PAWN; type <= Position.KING; type++) {
+            for (long b = position.getPieces(Position.WHITE, type); b != 0; b &= b - 1)
+                score += PieceValues.centipawns(type) + SQUARE_BONUS[type][Long.numberOfTrailingZeros(b)];
+            //black squares are mirrored so row 0 is black's back rank
+            for (long b = position.getPieces(Position.BLACK, type); b != 0; b &= b - 1)
+                score -= PieceValues.centipawns(type) + SQUARE_BONUS[type][Long.numberOfTrailingZeros(b) ^ 56];
+        }
+        return position.getSideToMove() == Position.WHITE ? score : -score;
+    }
+
+    /**
+     * Method to get the value of a piece type in hundredths of a pawn
+     * @param type piece type
+     * @return piece value, 0 for the king
+     */
+    public static int pieceValue(int type) {
+        return PieceValues.centipawns(type);
+    }
+
+    //square bonus from white's point of view, used to build the bootstrap Network
+    static int squareBonus(int type, int square) {
+        return SQUARE_BONUS[type][square];
+    }
+}
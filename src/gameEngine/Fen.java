@@ -0,0 +1,178 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Reads and writes positions in Forsyth-Edwards Notation (FEN), the text format used by chess tools to
+ * exchange positions.
+ *
+ * Method List:
+ * public static void load(Position position, String fen) - Method to set up a position from FEN text
+ * public static Position parse(String fen) - Method to create a new position from FEN text
+ * public static String toFen(Position position) - Method to write a position as FEN text
+ */
+
+public final class Fen {
+    //the position created by Board.resetBoard()
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    //FEN letters indexed by piece type, white pieces are upper case
+    private static final String PIECE_LETTERS = " prnbqk";
+
+    private Fen() {
+    }
+
+    /**
+     * Method to set up a position from FEN text. The en passant square and move counters are optional, castling
+     * rights whose king or rook is not on its starting square are ignored.
+     * @param position position to overwrite
+     * @param fen FEN text
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static void load(Position position, String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2)
+            throw new IllegalArgumentException("FEN needs at least the board and side to move: " + fen);
+
+        position.clear();
+        int row = 0, col = 0;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                row++;
+                col = 0;
+            }
+            else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            }
+            else {
+                int type = PIECE_LETTERS.indexOf(Character.toLowerCase(c));
+                if (type <= 0 || row > 7 || col > 7)
+                    throw new IllegalArgumentException("Bad FEN board: " + fields[0]);
+                int colour = Character.isUpperCase(c) ? Position.WHITE : Position.BLACK;
+                position.putPiece(row * 8 + col, Position.pieceCode(colour, type));
+                col++;
+            }
+        }
+        if (row != 7 || Long.bitCount(position.getPieces(Position.WHITE, Position.KING)) != 1 ||
+                Long.bitCount(position.getPieces(Position.BLACK, Position.KING)) != 1)
+            throw new IllegalArgumentException("FEN board needs 8 rows and one king each: " + fields[0]);
+        if (Long.bitCount(position.getOccupied()) > 32)
+            throw new IllegalArgumentException("FEN board has more than 32 pieces: " + fields[0]);
+
+        if (!fields[1].equals("w") && !fields[1].equals("b"))
+            throw new IllegalArgumentException("Bad FEN side to move: " + fields[1]);
+        position.setSideToMove(fields[1].equals("w") ? Position.WHITE : Position.BLACK);
+
+        int rights = 0;
+        if (fields.length > 2) {
+            for (char c : fields[2].toCharArray()) {
+                if (c == 'K')
+                    rights |= Position.WHITE_KINGSIDE;
+                else if (c == 'Q')
+                    rights |= Position.WHITE_QUEENSIDE;
+                else if (c == 'k')
+                    rights |= Position.BLACK_KINGSIDE;
+                else if (c == 'q')
+                    rights |= Position.BLACK_QUEENSIDE;
+            }
+        }
+        position.setCastlingRights(rights & homeRights(position));
+
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            String square = fields[3];
+            if (square.length() != 2 || square.charAt(0) < 'a' || square.charAt(0) > 'h' ||
+                    (square.charAt(1) != '3' && square.charAt(1) != '6'))
+                throw new IllegalArgumentException("Bad FEN en passant square: " + square);
+            position.setEnPassantSquare(('8' - square.charAt(1)) * 8 + square.charAt(0) - 'a');
+        }
+
+        if (fields.length > 4) {
+            try {
+                position.setHalfmoveClock(Math.max(0, Integer.parseInt(fields[4])));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad FEN halfmove clock: " + fields[4]);
+            }
+        }
+    }
+
+    //castling rights whose king and rook are still on their starting squares
+    private static int homeRights(Position position) {
+        int white = Position.pieceCode(Position.WHITE, Position.ROOK);
+        int black = Position.pieceCode(Position.BLACK, Position.ROOK);
+        int rights = 0;
+        if (position.getPiece(60) == Position.pieceCode(Position.WHITE, Position.KING)) {
+            if (position.getPiece(63) == white)
+                rights |= Position.WHITE_KINGSIDE;
+            if (position.getPiece(56) == white)
+                rights |= Position.WHITE_QUEENSIDE;
+        }
+        if (position.getPiece(4) == Position.pieceCode(Position.BLACK, Position.KING)) {
+            if (position.getPiece(7) == black)
+                rights |= Position.BLACK_KINGSIDE;
+            if (position.getPiece(0) == black)
+                rights |= Position.BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    /**
+     * Method to create a new position from FEN text
+     * @param fen FEN text
+     * @return new position
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static Position parse(String fen) {
+        Position position = new Position();
+        load(position, fen);
+        return position;
+    }
+
+    /**
+     * Method to write a position as FEN text
+     * @param position position to write
+     * @return FEN text
+     */
+    public static String toFen(Position position) {
+        StringBuilder fen = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int code = position.getPiece(row * 8 + col);
+                if (code == Position.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char letter = PIECE_LETTERS.charAt(Position.pieceType(code));
+                fen.append(Position.pieceColour(code) == Position.WHITE ? Character.toUpperCase(letter) : letter);
+            }
+            if (empty > 0)
+                fen.append(empty);
+            if (row < 7)
+                fen.append('/');
+        }
+
+        fen.append(position.getSideToMove() == Position.WHITE ? " w " : " b ");
+        int rights = position.getCastlingRights();
+        if (rights == 0)
+            fen.append('-');
+        if ((rights & Position.WHITE_KINGSIDE) != 0)
+            fen.append('K');
+        if ((rights & Position.WHITE_QUEENSIDE) != 0)
+            fen.append('Q');
+        if ((rights & Position.BLACK_KINGSIDE) != 0)
+            fen.append('k');
+        if ((rights & Position.BLACK_QUEENSIDE) != 0)
+            fen.append('q');
+        int enPassant = position.getEnPassantSquare();
+        if (enPassant == Position.NO_SQUARE)
+            fen.append(" -");
+        else
+            fen.append(' ').append((char) ('a' + enPassant % 8)).append((char) ('8' - enPassant / 8));
+        fen.append(' ').append(position.getHalfmoveClock()).append(' ').append(1 + position.getPly() / 2);
+        return fen.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Receives the events of a GameSession. Events are sent on the thread that submitted the move, in the
+ * order onMove, onCapture, onPromotion, onCheck or onCheckmate, then onGameOver, so a listener sees the move before
+ * what it caused. Every method does nothing by default, a listener only overrides the events it shows.
+ *
+ * Method List:
+ * default void onMove(MoveResult result) - Method called after every accepted move
+ * default void onCapture(int square, int pieceCode) - Method called when a move captures a piece
+ * default void onPromotion(int square, int pieceCode) - Method called when a pawn is promoted
+ * default void onCheck(int colour) - Method called when a move gives check without mate
+ * default void onCheckmate(int winner) - Method called when a move gives checkmate
+ * default void onGameOver(GameResult result, DrawReason reason) - Method called once when the game ends
+ */
+
+public interface GameListener {
+
+    /**
+     * Method called after every accepted move, before the other events of the move
+     * @param result the accepted move and the state of the game after it
+     */
+    default void onMove(MoveResult result) {
+    }
+
+    /**
+     * Method called when a move captures a piece
+     * @param square square the captured piece stood on, not the end square for en passant
+     * @param pieceCode piece code of the captured piece
+     */
+    default void onCapture(int square, int pieceCode) {
+    }
+
+    /**
+     * Method called when a pawn is promoted
+     * @param square square of the new piece
+     * @param pieceCode piece code of the new piece
+     */
+    default void onPromotion(int square, int pieceCode) {
+    }
+
+    /**
+     * Method called when a move gives check and the checked side can still move
+     * @param colour colour of the king in check
+     */
+    default void onCheck(int colour) {
+    }
+
+    /**
+     * Method called when a move gives checkmate, onGameOver follows
+     * @param winner colour that gave mate
+     */
+    default void onCheckmate(int winner) {
+    }
+
+    /**
+     * Method called once when the game ends, on the board or on time
+     * @param result final result
+     * @param reason why the game is drawn, null if it is won
+     */
+    default void onGameOver(GameResult result, DrawReason reason) {
+    }
+}
@@ -0,0 +1,6 @@
+package gameEngine;
+
+public enum GameResult {
+    //Final state of a game, IN_PROGRESS if the side to move still has a legal move
+    IN_PROGRESS, WHITE_WINS, BLACK_WINS, DRAW
+}
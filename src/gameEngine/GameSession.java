@@ -0,0 +1,340 @@
+package gameEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: The rules of one game without any user interface: it takes moves, refuses the illegal ones, and tells
+ * its listeners about captures, promotions, check, checkmate and the end of the game. The Swing game is one listener;
+ * tests, servers and tools can play a session without a display, and a new session is ready in well under a
+ * millisecond once the move tables are loaded.
+ *
+ * Moves follow the headless position (the same rules as the pieces in gameEntities), and a game ends by checkmate,
+ * stalemate, repetition, the 50-move rule and insufficient material as Position.getResult decides, or on time if the
+ * session has a chess clock. A pawn that reaches the last row needs the piece it becomes as a parameter of the move;
+ * without one the move is refused with PROMOTION_NEEDED, so the caller can ask the player and submit again.
+ *
+ * A session is used by one thread at a time, and listeners are called on that thread.
+ *
+ * Method List:
+ * public void addListener(GameListener listener) - Method to receive the events of the game
+ * public void removeListener(GameListener listener) - Method to stop receiving the events of the game
+ * public MoveResult submitMove(int from, int to, int promotion) - Method to play a move given by its squares
+ * public MoveResult submitMove(String text) - Method to play a move written as "e2e4" or "e7e8q"
+ * public boolean needsPromotion(int from, int to) - Method to test if a move would need a promotion piece
+ * public boolean flag(int colour) - Method to end the game because a side ran out of time
+ * public int getSideToMove() - Method to get the side to move
+ * public boolean inCheck() - Method to test if the side to move is in check
+ * public int getPiece(int square) - Method to get the piece code on a square
+ * public GameResult getResult() - Method to get the result of the game
+ * public DrawReason getDrawReason() - Method to get why the game is drawn
+ * public int getFlagged() - Method to get the side that lost on time
+ * public int getPly() - Method to get the number of moves played
+ * public PositionSnapshot getSnapshot() - Method to take a snapshot of the current position
+ * public static void main(String[] args) - Self-testing main method
+ */
+
+public class GameSession {
+    //Global variables
+    private final Position position;
+    private final int[] buffer;
+    private final List<GameListener> listeners;
+    private final ChessClock clock;         //null unless the game has a time control
+    private GameResult result;
+    private DrawReason drawReason;          //null unless the game is drawn
+    private int flagged;                    //side that ran out of time, -1 if none
+
+    /**
+     * Default constructor for a game from the starting position without a clock
+     */
+    public GameSession() {
+        this(PositionSnapshot.START, null);
+    }
+
+    /**
+     * Constructor for a game from any position
+     * @param start starting position
+     * @param clock chess clock pressed after every move, null to play without one; the caller starts it
+     */
+    public GameSession(PositionSnapshot start, ChessClock clock) {
+        this.position = start.toPosition();
+        this.buffer = new int[MoveGenerator.MAX_MOVES];
+        this.listeners = new ArrayList<>();
+        this.clock = clock;
+        this.flagged = -1;
+        this.result = position.getResult(buffer);
+        this.drawReason = result == GameResult.DRAW ? position.getDrawReason(buffer) : null;
+    }
+
+    /**
+     * Method to receive the events of the game
+     * @param listener listener, called on the thread that submits the moves
+     */
+    public void addListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Method to stop receiving the events of the game
+     * @param listener listener added before
+     */
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Method to play a move of the side to move given by its squares
+     * @param from start square (row * 8 + column, row 0 is black's back row)
+     * @param to end square
+     * @param promotion piece type a pawn reaching the last row becomes (Position.QUEEN, ROOK, BISHOP or KNIGHT),
+     *                  ignored for other moves
+     * @return what happened to the move, the events are sent before it returns
+     */
+    public MoveResult submitMove(int from, int to, int promotion) {
+        if (result != GameResult.IN_PROGRESS)
+            return MoveResult.GAME_OVER;
+        if (from < 0 || from > 63 || to < 0 || to > 63)
+            return MoveResult.ILLEGAL;
+        if (needsPromotion(from, to)) {
+            if (promotion == 0) {
+                //refused as illegal if it would not be legal with any piece either
+                return isLegal(Move.of(from, to, Position.QUEEN)) ? MoveResult.PROMOTION_NEEDED : MoveResult.ILLEGAL;
+            }
+            if (promotion < Position.ROOK || promotion > Position.QUEEN)
+                return MoveResult.ILLEGAL;
+        }
+        else {
+            promotion = 0;
+        }
+
+        int move = MoveGenerator.findMove(position, Move.of(from, to, promotion), buffer);
+        if (move == Move.NONE)
+            return MoveResult.ILLEGAL;
+        int mover = position.getSideToMove();
+        int captureSquare = position.captureSquare(move);
+        int captured = captureSquare != Position.NO_SQUARE ? position.getPiece(captureSquare) : Position.EMPTY;
+        if (!position.makeLegalMove(move))
+            return MoveResult.ILLEGAL;
+        if (clock != null && !clock.press()) {
+            position.undoMove();      //the flag fell before the move was made
+            flag(clock.getFlagged());
+            return MoveResult.GAME_OVER;
+        }
+
+        result = position.getResult(buffer);
+        drawReason = result == GameResult.DRAW ? position.getDrawReason(buffer) : null;
+        if (clock != null && result != GameResult.IN_PROGRESS)
+            clock.stop();
+        boolean check = position.inCheck();
+        MoveResult played = new MoveResult(MoveResult.Status.ACCEPTED, move, mover, captured, check, result,
+                drawReason, position.getHash());
+
+        for (GameListener listener : listeners) {
+            listener.onMove(played);
+            if (captured != Position.EMPTY)
+                listener.onCapture(captureSquare, captured);
+            if (Move.promotion(move) != 0)
+                listener.onPromotion(to, Position.pieceCode(mover, Move.promotion(move)));
+            if (check && result == GameResult.IN_PROGRESS)
+                listener.onCheck(mover ^ 1);
+            else if (check)
+                listener.onCheckmate(mover);
+            if (result != GameResult.IN_PROGRESS)
+                listener.onGameOver(result, drawReason);
+        }
+        return played;
+    }
+
+    /**
+     * Method to play a move written in coordinate notation
+     * @param text move such as "e2e4", "e7e8q" or "e7e8k" (knight, as in the promotion dialog)
+     * @return what happened to the move
+     */
+    public MoveResult submitMove(String text) {
+        int move = Move.parse(text, 0, text.length());
+        if (move == Move.NONE)
+            return MoveResult.ILLEGAL;
+        return submitMove(Move.from(move), Move.to(move), Move.promotion(move));
+    }
+
+    /**
+     * Method to test if a move would need a promotion piece, so the user can be asked before it is submitted
+     * @param from start square
+     * @param to end square
+     * @return true if a pawn of the side to move stands on from and to is on the last row
+     */
+    public boolean needsPromotion(int from, int to) {
+        int piece = position.getPiece(from);
+        return Position.pieceType(piece) == Position.PAWN && Position.pieceColour(piece) == position.getSideToMove() &&
+                Bitboards.row(to) == (position.getSideToMove() == Position.WHITE ? 0 : 7);
+    }
+
+    /**
+     * Method to end the game because a side ran out of time. A side with only its king left cannot win, so its
+     * opponent's flag fall draws.
+     * @param colour side that ran out of time
+     * @return false if the game was already over
+     */
+    public boolean flag(int colour) {
+        if (result != GameResult.IN_PROGRESS)
+            return false;
+        flagged = colour;
+        result = position.getTimeoutResult(colour);
+        if (result == GameResult.DRAW)
+            drawReason = DrawReason.INSUFFICIENT_MATERIAL;
+        if (clock != null)
+            clock.stop();
+        for (GameListener listener : listeners)
+            listener.onGameOver(result, drawReason);
+        return true;
+    }
+
+    /**
+     * Method to get the side to move
+     * @return Position.WHITE or Position.BLACK
+     */
+    public int getSideToMove() {
+        return position.getSideToMove();
+    }
+
+    /**
+     * Method to test if the side to move is in check
+     * @return true if its king is attacked
+     */
+    public boolean inCheck() {
+        return position.inCheck();
+    }
+
+    /**
+     * Method to get the piece code on a square
+     * @param square square index
+     * @return piece code, Position.EMPTY if the square is empty
+     */
+    public int getPiece(int square) {
+        return position.getPiece(square);
+    }
+
+    /**
+     * Method to get the result of the game
+     * @return result, IN_PROGRESS while moves can still be played
+     */
+    public GameResult getResult() {
+        return result;
+    }
+
+    /**
+     * Method to get why the game is drawn
+     * @return reason, null unless the game is drawn
+     */
+    public DrawReason getDrawReason() {
+        return drawReason;
+    }
+
+    /**
+     * Method to get the side that lost on time (or drew, if the other side could not win)
+     * @return Position.WHITE or Position.BLACK, -1 if no flag fell
+     */
+    public int getFlagged() {
+        return flagged;
+    }
+
+    /**
+     * Method to get the number of moves played in the session
+     * @return plies
+     */
+    public int getPly() {
+        return position.getPly();
+    }
+
+    /**
+     * Method to take a snapshot of the current position, for example to analyse it on another thread
+     * @return immutable snapshot
+     */
+    public PositionSnapshot getSnapshot() {
+        return PositionSnapshot.of(position);
+    }
+
+    //true if a move can be played now, the position is unchanged afterwards
+    private boolean isLegal(int move) {
+        int found = MoveGenerator.findMove(position, move, buffer);
+        if (found == Move.NONE || !position.makeLegalMove(found))
+            return false;
+        position.undoMove();
+        return true;
+    }
+
+    /**
+     * Self-testing main method: events of a short game, promotion, en passant and illegal moves, and how long a
+     * headless session takes to start
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        GameSession session = new GameSession();
+        System.out.printf("first session: %.1f ms (with class loading)%n", (System.nanoTime() - start) / 1e6);
+
+        List<String> events = new ArrayList<>();
+        GameListener recorder = new GameListener() {
+            @Override
+            public void onCapture(int square, int pieceCode) {
+                events.add("capture " + Move.squareName(square));
+            }
+
+            @Override
+            public void onPromotion(int square, int pieceCode) {
+                events.add("promotion " + Position.pieceType(pieceCode));
+            }
+
+            @Override
+            public void onCheck(int colour) {
+                events.add("check " + colour);
+            }
+
+            @Override
+            public void onCheckmate(int winner) {
+                events.add("mate " + winner);
+            }
+
+            @Override
+            public void onGameOver(GameResult result, DrawReason reason) {
+                events.add("over " + result);
+            }
+        };
+
+        //fool's mate with an illegal attempt first
+        session.addListener(recorder);
+        System.out.println("e2e5: " + session.submitMove("e2e5"));
+        for (String move : new String[]{"f2f3", "e7e5", "g2g4", "d8h4"})
+            System.out.println(move + ": " + session.submitMove(move));
+        System.out.println("after mate: " + session.submitMove("a2a3") + ", events " + events +
+                " (expected [mate 1, over BLACK_WINS])");
+
+        //promotion needs a piece, en passant captures the passed pawn
+        events.clear();
+        session = new GameSession(PositionSnapshot.of(Fen.parse("4k3/1P6/8/8/3p4/8/4P3/4K3 w - - 0 1")), null);
+        session.addListener(recorder);
+        System.out.println("b7b8: " + session.submitMove("b7b8") + ", b7b8 rook (" + Position.ROOK + "): " +
+                session.submitMove(9, 1, Position.ROOK));
+        session.submitMove("e8d7");
+        session.submitMove("e2e4");
+        System.out.println("d4e3: " + session.submitMove("d4e3") + ", events " + events +
+                " (expected [promotion 2, check 1, capture e4])");
+
+        //how fast sessions start and play once the classes are loaded
+        int sessions = 100_000;
+        start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            GameSession game = new GameSession();
+            game.submitMove(53, 45, 0);     //f2f3
+            game.submitMove(12, 28, 0);     //e7e5
+            game.submitMove(54, 38, 0);     //g2g4
+            game.submitMove(3, 39, 0);      //d8h4 mates
+            if (game.getResult() != GameResult.BLACK_WINS)
+                System.out.println("wrong result " + game.getResult());
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / sessions;
+        System.out.printf("new session + 4 moves: %.1f microseconds%n", micros);
+    }
+}
@@ -0,0 +1,31 @@
+package gameEngine;
+
+import java.io.IOException;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Receives the games played by a RandomGameGenerator. It is called from every generator thread at the
+ * same time, so implementations have to be thread-safe. The move array belongs to the calling thread and is reused
+ * for its next game, so it must be read before the call returns.
+ *
+ * Method List:
+ * void onGame(long game, int start, int[] moves, int plies, GameResult result, DrawReason reason) - Method called
+ *        for each finished game
+ */
+
+public interface GameSink {
+
+    /**
+     * Method called for each finished game
+     * @param game game number, the same seed always plays the same moves in game n
+     * @param start index of the starting position in RandomGameGenerator.getStarts()
+     * @param moves packed moves, the first plies entries are the game
+     * @param plies number of moves played
+     * @param result result, IN_PROGRESS if the game reached the ply limit
+     * @param reason why a drawn game is drawn, null otherwise
+     * @throws IOException if the game cannot be passed on, which stops the generator
+     */
+    void onGame(long game, int start, int[] moves, int plies, GameResult result, DrawReason reason)
+            throws IOException;
+}
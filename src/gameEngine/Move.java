@@ -0,0 +1,155 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Moves are packed into a single int so move lists can be stored in plain int arrays without creating
+ * objects. Bits 0-5 hold the start square, bits 6-11 the end square and bits 12-14 the promotion piece type.
+ *
+ * Method List:
+ * public static int of(int from, int to) - Method to create a move
+ * public static int of(int from, int to, int promotion) - Method to create a promotion move
+ * public static int from(int move) - Method to get the start square
+ * public static int to(int move) - Method to get the end square
+ * public static int promotion(int move) - Method to get the promotion piece type (0 if none)
+ * public static int parse(CharSequence text, int start, int end) - Method to read a move written as "e2e4" or "e7e8q"
+ * public static String toString(int move) - Method to write a move as "e2e4" or "e7e8q"
+ * public static String squareName(int square) - Method to get the name of a square ("e4")
+ */
+
+public final class Move {
+    //value used for "no move", a8a8 can never be a real move
+    public static final int NONE = 0;
+
+    private Move() {
+    }
+
+    /**
+     * Method to create a move
+     * @param from start square
+     * @param to end square
+     * @return packed move
+     */
+    public static int of(int from, int to) {
+        return from | to << 6;
+    }
+
+    /**
+     * Method to create a promotion move
+     * @param from start square
+     * @param to end square
+     * @param promotion piece type the pawn becomes (Position.QUEEN etc.), 0 for none
+     * @return packed move
+     */
+    public static int of(int from, int to, int promotion) {
+        return from | to << 6 | promotion << 12;
+    }
+
+    /**
+     * Method to get the start square
+     * @param move packed move
+     * @return start square
+     */
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    /**
+     * Method to get the end square
+     * @param move packed move
+     * @return end square
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * Method to get the promotion piece type
+     * @param move packed move
+     * @return promotion piece type or 0 if the move is not a promotion
+     */
+    public static int promotion(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    /**
+     * Method to read a move written in coordinate notation ("e2e4", "e7e8q") without creating any objects.
+     * Both 'n' and the 'k' used by the promotion dialog are accepted for a knight.
+     * @param text characters holding the move
+     * @param start index of the first character
+     * @param end index after the last character
+     * @return packed move or NONE if the text is not a move
+     */
+    public static int parse(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length != 4 && length != 5)
+            return NONE;
+
+        int from = parseSquare(text.charAt(start), text.charAt(start + 1));
+        int to = parseSquare(text.charAt(start + 2), text.charAt(start + 3));
+        if (from < 0 || to < 0)
+            return NONE;
+
+        int promotion = 0;
+        if (length == 5) {
+            switch (Character.toLowerCase(text.charAt(start + 4))) {
+                case 'q':
+                    promotion = Position.QUEEN;
+                    break;
+                case 'r':
+                    promotion = Position.ROOK;
+                    break;
+                case 'b':
+                    promotion = Position.BISHOP;
+                    break;
+                case 'n':
+                case 'k':
+                    promotion = Position.KNIGHT;
+                    break;
+                default:
+                    return NONE;
+            }
+        }
+        return of(from, to, promotion);
+    }
+
+    /**
+     * Method to write a move in coordinate notation
+     * @param move packed move
+     * @return move text such as "e2e4" or "e7e8q"
+     */
+    public static String toString(int move) {
+        if (move == NONE)
+            return "0000";
+
+        String text = squareName(from(move)) + squareName(to(move));
+        switch (promotion(move)) {
+            case Position.QUEEN:
+                return text + 'q';
+            case Position.ROOK:
+                return text + 'r';
+            case Position.BISHOP:
+                return text + 'b';
+            case Position.KNIGHT:
+                return text + 'n';
+            default:
+                return text;
+        }
+    }
+
+    /**
+     * Method to get the name of a square
+     * @param square square index
+     * @return square name such as "e4"
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('a' + Bitboards.column(square)) + (char) ('8' - Bitboards.row(square));
+    }
+
+    //converts a file letter and rank digit into a square index, -1 if off the board
+    static int parseSquare(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8')
+            return -1;
+        return ('8' - rank) * 8 + (file - 'a');
+    }
+}
@@ -0,0 +1,364 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Generates the pseudo-legal moves of the side to move into an int array. The moves follow the rules
+ * of the piece classes in gameEntities (pawns move two squares from their starting row and promote on the last
+ * row), including castling and en passant. Moves that leave the king in check are removed when they are played with
+ * Position.makeLegalMove(); castling is only generated if the king is not in check and does not pass an attacked
+ * square, since makeLegalMove() only looks at the square the king ends on.
+ *
+ * Method List:
+ * public static int generate(Position position, int[] moves, int start) - Method to add every pseudo-legal move
+ * public static int generateCaptures(Position position, int[] moves, int start) - Method to add captures and
+ *                                                                                 promotions only
+ * public static int generateQuiets(Position position, int[] moves, int start) - Method to add the moves that
+ *                                                                               generateCaptures leaves out
+ * public static boolean isPseudoLegal(Position position, int move) - Method to test if generate() would produce a
+ *                                                                    move, without generating
+ * public static int findMove(Position position, int move, int[] buffer) - Method to match a move against the
+ *                                                                         generated moves
+ * public static long perft(Position position, int depth) - Method to count the legal move sequences of a length
+ * public static void main(String[] args) - Self-testing main method
+ */
+
+public final class MoveGenerator {
+    //no position can have more pseudo-legal moves than this
+    public static final int MAX_MOVES = 256;
+
+    private static final int[] PROMOTIONS = {Position.QUEEN, Position.ROOK, Position.BISHOP, Position.KNIGHT};
+
+    //which moves generate() adds
+    private static final int ALL = 0, CAPTURES = 1, QUIETS = 2;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Method to add every pseudo-legal move of the side to move
+     * @param position position to generate moves for
+     * @param moves array the moves are written into
+     * @param start index of the first free slot in the array
+     * @return index after the last move written
+     */
+    public static int generate(Position position, int[] moves, int start) {
+        int us = position.getSideToMove();
+        return generate(position, ~position.getColourPieces(us), ALL, moves, start);
+    }
+
+    /**
+     * Method to add captures and promotions only, used by the quiescence search
+     * @param position position to generate moves for
+     * @param moves array the moves are written into
+     * @param start index of the first free slot in the array
+     * @return index after the last move written
+     */
+    public static int generateCaptures(Position position, int[] moves, int start) {
+        int us = position.getSideToMove();
+        return generate(position, position.getColourPieces(us ^ 1), CAPTURES, moves, start);
+    }
+
+    /**
+     * Method to add the moves generateCaptures() leaves out: moves to empty squares that do not promote (not en
+     * passant) and castling. Together the two give the same moves as generate().
+     * @param position position to generate moves for
+     * @param moves array the moves are written into
+     * @param start index of the first free slot in the array
+     * @return index after the last move written
+     */
+    public static int generateQuiets(Position position, int[] moves, int start) {
+        return generate(position, ~position.getOccupied(), QUIETS, moves, start);
+    }
+
+    /**
+     * Method to test if a move is one generate() would produce in the position, for moves that come from elsewhere
+     * such as the transposition table or a sibling position's killer moves
+     * @param position position the move would be played in
+     * @param move packed move
+     * @return true if the move is pseudo-legal
+     */
+    public static boolean isPseudoLegal(Position position, int move) {
+        if (move == Move.NONE)
+            return false;
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int us = position.getSideToMove();
+        int piece = position.getPiece(from);
+        long own = position.getColourPieces(us);
+        if (piece == Position.EMPTY || Position.pieceColour(piece) != us || (own & 1L << to) != 0)
+            return false;
+
+        int type = Position.pieceType(piece);
+        int promotion = Move.promotion(move);
+        long occupied = position.getOccupied();
+        if (type == Position.PAWN) {
+            int forward = us == Position.WHITE ? -8 : 8;
+            int lastRow = us == Position.WHITE ? 0 : 7;
+            if ((Bitboards.row(to) == lastRow) != (promotion != 0) ||
+                    promotion != 0 && (promotion < Position.ROOK || promotion > Position.QUEEN))
+                return false;
+            if ((Bitboards.pawnAttacks(us, from) & 1L << to) != 0)
+                return (position.getColourPieces(us ^ 1) & 1L << to) != 0 || to == position.getEnPassantSquare();
+            if (to == from + forward)
+                return (occupied & 1L << to) == 0;
+            int startRow = us == Position.WHITE ? 6 : 1;
+            return to == from + 2 * forward && Bitboards.row(from) == startRow &&
+                    (occupied & (1L << to | 1L << (from + forward))) == 0;
+        }
+        if (promotion != 0)
+            return false;
+
+        long attacks;
+        switch (type) {
+            case Position.KNIGHT:
+                attacks = Bitboards.knightAttacks(from);
+                break;
+            case Position.BISHOP:
+                attacks = Bitboards.bishopAttacks(from, occupied);
+                break;
+            case Position.ROOK:
+                attacks = Bitboards.rookAttacks(from, occupied);
+                break;
+            case Position.QUEEN:
+                attacks = Bitboards.queenAttacks(from, occupied);
+                break;
+            default:
+                if (to - from == 2 || from - to == 2) {
+                    //castling has its own conditions, checked the same way the generator checks them
+                    return from == (us == Position.WHITE ? 60 : 4) && canCastle(position, us, occupied, to > from);
+                }
+                attacks = Bitboards.kingAttacks(from);
+        }
+        return (attacks & 1L << to) != 0;
+    }
+
+    //adds the moves of every piece that end on one of the target squares
+    private static int generate(Position position, long targets, int kind, int[] moves, int start) {
+        int us = position.getSideToMove();
+        long own = position.getColourPieces(us);
+        long enemy = position.getColourPieces(us ^ 1);
+        long occupied = own | enemy;
+        int count = start;
+
+        count = generatePawnMoves(position, us, enemy, occupied, kind, moves, count);
+
+        //knights and kings can jump to any target square
+        for (long b = position.getPieces(us, Position.KNIGHT); b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            count = addMoves(from, Bitboards.knightAttacks(from) & targets, moves, count);
+        }
+        for (long b = position.getPieces(us, Position.KING); b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            count = addMoves(from, Bitboards.kingAttacks(from) & targets, moves, count);
+        }
+        if (kind != CAPTURES && position.getCastlingRights() != 0)
+            count = generateCastling(position, us, occupied, moves, count);
+
+        //sliding pieces stop at the first piece in their path
+        for (long b = position.getPieces(us, Position.BISHOP); b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            count = addMoves(from, Bitboards.bishopAttacks(from, occupied) & targets, moves, count);
+        }
+        for (long b = position.getPieces(us, Position.ROOK); b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            count = addMoves(from, Bitboards.rookAttacks(from, occupied) & targets, moves, count);
+        }
+        for (long b = position.getPieces(us, Position.QUEEN); b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            count = addMoves(from, Bitboards.queenAttacks(from, occupied) & targets, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Method to match a move (for example one read with Move.parse) against the generated moves. A pawn move to the
+     * last row without a promotion piece is treated as a queen promotion, the default in Game.pawnPromotion.
+     * @param position position the move is played in
+     * @param move move to look for
+     * @param buffer scratch array of at least MAX_MOVES entries
+     * @return the generated move, or Move.NONE if the move is not pseudo-legal
+     */
+    public static int findMove(Position position, int move, int[] buffer) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int promotion = Move.promotion(move);
+        if (promotion == 0 && Position.pieceType(position.getPiece(from)) == Position.PAWN &&
+                (Bitboards.row(to) == 0 || Bitboards.row(to) == 7)) {
+            promotion = Position.QUEEN;
+        }
+
+        int count = generate(position, buffer, 0);
+        for (int i = 0; i < count; i++) {
+            if (Move.from(buffer[i]) == from && Move.to(buffer[i]) == to && Move.promotion(buffer[i]) == promotion)
+                return buffer[i];
+        }
+        return Move.NONE;
+    }
+
+    //adds pushes, double pushes from the starting row, diagonal captures and promotions
+    private static int generatePawnMoves(Position position, int us, long enemy, long occupied, int kind,
+                                         int[] moves, int count) {
+        int forward = us == Position.WHITE ? -8 : 8;
+        int startRow = us == Position.WHITE ? 6 : 1;
+        int lastRow = us == Position.WHITE ? 0 : 7;
+
+        for (long b = position.getPieces(us, Position.PAWN); b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            int to = from + forward;
+
+            //pawns can only move forward onto an empty square (only promotions count as captures here)
+            boolean promotes = Bitboards.row(to) == lastRow;
+            if ((occupied & 1L << to) == 0 && (kind == ALL || (kind == CAPTURES) == promotes)) {
+                count = addPawnMove(from, to, lastRow, moves, count);
+                int twoSteps = to + forward;
+                if (kind != CAPTURES && Bitboards.row(from) == startRow && (occupied & 1L << twoSteps) == 0)
+                    moves[count++] = Move.of(from, twoSteps);
+            }
+
+            //pawns only capture diagonally
+            if (kind == QUIETS)
+                continue;
+            for (long attacks = Bitboards.pawnAttacks(us, from) & enemy; attacks != 0; attacks &= attacks - 1)
+                count = addPawnMove(from, Long.numberOfTrailingZeros(attacks), lastRow, moves, count);
+        }
+
+        //en passant, the pawns that attack the skipped square are found from the square itself
+        int enPassant = position.getEnPassantSquare();
+        if (enPassant != Position.NO_SQUARE && kind != QUIETS) {
+            long attackers = Bitboards.pawnAttacks(us ^ 1, enPassant) & position.getPieces(us, Position.PAWN);
+            for (; attackers != 0; attackers &= attackers - 1)
+                moves[count++] = Move.of(Long.numberOfTrailingZeros(attackers), enPassant);
+        }
+        return count;
+    }
+
+    //adds the king's two-square castling moves whose rook is still at home and whose path is clear and safe
+    private static int generateCastling(Position position, int us, long occupied, int[] moves, int count) {
+        int king = us == Position.WHITE ? 60 : 4;
+        if (canCastle(position, us, occupied, true))
+            moves[count++] = Move.of(king, king + 2);
+        if (canCastle(position, us, occupied, false))
+            moves[count++] = Move.of(king, king - 2);
+        return count;
+    }
+
+    //true if the side still has the right to castle on that side, the squares between king and rook are empty, and
+    //neither the king nor the square it passes is attacked
+    private static boolean canCastle(Position position, int us, long occupied, boolean kingside) {
+        int right = kingside ? (us == Position.WHITE ? Position.WHITE_KINGSIDE : Position.BLACK_KINGSIDE) :
+                (us == Position.WHITE ? Position.WHITE_QUEENSIDE : Position.BLACK_QUEENSIDE);
+        if ((position.getCastlingRights() & right) == 0)
+            return false;
+        int king = us == Position.WHITE ? 60 : 4;
+        long between = kingside ? 3L << (king + 1) : 7L << (king - 3);
+        int them = us ^ 1;
+        //a right loaded from a bad FEN or snapshot is no use without the rook still in its corner
+        if (position.getPiece(kingside ? king + 3 : king - 4) != Position.pieceCode(us, Position.ROOK))
+            return false;
+        return position.getKingSquare(us) == king && (occupied & between) == 0 &&
+                !position.isAttacked(king, them) && !position.isAttacked(kingside ? king + 1 : king - 1, them);
+    }
+
+    private static int addPawnMove(int from, int to, int lastRow, int[] moves, int count) {
+        if (Bitboards.row(to) == lastRow) {
+            for (int promotion : PROMOTIONS)
+                moves[count++] = Move.of(from, to, promotion);
+        }
+        else {
+            moves[count++] = Move.of(from, to);
+        }
+        return count;
+    }
+
+    private static int addMoves(int from, long targets, int[] moves, int count) {
+        for (; targets != 0; targets &= targets - 1)
+            moves[count++] = Move.of(from, Long.numberOfTrailingZeros(targets));
+        return count;
+    }
+
+    /**
+     * Method to count the legal move sequences of a length ("perft"), the usual way to check a move generator
+     * against published numbers
+     * @param position position to start from, it is the same again afterwards
+     * @param depth number of moves in each sequence
+     * @return number of sequences
+     */
+    public static long perft(Position position, int depth) {
+        return perft(position, depth, new int[depth + 1][MAX_MOVES]);
+    }
+
+    private static long perft(Position position, int depth, int[][] moves) {
+        if (depth == 0)
+            return 1;
+        long nodes = 0;
+        int count = generate(position, moves[depth], 0);
+        for (int i = 0; i < count; i++) {
+            if (position.makeLegalMove(moves[depth][i])) {
+                nodes += perft(position, depth - 1, moves);
+                position.undoMove();
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Self-testing main method, compares perft counts with the published values for positions full of castling,
+     * en passant and promotion cases, then checks on positions from random games that captures and quiet moves add
+     * up to every move and that isPseudoLegal() accepts exactly the generated moves
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        String[] fens = {
+                Fen.START,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"};
+        int[] depths = {4, 3, 5, 4, 3};
+        long[] expected = {197_281, 97_862, 674_624, 422_333, 62_379};
+
+        for (int i = 0; i < fens.length; i++) {
+            long start = System.nanoTime();
+            long nodes = perft(Fen.parse(fens[i]), depths[i]);
+            System.out.printf("%s depth %d: %,d (expected %,d) %s in %.2fs%n", fens[i], depths[i], nodes, expected[i],
+                    nodes == expected[i] ? "ok" : "WRONG", (System.nanoTime() - start) / 1e9);
+        }
+
+        java.util.SplittableRandom random = new java.util.SplittableRandom(1);
+        int[] all = new int[MAX_MOVES];
+        int[] split = new int[MAX_MOVES];
+        int errors = 0;
+        for (int game = 0; game < 300; game++) {
+            Position position = new Position();
+            for (int ply = 0; ply < 100; ply++) {
+                int count = generate(position, all, 0);
+                int parts = generateQuiets(position, split, generateCaptures(position, split, 0));
+                java.util.Arrays.sort(all, 0, count);
+                java.util.Arrays.sort(split, 0, parts);
+                if (!java.util.Arrays.equals(all, 0, count, split, 0, parts))
+                    errors++;
+
+                //every from, to and promotion piece, the accepted ones must be the generated ones
+                int accepted = 0;
+                for (int move = 1; move < 1 << 15; move++) {
+                    if (isPseudoLegal(position, move)) {
+                        accepted++;
+                        if (java.util.Arrays.binarySearch(all, 0, count, move) < 0)
+                            errors++;
+                    }
+                }
+                if (accepted != count)
+                    errors++;
+
+                boolean played = false;
+                for (int tries = 0; tries < count && !played; tries++)
+                    played = position.makeLegalMove(all[random.nextInt(count)]);
+                if (!played)
+                    break;
+            }
+        }
+        System.out.println("generateCaptures + generateQuiets and isPseudoLegal: " +
+                (errors == 0 ? "ok" : errors + " errors"));
+    }
+}
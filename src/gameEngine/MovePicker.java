@@ -0,0 +1,172 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Hands out the moves of a position one at a time, best first, for the search. Moves are produced in
+ * stages, and a stage is only generated once the one before it is used up, so a node that is cut off by its first
+ * moves never generates or scores the rest:
+ * 1. the transposition table move, checked with MoveGenerator.isPseudoLegal() instead of generating,
+ * 2. captures and promotions, most valuable victim first, whose static exchange does not lose material,
+ * 3. the two killer moves, if they are quiet moves in this position,
+ * 4. the other quiet moves, by history score,
+ * 5. the captures that lose material, in the order they were put aside.
+ * Inside a stage the next move is found by selection (one pass for the best remaining score) rather than sorting the
+ * whole stage, and a capture's static exchange is only worked out when it is picked. The quiescence search uses
+ * stage 2 only. Each ply of a search has its own picker, so no arrays are created during the search.
+ *
+ * Method List:
+ * public void init(Position position, int ttMove, int[] killers, int[] history) - Method to start on a node of the
+ *        main search
+ * public void initCaptures(Position position) - Method to start on a node of the quiescence search
+ * public int next() - Method to get the next move, Move.NONE once every move was handed out
+ */
+
+public final class MovePicker {
+    private static final int TT_MOVE = 0, GENERATE_CAPTURES = 1, GOOD_CAPTURES = 2, KILLERS = 3, GENERATE_QUIETS = 4,
+            QUIETS = 5, BAD_CAPTURES = 6, DONE = 7;
+
+    //Global variables
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+    private Position position;
+    private int ttMove;
+    private int killer1, killer2;
+    private int[] history;
+    private boolean capturesOnly;
+    private int stage;
+    private int current, end;       //moves of the current stage still to hand out
+    private int badCount;           //losing captures put aside at the start of the array
+    private int killerIndex;
+
+    /**
+     * Method to start handing out the moves of a node of the main search
+     * @param position position of the node
+     * @param ttMove move from the transposition table, Move.NONE if there is none
+     * @param killers the node's two killer moves
+     * @param history history scores of quiet moves, indexed by from and to square (move & 4095)
+     */
+    public void init(Position position, int ttMove, int[] killers, int[] history) {
+        this.position = position;
+        this.ttMove = MoveGenerator.isPseudoLegal(position, ttMove) ? ttMove : Move.NONE;
+        this.killer1 = killers[0];
+        this.killer2 = killers[1];
+        this.history = history;
+        this.capturesOnly = false;
+        this.stage = TT_MOVE;
+        this.badCount = 0;
+        this.killerIndex = 0;
+    }
+
+    /**
+     * Method to start handing out the captures of a node of the quiescence search, captures that lose material are
+     * left out
+     * @param position position of the node
+     */
+    public void initCaptures(Position position) {
+        this.position = position;
+        this.ttMove = Move.NONE;
+        this.killer1 = this.killer2 = Move.NONE;
+        this.capturesOnly = true;
+        this.stage = GENERATE_CAPTURES;
+        this.badCount = 0;
+    }
+
+    /**
+     * Method to get the next move, each move is pseudo-legal and only handed out once
+     * @return packed move, Move.NONE once every move was handed out
+     */
+    public int next() {
+        while (true) {
+            switch (stage) {
+                case TT_MOVE:
+                    stage = GENERATE_CAPTURES;
+                    if (ttMove != Move.NONE)
+                        return ttMove;
+                    break;
+
+                case GENERATE_CAPTURES:
+                    current = 0;
+                    end = MoveGenerator.generateCaptures(position, moves, 0);
+                    for (int i = 0; i < end; i++)
+                        scores[i] = captureOrder(moves[i]);
+                    stage = GOOD_CAPTURES;
+                    break;
+
+                case GOOD_CAPTURES:
+                    while (current < end) {
+                        int move = pickBest();
+                        if (move == ttMove)
+                            continue;
+                        if (StaticExchange.isAtLeast(position, move, 0))
+                            return move;
+                        moves[badCount++] = move;   //the slot before current is free again
+                    }
+                    stage = capturesOnly ? DONE : KILLERS;
+                    break;
+
+                case KILLERS:
+                    while (killerIndex < 2) {
+                        int killer = killerIndex++ == 0 ? killer1 : killer2;
+                        if (killer != Move.NONE && killer != ttMove && Move.promotion(killer) == 0 &&
+                                !position.isCapture(killer) && MoveGenerator.isPseudoLegal(position, killer))
+                            return killer;
+                    }
+                    stage = GENERATE_QUIETS;
+                    break;
+
+                case GENERATE_QUIETS:
+                    current = end;
+                    end = MoveGenerator.generateQuiets(position, moves, current);
+                    for (int i = current; i < end; i++)
+                        scores[i] = history[moves[i] & 4095];
+                    stage = QUIETS;
+                    break;
+
+                case QUIETS:
+                    while (current < end) {
+                        int move = pickBest();
+                        if (move != ttMove && move != killer1 && move != killer2)
+                            return move;
+                    }
+                    current = 0;
+                    stage = BAD_CAPTURES;
+                    break;
+
+                case BAD_CAPTURES:
+                    if (current < badCount)
+                        return moves[current++];
+                    stage = DONE;
+                    break;
+
+                default:
+                    return Move.NONE;
+            }
+        }
+    }
+
+    //most valuable victim first, then the least valuable attacker, promotions count their new piece
+    private int captureOrder(int move) {
+        int victim = position.isCapture(move) ?
+                Math.max(Position.PAWN, Position.pieceType(position.getPiece(Move.to(move)))) : Position.EMPTY;
+        return Evaluator.pieceValue(victim) * 8 + Evaluator.pieceValue(Move.promotion(move)) -
+                Position.pieceType(position.getPiece(Move.from(move)));
+    }
+
+    //moves the best remaining move of the stage to the front of the stage and hands it out (selection sort step)
+    private int pickBest() {
+        int best = current;
+        for (int j = current + 1; j < end; j++) {
+            if (scores[j] > scores[best])
+                best = j;
+        }
+        int move = moves[best];
+        moves[best] = moves[current];
+        moves[current] = move;
+        int score = scores[best];
+        scores[best] = scores[current];
+        scores[current] = score;
+        current++;
+        return move;
+    }
+}
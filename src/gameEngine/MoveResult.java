@@ -0,0 +1,154 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: What GameSession.submitMove() did with a move: whether it was played, and if so the packed move, the
+ * piece it captured, whether it gives check and the state of the game after it. Results are immutable.
+ *
+ * Method List:
+ * public Status getStatus() - Method to get whether the move was played
+ * public boolean isAccepted() - Method to test if the move was played
+ * public int getMove() - Method to get the packed move
+ * public int getMover() - Method to get the colour that made the move
+ * public int getCaptured() - Method to get the piece code of the captured piece
+ * public int getPromotion() - Method to get the piece type a pawn became
+ * public boolean isCheck() - Method to test if the move gives check
+ * public GameResult getResult() - Method to get the result of the game after the move
+ * public DrawReason getDrawReason() - Method to get why the game is drawn
+ * public long getHash() - Method to get the position hash after the move
+ * public String toString() - Method to describe the result on one line
+ */
+
+public final class MoveResult {
+    /**
+     * Whether a submitted move was played
+     */
+    public enum Status {
+        //ACCEPTED: played, ILLEGAL: not a legal move, PROMOTION_NEEDED: a pawn reaches the last row and no piece was
+        //chosen, GAME_OVER: the game had already ended (on the board or on time)
+        ACCEPTED, ILLEGAL, PROMOTION_NEEDED, GAME_OVER
+    }
+
+    static final MoveResult ILLEGAL = new MoveResult(Status.ILLEGAL);
+    static final MoveResult PROMOTION_NEEDED = new MoveResult(Status.PROMOTION_NEEDED);
+    static final MoveResult GAME_OVER = new MoveResult(Status.GAME_OVER);
+
+    //Global variables
+    private final Status status;
+    private final int move;
+    private final int mover;
+    private final int captured;
+    private final boolean check;
+    private final GameResult result;
+    private final DrawReason drawReason;
+    private final long hash;
+
+    private MoveResult(Status status) {
+        this(status, Move.NONE, Position.WHITE, Position.EMPTY, false, null, null, 0);
+    }
+
+    MoveResult(Status status, int move, int mover, int captured, boolean check, GameResult result,
+               DrawReason drawReason, long hash) {
+        this.status = status;
+        this.move = move;
+        this.mover = mover;
+        this.captured = captured;
+        this.check = check;
+        this.result = result;
+        this.drawReason = drawReason;
+        this.hash = hash;
+    }
+
+    /**
+     * Method to get whether the move was played
+     * @return status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Method to test if the move was played
+     * @return true if the status is ACCEPTED
+     */
+    public boolean isAccepted() {
+        return status == Status.ACCEPTED;
+    }
+
+    /**
+     * Method to get the packed move
+     * @return move as played, Move.NONE if it was not played
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Method to get the colour that made the move
+     * @return Position.WHITE or Position.BLACK
+     */
+    public int getMover() {
+        return mover;
+    }
+
+    /**
+     * Method to get the piece code of the captured piece, the pawn for en passant
+     * @return piece code, Position.EMPTY if the move captured nothing
+     */
+    public int getCaptured() {
+        return captured;
+    }
+
+    /**
+     * Method to get the piece type a pawn became
+     * @return Position.QUEEN, ROOK, BISHOP or KNIGHT, 0 if the move was no promotion
+     */
+    public int getPromotion() {
+        return Move.promotion(move);
+    }
+
+    /**
+     * Method to test if the move gives check (checkmate included)
+     * @return true if the other side's king is attacked after the move
+     */
+    public boolean isCheck() {
+        return check;
+    }
+
+    /**
+     * Method to get the result of the game after the move
+     * @return result, IN_PROGRESS if the game goes on, null if the move was not played
+     */
+    public GameResult getResult() {
+        return result;
+    }
+
+    /**
+     * Method to get why the game is drawn
+     * @return reason, null unless the move drew the game
+     */
+    public DrawReason getDrawReason() {
+        return drawReason;
+    }
+
+    /**
+     * Method to get the position hash after the move, as sent to spectators
+     * @return Zobrist hash, 0 if the move was not played
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Method to describe the result on one line
+     * @return text such as "ACCEPTED e7e8q check WHITE_WINS"
+     */
+    @Override
+    public String toString() {
+        if (!isAccepted())
+            return status.toString();
+        return status + " " + Move.toString(move) + (check ? " check " : " ") + result +
+                (drawReason != null ? " " + drawReason : "");
+    }
+}
@@ -0,0 +1,269 @@
+package gameEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Weights of a small quantized evaluation network in the style of NNUE. The input is the pieces seen
+ * from each side's king (HalfKP, with the kings themselves included as pieces): one feature for every king square,
+ * piece (own or opponent, six types) and square, 64 * 12 * 64 in all, with the board mirrored for black so both sides
+ * share the weights. Each side has its own accumulator of HIDDEN int16 sums of the feature weights of the pieces on
+ * the board (see Accumulator, which updates them move by move). The output is a dot product of both accumulators,
+ * clipped to 0 - ACTIVATION_MAX, with the output weights, side to move first, divided by the output divisor, in
+ * hundredths of a pawn for the side to move.
+ *
+ * Network file (little endian): "CNNU", version, hidden size, output divisor and output bias as ints, then the
+ * hidden biases, the feature weights (feature by feature, HIDDEN values each) and the 2 * HIDDEN output weights, all
+ * int16. Files are read through a memory mapping, which leaves the pages in the operating system's file cache for
+ * other engine processes. The weights are copied into plain arrays so the update and output loops can be vectorized
+ * by the JIT compiler.
+ *
+ * bootstrap() builds a network that gives exactly the Evaluator score, so the search plays the same with and without
+ * it until a trained network file is loaded.
+ *
+ * Method List:
+ * public static Network load(Path file) - Method to read a network file through a memory mapping
+ * public void write(Path file) - Method to write the network in the file format
+ * public static Network bootstrap() - Method to build the network that reproduces the Evaluator score
+ * public int getHidden() - Method to get the number of accumulator values per side
+ * public static void main(String[] args) - Method to write the bootstrap network, or to check and time the evaluation
+ */
+
+public final class Network {
+    public static final int FEATURES = 64 * 12 * 64;
+    public static final int ACTIVATION_MAX = 255;
+    private static final int MAGIC = 'C' | 'N' << 8 | 'N' << 16 | 'U' << 24;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+
+    //the bootstrap network, its output weight and the offset that keeps its sums inside the clipping range
+    private static final int BOOTSTRAP_HIDDEN = 64;
+    private static final int BOOTSTRAP_WEIGHT = 64;
+
+    //Global variables
+    final int hidden;
+    final short[] featureBias;
+    final short[] featureWeights;   //[feature * hidden + i]
+    final short[] outputWeights;    //side to move first, then the other side
+    final int outputBias;
+    final int outputDivisor;
+
+    private Network(int hidden, int outputDivisor, int outputBias) {
+        this.hidden = hidden;
+        this.outputDivisor = outputDivisor;
+        this.outputBias = outputBias;
+        this.featureBias = new short[hidden];
+        this.featureWeights = new short[FEATURES * hidden];
+        this.outputWeights = new short[2 * hidden];
+    }
+
+    /**
+     * Method to read a network file through a memory mapping
+     * @param file network file
+     * @return the network
+     * @throws IOException if the file cannot be read or is not a network file
+     */
+    public static Network load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                throw new IOException(file + " is not a network file");
+            int hidden = buffer.getInt();
+            int divisor = buffer.getInt();
+            int bias = buffer.getInt();
+            if (hidden <= 0 || hidden > 4096 || divisor <= 0 ||
+                    buffer.remaining() != 2L * hidden * (1 + FEATURES + 2))
+                throw new IOException(file + " has the wrong size for its header");
+
+            Network network = new Network(hidden, divisor, bias);
+            buffer.asShortBuffer().get(network.featureBias);
+            buffer.position(buffer.position() + 2 * hidden);
+            buffer.asShortBuffer().get(network.featureWeights);
+            buffer.position(buffer.position() + 2 * network.featureWeights.length);
+            buffer.asShortBuffer().get(network.outputWeights);
+            return network;
+        }
+    }
+
+    /**
+     * Method to write the network in the file format
+     * @param file file to create or replace
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 2 * hidden * (1 + FEATURES + 2))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(hidden).putInt(outputDivisor).putInt(outputBias);
+        for (short value : featureBias)
+            buffer.putShort(value);
+        for (short value : featureWeights)
+            buffer.putShort(value);
+        for (short value : outputWeights)
+            buffer.putShort(value);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * Method to build the network that reproduces the Evaluator score. Every hidden value sums the same piece-square
+     * scores, from its side's point of view, and their biases are spaced ACTIVATION_MAX apart, so together the
+     * clipped values count the side's score in steps that never overlap. The side to move's values are added and the
+     * other side's subtracted.
+     * @return the network
+     */
+    public static Network bootstrap() {
+        int hidden = BOOTSTRAP_HIDDEN;
+        Network network = new Network(hidden, 2 * BOOTSTRAP_WEIGHT, 0);
+        int offset = hidden / 2 * ACTIVATION_MAX;     //scores from -offset to +offset are exact
+        for (int i = 0; i < hidden; i++) {
+            network.featureBias[i] = (short) (offset - i * ACTIVATION_MAX);
+            network.outputWeights[i] = BOOTSTRAP_WEIGHT;
+            network.outputWeights[hidden + i] = -BOOTSTRAP_WEIGHT;
+        }
+        for (int king = 0; king < 64; king++) {
+            for (int type = Position.PAWN; type <= Position.KING; type++) {
+                for (int square = 0; square < 64; square++) {
+                    //squares as seen by white, the opponent's bonus table is mirrored as in Evaluator
+                    int own = Evaluator.pieceValue(type) + Evaluator.squareBonus(type, square);
+                    int opponent = Evaluator.pieceValue(type) + Evaluator.squareBonus(type, square ^ 56);
+                    int ownFeature = feature(Position.WHITE, king, Position.pieceCode(Position.WHITE, type), square);
+                    int opponentFeature = feature(Position.WHITE, king, Position.pieceCode(Position.BLACK, type),
+                            square);
+                    for (int i = 0; i < hidden; i++) {
+                        network.featureWeights[ownFeature * hidden + i] = (short) own;
+                        network.featureWeights[opponentFeature * hidden + i] = (short) -opponent;
+                    }
+                }
+            }
+        }
+        return network;
+    }
+
+    /**
+     * Method to get the number of accumulator values per side
+     * @return hidden size
+     */
+    public int getHidden() {
+        return hidden;
+    }
+
+    //input index of a piece as seen from one side's king, black sees the board mirrored
+    static int feature(int perspective, int kingSquare, int pieceCode, int square) {
+        if (perspective == Position.BLACK) {
+            kingSquare ^= 56;
+            square ^= 56;
+        }
+        int kind = (Position.pieceColour(pieceCode) == perspective ? 0 : 6) + Position.pieceType(pieceCode) - 1;
+        return (kingSquare * 12 + kind) * 64 + square;
+    }
+
+    //score for the side to move from both sides' accumulators
+    int output(short[] values, int sideToMove, int other) {
+        int sum = 0;
+        for (int i = 0; i < hidden; i++) {
+            int us = Math.min(Math.max(values[sideToMove + i], 0), ACTIVATION_MAX);
+            int them = Math.min(Math.max(values[other + i], 0), ACTIVATION_MAX);
+            sum += us * outputWeights[i] + them * outputWeights[hidden + i];
+        }
+        return (sum + outputBias) / outputDivisor;
+    }
+
+    /**
+     * Method to write the bootstrap network to a file, or without arguments to check the incremental evaluation
+     * against Evaluator along random games and time it
+     * @param args file name to write, or nothing
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            bootstrap().write(Paths.get(args[0]));
+            System.out.println("Wrote " + args[0]);
+            return;
+        }
+
+        Network network = bootstrap();
+        Position position = new Position();
+        Accumulator accumulator = new Accumulator(network, position);
+        position.setAccumulator(accumulator);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int errors = 0;
+        long evaluations = 0;
+        long start = System.nanoTime();
+        for (int game = 0; game < 2000; game++) {
+            position.reset();
+            //random moves out and back again, checking after every move and every undo
+            int plies = 0;
+            for (; plies < 120; plies++) {
+                int count = MoveGenerator.generate(position, moves, 0);
+                boolean played = false;
+                for (int tries = 0; tries < count && !played; tries++)
+                    played = position.makeLegalMove(moves[random.nextInt(count)]);
+                if (!played)
+                    break;
+                if (accumulator.evaluate() != Evaluator.evaluate(position))
+                    errors++;
+                evaluations++;
+            }
+            for (; plies > 0; plies--) {
+                position.undoMove();
+                if (accumulator.evaluate() != Evaluator.evaluate(position))
+                    errors++;
+                evaluations++;
+            }
+        }
+        System.out.println("incremental evaluation: " + (errors == 0 ? "matches Evaluator" : errors + " errors") +
+                " in " + evaluations + " positions (" + (System.nanoTime() - start) / 1_000_000 + " ms with moves)");
+
+        //moves with their undo, with and without the accumulators, then the output layer alone
+        Fen.load(position, SearchBench.POSITIONS[3]);
+        long sum = 0;
+        for (int round = 0; round < 3; round++) {
+            position.setAccumulator(accumulator);
+            double withNetwork = movesPerSecond(position, accumulator);
+            position.setAccumulator(null);
+            double plain = movesPerSecond(position, null);
+            position.setAccumulator(accumulator);
+            start = System.nanoTime();
+            for (int i = 0; i < 10_000_000; i++)
+                sum += accumulator.evaluate();
+            double output = 10_000_000 / ((System.nanoTime() - start) / 1e9);
+            System.out.printf("move + network eval + undo %,.0f/s, move + Evaluator + undo %,.0f/s, " +
+                    "network eval alone %,.0f/s%n", withNetwork, plain, output);
+        }
+        if (sum == 42)
+            System.out.println();       //keeps the timed loops from being removed
+    }
+
+    //makes, scores and takes back every legal move many times, with the accumulators if they are given
+    private static double movesPerSecond(Position position, Accumulator accumulator) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(position, moves, 0);
+        long calls = 0;
+        long start = System.nanoTime();
+        for (int repeat = 0; repeat < 100_000; repeat++) {
+            for (int i = 0; i < count; i++) {
+                if (position.makeLegalMove(moves[i])) {
+                    calls += (accumulator != null ? accumulator.evaluate() : Evaluator.evaluate(position)) > 30_000 ?
+                            0 : 1;
+                    position.undoMove();
+                }
+            }
+        }
+        return calls / ((System.nanoTime() - start) / 1e9);
+    }
+}
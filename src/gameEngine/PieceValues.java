@@ -0,0 +1,93 @@
+package gameEngine;
+
+import gameEntities.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: The one table of piece values used by the whole game: the capture score shown by Player, the
+ * material kept by Position, the evaluation (in hundredths of a pawn) and static exchange evaluation. The defaults
+ * are the values the score panel has always used (pawn 1, knight and bishop 3, rook 5, queen 8).
+ *
+ * Other values can be given with the system property "chess.pieceValues", five numbers for pawn, rook, knight,
+ * bishop and queen (PieceType order), for example -Dchess.pieceValues=1,5,3,3,9. The table is read once when the
+ * class is loaded, so the material totals a position keeps up to date never mix two tables.
+ *
+ * Method List:
+ * public static int get(int type) - Method to get the value of a piece type in pawns
+ * public static int get(PieceType type) - Method to get the value of a piece type in pawns
+ * public static int centipawns(int type) - Method to get the value of a piece type in hundredths of a pawn
+ * public static int[] parse(String text) - Method to read a value table written as five comma separated numbers
+ */
+
+public final class PieceValues {
+    //system property holding the values, unset for the defaults
+    public static final String PROPERTY = "chess.pieceValues";
+
+    //values indexed by piece type (Position.PAWN to Position.KING), the king is never captured so it is worth 0
+    private static final int[] DEFAULT_VALUES = {0, 1, 5, 3, 3, 8, 0};
+    private static final int[] VALUES;
+    private static final int[] CENTIPAWNS = new int[7];
+
+    static {
+        String text = System.getProperty(PROPERTY);
+        VALUES = text == null ? DEFAULT_VALUES : parse(text);
+        for (int type = 0; type < VALUES.length; type++)
+            CENTIPAWNS[type] = VALUES[type] * 100;
+    }
+
+    private PieceValues() {
+    }
+
+    /**
+     * Method to get the value of a piece type in pawns
+     * @param type piece type (Position.PAWN to Position.KING), Position.EMPTY gives 0
+     * @return piece value
+     */
+    public static int get(int type) {
+        return VALUES[type];
+    }
+
+    /**
+     * Method to get the value of a piece type in pawns
+     * @param type piece type
+     * @return piece value
+     */
+    public static int get(PieceType type) {
+        return VALUES[type.ordinal() + 1];
+    }
+
+    /**
+     * Method to get the value of a piece type in hundredths of a pawn, the unit of the evaluation
+     * @param type piece type (Position.PAWN to Position.KING), Position.EMPTY gives 0
+     * @return piece value
+     */
+    public static int centipawns(int type) {
+        return CENTIPAWNS[type];
+    }
+
+    /**
+     * Method to read a value table written as five comma separated numbers for pawn, rook, knight, bishop and queen
+     * @param text values, such as "1,5,3,3,8"
+     * @return values indexed by piece type
+     * @throws IllegalArgumentException if the text does not hold five positive numbers
+     */
+    public static int[] parse(String text) {
+        String[] parts = text.trim().split("\\s*,\\s*");
+        if (parts.length != 5)
+            throw new IllegalArgumentException("Piece values need five numbers (P,R,N,B,Q): " + text);
+        int[] values = Arrays.copyOf(DEFAULT_VALUES, DEFAULT_VALUES.length);
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                values[Position.PAWN + i] = Integer.parseInt(parts[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad piece value: " + parts[i]);
+            }
+            if (values[Position.PAWN + i] <= 0)
+                throw new IllegalArgumentException("Piece values must be positive: " + text);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,779 @@
+package gameEngine;
+
+import gameComponents.Alliance;
+
+import java.util.Arrays;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Headless chess position used by the engine code. It follows the same move rules as the piece classes
+ * in gameEntities but keeps the board in plain int and long arrays so a single object can be reused for any number
+ * of games. Making and undoing moves does not create objects.
+ *
+ * Piece codes are the PieceType ordinal plus one, with 8 added for black pieces (so 0 is an empty square). Pieces
+ * carry no state of their own; castling rights are kept here and are lost once a piece moves from or onto the king's
+ * or rook's starting square. Castling is written as the king's two-square move and en passant as the pawn's move to
+ * the empty square, so neither needs extra bits in the move; makeMove() recognises them from the board.
+ *
+ * Draws by repetition and by the 50-move rule are found from the hashes on the undo stack. A capture or pawn move can
+ * never be undone on the board, so the scan only goes back as far as the halfmove clock, stepping over the positions
+ * with the other side to move; in a normal game that is a handful of comparisons per move.
+ *
+ * Method List:
+ * public void reset() - Method to set up the starting position (same layout as Board.resetBoard())
+ * public void clear() - Method to remove every piece from the board
+ * public void putPiece(int square, int pieceCode) - Method to place a piece on an empty square
+ * public void removePiece(int square) - Method to remove the piece on a square
+ * public void setSideToMove(int colour) - Method to set which side moves next
+ * public void setCastlingRights(int rights) - Method to set the castling rights
+ * public void setEnPassantSquare(int square) - Method to set the square a pawn can capture en passant on
+ * public void setHalfmoveClock(int halfmoves) - Method to set the number of moves since the last capture or pawn move
+ * public void makeMove(int move) - Method to play a move without checking if it leaves the king in check
+ * public boolean makeLegalMove(int move) - Method to play a move, undoing it again if it leaves the king in check
+ * public void undoMove() - Method to take back the last move
+ * public void makeNullMove() - Method to pass the turn to the other side without moving, used by the search
+ * public void setAccumulator(Accumulator accumulator) - Method to keep network accumulators up to date with the board
+ * public boolean isAttacked(int square, int byColour) - Method to test if a side attacks a square
+ * public long attackersTo(int square, long occupied) - Method to get every piece that attacks a square
+ * public boolean isCapture(int move) - Method to test if a move captures a piece
+ * public int captureSquare(int move) - Method to get the square of the piece a move captures
+ * public boolean inCheck() - Method to test if the side to move is in check
+ * public boolean hasLegalMove(int[] buffer) - Method to test if the side to move has any legal move
+ * public GameResult getResult(int[] buffer) - Method to work out if the game is over
+ * public DrawReason getDrawReason(int[] buffer) - Method to get why a finished game is drawn
+ * public GameResult getTimeoutResult(int colour) - Method to get the result when a side runs out of time
+ * public int getRepetitions() - Method to count how often the current position occurred before
+ * public boolean isRepetition() - Method to test if the current position occurred before
+ * public boolean isFiftyMoveDraw() - Method to test if the 50-move rule ends the game
+ * public boolean hasInsufficientMaterial() - Method to test if neither side has the material to checkmate
+ * public int getPiece(int square) - Method to get the piece code on a square
+ * public long getPieces(int pieceCode) - Method to get the bitboard of one kind of piece
+ * public long getPieces(int colour, int type) - Method to get the bitboard of one kind of piece
+ * public long getColourPieces(int colour) - Method to get the bitboard of one side's pieces
+ * public long getOccupied() - Method to get the bitboard of all pieces
+ * public int getSideToMove() - Method to get the side to move
+ * public int getCastlingRights() - Method to get the castling rights that are still available
+ * public int getEnPassantSquare() - Method to get the square a pawn can capture en passant on
+ * public int getKingSquare(int colour) - Method to find a king
+ * public long getHash() - Method to get the position hash
+ * public int getMaterial(int colour) - Method to get a side's material (PieceValues, as shown by Player)
+ * public int getMaterial(Alliance alliance) - Method to get an alliance's material
+ * public int getPly() - Method to get the number of moves made since the last reset
+ * public int getHalfmoveClock() - Method to get the number of moves since the last capture or pawn move
+ * public static int pieceCode(int colour, int type) - Method to build a piece code
+ * public static int pieceType(int pieceCode) - Method to get the type from a piece code
+ * public static int pieceColour(int pieceCode) - Method to get the colour from a piece code
+ * public static int colourOf(Alliance alliance) - Method to convert an alliance to a colour index
+ */
+
+public final class Position {
+    //colours
+    public static final int WHITE = 0, BLACK = 1;
+
+    //piece types, numbered as PieceType.ordinal() + 1
+    public static final int EMPTY = 0, PAWN = 1, ROOK = 2, KNIGHT = 3, BISHOP = 4, QUEEN = 5, KING = 6;
+
+    //castling rights
+    public static final int WHITE_KINGSIDE = 1, WHITE_QUEENSIDE = 2, BLACK_KINGSIDE = 4, BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    //en passant square when no en passant capture is possible
+    public static final int NO_SQUARE = -1;
+
+    private static final int INITIAL_CAPACITY = 512;
+
+    //halfmoves without a capture or pawn move after which the game is drawn
+    public static final int FIFTY_MOVES = 100;
+
+    //squares of each colour, used to tell if bishops can ever give mate
+    private static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L;
+
+    //castling rights kept when a piece moves from or onto each square
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[0] = ALL_CASTLING & ~BLACK_QUEENSIDE;                      //a8 rook
+        CASTLING_MASK[7] = ALL_CASTLING & ~BLACK_KINGSIDE;                       //h8 rook
+        CASTLING_MASK[4] = ALL_CASTLING & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);   //e8 king
+        CASTLING_MASK[56] = ALL_CASTLING & ~WHITE_QUEENSIDE;                     //a1 rook
+        CASTLING_MASK[63] = ALL_CASTLING & ~WHITE_KINGSIDE;                      //h1 rook
+        CASTLING_MASK[60] = ALL_CASTLING & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);  //e1 king
+    }
+
+    //board state
+    private final int[] board = new int[64];
+    private final long[] pieces = new long[16];
+    private final long[] colours = new long[2];
+    private final int[] material = new int[2];
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private long hash;
+    private int halfmoveClock;
+
+    //undo stack, grows only if a game is longer than the current capacity
+    private int ply;
+    private int[] moveStack = new int[INITIAL_CAPACITY];
+    private int[] captureStack = new int[INITIAL_CAPACITY];
+    private int[] castlingStack = new int[INITIAL_CAPACITY];
+    private long[] hashStack = new long[INITIAL_CAPACITY];
+    private int[] clockStack = new int[INITIAL_CAPACITY];
+    private int[] enPassantStack = new int[INITIAL_CAPACITY];
+
+    //hashes of the game's positions before the first move on the undo stack, oldest first, from setHistory()
+    private long[] priorHashes = new long[0];
+    private int priorCount;
+    private Accumulator accumulator;        //null unless a network evaluates this position
+
+    /**
+     * Default constructor, creates the starting position
+     */
+    public Position() {
+        reset();
+    }
+
+    /**
+     * Method to set up the starting position (same layout as Board.resetBoard())
+     */
+    public void reset() {
+        clear();
+        int[] backRank = {ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT, ROOK};
+
+        for (int col = 0; col < 8; col++) {
+            putPiece(col, pieceCode(BLACK, backRank[col]));
+            putPiece(8 + col, pieceCode(BLACK, PAWN));
+            putPiece(48 + col, pieceCode(WHITE, PAWN));
+            putPiece(56 + col, pieceCode(WHITE, backRank[col]));
+        }
+        setCastlingRights(ALL_CASTLING);
+    }
+
+    /**
+     * Method to remove every piece from the board, white is set to move and no castling rights are left
+     */
+    public void clear() {
+        Arrays.fill(board, EMPTY);
+        Arrays.fill(pieces, 0L);
+        colours[WHITE] = colours[BLACK] = 0L;
+        material[WHITE] = material[BLACK] = 0;
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        hash = 0L;
+        halfmoveClock = 0;
+        ply = 0;
+        priorCount = 0;
+        if (accumulator != null)
+            accumulator.reset();
+    }
+
+    /**
+     * Method to place a piece on an empty square
+     * @param square square index
+     * @param pieceCode piece to place
+     */
+    public void putPiece(int square, int pieceCode) {
+        long bit = 1L << square;
+        int colour = pieceColour(pieceCode);
+
+        board[square] = pieceCode;
+        pieces[pieceCode] |= bit;
+        colours[colour] |= bit;
+        material[colour] += PieceValues.get(pieceType(pieceCode));
+        hash ^= Zobrist.piece(pieceCode, square);
+        if (accumulator != null)
+            accumulator.add(square, pieceCode);
+    }
+
+    /**
+     * Method to remove the piece on a square
+     * @param square square index
+     */
+    public void removePiece(int square) {
+        int pieceCode = board[square];
+        if (pieceCode == EMPTY)
+            return;
+
+        long bit = 1L << square;
+        int colour = pieceColour(pieceCode);
+
+        board[square] = EMPTY;
+        pieces[pieceCode] &= ~bit;
+        colours[colour] &= ~bit;
+        material[colour] -= PieceValues.get(pieceType(pieceCode));
+        hash ^= Zobrist.piece(pieceCode, square);
+        if (accumulator != null)
+            accumulator.remove(square, pieceCode);
+    }
+
+    /**
+     * Method to set which side moves next
+     * @param colour WHITE or BLACK
+     */
+    public void setSideToMove(int colour) {
+        if (colour != sideToMove) {
+            sideToMove = colour;
+            hash ^= Zobrist.side();
+        }
+    }
+
+    /**
+     * Method to set the castling rights
+     * @param rights WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE and BLACK_QUEENSIDE combined
+     */
+    public void setCastlingRights(int rights) {
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+    }
+
+    /**
+     * Method to set the square a pawn can capture en passant on (the square a pawn skipped with its last move). The
+     * square is only kept if a pawn of the side to move can capture there, so positions that differ only by an
+     * unusable en passant square get the same hash.
+     * @param square skipped square, NO_SQUARE if the last move was not a double pawn push
+     */
+    public void setEnPassantSquare(int square) {
+        if (enPassantSquare != NO_SQUARE)
+            hash ^= Zobrist.enPassant(Bitboards.column(enPassantSquare));
+        enPassantSquare = square != NO_SQUARE &&
+                (Bitboards.pawnAttacks(sideToMove ^ 1, square) & getPieces(sideToMove, PAWN)) != 0 ? square : NO_SQUARE;
+        if (enPassantSquare != NO_SQUARE)
+            hash ^= Zobrist.enPassant(Bitboards.column(enPassantSquare));
+    }
+
+    /**
+     * Method to set the number of moves since the last capture or pawn move, for positions read from a FEN. Earlier
+     * positions are not known, so repetitions are only found from the current position on.
+     * @param halfmoves halfmove clock
+     */
+    public void setHalfmoveClock(int halfmoves) {
+        halfmoveClock = halfmoves;
+    }
+
+    //sets the hashes of the positions that came before this one in the game, oldest first, so repetitions of them
+    //are found; the undo stack must be empty
+    void setHistory(long[] hashes) {
+        if (priorHashes.length < hashes.length)
+            priorHashes = new long[hashes.length];
+        System.arraycopy(hashes, 0, priorHashes, 0, hashes.length);
+        priorCount = hashes.length;
+    }
+
+    //hashes of the positions since the last capture or pawn move, oldest first, the current position left out
+    long[] getHistory() {
+        int limit = Math.min(halfmoveClock, ply + priorCount);
+        long[] hashes = new long[limit];
+        for (int back = 1; back <= limit; back++)
+            hashes[limit - back] = earlierHash(back);
+        return hashes;
+    }
+
+    //hash of the position a number of plies before the current one, from the undo stack or the earlier history
+    private long earlierHash(int back) {
+        return back <= ply ? hashStack[ply - back] : priorHashes[priorCount + ply - back];
+    }
+
+    /**
+     * Method to play a move without checking if it leaves the king in check
+     * @param move packed move, it must come from MoveGenerator
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moving = board[from];
+        int type = pieceType(moving);
+        boolean enPassant = type == PAWN && to == enPassantSquare;
+        int captured = enPassant ? pieceCode(sideToMove ^ 1, PAWN) : board[to];
+
+        if (ply == moveStack.length)
+            grow();
+        if (accumulator != null)
+            accumulator.push();
+        moveStack[ply] = move;
+        captureStack[ply] = captured;
+        castlingStack[ply] = castlingRights;
+        enPassantStack[ply] = enPassantSquare;
+        hashStack[ply] = hash;
+        clockStack[ply] = halfmoveClock;
+        ply++;
+
+        halfmoveClock = captured != EMPTY || type == PAWN ? 0 : halfmoveClock + 1;
+        if (enPassant)
+            removePiece(to ^ 8);    //the captured pawn stands behind the square, on the mover's row
+        removePiece(to);
+        removePiece(from);
+        if (Move.promotion(move) != 0)
+            putPiece(to, pieceCode(sideToMove, Move.promotion(move)));
+        else
+            putPiece(to, moving);
+        if (type == KING && (to - from == 2 || from - to == 2))
+            moveCastlingRook(from, to);
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+
+        sideToMove ^= 1;
+        hash ^= Zobrist.side();
+        setEnPassantSquare(type == PAWN && (to - from == 16 || from - to == 16) ? (from + to) >>> 1 : NO_SQUARE);
+    }
+
+    //moves the rook past the king, or back again when a castling move is taken back
+    private void moveCastlingRook(int kingFrom, int kingTo) {
+        int rookFrom = kingTo > kingFrom ? kingFrom + 3 : kingFrom - 4;
+        int rookTo = (kingFrom + kingTo) >>> 1;
+        if (board[rookFrom] == EMPTY) {
+            int rook = board[rookTo];
+            removePiece(rookTo);
+            putPiece(rookFrom, rook);
+        }
+        else {
+            int rook = board[rookFrom];
+            removePiece(rookFrom);
+            putPiece(rookTo, rook);
+        }
+    }
+
+    /**
+     * Method to play a move, the move is taken back again if it leaves the mover's king in check
+     * @param move packed move, it must come from MoveGenerator
+     * @return true if the move was legal and has been played
+     */
+    public boolean makeLegalMove(int move) {
+        int us = sideToMove;
+        makeMove(move);
+        if (isAttacked(getKingSquare(us), us ^ 1)) {
+            undoMove();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Method to pass the turn to the other side without moving, used by the search to test if a position is so good
+     * that even a free move for the opponent does not help it. It is taken back with undoMove(). The halfmove clock
+     * starts again so repetitions are never counted across the null move.
+     */
+    public void makeNullMove() {
+        if (ply == moveStack.length)
+            grow();
+        if (accumulator != null)
+            accumulator.push();
+        moveStack[ply] = Move.NONE;
+        captureStack[ply] = EMPTY;
+        castlingStack[ply] = castlingRights;
+        enPassantStack[ply] = enPassantSquare;
+        hashStack[ply] = hash;
+        clockStack[ply] = halfmoveClock;
+        ply++;
+
+        halfmoveClock = 0;
+        setEnPassantSquare(NO_SQUARE);
+        sideToMove ^= 1;
+        hash ^= Zobrist.side();
+    }
+
+    /**
+     * Method to set network accumulators that follow every change of the board, or null to stop updating them
+     * @param accumulator accumulators created for this position
+     */
+    public void setAccumulator(Accumulator accumulator) {
+        this.accumulator = accumulator;
+        if (accumulator != null)
+            accumulator.reset();
+    }
+
+    /**
+     * Method to take back the last move
+     */
+    public void undoMove() {
+        //the accumulators go back to their level before the move instead of following the pieces back
+        Accumulator updated = accumulator;
+        accumulator = null;
+        takeBack();
+        accumulator = updated;
+        if (updated != null)
+            updated.pop();
+    }
+
+    private void takeBack() {
+        ply--;
+        int move = moveStack[ply];
+        if (move == Move.NONE) {
+            sideToMove ^= 1;
+            enPassantSquare = enPassantStack[ply];
+            hash = hashStack[ply];
+            halfmoveClock = clockStack[ply];
+            return;
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        sideToMove ^= 1;
+
+        int moved = Move.promotion(move) != 0 ? pieceCode(sideToMove, PAWN) : board[to];
+        removePiece(to);
+        putPiece(from, moved);
+        if (pieceType(moved) == KING && (to - from == 2 || from - to == 2))
+            moveCastlingRook(from, to);
+        if (pieceType(moved) == PAWN && to == enPassantStack[ply])
+            putPiece(to ^ 8, captureStack[ply]);
+        else if (captureStack[ply] != EMPTY)
+            putPiece(to, captureStack[ply]);
+
+        castlingRights = castlingStack[ply];
+        enPassantSquare = enPassantStack[ply];
+        hash = hashStack[ply];
+        halfmoveClock = clockStack[ply];
+    }
+
+    /**
+     * Method to test if a side attacks a square
+     * @param square square index
+     * @param byColour attacking side
+     * @return true if any piece of that side attacks the square
+     */
+    public boolean isAttacked(int square, int byColour) {
+        long occupied = getOccupied();
+        return (Bitboards.pawnAttacks(byColour ^ 1, square) & getPieces(byColour, PAWN)) != 0 ||
+                (Bitboards.knightAttacks(square) & getPieces(byColour, KNIGHT)) != 0 ||
+                (Bitboards.kingAttacks(square) & getPieces(byColour, KING)) != 0 ||
+                (Bitboards.bishopAttacks(square, occupied) &
+                        (getPieces(byColour, BISHOP) | getPieces(byColour, QUEEN))) != 0 ||
+                (Bitboards.rookAttacks(square, occupied) &
+                        (getPieces(byColour, ROOK) | getPieces(byColour, QUEEN))) != 0;
+    }
+
+    /**
+     * Method to get every piece of both sides that attacks a square. Sliding pieces are stopped by the given
+     * occupancy rather than the board's, so pieces hidden behind removed ones (x-rays) can be found.
+     * @param square square index
+     * @param occupied squares that block sliding pieces
+     * @return bitboard of the attacking pieces, pieces not on occupied squares are left out by the caller
+     */
+    public long attackersTo(int square, long occupied) {
+        long rooks = pieces[pieceCode(WHITE, ROOK)] | pieces[pieceCode(BLACK, ROOK)];
+        long bishops = pieces[pieceCode(WHITE, BISHOP)] | pieces[pieceCode(BLACK, BISHOP)];
+        long queens = pieces[pieceCode(WHITE, QUEEN)] | pieces[pieceCode(BLACK, QUEEN)];
+        return (Bitboards.pawnAttacks(BLACK, square) & pieces[pieceCode(WHITE, PAWN)]) |
+                (Bitboards.pawnAttacks(WHITE, square) & pieces[pieceCode(BLACK, PAWN)]) |
+                (Bitboards.knightAttacks(square) & (pieces[pieceCode(WHITE, KNIGHT)] | pieces[pieceCode(BLACK, KNIGHT)])) |
+                (Bitboards.kingAttacks(square) & (pieces[pieceCode(WHITE, KING)] | pieces[pieceCode(BLACK, KING)])) |
+                (Bitboards.bishopAttacks(square, occupied) & (bishops | queens)) |
+                (Bitboards.rookAttacks(square, occupied) & (rooks | queens));
+    }
+
+    /**
+     * Method to test if a move captures a piece, including en passant
+     * @param move packed move
+     * @return true if a piece is removed by the move
+     */
+    public boolean isCapture(int move) {
+        int to = Move.to(move);
+        return board[to] != EMPTY || to == enPassantSquare && pieceType(board[Move.from(move)]) == PAWN;
+    }
+
+    /**
+     * Method to get the square of the piece a move captures, which for en passant is the passed pawn's square beside
+     * the mover rather than the move's end square
+     * @param move packed move
+     * @return square of the captured piece, NO_SQUARE if the move captures nothing
+     */
+    public int captureSquare(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (board[to] != EMPTY)
+            return to;
+        if (to == enPassantSquare && pieceType(board[from]) == PAWN)
+            return (from & ~7) | (to & 7);
+        return NO_SQUARE;
+    }
+
+    /**
+     * Method to test if the side to move is in check
+     * @return true if the king of the side to move is attacked
+     */
+    public boolean inCheck() {
+        return isAttacked(getKingSquare(sideToMove), sideToMove ^ 1);
+    }
+
+    /**
+     * Method to test if the side to move has any legal move
+     * @param buffer scratch array of at least MoveGenerator.MAX_MOVES entries
+     * @return true if at least one legal move exists
+     */
+    public boolean hasLegalMove(int[] buffer) {
+        int count = MoveGenerator.generate(this, buffer, 0);
+        for (int i = 0; i < count; i++) {
+            if (makeLegalMove(buffer[i])) {
+                undoMove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method to work out if the game is over
+     * @param buffer scratch array of at least MoveGenerator.MAX_MOVES entries
+     * @return result of the game, IN_PROGRESS if the side to move has a legal move
+     */
+    public GameResult getResult(int[] buffer) {
+        if (!hasLegalMove(buffer)) {
+            if (!inCheck())
+                return GameResult.DRAW;     //stalemate
+            return sideToMove == WHITE ? GameResult.BLACK_WINS : GameResult.WHITE_WINS;
+        }
+        return getDrawReason(buffer) != null ? GameResult.DRAW : GameResult.IN_PROGRESS;
+    }
+
+    /**
+     * Method to get the result when a side runs out of time. A side with only its king left cannot win, so its
+     * opponent's flag fall is a draw (by insufficient material).
+     * @param colour side that ran out of time
+     * @return DRAW, or a win for the other side
+     */
+    public GameResult getTimeoutResult(int colour) {
+        int other = colour ^ 1;
+        if (colours[other] == pieces[pieceCode(other, KING)])
+            return GameResult.DRAW;
+        return colour == WHITE ? GameResult.BLACK_WINS : GameResult.WHITE_WINS;
+    }
+
+    /**
+     * Method to get why a finished game is drawn. Checkmate on the move that completes the 50 moves or the third
+     * repetition still wins, so the legal moves are looked at first.
+     * @param buffer scratch array of at least MoveGenerator.MAX_MOVES entries
+     * @return reason of the draw, null if the game is not drawn
+     */
+    public DrawReason getDrawReason(int[] buffer) {
+        if (!hasLegalMove(buffer))
+            return inCheck() ? null : DrawReason.STALEMATE;
+        if (hasInsufficientMaterial())
+            return DrawReason.INSUFFICIENT_MATERIAL;
+        if (getRepetitions() >= 2)
+            return DrawReason.REPETITION;
+        if (isFiftyMoveDraw())
+            return DrawReason.FIFTY_MOVES;
+        return null;
+    }
+
+    /**
+     * Method to count how often the current position occurred before, with the same side to move and castling rights
+     * @return number of earlier occurrences, 2 means this is the third time (threefold repetition)
+     */
+    public int getRepetitions() {
+        return countRepetitions(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Method to test if the current position occurred before, the search scores this as a draw because the side that
+     * repeated could repeat again
+     * @return true if the position occurred at least once before
+     */
+    public boolean isRepetition() {
+        return countRepetitions(1) > 0;
+    }
+
+    //counts earlier occurrences of the current position, stopping once stopAt of them are found
+    private int countRepetitions(int stopAt) {
+        int count = 0;
+        int limit = Math.min(halfmoveClock, ply + priorCount);
+        for (int back = 4; back <= limit && count < stopAt; back += 2) {
+            if (earlierHash(back) == hash)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Method to test if the 50-move rule ends the game
+     * @return true if 50 moves by each side have been made without a capture or pawn move
+     */
+    public boolean isFiftyMoveDraw() {
+        return halfmoveClock >= FIFTY_MOVES;
+    }
+
+    /**
+     * Method to test if neither side has the material to checkmate: bare kings, a single knight or bishop, or only
+     * bishops that all stand on squares of one colour
+     * @return true if no sequence of moves can end in checkmate
+     */
+    public boolean hasInsufficientMaterial() {
+        long heavy = pieces[pieceCode(WHITE, PAWN)] | pieces[pieceCode(BLACK, PAWN)] |
+                pieces[pieceCode(WHITE, ROOK)] | pieces[pieceCode(BLACK, ROOK)] |
+                pieces[pieceCode(WHITE, QUEEN)] | pieces[pieceCode(BLACK, QUEEN)];
+        if (heavy != 0)
+            return false;
+        long knights = pieces[pieceCode(WHITE, KNIGHT)] | pieces[pieceCode(BLACK, KNIGHT)];
+        long bishops = pieces[pieceCode(WHITE, BISHOP)] | pieces[pieceCode(BLACK, BISHOP)];
+        if (knights == 0)
+            return (bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0;
+        return bishops == 0 && Long.bitCount(knights) == 1;
+    }
+
+    /**
+     * Method to get the piece code on a square
+     * @param square square index
+     * @return piece code, EMPTY if there is no piece
+     */
+    public int getPiece(int square) {
+        return board[square];
+    }
+
+    /**
+     * Method to get the bitboard of one kind of piece
+     * @param pieceCode piece code
+     * @return bitboard of squares holding that piece
+     */
+    public long getPieces(int pieceCode) {
+        return pieces[pieceCode];
+    }
+
+    /**
+     * Method to get the bitboard of one kind of piece
+     * @param colour WHITE or BLACK
+     * @param type piece type
+     * @return bitboard of squares holding that piece
+     */
+    public long getPieces(int colour, int type) {
+        return pieces[pieceCode(colour, type)];
+    }
+
+    /**
+     * Method to get the bitboard of one side's pieces
+     * @param colour WHITE or BLACK
+     * @return bitboard of that side's pieces
+     */
+    public long getColourPieces(int colour) {
+        return colours[colour];
+    }
+
+    /**
+     * Method to get the bitboard of all pieces
+     * @return bitboard of occupied squares
+     */
+    public long getOccupied() {
+        return colours[WHITE] | colours[BLACK];
+    }
+
+    /**
+     * Method to get the side to move
+     * @return WHITE or BLACK
+     */
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Method to get the castling rights that are still available
+     * @return WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE and BLACK_QUEENSIDE combined
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Method to get the square a pawn can capture en passant on
+     * @return square skipped by the last move's double pawn push, NO_SQUARE if no pawn can capture there
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Method to find a king
+     * @param colour WHITE or BLACK
+     * @return square of the king, 64 if that king is not on the board
+     */
+    public int getKingSquare(int colour) {
+        return Long.numberOfTrailingZeros(getPieces(colour, KING));
+    }
+
+    /**
+     * Method to get the position hash
+     * @return 64-bit Zobrist hash of the pieces, side to move and castling rights
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Method to get a side's material (PieceValues, as shown by Player)
+     * @param colour WHITE or BLACK
+     * @return material total
+     */
+    public int getMaterial(int colour) {
+        return material[colour];
+    }
+
+    /**
+     * Method to get an alliance's material
+     * @param alliance WHITE or BLACK alliance
+     * @return material total
+     */
+    public int getMaterial(Alliance alliance) {
+        return material[colourOf(alliance)];
+    }
+
+    /**
+     * Method to get the number of moves made since the last reset
+     * @return ply count
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Method to get the number of moves since the last capture or pawn move
+     * @return halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Method to build a piece code
+     * @param colour WHITE or BLACK
+     * @param type piece type
+     * @return piece code
+     */
+    public static int pieceCode(int colour, int type) {
+        return type | colour << 3;
+    }
+
+    /**
+     * Method to get the type from a piece code
+     * @param pieceCode piece code
+     * @return piece type
+     */
+    public static int pieceType(int pieceCode) {
+        return pieceCode & 7;
+    }
+
+    /**
+     * Method to get the colour from a piece code
+     * @param pieceCode piece code (not EMPTY)
+     * @return WHITE or BLACK
+     */
+    public static int pieceColour(int pieceCode) {
+        return pieceCode >>> 3;
+    }
+
+    /**
+     * Method to convert an alliance to a colour index
+     * @param alliance WHITE or BLACK alliance
+     * @return WHITE or BLACK
+     */
+    public static int colourOf(Alliance alliance) {
+        return alliance == Alliance.WHITE ? WHITE : BLACK;
+    }
+
+    //doubles the undo stack, only happens for games longer than the current capacity
+    private void grow() {
+        moveStack = Arrays.copyOf(moveStack, moveStack.length * 2);
+        captureStack = Arrays.copyOf(captureStack, captureStack.length * 2);
+        castlingStack = Arrays.copyOf(castlingStack, castlingStack.length * 2);
+        hashStack = Arrays.copyOf(hashStack, hashStack.length * 2);
+        clockStack = Arrays.copyOf(clockStack, clockStack.length * 2);
+        enPassantStack = Arrays.copyOf(enPassantStack, enPassantStack.length * 2);
+    }
+}
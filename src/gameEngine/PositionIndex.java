@@ -0,0 +1,626 @@
+package gameEngine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: On-disk index of every position reached in a game archive, for "find the games with this position"
+ * and opening explorer queries. Positions are keyed by the 64-bit Zobrist hash of Position, which comes from fixed
+ * keys and is the same in every run. Each entry is one position of one game: its hash, the game number, the move
+ * played next and the game result. The entries are sorted by hash and then game number and the file is
+ * memory-mapped, so a lookup is a binary search over mapped memory and needs no reading of its own.
+ *
+ * The archive is a text file with one game per line: moves in coordinate notation ("e2e4 e7e5 g1f3"), optionally
+ * ending with the result "1-0", "0-1" or "1/2-1/2". The game number is the line number, counting from 0. Games are
+ * replayed on several threads; each batch of games is sorted into a run file and the runs are merged into the index,
+ * so archives much larger than memory can be indexed. A game stops at its first illegal move.
+ *
+ * Index file (big-endian): "CPIX", version, entry count (8 bytes), hash of the start position (8 bytes, to catch an
+ * index built with other hash keys), then 16 byte entries: hash (8 bytes), game number (4 bytes), next move
+ * (2 bytes, Move.NONE after the last move), result (WHITE_WINS, DRAW, BLACK_WINS or IN_PROGRESS for unknown), unused.
+ *
+ * Method List:
+ * public static long build(Path archive, Path index, int threads) - Method to index a game archive
+ * public static PositionIndex open(Path index) - Method to open an index for queries
+ * public long size() - Method to get the number of entries
+ * public int[] findGames(long hash, int limit) - Method to get the games that reached a position
+ * public MoveStats[] explore(Position position) - Method to get the moves played from a position and how they scored
+ * public void close() - Method to release the index file
+ * public static void main(String[] args) - Method to build or query an index, or to run a self test
+ */
+
+public final class PositionIndex implements Closeable {
+    private static final int MAGIC = 0x43504958;       //"CPIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int ENTRY_BYTES = 16;
+    //entries per mapped segment, a single mapping cannot be larger than 2 GB
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_ENTRIES = 1 << SEGMENT_SHIFT;
+    //games replayed into one sorted run
+    private static final int BATCH_GAMES = 1 << 14;
+
+    //Global variables
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private PositionIndex(FileChannel channel, MappedByteBuffer[] segments, long size) {
+        this.channel = channel;
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * Games and results of one move played from a position
+     */
+    public static final class MoveStats {
+        private final int move;
+        private int games, whiteWins, draws, blackWins;
+
+        MoveStats(int move) {
+            this.move = move;
+        }
+
+        /**
+         * Method to get the move
+         * @return packed move
+         */
+        public int getMove() {
+            return move;
+        }
+
+        /**
+         * Method to get the number of games the move was played in
+         * @return game count
+         */
+        public int getGames() {
+            return games;
+        }
+
+        /**
+         * Method to get the results of the games with the move
+         * @return {white wins, draws, black wins}, games with an unknown result are not counted
+         */
+        public int[] getResults() {
+            return new int[]{whiteWins, draws, blackWins};
+        }
+
+        /**
+         * Method to get the score of the move for the side that played it
+         * @param colour side that played the move, Position.WHITE or Position.BLACK
+         * @return percentage of the points won, a win counting 1 and a draw 1/2, -1 if no result is known
+         */
+        public double getScore(int colour) {
+            int decided = whiteWins + draws + blackWins;
+            if (decided == 0)
+                return -1;
+            int wins = colour == Position.WHITE ? whiteWins : blackWins;
+            return 100.0 * (wins + 0.5 * draws) / decided;
+        }
+    }
+
+    /**
+     * Method to index a game archive
+     * @param archive text file with one game per line
+     * @param index file to write, replaced if it exists
+     * @param threads number of threads replaying games
+     * @return number of entries in the index
+     * @throws IOException if a file cannot be read or written
+     */
+    public static long build(Path archive, Path index, int threads) throws IOException {
+        Path runFolder = Files.createTempDirectory(index.toAbsolutePath().getParent(), "index-runs");
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * 2);       //bounds the batches held in memory
+        AtomicInteger runNumber = new AtomicInteger();
+        ThreadLocal<Replayer> replayers = ThreadLocal.withInitial(Replayer::new);
+        List<Future<Path>> runs = new ArrayList<>();
+
+        try (BufferedReader in = Files.newBufferedReader(archive)) {
+            int gameId = 0;
+            String line = in.readLine();
+            while (line != null) {
+                String[] batch = new String[BATCH_GAMES];
+                int count = 0;
+                int firstId = gameId;
+                for (; line != null && count < BATCH_GAMES; line = in.readLine(), gameId++)
+                    batch[count++] = line;
+                int batchSize = count;
+                inFlight.acquireUninterruptibly();
+                runs.add(pool.submit(() -> {
+                    try {
+                        return replayers.get().writeRun(batch, batchSize, firstId,
+                                runFolder.resolve("run-" + runNumber.getAndIncrement()));
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+
+            List<Path> runFiles = new ArrayList<>();
+            for (Future<Path> run : runs)
+                runFiles.add(run.get());
+            return merge(runFiles, index);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while indexing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IOException("Indexing failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            try (Stream<Path> files = Files.list(runFolder)) {
+                for (Path file : (Iterable<Path>) files::iterator)
+                    Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(runFolder);
+        }
+    }
+
+    /**
+     * Method to open an index for queries, the file is memory-mapped read-only
+     * @param index file written by build
+     * @return open index, close it when done
+     * @throws IOException if the file cannot be read, is not an index or was built with other hash keys
+     */
+    public static PositionIndex open(Path index) throws IOException {
+        FileChannel channel = FileChannel.open(index, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0)
+                ;
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION)
+                throw new IOException("Not a position index: " + index);
+            long size = header.getLong();
+            if (header.getLong() != new Position().getHash())
+                throw new IOException("Index was built with different hash keys, rebuild it: " + index);
+            if (channel.size() != HEADER_BYTES + size * ENTRY_BYTES)
+                throw new IOException("Index is truncated: " + index);
+
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_ENTRIES - 1) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long first = (long) i << SEGMENT_SHIFT;
+                long entries = Math.min(SEGMENT_ENTRIES, size - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * ENTRY_BYTES,
+                        entries * ENTRY_BYTES);
+            }
+            return new PositionIndex(channel, segments, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method to get the number of entries, one for each position of each game
+     * @return entry count
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Method to get the games that reached a position
+     * @param hash position hash (Position.getHash())
+     * @param limit largest number of games to return
+     * @return game numbers in increasing order, each game once
+     */
+    public int[] findGames(long hash, int limit) {
+        int[] games = new int[Math.min(limit, 64)];
+        int count = 0;
+        int last = -1;
+        for (long i = lowerBound(hash); i < size && hashAt(i) == hash && count < limit; i++) {
+            int game = gameAt(i);
+            if (game == last)
+                continue;       //a game can reach the same position more than once
+            if (count == games.length)
+                games = Arrays.copyOf(games, Math.min(limit, count * 2));
+            games[count++] = last = game;
+        }
+        return Arrays.copyOf(games, count);
+    }
+
+    /**
+     * Method to get the moves played from a position, how often and how they scored
+     * @param position position to look up
+     * @return one entry for each move, the most played first
+     */
+    public MoveStats[] explore(Position position) {
+        long hash = position.getHash();
+        List<MoveStats> moves = new ArrayList<>();
+        for (long i = lowerBound(hash); i < size && hashAt(i) == hash; i++) {
+            ByteBuffer segment = segments[(int) (i >>> SEGMENT_SHIFT)];
+            int offset = (int) (i & (SEGMENT_ENTRIES - 1)) * ENTRY_BYTES;
+            int move = segment.getShort(offset + 12);
+            if (move == Move.NONE)
+                continue;       //the game ended here
+            MoveStats stats = null;
+            for (MoveStats candidate : moves) {
+                if (candidate.move == move)
+                    stats = candidate;
+            }
+            if (stats == null) {
+                stats = new MoveStats(move);
+                moves.add(stats);
+            }
+            stats.games++;
+            int result = segment.get(offset + 14);
+            if (result == GameResult.WHITE_WINS.ordinal())
+                stats.whiteWins++;
+            else if (result == GameResult.DRAW.ordinal())
+                stats.draws++;
+            else if (result == GameResult.BLACK_WINS.ordinal())
+                stats.blackWins++;
+        }
+        moves.sort((a, b) -> b.games - a.games);
+        return moves.toArray(new MoveStats[0]);
+    }
+
+    /**
+     * Method to release the index file, the mapping itself is freed when it is garbage collected
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    //first entry whose hash is not below the given hash
+    private long lowerBound(long hash) {
+        long low = 0, high = size;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (hashAt(middle) < hash)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private long hashAt(long i) {
+        return segments[(int) (i >>> SEGMENT_SHIFT)].getLong((int) (i & (SEGMENT_ENTRIES - 1)) * ENTRY_BYTES);
+    }
+
+    private int gameAt(long i) {
+        return segments[(int) (i >>> SEGMENT_SHIFT)].getInt((int) (i & (SEGMENT_ENTRIES - 1)) * ENTRY_BYTES + 8);
+    }
+
+    //replays batches of games into sorted run files, one per worker thread
+    private static final class Replayer {
+        final Position position = new Position();
+        final int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        long[] hashes = new long[1 << 16];
+        long[] values = new long[1 << 16];     //game number, next move and result packed for sorting
+        int count;
+
+        Path writeRun(String[] games, int gameCount, int firstId, Path file) throws IOException {
+            count = 0;
+            for (int i = 0; i < gameCount; i++)
+                replay(games[i], firstId + i);
+            sort(0, count - 1);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file),
+                    1 << 16))) {
+                for (int i = 0; i < count; i++) {
+                    out.writeLong(hashes[i]);
+                    out.writeLong(values[i]);
+                }
+            }
+            return file;
+        }
+
+        private void replay(String line, int gameId) {
+            String[] tokens = line.trim().split("\\s+");
+            int moves = tokens.length;
+            GameResult result = GameResult.IN_PROGRESS;
+            if (moves > 0) {
+                result = parseResult(tokens[moves - 1]);
+                if (result != null || tokens[moves - 1].equals("*"))
+                    moves--;
+                if (result == null)
+                    result = GameResult.IN_PROGRESS;
+            }
+
+            position.reset();
+            int first = count;
+            for (int i = 0; i < moves && !tokens[i].isEmpty(); i++) {
+                int move = MoveGenerator.findMove(position, Move.parse(tokens[i], 0, tokens[i].length()), buffer);
+                if (move == Move.NONE)
+                    break;
+                long hash = position.getHash();
+                if (!position.makeLegalMove(move))
+                    break;
+                add(hash, gameId, move);
+            }
+            add(position.getHash(), gameId, Move.NONE);
+            for (int i = first; i < count; i++)
+                values[i] |= result.ordinal();
+        }
+
+        private void add(long hash, int gameId, int move) {
+            if (count == hashes.length) {
+                hashes = Arrays.copyOf(hashes, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+            }
+            hashes[count] = hash;
+            values[count] = (long) gameId << 24 | (long) move << 8;
+            count++;
+        }
+
+        //quicksort by hash, then game number, on the two arrays together
+        private void sort(int low, int high) {
+            while (high - low > 16) {
+                int middle = (low + high) >>> 1;
+                long pivotHash = hashes[middle], pivotValue = values[middle];
+                int i = low, j = high;
+                while (i <= j) {
+                    while (compare(hashes[i], values[i], pivotHash, pivotValue) < 0)
+                        i++;
+                    while (compare(hashes[j], values[j], pivotHash, pivotValue) > 0)
+                        j--;
+                    if (i <= j)
+                        swap(i++, j--);
+                }
+                //recurses into the smaller half so the stack stays shallow
+                if (j - low < high - i) {
+                    sort(low, j);
+                    low = i;
+                }
+                else {
+                    sort(i, high);
+                    high = j;
+                }
+            }
+            for (int i = low + 1; i <= high; i++) {
+                for (int j = i; j > low && compare(hashes[j - 1], values[j - 1], hashes[j], values[j]) > 0; j--)
+                    swap(j - 1, j);
+            }
+        }
+
+        private void swap(int a, int b) {
+            long hash = hashes[a];
+            hashes[a] = hashes[b];
+            hashes[b] = hash;
+            long value = values[a];
+            values[a] = values[b];
+            values[b] = value;
+        }
+    }
+
+    private static int compare(long hashA, long valueA, long hashB, long valueB) {
+        int order = Long.compare(hashA, hashB);
+        return order != 0 ? order : Long.compare(valueA, valueB);
+    }
+
+    private static GameResult parseResult(String token) {
+        switch (token) {
+            case "1-0":
+                return GameResult.WHITE_WINS;
+            case "0-1":
+                return GameResult.BLACK_WINS;
+            case "1/2-1/2":
+                return GameResult.DRAW;
+            default:
+                return null;
+        }
+    }
+
+    //merges the sorted runs into the index file
+    private static long merge(List<Path> runFiles, Path index) throws IOException {
+        PriorityQueue<Run> queue = new PriorityQueue<>((a, b) -> compare(a.hash, a.value, b.hash, b.value));
+        long count = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index),
+                1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(0);       //entry count, filled in at the end
+            out.writeLong(new Position().getHash());
+            for (Path file : runFiles) {
+                Run run = new Run(file);
+                if (run.next())
+                    queue.add(run);
+                else
+                    run.in.close();
+            }
+            while (!queue.isEmpty()) {
+                Run run = queue.poll();
+                long value = run.value;
+                out.writeLong(run.hash);
+                out.writeInt((int) (value >>> 24));
+                out.writeShort((int) (value >>> 8) & 0xFFFF);
+                out.writeByte((int) value & 0xFF);
+                out.writeByte(0);
+                count++;
+                if (run.next())
+                    queue.add(run);
+                else
+                    run.in.close();
+            }
+        } finally {
+            for (Run run : queue)
+                run.in.close();
+        }
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, count), 8);
+        }
+        return count;
+    }
+
+    //reader of one sorted run, holding its current entry
+    private static final class Run {
+        final DataInputStream in;
+        long hash, value;
+
+        Run(Path file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        }
+
+        boolean next() throws IOException {
+            try {
+                hash = in.readLong();
+                value = in.readLong();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Method to build or query an index, or without arguments to run a self test: random games are written to an
+     * archive, indexed, and lookups are checked against a scan of the archive and timed
+     * @param args "build archive index [threads]", "query index fen", or nothing for the self test
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("build")) {
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            long start = System.nanoTime();
+            long entries = build(Paths.get(args[1]), Paths.get(args[2]), threads);
+            System.out.printf("%,d positions indexed in %.1fs%n", entries, (System.nanoTime() - start) / 1e9);
+            return;
+        }
+        if (args.length >= 3 && args[0].equals("query")) {
+            StringBuilder fen = new StringBuilder();
+            for (int i = 2; i < args.length; i++)
+                fen.append(args[i]).append(' ');
+            try (PositionIndex index = open(Paths.get(args[1]))) {
+                Position position = Fen.parse(fen.toString());
+                printExplorer(index, position);
+                System.out.println("games: " + Arrays.toString(index.findGames(position.getHash(), 20)));
+            }
+            return;
+        }
+
+        //self test
+        int gameCount = 20_000;
+        Path folder = Files.createTempDirectory("position-index");
+        Path archive = folder.resolve("games.txt");
+        Path indexFile = folder.resolve("games.idx");
+        SplittableRandom random = new SplittableRandom(7);
+        Position position = new Position();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        String[] results = {"1-0", "0-1", "1/2-1/2", "*"};
+        List<String> lines = new ArrayList<>();
+        for (int game = 0; game < gameCount; game++) {
+            position.reset();
+            StringBuilder line = new StringBuilder();
+            int plies = 10 + random.nextInt(70);
+            for (int ply = 0; ply < plies; ply++) {
+                //few choices in the first moves so games share their openings
+                int moves = MoveGenerator.generate(position, buffer, 0);
+                int played = Move.NONE;
+                for (int tries = 0; tries < moves && played == Move.NONE; tries++) {
+                    int move = buffer[ply < 6 ? random.nextInt(Math.min(3, moves)) : random.nextInt(moves)];
+                    if (position.makeLegalMove(move))
+                        played = move;
+                }
+                if (played == Move.NONE)
+                    break;
+                line.append(Move.toString(played)).append(' ');
+            }
+            lines.add(line.append(results[random.nextInt(results.length)]).toString());
+        }
+        Files.write(archive, lines);
+
+        long start = System.nanoTime();
+        long entries = build(archive, indexFile, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%,d games, %,d positions indexed in %.2fs%n", gameCount, entries,
+                (System.nanoTime() - start) / 1e9);
+
+        try (PositionIndex index = open(indexFile)) {
+            //every game starts from the start position
+            position.reset();
+            if (index.findGames(position.getHash(), Integer.MAX_VALUE).length != gameCount)
+                throw new IllegalStateException("Start position is not in every game");
+            printExplorer(index, position);
+
+            //positions after a few moves of some games, compared with a scan of the archive
+            long[] probes = new long[1000];
+            for (int i = 0; i < probes.length; i++) {
+                String[] tokens = lines.get(random.nextInt(gameCount)).split(" ");
+                position.reset();
+                int plies = Math.min(tokens.length - 1, 1 + random.nextInt(8));
+                for (int ply = 0; ply < plies; ply++)
+                    position.makeLegalMove(MoveGenerator.findMove(position, Move.parse(tokens[ply], 0,
+                            tokens[ply].length()), buffer));
+                probes[i] = position.getHash();
+            }
+            for (int i = 0; i < 20; i++) {
+                int[] expected = scan(lines, probes[i], position, buffer);
+                if (!Arrays.equals(expected, index.findGames(probes[i], Integer.MAX_VALUE)))
+                    throw new IllegalStateException("Lookup differs from the archive for probe " + i);
+            }
+
+            long found = 0;
+            start = System.nanoTime();
+            for (int round = 0; round < 100; round++) {
+                for (long hash : probes)
+                    found += index.findGames(hash, 100).length;
+            }
+            System.out.printf("%.1f microseconds per lookup (%d games found)%n",
+                    (System.nanoTime() - start) / 1e3 / (100 * probes.length), found);
+        }
+        Files.delete(indexFile);
+        Files.delete(archive);
+        Files.delete(folder);
+    }
+
+    //games of the archive that reach a position, found by replaying every game
+    private static int[] scan(List<String> lines, long hash, Position position, int[] buffer) {
+        int[] games = new int[lines.size()];
+        int count = 0;
+        for (int game = 0; game < lines.size(); game++) {
+            String[] tokens = lines.get(game).split(" ");
+            position.reset();
+            boolean found = position.getHash() == hash;
+            for (int ply = 0; ply < tokens.length - 1 && !found; ply++) {
+                position.makeLegalMove(MoveGenerator.findMove(position, Move.parse(tokens[ply], 0,
+                        tokens[ply].length()), buffer));
+                found = position.getHash() == hash;
+            }
+            if (found)
+                games[count++] = game;
+        }
+        return Arrays.copyOf(games, count);
+    }
+
+    private static void printExplorer(PositionIndex index, Position position) {
+        int side = position.getSideToMove();
+        for (MoveStats stats : index.explore(position)) {
+            int[] results = stats.getResults();
+            System.out.printf("%-6s %7d games  +%d =%d -%d  %.1f%%%n", Move.toString(stats.getMove()),
+                    stats.getGames(), results[side == Position.WHITE ? 0 : 2], results[1],
+                    results[side == Position.WHITE ? 2 : 0], stats.getScore(side));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package gameEngine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Immutable copy of a position that can be handed to other threads. The whole board fits into three
+ * longs and an int: a bitboard of occupied squares, the 4-bit piece codes of the occupied squares (at most 32
+ * pieces, in square order) and the side to move, castling rights and en passant column. Snapshots are never changed after they are
+ * created, so "copying" one is just passing the reference, and two snapshots of the same position are equal.
+ *
+ * A snapshot of a game also keeps the halfmove clock and the hashes of the positions since the last capture or pawn
+ * move, so a search started from it scores repetitions of the game's positions and the 50-move rule as draws. They
+ * are not part of equals() or of the binary form.
+ *
+ * Method List:
+ * public static PositionSnapshot of(Position position) - Method to take a snapshot of a position
+ * public void copyTo(Position position) - Method to set up a position from the snapshot
+ * public Position toPosition() - Method to create a new position from the snapshot
+ * public int getPiece(int square) - Method to get the piece code on a square
+ * public long getOccupied() - Method to get the bitboard of occupied squares
+ * public int getSideToMove() - Method to get the side to move
+ * public int getCastlingRights() - Method to get the castling rights
+ * public int getEnPassantSquare() - Method to get the square a pawn can capture en passant on
+ * public int getHalfmoveClock() - Method to get the number of moves since the last capture or pawn move
+ * public void writeTo(ByteBuffer buffer) - Method to write the snapshot in its 26 byte binary form
+ * public static PositionSnapshot readFrom(ByteBuffer buffer) - Method to read a snapshot written by writeTo
+ * public boolean equals(Object other) - Method to compare two snapshots square by square
+ * public int hashCode() - Method to get a hash code that matches equals
+ */
+
+public final class PositionSnapshot {
+    //the starting position, shared since snapshots cannot change
+    public static final PositionSnapshot START = of(new Position());
+
+    //size of the binary form written by writeTo
+    public static final int BYTES = 26;
+
+    private final long occupied;
+    private final long lowCodes;     //piece codes of the first 16 occupied squares
+    private final long highCodes;    //piece codes of the remaining occupied squares
+    private final int flags;         //bit 0 side to move, bits 1-4 castling rights, bits 5-8 en passant column + 1
+    private final int halfmoveClock;
+    private final long[] history;    //hashes since the last capture or pawn move, oldest first, never changed
+
+    private PositionSnapshot(long occupied, long lowCodes, long highCodes, int flags, int halfmoveClock,
+                             long[] history) {
+        this.occupied = occupied;
+        this.lowCodes = lowCodes;
+        this.highCodes = highCodes;
+        this.flags = flags;
+        this.halfmoveClock = halfmoveClock;
+        this.history = history;
+    }
+
+    /**
+     * Method to take a snapshot of a position
+     * @param position position to copy
+     * @return immutable snapshot
+     * @throws IllegalArgumentException if the position has more than 32 pieces
+     */
+    public static PositionSnapshot of(Position position) {
+        long occupied = position.getOccupied();
+        if (Long.bitCount(occupied) > 32)
+            throw new IllegalArgumentException("A snapshot holds at most 32 pieces");
+        long low = 0, high = 0;
+        int index = 0;
+
+        for (long b = occupied; b != 0; b &= b - 1, index++) {
+            long code = position.getPiece(Long.numberOfTrailingZeros(b));
+            if (index < 16)
+                low |= code << (index * 4);
+            else
+                high |= code << ((index - 16) * 4);
+        }
+        int enPassant = position.getEnPassantSquare();
+        int column = enPassant == Position.NO_SQUARE ? 0 : Bitboards.column(enPassant) + 1;
+        return new PositionSnapshot(occupied, low, high,
+                position.getSideToMove() | position.getCastlingRights() << 1 | column << 5,
+                position.getHalfmoveClock(), position.getHistory());
+    }
+
+    /**
+     * Method to set up a position from the snapshot
+     * @param position position to overwrite, its undo stack is cleared and the game's earlier positions are only
+     *                 kept for finding repetitions
+     */
+    public void copyTo(Position position) {
+        position.clear();
+        for (long b = occupied; b != 0; b &= b - 1) {
+            int square = Long.numberOfTrailingZeros(b);
+            position.putPiece(square, getPiece(square));
+        }
+        position.setSideToMove(getSideToMove());
+        position.setCastlingRights(getCastlingRights());
+        position.setEnPassantSquare(getEnPassantSquare());
+        position.setHalfmoveClock(halfmoveClock);
+        position.setHistory(history);
+    }
+
+    /**
+     * Method to create a new position from the snapshot
+     * @return new position
+     */
+    public Position toPosition() {
+        Position position = new Position();
+        copyTo(position);
+        return position;
+    }
+
+    /**
+     * Method to get the piece code on a square
+     * @param square square index
+     * @return piece code, Position.EMPTY if the square is empty
+     */
+    public int getPiece(int square) {
+        long bit = 1L << square;
+        if ((occupied & bit) == 0)
+            return Position.EMPTY;
+
+        //the index of the piece is the number of occupied squares before it
+        int index = Long.bitCount(occupied & (bit - 1));
+        if (index < 16)
+            return (int) (lowCodes >>> (index * 4)) & 15;
+        else
+            return (int) (highCodes >>> ((index - 16) * 4)) & 15;
+    }
+
+    /**
+     * Method to get the bitboard of occupied squares
+     * @return occupied squares
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Method to get the side to move
+     * @return Position.WHITE or Position.BLACK
+     */
+    public int getSideToMove() {
+        return flags & 1;
+    }
+
+    /**
+     * Method to get the castling rights
+     * @return Position.WHITE_KINGSIDE etc. combined
+     */
+    public int getCastlingRights() {
+        return (flags >>> 1) & Position.ALL_CASTLING;
+    }
+
+    /**
+     * Method to get the square a pawn can capture en passant on
+     * @return square skipped by the last move's double pawn push, Position.NO_SQUARE if there is none
+     */
+    public int getEnPassantSquare() {
+        int column = flags >>> 5;
+        if (column == 0)
+            return Position.NO_SQUARE;
+        //the skipped square is on row 2 when white is to move and on row 5 when black is
+        return (getSideToMove() == Position.WHITE ? 16 : 40) + column - 1;
+    }
+
+    /**
+     * Method to get the number of moves since the last capture or pawn move
+     * @return halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Method to write the snapshot in its binary form (three longs and two flag bytes)
+     * @param buffer buffer with at least BYTES bytes remaining
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(occupied).putLong(lowCodes).putLong(highCodes).putShort((short) flags);
+    }
+
+    /**
+     * Method to read a snapshot written by writeTo, the halfmove clock and history are not part of it
+     * @param buffer buffer positioned at the snapshot
+     * @return snapshot
+     */
+    public static PositionSnapshot readFrom(ByteBuffer buffer) {
+        long occupied = buffer.getLong();
+        long low = buffer.getLong();
+        long high = buffer.getLong();
+        return new PositionSnapshot(occupied, low, high, buffer.getShort() & 0x1FF, 0, new long[0]);
+    }
+
+    /**
+     * Method to compare two snapshots square by square
+     * @param other object to compare with
+     * @return true if both snapshots describe the same position
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof PositionSnapshot))
+            return false;
+        PositionSnapshot snapshot = (PositionSnapshot) other;
+        return occupied == snapshot.occupied && lowCodes == snapshot.lowCodes &&
+                highCodes == snapshot.highCodes && flags == snapshot.flags;
+    }
+
+    /**
+     * Method to get a hash code that matches equals
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        long h = occupied * 31 + lowCodes;
+        h = h * 31 + highCodes;
+        h = h * 31 + flags;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,325 @@
+package gameEngine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Finds tactics puzzles in played games. Each game is replayed on a headless position (the same move
+ * and check rules as the Swing pieces) and every position gets a short search. A position becomes a candidate when
+ * the side to move is winning by at least WIN_SCORE right after the opponent's move while the opponent was not
+ * losing before it, so the opponent has just blundered. A candidate is confirmed with a deeper MultiPV search of the
+ * two best moves: the best move has to win and the second best must not (at most UNIQUE_SCORE), so the puzzle has one
+ * solution. The solution line follows the principal variation and keeps each later solver move only while it is
+ * also the only winning move.
+ *
+ * Games are mined on every core, one game per task, each worker thread with its own position, search and table.
+ * Puzzles are appended to the output as they are found and a checkpoint file records how many games from the start
+ * of the archive are finished, so a stopped job started again with the same files carries on where it left off.
+ * A game that fails while it is mined is logged, counted and still marked finished, so it does not hold back the
+ * checkpoint.
+ *
+ * Input is a game archive with one game per line in coordinate notation (see PositionIndex). Output lines are
+ * "fen;solution moves;score;game ply", for example "6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1;d1d8;mate 1;12 40".
+ *
+ * Method List:
+ * public long mine(Path archive, Path output, int threads) - Method to mine an archive, resuming an earlier run
+ * public int getGamesDone() - Method to get the number of games finished from the start of the archive
+ * public int getFailedGames() - Method to get the number of games of the last run that failed while mined
+ * public static void main(String[] args) - Method to mine an archive from the command line
+ */
+
+public class PuzzleMiner {
+    //scores in hundredths of a pawn for the side to move
+    public static final int WIN_SCORE = 300;
+    public static final int UNIQUE_SCORE = 100;
+    private static final int BALANCED_SCORE = 150;
+    //search depths of the scan, of the confirmation and of the checks along the solution
+    private static final int SCAN_DEPTH = 4;
+    private static final int CONFIRM_DEPTH = 8;
+    private static final int MAX_SOLVER_MOVES = 3;
+    private static final int MIN_PLY = 8;       //opening moves are known theory, not puzzles
+    private static final long CHECKPOINT_MILLIS = 10_000;
+    private static final int HASH_MEGABYTES = 16;
+
+    //Global variables
+    private final int confirmDepth;
+    private final Object lock;
+    private final BitSet finished;      //games at or above gamesDone that are finished, guarded by lock
+    private int gamesDone;              //every game below this number is finished
+    private long lastCheckpoint;
+    private long puzzles;
+    private int failedGames;            //guarded by lock
+    private BufferedWriter out;
+    private Path checkpoint;
+    private Set<String> written;        //puzzles already in the output from games at or above gamesDone
+
+    /**
+     * Default constructor, confirms puzzles at CONFIRM_DEPTH
+     */
+    public PuzzleMiner() {
+        this(CONFIRM_DEPTH);
+    }
+
+    /**
+     * Constructor for a miner with another confirmation depth
+     * @param confirmDepth depth of the searches that confirm a puzzle, deeper finds fewer false puzzles
+     */
+    public PuzzleMiner(int confirmDepth) {
+        this.confirmDepth = Math.max(SCAN_DEPTH + 1, Math.min(confirmDepth, Search.MAX_PLY));
+        this.lock = new Object();
+        this.finished = new BitSet();
+    }
+
+    /**
+     * Method to mine an archive. If the output and its checkpoint ("output.checkpoint") exist from an earlier run, the
+     * games the checkpoint marks finished are skipped and puzzles already in the output are not written again.
+     * @param archive text file with one game per line
+     * @param output puzzle file, appended to
+     * @param threads number of games mined at the same time
+     * @return number of puzzles written by this run
+     * @throws IOException if a file cannot be read or written
+     */
+    public long mine(Path archive, Path output, int threads) throws IOException {
+        checkpoint = Paths.get(output + ".checkpoint");
+        gamesDone = Files.exists(checkpoint) ? Integer.parseInt(Files.readString(checkpoint).trim()) : 0;
+        written = new HashSet<>();
+        if (Files.exists(output)) {
+            for (String line : Files.readAllLines(output)) {
+                String[] fields = line.split(";");
+                if (fields.length == 4 && Integer.parseInt(fields[3].split(" ")[0]) >= gamesDone)
+                    written.add(fields[3]);
+            }
+        }
+        finished.clear();
+        puzzles = 0;
+        failedGames = 0;
+        lastCheckpoint = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * 4);       //bounds the games read ahead
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+        try (BufferedReader in = Files.newBufferedReader(archive);
+             BufferedWriter writer = Files.newBufferedWriter(output, StandardOpenOption.CREATE,
+                     StandardOpenOption.APPEND)) {
+            out = writer;
+            String line;
+            for (int game = 0; (line = in.readLine()) != null; game++) {
+                if (game < gamesDone)
+                    continue;
+                int gameId = game;
+                String moves = line;
+                inFlight.acquireUninterruptibly();
+                pool.execute(() -> {
+                    try {
+                        workers.get().mine(gameId, moves);
+                    } catch (RuntimeException e) {
+                        Logger.getLogger(PuzzleMiner.class.getName()).log(Level.WARNING,
+                                "Game " + gameId + " failed and is skipped", e);
+                        synchronized (lock) {
+                            failedGames++;
+                        }
+                    } finally {
+                        try {
+                            finish(gameId);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }
+                });
+            }
+            pool.shutdown();
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS))
+                ;       //waits for the games still being mined
+            synchronized (lock) {
+                saveCheckpoint();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            out = null;
+        }
+        return puzzles;
+    }
+
+    /**
+     * Method to get the number of games finished from the start of the archive, the number the checkpoint holds
+     * @return game count
+     */
+    public int getGamesDone() {
+        synchronized (lock) {
+            return gamesDone;
+        }
+    }
+
+    /**
+     * Method to get the number of games of the last run that failed while they were mined, each is logged
+     * @return game count
+     */
+    public int getFailedGames() {
+        synchronized (lock) {
+            return failedGames;
+        }
+    }
+
+    //marks a game finished and saves a checkpoint now and then
+    private void finish(int gameId) {
+        synchronized (lock) {
+            finished.set(gameId - gamesDone);
+            int done = finished.nextClearBit(0);
+            if (done > 0) {
+                gamesDone += done;
+                BitSet rest = finished.get(done, Math.max(done, finished.length()));
+                finished.clear();
+                finished.or(rest);
+            }
+            if (System.currentTimeMillis() - lastCheckpoint >= CHECKPOINT_MILLIS)
+                saveCheckpoint();
+        }
+    }
+
+    //the puzzles are flushed before the checkpoint, so a finished game's puzzles are never lost
+    private void saveCheckpoint() {
+        try {
+            out.flush();
+            Path temporary = Paths.get(checkpoint + ".tmp");
+            Files.writeString(temporary, Integer.toString(gamesDone));
+            Files.move(temporary, checkpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            lastCheckpoint = System.currentTimeMillis();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot save the checkpoint", e);
+        }
+    }
+
+    private void write(String fen, String solution, int score, int gameId, int ply) {
+        String key = gameId + " " + ply;
+        synchronized (lock) {
+            if (!written.add(key))
+                return;     //found before the job was stopped
+            try {
+                out.write(fen + ";" + solution + ";" + scoreText(score) + ";" + key);
+                out.newLine();
+                puzzles++;
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot write puzzles", e);
+            }
+        }
+    }
+
+    private static String scoreText(int score) {
+        if (Math.abs(score) >= Search.MATE_BOUND)
+            return "mate " + (score > 0 ? (Search.MATE - score + 1) / 2 : -(Search.MATE + score) / 2);
+        return "cp " + score;
+    }
+
+    //per-thread objects that are reused for every game
+    private final class Worker {
+        final Position game = new Position();
+        final Position line = new Position();
+        final Search search = new Search(new TranspositionTable(HASH_MEGABYTES));
+        final AtomicBoolean stop = new AtomicBoolean();
+        final int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int bestMove;
+        int[] pv = new int[0];      //principal variation of the last search
+        int secondScore;            //score of the second line of the last two-line search
+
+        void mine(int gameId, String text) {
+            String[] tokens = text.trim().split("\\s+");
+            game.reset();
+            int previous = 0;       //scan score of the position before, for the side that was to move there
+            for (int ply = 0; ply < tokens.length; ply++) {
+                int move = tokens[ply].isEmpty() || !Character.isLetter(tokens[ply].charAt(0)) ? Move.NONE :
+                        MoveGenerator.findMove(game, Move.parse(tokens[ply], 0, tokens[ply].length()), buffer);
+                if (move == Move.NONE)
+                    break;      //a result token or an illegal move ends the game
+
+                if (ply >= MIN_PLY) {
+                    int score = search(game, SCAN_DEPTH, 1);
+                    if (score >= WIN_SCORE && previous >= -BALANCED_SCORE)
+                        confirm(gameId, ply);
+                    previous = score;
+                }
+                if (!game.makeLegalMove(move))
+                    break;
+            }
+        }
+
+        //deeper search of the two best moves, then the solution line
+        private void confirm(int gameId, int ply) {
+            PositionSnapshot.of(game).copyTo(line);
+            int score = search(line, confirmDepth, 2);
+            int first = bestMove;
+            if (score < WIN_SCORE || secondScore > UNIQUE_SCORE)
+                return;
+
+            //the opponent's replies come from the principal variation, the solver's moves must stay unique
+            StringBuilder solution = new StringBuilder(Move.toString(first));
+            int[] variation = pv;
+            line.makeMove(first);
+            for (int solverMoves = 1; solverMoves < MAX_SOLVER_MOVES && variation.length >= 2; solverMoves++) {
+                line.makeMove(variation[1]);
+                int nextScore = search(line, confirmDepth - 2, 2);
+                int next = bestMove;
+                if (next == Move.NONE || nextScore < WIN_SCORE || secondScore > UNIQUE_SCORE)
+                    break;
+                solution.append(' ').append(Move.toString(variation[1])).append(' ').append(Move.toString(next));
+                variation = pv;
+                line.makeMove(next);
+            }
+            write(Fen.toFen(game), solution.toString(), score, gameId, ply);
+        }
+
+        //searches a position, keeping the best move, its principal variation and with two lines the second score
+        private int search(Position position, int depth, int lines) {
+            stop.set(false);
+            secondScore = -Search.INFINITY;     //stays so if there is no other legal move
+            search.setMultiPv(lines);
+            bestMove = search.search(PositionSnapshot.of(position), SearchLimits.depth(depth), stop, info -> {
+                if (info.getMultiPv() == 1)
+                    pv = info.getPrincipalVariation();
+                else
+                    secondScore = info.getScore();
+            });
+            if (bestMove == Move.NONE)
+                return position.inCheck() ? -Search.MATE : 0;
+            return search.getScore();
+        }
+    }
+
+    /**
+     * Method to mine an archive from the command line
+     * @param args archive, output file, optional confirmation depth and thread count
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: PuzzleMiner games.txt puzzles.txt [depth] [threads]");
+            return;
+        }
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : CONFIRM_DEPTH;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        PuzzleMiner miner = new PuzzleMiner(depth);
+        long start = System.nanoTime();
+        long found = miner.mine(Paths.get(args[0]), Paths.get(args[1]), threads);
+        System.out.printf("%d puzzles from %d games (%d failed) in %.1fs%n", found, miner.getGamesDone(),
+                miner.getFailedGames(), (System.nanoTime() - start) / 1e9);
+    }
+}
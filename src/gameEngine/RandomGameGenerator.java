@@ -0,0 +1,477 @@
+package gameEngine;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Plays random legal games at high speed, as move streams for load tests of the game server and for
+ * benchmarks of move validation. Games start from the starting position (the same layout as Board.resetBoard()) or
+ * from given FEN positions, and end exactly as on screen: checkmate, stalemate, repetition, the 50-move rule and
+ * insufficient material (the rules of Position.getResult), or after a ply limit.
+ *
+ * Game n only depends on the seed and n: each thread has its own random number generator (SplitMix64), which is
+ * seeded again from the seed and the game number before each game. The same seed therefore gives the same games with
+ * any number of threads, only the order in which threads hand them to the sink changes. Threads take game numbers
+ * in blocks from a shared counter, and nothing else is shared but the sink.
+ *
+ * A move is chosen from the pseudo-legal moves, which are generated once per ply: a random move is tried with
+ * Position.makeLegalMove() and, if it leaves the king in check, removed before the next try. Every legal move is
+ * equally likely, or with weighting, captures are more likely the more the captured piece is worth and promotions
+ * to a queen more likely than other moves, which gives shorter games that look more like real ones.
+ *
+ * Method List:
+ * public void setWeighted(boolean weighted) - Method to choose between uniform and weighted random moves
+ * public void setMaxPlies(int maxPlies) - Method to set after how many moves a game is stopped
+ * public String[] getStarts() - Method to get the FEN text of the starting positions
+ * public long run(long games, int threads, GameSink sink) - Method to play games on several threads
+ * public int play(long game, Position position, int[] moves) - Method to play one game
+ * public GameResult getLastResult() - Method to get the result of the last game play() finished on this thread
+ * public static void main(String[] args) - Method to write games to a file, or to check and time the generator
+ */
+
+public class RandomGameGenerator {
+    public static final int DEFAULT_MAX_PLIES = 400;
+
+    private static final int BLOCK = 64;                //game numbers a thread takes from the counter at once
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    //weighted moves: a quiet move weighs QUIET, a capture gains its victim's value / CAPTURE_DIVISOR
+    private static final int QUIET = 4, CAPTURE_DIVISOR = 25, QUEEN_PROMOTION = 32;
+
+    //Global variables
+    private final long seed;
+    private final String[] starts;
+    private final boolean fromStart;       //true if the only start is the starting position
+    private boolean weighted;
+    private int maxPlies;
+    private final ThreadLocal<Player> players;
+
+    /**
+     * Constructor for a generator that plays from the starting position
+     * @param seed seed of every game
+     */
+    public RandomGameGenerator(long seed) {
+        this(seed, new String[]{Fen.START});
+    }
+
+    /**
+     * Constructor for a generator that plays from given positions, game n starts from position n % starts.length
+     * @param seed seed of every game
+     * @param starts FEN text of the starting positions
+     * @throws IllegalArgumentException if there is no position or one is not valid FEN
+     */
+    public RandomGameGenerator(long seed, String[] starts) {
+        if (starts.length == 0)
+            throw new IllegalArgumentException("No starting positions");
+        Position check = new Position();
+        for (String fen : starts)
+            Fen.load(check, fen);       //fails here rather than in a worker thread
+        this.seed = seed;
+        this.starts = starts.clone();
+        this.fromStart = starts.length == 1 && starts[0].equals(Fen.START);
+        this.maxPlies = DEFAULT_MAX_PLIES;
+        this.players = ThreadLocal.withInitial(Player::new);
+    }
+
+    /**
+     * Method to choose between uniform and weighted random moves, set before run()
+     * @param weighted true to prefer captures of valuable pieces and queen promotions
+     */
+    public void setWeighted(boolean weighted) {
+        this.weighted = weighted;
+    }
+
+    /**
+     * Method to set after how many moves a game is stopped unfinished, set before run()
+     * @param maxPlies largest number of moves in a game
+     */
+    public void setMaxPlies(int maxPlies) {
+        this.maxPlies = Math.max(1, maxPlies);
+    }
+
+    /**
+     * Method to get the FEN text of the starting positions
+     * @return copy of the starting positions, in the order of GameSink's start index
+     */
+    public String[] getStarts() {
+        return starts.clone();
+    }
+
+    /**
+     * Method to play games 0 to games - 1 on several threads, blocking until all are handed to the sink
+     * @param games number of games
+     * @param threads number of threads
+     * @param sink receiver of the games, called from every thread
+     * @return number of moves played in all games
+     * @throws IOException if the sink failed, the other threads stop after their current game
+     */
+    public long run(long games, int threads, GameSink sink) throws IOException {
+        AtomicLong next = new AtomicLong();
+        AtomicLong plies = new AtomicLong();
+        IOException[] failure = new IOException[1];
+        Thread[] workers = new Thread[Math.max(1, threads)];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                Position position = new Position();
+                int[] moves = new int[maxPlies];
+                long played = 0;
+                try {
+                    for (long first = next.getAndAdd(BLOCK); first < games; first = next.getAndAdd(BLOCK)) {
+                        for (long game = first; game < Math.min(first + BLOCK, games); game++) {
+                            int count = play(game, position, moves);
+                            played += count;
+                            Player player = players.get();
+                            sink.onGame(game, (int) (game % starts.length), moves, count, player.result,
+                                    player.reason);
+                        }
+                    }
+                } catch (IOException e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                    next.set(games);      //the other threads stop after their current game
+                }
+                plies.addAndGet(played);
+            }, "random-games-" + t);
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                next.set(games);
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (failure) {
+            if (failure[0] != null)
+                throw failure[0];
+        }
+        return plies.get();
+    }
+
+    /**
+     * Method to play one game, the same game number always gives the same moves
+     * @param game game number
+     * @param position position to play in, set up again from the game's start
+     * @param moves receives the moves, at least as long as the ply limit
+     * @return number of moves played
+     */
+    public int play(long game, Position position, int[] moves) {
+        Player player = players.get();
+        player.random = mix(seed + (game + 1) * GOLDEN);
+        int start = (int) (game % starts.length);
+        if (fromStart)
+            position.reset();
+        else
+            Fen.load(position, starts[start]);
+
+        int plies = 0;
+        while (true) {
+            //the draw rules only count once it is known that the side to move is not checkmated
+            DrawReason draw = position.hasInsufficientMaterial() ? DrawReason.INSUFFICIENT_MATERIAL :
+                    position.getRepetitions() >= 2 ? DrawReason.REPETITION :
+                    position.isFiftyMoveDraw() ? DrawReason.FIFTY_MOVES : null;
+            int move = weighted ? player.playWeighted(position) : player.playUniform(position);
+            if (move == Move.NONE) {
+                boolean mate = position.inCheck();
+                player.finish(mate ? (position.getSideToMove() == Position.WHITE ? GameResult.BLACK_WINS :
+                        GameResult.WHITE_WINS) : GameResult.DRAW, mate ? null : DrawReason.STALEMATE);
+                return plies;
+            }
+            if (draw != null) {
+                position.undoMove();
+                player.finish(GameResult.DRAW, draw);
+                return plies;
+            }
+            moves[plies++] = move;
+            if (plies >= Math.min(maxPlies, moves.length)) {
+                //the last move may still have ended the game
+                GameResult result = position.getResult(player.moves);
+                player.finish(result, result == GameResult.DRAW ? position.getDrawReason(player.moves) : null);
+                return plies;
+            }
+        }
+    }
+
+    /**
+     * Method to get the result of the last game play() finished on the calling thread
+     * @return result, IN_PROGRESS if the game reached the ply limit
+     */
+    public GameResult getLastResult() {
+        return players.get().result;
+    }
+
+    //SplitMix64 finaliser, spreads neighbouring game numbers over the whole seed space
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    //per thread state: move list, weights and the random number generator
+    private static final class Player {
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int[] weights = new int[MoveGenerator.MAX_MOVES];
+        long random;
+        GameResult result;
+        DrawReason reason;
+
+        //random number from 0 to bound - 1 (SplitMix64, then a multiply instead of a division)
+        int nextInt(int bound) {
+            random += GOLDEN;
+            int bits = (int) (mix(random) >>> 33);
+            return (int) ((long) bits * bound >>> 31);
+        }
+
+        //plays a uniformly random legal move, Move.NONE if there is none
+        int playUniform(Position position) {
+            int count = MoveGenerator.generate(position, moves, 0);
+            while (count > 0) {
+                int i = nextInt(count);
+                int move = moves[i];
+                if (position.makeLegalMove(move))
+                    return move;
+                moves[i] = moves[--count];
+            }
+            return Move.NONE;
+        }
+
+        //plays a legal move chosen by weight, Move.NONE if there is none
+        int playWeighted(Position position) {
+            int count = MoveGenerator.generate(position, moves, 0);
+            int total = 0;
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                int weight = QUIET;
+                if (position.isCapture(move)) {
+                    int victim = Math.max(Position.PAWN, Position.pieceType(position.getPiece(Move.to(move))));
+                    weight += Evaluator.pieceValue(victim) / CAPTURE_DIVISOR;
+                }
+                if (Move.promotion(move) == Position.QUEEN)
+                    weight += QUEEN_PROMOTION;
+                else if (Move.promotion(move) != 0)
+                    weight = 1;
+                weights[i] = weight;
+                total += weight;
+            }
+            while (count > 0) {
+                int pick = nextInt(total);
+                int i = 0;
+                while (pick >= weights[i])
+                    pick -= weights[i++];
+                int move = moves[i];
+                if (position.makeLegalMove(move))
+                    return move;
+                total -= weights[i];
+                count--;
+                moves[i] = moves[count];
+                weights[i] = weights[count];
+            }
+            return Move.NONE;
+        }
+
+        void finish(GameResult result, DrawReason reason) {
+            this.result = result;
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * Writes games to a text file, one line per game: game number, result, reason (MATE, a DrawReason or
+     * MAX_PLIES), plies, start index, then the moves as "e2e4". The starting positions are listed in "# start"
+     * lines at the top. Threads format their own lines and only the write is shared.
+     */
+    public static final class FileSink implements GameSink, Closeable {
+        private final BufferedWriter out;
+
+        /**
+         * Constructor for a sink that replaces the file
+         * @param file file to write
+         * @param starts FEN text of the starting positions, from getStarts()
+         * @throws IOException if the file cannot be created
+         */
+        public FileSink(Path file, String[] starts) throws IOException {
+            this.out = Files.newBufferedWriter(file);
+            for (int i = 0; i < starts.length; i++) {
+                out.write("# start " + i + " " + starts[i]);
+                out.newLine();
+            }
+            out.write("# game result reason plies start moves");
+            out.newLine();
+        }
+
+        @Override
+        public void onGame(long game, int start, int[] moves, int plies, GameResult result, DrawReason reason)
+                throws IOException {
+            StringBuilder line = new StringBuilder(32 + plies * 6);
+            line.append(game).append(' ').append(result).append(' ')
+                    .append(reason != null ? reason.toString() : result == GameResult.IN_PROGRESS ? "MAX_PLIES" :
+                            "MATE")
+                    .append(' ').append(plies).append(' ').append(start);
+            for (int i = 0; i < plies; i++)
+                line.append(' ').append(Move.toString(moves[i]));
+            line.append('\n');
+            synchronized (out) {
+                out.append(line);
+            }
+        }
+
+        /**
+         * Method to write what is left in the buffer and close the file
+         * @throws IOException if the file cannot be written
+         */
+        @Override
+        public void close() throws IOException {
+            synchronized (out) {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Method to write random games to a file, or without a file name to check that games are reproducible and
+     * follow Position's rules, and time the generator
+     * @param args file name (or "-" to only count), then options as name=value: games, threads, seed, plies,
+     *             weighted (true/false) and openings (a file with one FEN per line)
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            selfTest();
+            return;
+        }
+        long games = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        int plies = DEFAULT_MAX_PLIES;
+        boolean weighted = false;
+        String[] starts = {Fen.START};
+        for (int i = 1; i < args.length; i++) {
+            int equals = args[i].indexOf('=');
+            if (equals < 0)
+                throw new IllegalArgumentException("Options are written as name=value: " + args[i]);
+            String name = args[i].substring(0, equals);
+            String value = args[i].substring(equals + 1);
+            switch (name) {
+                case "games":
+                    games = Long.parseLong(value);
+                    break;
+                case "threads":
+                    threads = Math.max(1, Integer.parseInt(value));
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "plies":
+                    plies = Integer.parseInt(value);
+                    break;
+                case "weighted":
+                    weighted = Boolean.parseBoolean(value);
+                    break;
+                case "openings":
+                    starts = readStarts(Paths.get(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        }
+
+        RandomGameGenerator generator = new RandomGameGenerator(seed, starts);
+        generator.setWeighted(weighted);
+        generator.setMaxPlies(plies);
+        long start = System.nanoTime();
+        long moves;
+        if (args[0].equals("-")) {
+            moves = generator.run(games, threads, (game, from, list, count, result, reason) -> { });
+        }
+        else {
+            try (FileSink sink = new FileSink(Paths.get(args[0]), generator.getStarts())) {
+                moves = generator.run(games, threads, sink);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%,d games, %,d moves in %.1f s: %,.0f games/minute on %d threads%n", games, moves,
+                seconds, games / seconds * 60, threads);
+    }
+
+    //same games with one and several threads, results as Position.getResult gives them, then the speed
+    private static void selfTest() throws IOException {
+        int games = 20_000;
+        for (boolean weighted : new boolean[]{false, true}) {
+            RandomGameGenerator generator = new RandomGameGenerator(42);
+            generator.setWeighted(weighted);
+            long[] one = new long[games];
+            long[] many = new long[games];
+            generator.run(games, 1, (game, start, moves, plies, result, reason) ->
+                    one[(int) game] = checksum(moves, plies, result));
+            generator.run(games, 4, (game, start, moves, plies, result, reason) ->
+                    many[(int) game] = checksum(moves, plies, result));
+            int differences = 0;
+            for (int i = 0; i < games; i++) {
+                if (one[i] != many[i])
+                    differences++;
+            }
+
+            //replays some games move by move with the rules the game server and the Swing game use
+            Position position = new Position();
+            int[] moves = new int[DEFAULT_MAX_PLIES];
+            int[] buffer = new int[MoveGenerator.MAX_MOVES];
+            int errors = 0;
+            int[] results = new int[GameResult.values().length];
+            for (int game = 0; game < 2000; game++) {
+                int plies = generator.play(game, position, moves);
+                GameResult result = generator.getLastResult();
+                results[result.ordinal()]++;
+                Position replay = new Position();
+                for (int i = 0; i < plies; i++) {
+                    if (replay.getResult(buffer) != GameResult.IN_PROGRESS ||
+                            MoveGenerator.findMove(replay, moves[i], buffer) == Move.NONE ||
+                            !replay.makeLegalMove(moves[i]))
+                        errors++;
+                }
+                if (replay.getResult(buffer) != result)
+                    errors++;
+            }
+            System.out.println((weighted ? "weighted" : "uniform") + ": 1 and 4 threads " +
+                    (differences == 0 ? "play the same games" : "differ in " + differences + " games") + ", " +
+                    (errors == 0 ? "replays match Position" : errors + " replay errors") + ", results of 2000 " +
+                    "games (unfinished, white, black, draw): " + Arrays.toString(results));
+
+            long start = System.nanoTime();
+            long plies = generator.run(100_000, Runtime.getRuntime().availableProcessors(),
+                    (game, from, list, count, result, reason) -> { });
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("  %,.0f games/minute, %,.0f moves/s on %d threads%n", 100_000 / seconds * 60,
+                    plies / seconds, Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    private static long checksum(int[] moves, int plies, GameResult result) {
+        long sum = result.ordinal();
+        for (int i = 0; i < plies; i++)
+            sum = sum * 31 + moves[i];
+        return sum;
+    }
+
+    //one FEN per line, blank lines and lines starting with # are skipped
+    private static String[] readStarts(Path file) throws IOException {
+        List<String> fens = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#"))
+                fens.add(line);
+        }
+        return fens.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,192 @@
+package gameEngine;
+
+import gameComponents.Alliance;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Replays move lists on a reusable headless position. One engine can replay any number of games one
+ * after the other; after the first game it does not create any objects. Illegal moves stop the replay and are
+ * reported by their index in the move list.
+ *
+ * Method List:
+ * public boolean replay(int[] moves, int count) - Method to replay packed moves from the starting position
+ * public boolean replay(CharSequence moveText) - Method to replay space separated moves such as "e2e4 e7e5"
+ * public GameResult getResult() - Method to get the result of the last replayed game
+ * public int getIllegalMoveIndex() - Method to get the index of the first illegal move (-1 if all were legal)
+ * public int getMovesPlayed() - Method to get the number of moves that were played
+ * public int getMaterial(Alliance alliance) - Method to get an alliance's material after the last replay
+ * public long getHash() - Method to get the hash of the final position
+ * public Position getPosition() - Method to get the position the games are replayed on
+ * public static void main(String[] args) - Self-testing main method
+ */
+
+public class ReplayEngine {
+    //Global variables
+    private final Position position;
+    private final int[] moveBuffer;
+    private GameResult result;
+    private int illegalMoveIndex;
+
+    /**
+     * Default constructor to create a replay engine with its own position
+     */
+    public ReplayEngine() {
+        position = new Position();
+        moveBuffer = new int[MoveGenerator.MAX_MOVES];
+        result = GameResult.IN_PROGRESS;
+        illegalMoveIndex = -1;
+    }
+
+    /**
+     * Method to replay packed moves from the starting position
+     * @param moves moves created with Move.of or Move.parse
+     * @param count number of moves to replay
+     * @return true if every move was legal
+     */
+    public boolean replay(int[] moves, int count) {
+        position.reset();
+        illegalMoveIndex = -1;
+
+        for (int i = 0; i < count; i++) {
+            if (!play(moves[i])) {
+                illegalMoveIndex = i;
+                break;
+            }
+        }
+        result = position.getResult(moveBuffer);
+        return illegalMoveIndex < 0;
+    }
+
+    /**
+     * Method to replay space separated moves written in coordinate notation ("e2e4 e7e5 g1f3")
+     * @param moveText moves to replay
+     * @return true if every move was legal
+     */
+    public boolean replay(CharSequence moveText) {
+        position.reset();
+        illegalMoveIndex = -1;
+
+        int index = 0;
+        int length = moveText.length();
+        int i = 0;
+        while (i < length) {
+            //skips whitespace and finds the end of the next move
+            while (i < length && Character.isWhitespace(moveText.charAt(i)))
+                i++;
+            int start = i;
+            while (i < length && !Character.isWhitespace(moveText.charAt(i)))
+                i++;
+            if (start == i)
+                break;
+
+            if (!play(Move.parse(moveText, start, i))) {
+                illegalMoveIndex = index;
+                break;
+            }
+            index++;
+        }
+        result = position.getResult(moveBuffer);
+        return illegalMoveIndex < 0;
+    }
+
+    /**
+     * Method to get the result of the last replayed game
+     * @return result of the final position
+     */
+    public GameResult getResult() {
+        return result;
+    }
+
+    /**
+     * Method to get the index of the first illegal move
+     * @return index in the move list, -1 if every move was legal
+     */
+    public int getIllegalMoveIndex() {
+        return illegalMoveIndex;
+    }
+
+    /**
+     * Method to get the number of moves that were played
+     * @return number of legal moves played
+     */
+    public int getMovesPlayed() {
+        return position.getPly();
+    }
+
+    /**
+     * Method to get an alliance's material after the last replay
+     * @param alliance WHITE or BLACK alliance
+     * @return material total (same values as Player.updateScore)
+     */
+    public int getMaterial(Alliance alliance) {
+        return position.getMaterial(alliance);
+    }
+
+    /**
+     * Method to get the hash of the final position
+     * @return 64-bit position hash
+     */
+    public long getHash() {
+        return position.getHash();
+    }
+
+    /**
+     * Method to get the position the games are replayed on
+     * @return position holding the final state of the last replay
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    //plays one move if it is legal in the current position
+    private boolean play(int move) {
+        if (move == Move.NONE)
+            return false;
+        int generated = MoveGenerator.findMove(position, move, moveBuffer);
+        return generated != Move.NONE && position.makeLegalMove(generated);
+    }
+
+    /**
+     * Self testing main method, replays a short game and measures replay speed
+     * @param args optional number of replays for the speed test
+     */
+    public static void main(String[] args) {
+        ReplayEngine engine = new ReplayEngine();
+
+        //fool's mate, black wins
+        String foolsMate = "f2f3 e7e5 g2g4 d8h4";
+        System.out.println("Fool's mate legal: " + engine.replay(foolsMate) + ", result: " + engine.getResult());
+
+        //both knights go out and back twice, the start position is on the board for the third time
+        String repetition = "g1f3 g8f6 f3g1 f6g8 g1f3 g8f6 f3g1 f6g8";
+        engine.replay(repetition);
+        System.out.println("Repetition result: " + engine.getResult() + " (" +
+                engine.getPosition().getDrawReason(new int[MoveGenerator.MAX_MOVES]) + ")");
+
+        //the white queen cannot jump over its own pawn
+        System.out.println("Illegal game legal: " + engine.replay("e2e4 e7e5 d1d3") +
+                ", illegal move index: " + engine.getIllegalMoveIndex());
+
+        String game = "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 d2d3 b7b5 a4b3 d7d6 c2c3 f8e7 b1d2 c8g4 " +
+                "h2h3 g4h5 d2f1 d6d5 e4d5 f6d5 f1g3 h5g6 f3e5 c6e5 d1e2 e7d6 d3d4 d8e7 d4e5 d6e5";
+        int[] moves = new int[64];
+        int count = 0;
+        for (String text : game.split(" "))
+            moves[count++] = Move.parse(text, 0, text.length());
+
+        int replays = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < replays; i++) {
+            engine.replay(moves, count);
+            checksum += engine.getHash();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Replayed %d games (%d moves each) in %.2fs: %.0f games/s, checksum %x%n",
+                replays, count, seconds, replays / seconds, checksum);
+        System.out.println("White material: " + engine.getMaterial(Alliance.WHITE) +
+                ", black material: " + engine.getMaterial(Alliance.BLACK));
+    }
+}
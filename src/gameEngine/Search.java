@@ -0,0 +1,694 @@
+package gameEngine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Alpha-beta search over the headless position. Each thread needs its own Search object, but several
+ * searches can share one TranspositionTable so helper threads feed the main thread with results. All work arrays are
+ * created once, so repeated searches with the same object do not create garbage apart from the reports.
+ *
+ * Moves come from a MovePicker for each ply, which generates them in stages so a node cut off by its table move,
+ * a good capture or a killer never generates its quiet moves.
+ *
+ * Besides the transposition table and move ordering the search is selective: null moves, late move reductions,
+ * futility pruning and razoring cut the tree, and check extensions look deeper at forcing lines. Each can be turned
+ * off with SearchOptions.
+ *
+ * Positions are scored by Evaluator, or by a Network if one is set; its accumulators follow the search's position
+ * move by move.
+ *
+ * With MultiPV set above 1 the main thread searches the root moves in one pass at every depth and reports the best
+ * lines separately (SearchInfo.getMultiPv()). The first moves, last depth's lines in order, get exact scores; every
+ * other move is only tested with a null window against the worst line so far and searched again if it beats it, so
+ * the extra lines cost little more than their own subtrees.
+ *
+ * Method List:
+ * public int search(PositionSnapshot root, SearchLimits limits, AtomicBoolean stop, SearchListener listener) -
+ *        Method to search a position and return the best move
+ * public int search(PositionSnapshot root, SearchLimits limits, AtomicBoolean stop, SearchListener listener,
+ *        int helperIndex) - Method to search a position as one of several threads
+ * public long getNodes() - Method to get the number of nodes searched by the last search
+ * public int getScore() - Method to get the score of the last finished depth
+ * public void setTablebase(Tablebase tablebase) - Method to use endgame tables during the search
+ * public void setNetwork(Network network) - Method to evaluate positions with a network instead of Evaluator
+ * public void setOptions(SearchOptions options) - Method to choose the selective search features
+ * public SearchOptions getOptions() - Method to get the selective search features in use
+ * public void setExcludedMoves(int... moves) - Method to leave some root moves out of the following searches
+ * public void setMultiPv(int lines) - Method to set how many best moves are searched and reported
+ * public int getMultiPv() - Method to get how many best moves are searched and reported
+ */
+
+public class Search {
+    public static final int MAX_PLY = 64;
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000;
+    //scores at least this far from 0 are mates, found by the search or, further away, in the endgame tables
+    public static final int MATE_BOUND = MATE - MAX_PLY - Tablebase.MAX_DTM;
+
+    //nodes between two checks of the time and node limits
+    private static final int CHECK_INTERVAL = 2048;
+
+    //history scores are halved before they reach this size
+    private static final int HISTORY_LIMIT = 1 << 26;
+
+    //selective search settings, margins are in hundredths of a pawn per ply of remaining depth
+    private static final int NULL_MOVE_DEPTH = 3;       //smallest depth that tries a null move
+    private static final int VERIFY_DEPTH = 8;          //smallest depth that checks a null move cutoff again
+    private static final int FUTILITY_DEPTH = 3;
+    private static final int FUTILITY_MARGIN = 150;
+    private static final int RAZOR_DEPTH = 2;
+    private static final int RAZOR_MARGIN = 300;
+    private static final int LMR_DEPTH = 3;
+    private static final int LMR_MOVES = 3;             //moves searched at full depth before reductions start
+    private static final int[][] REDUCTIONS = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+
+    static {
+        for (int depth = 1; depth <= MAX_PLY; depth++) {
+            for (int moves = 1; moves < MoveGenerator.MAX_MOVES; moves++)
+                REDUCTIONS[depth][moves] = (int) (0.75 + Math.log(depth) * Math.log(moves) / 2.25);
+        }
+    }
+
+    //Global variables
+    private final TranspositionTable table;
+    private final Position position;
+    private Accumulator accumulator;        //null unless a network evaluates positions
+    private final MovePicker[] pickers;     //one for each ply, see MovePicker for the order of the moves
+    private final int[][] quietsTried;      //quiet moves searched at each ply, they lose history after a cutoff
+    private final int[][] pv;
+    private final int[] pvLength;
+    private final int[][] killers;
+    private final int[] history;
+
+    private Tablebase tablebase;
+    private SearchOptions options;
+    private int[] excludedMoves;
+    private int[] rootExcluded;             //moves left out of the root search
+    private int rootExcludedCount;
+    private int rootHint;                   //best move of the last depth, tried first at the root if moves are left out
+    private int multiPv;
+    private int[] rootMoves, rootOrder;     //legal root moves of a MultiPV search, best first after each depth
+    private int rootCount;
+    private int rootLegal;                  //legal root moves, the left out ones included
+    private int[][] linePv;                 //best lines of the last depth, best first
+    private final int[] linePvLength;
+    private final int[] lineScores;
+    private int lineCount;
+    private boolean nullMove, lateMoveReductions, futility, razoring, checkExtensions;
+    private AtomicBoolean stop;
+    private boolean mustFinish;         //true while the main thread searches depth 1, which stop does not cut short
+    private SearchLimits limits;
+    private boolean mainThread;
+    private long startTime;
+    private long nodes;
+    private int score;
+
+    /**
+     * Constructor to create a search that shares the given table
+     * @param table transposition table, may be shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        this.position = new Position();
+        this.pickers = new MovePicker[MAX_PLY + 1];
+        for (int ply = 0; ply <= MAX_PLY; ply++)
+            pickers[ply] = new MovePicker();
+        this.quietsTried = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+        this.pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+        this.pvLength = new int[MAX_PLY + 1];
+        this.killers = new int[MAX_PLY + 1][2];
+        this.history = new int[64 * 64];
+        this.options = SearchOptions.all();
+        this.excludedMoves = new int[0];
+        this.rootExcluded = excludedMoves;
+        this.multiPv = 1;
+        this.rootMoves = new int[MoveGenerator.MAX_MOVES];
+        this.rootOrder = new int[MoveGenerator.MAX_MOVES];
+        this.linePv = new int[1][MAX_PLY + 1];
+        this.linePvLength = new int[MoveGenerator.MAX_MOVES];
+        this.lineScores = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    /**
+     * Method to search a position and return the best move
+     * @param root position to search
+     * @param limits when to stop searching
+     * @param stop flag that stops the search when set, it is set when a limit is reached; depth 1 is always finished
+     *             so a legal move is returned even if the flag is set at once
+     * @param listener receives a report after each depth, may be null
+     * @return best move, Move.NONE if the side to move has no legal move
+     */
+    public int search(PositionSnapshot root, SearchLimits limits, AtomicBoolean stop, SearchListener listener) {
+        return search(root, limits, stop, listener, 0);
+    }
+
+    /**
+     * Method to search a position as one of several threads sharing a table. Only thread 0 checks the limits;
+     * the other threads start at different depths so they fill the table with useful results and run until the
+     * stop flag is set.
+     * @param root position to search
+     * @param limits when to stop searching (only used by thread 0)
+     * @param stop flag shared by all threads of the search
+     * @param listener receives a report after each depth, may be null
+     * @param helperIndex 0 for the main thread, 1 and up for helpers
+     * @return best move, Move.NONE if the side to move has no legal move
+     */
+    public int search(PositionSnapshot root, SearchLimits limits, AtomicBoolean stop, SearchListener listener,
+                      int helperIndex) {
+        root.copyTo(position);
+        this.limits = limits;
+        this.stop = stop;
+        this.mainThread = helperIndex == 0;
+        this.startTime = System.currentTimeMillis();
+        this.nodes = 0;
+        this.score = 0;
+        this.nullMove = options.isEnabled(SearchOptions.NULL_MOVE);
+        this.lateMoveReductions = options.isEnabled(SearchOptions.LATE_MOVE_REDUCTIONS);
+        this.futility = options.isEnabled(SearchOptions.FUTILITY);
+        this.razoring = options.isEnabled(SearchOptions.RAZORING);
+        this.checkExtensions = options.isEnabled(SearchOptions.CHECK_EXTENSIONS);
+        Arrays.fill(history, 0);
+        for (int[] killer : killers)
+            killer[0] = killer[1] = Move.NONE;
+        if (mainThread)
+            table.newSearch();
+
+        int bestMove = Move.NONE;
+        int maxDepth = mainThread ? limits.getDepth() : MAX_PLY;
+        int lines = mainThread ? multiPv : 1;
+        rootExcluded = excludedMoves;
+        rootExcludedCount = excludedMoves.length;
+        rootHint = Move.NONE;
+        if (lines > 1)
+            collectRootMoves();
+        for (int depth = 1 + (helperIndex & 1); depth <= maxDepth; depth++) {
+            mustFinish = mainThread && depth == 1;     //so there is always a move to play
+            int value;
+            if (lines > 1) {
+                value = searchRoot(depth, lines);
+            }
+            else {
+                value = alphaBeta(depth, -INFINITY, INFINITY, 0, true);
+                System.arraycopy(pv[0], 0, linePv[0], 0, pvLength[0]);
+                linePvLength[0] = pvLength[0];
+                lineScores[0] = value;
+                lineCount = 1;
+            }
+            if (stop.get() && depth > 1)
+                break;      //the unfinished depth is not trusted
+
+            score = value;
+            if (linePvLength[0] > 0)
+                bestMove = rootHint = linePv[0][0];
+            if (listener != null) {
+                for (int line = 0; line < lineCount; line++) {
+                    int[] moves = Arrays.copyOf(linePv[line], linePvLength[line]);
+                    listener.onInfo(new SearchInfo(depth, lineScores[line], position.getSideToMove(), nodes,
+                            System.currentTimeMillis() - startTime, moves, line + 1));
+                }
+            }
+            if (linePvLength[0] == 0)
+                break;      //no legal moves
+            if (mainThread && Math.abs(score) >= MATE_BOUND && depth >= MATE - Math.abs(score))
+                break;      //a forced mate inside the searched depth cannot get any shorter
+        }
+        rootExcludedCount = 0;
+        mustFinish = false;
+        if (mainThread)
+            stop.set(true);     //tells helper threads to finish
+        return bestMove;
+    }
+
+    /**
+     * Method to get the number of nodes searched by the last search
+     * @return node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Method to get the score of the last finished depth
+     * @return score for the side to move in hundredths of a pawn
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Method to use endgame tables during the search, positions they cover are scored without searching further
+     * @param tablebase tables to probe, null to stop using them
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Method to evaluate positions with a network instead of Evaluator, used from the next search on
+     * @param network weights, null to go back to Evaluator
+     */
+    public void setNetwork(Network network) {
+        accumulator = network == null ? null : new Accumulator(network, position);
+        position.setAccumulator(accumulator);
+    }
+
+    /**
+     * Method to choose the selective search features, used from the next search on
+     * @param options features to use, the search keeps its own copy
+     */
+    public void setOptions(SearchOptions options) {
+        this.options = options.copy();
+    }
+
+    /**
+     * Method to get the selective search features in use
+     * @return copy of the options
+     */
+    public SearchOptions getOptions() {
+        return options.copy();
+    }
+
+    /**
+     * Method to leave some root moves out of the following searches, for example to find the best alternative to a
+     * move. The search then returns the best of the other moves; if every legal move is left out it returns
+     * Move.NONE and getScore() gives -INFINITY.
+     * @param moves legal moves of the root position, none to search every move again
+     */
+    public void setExcludedMoves(int... moves) {
+        this.excludedMoves = moves.clone();
+    }
+
+    /**
+     * Method to set how many best moves the main thread searches and reports at each depth
+     * @param lines number of lines, 1 for a normal search
+     */
+    public void setMultiPv(int lines) {
+        this.multiPv = Math.max(1, Math.min(lines, MoveGenerator.MAX_MOVES - 1));
+        if (linePv.length < multiPv)
+            linePv = new int[multiPv][MAX_PLY + 1];
+    }
+
+    /**
+     * Method to get how many best moves the main thread searches and reports at each depth
+     * @return number of lines
+     */
+    public int getMultiPv() {
+        return multiPv;
+    }
+
+    //the legal root moves that are not left out, in MovePicker order, for the MultiPV root search
+    private void collectRootMoves() {
+        long entry = table.probe(position.getHash());
+        MovePicker picker = pickers[0];
+        picker.init(position, entry != 0 ? TranspositionTable.move(entry) : Move.NONE, killers[0], history);
+        rootCount = 0;
+        rootLegal = 0;
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            if (!position.makeLegalMove(move))
+                continue;
+            position.undoMove();
+            rootLegal++;
+            if (!isExcluded(move))
+                rootMoves[rootCount++] = move;
+        }
+    }
+
+    //MultiPV root search in one pass: until there are enough lines every move gets an exact score, after that a
+    //move is searched with a null window at the worst line's score and only searched fully if it beats it
+    private int searchRoot(int depth, int lines) {
+        pvLength[0] = 0;
+        boolean inCheck = position.inCheck();
+        if (inCheck && checkExtensions)
+            depth++;
+        checkLimits();
+        lineCount = 0;
+
+        for (int i = 0; i < rootCount; i++) {
+            int move = rootMoves[i];
+            boolean quiet = isQuiet(move);
+            position.makeMove(move);
+            boolean givesCheck = position.inCheck();
+
+            int value;
+            if (lineCount < lines) {
+                value = -alphaBeta(depth - 1, -INFINITY, INFINITY, 1, true);
+            }
+            else {
+                int alpha = lineScores[lines - 1];
+                int reduction = 0;
+                if (lateMoveReductions && quiet && depth >= LMR_DEPTH && i >= lines + LMR_MOVES - 1 && !inCheck &&
+                        !givesCheck)
+                    reduction = lateMoveReduction(depth, i + 1, move, true);
+                value = -alphaBeta(depth - 1 - reduction, -alpha - 1, -alpha, 1, true);
+                if (value > alpha && reduction > 0)
+                    value = -alphaBeta(depth - 1, -alpha - 1, -alpha, 1, true);
+                if (value > alpha)
+                    value = -alphaBeta(depth - 1, -INFINITY, -alpha, 1, true);
+            }
+            position.undoMove();
+            if (stopped())
+                return 0;
+
+            if (lineCount < lines || value > lineScores[lines - 1]) {
+                updatePv(0, move);
+                insertLine(value, lines);
+            }
+        }
+
+        if (lineCount == 0) {
+            //every root move was left out, or checkmate or stalemate
+            linePvLength[0] = 0;
+            lineCount = 1;
+            return lineScores[0] = rootLegal > 0 ? -INFINITY : inCheck ? -MATE : 0;
+        }
+
+        //the next depth searches the lines first, in order, then the other moves as they were
+        int count = 0;
+        for (int line = 0; line < lineCount; line++)
+            rootOrder[count++] = linePv[line][0];
+        for (int i = 0; i < rootCount; i++) {
+            if (!isLineMove(rootMoves[i]))
+                rootOrder[count++] = rootMoves[i];
+        }
+        int[] order = rootMoves;
+        rootMoves = rootOrder;
+        rootOrder = order;
+
+        if (rootExcludedCount == 0)
+            table.store(position.getHash(), linePv[0][0], toTable(lineScores[0], 0), depth, TranspositionTable.EXACT);
+        return lineScores[0];
+    }
+
+    //puts the root line in pv[0] among the best lines, which are kept in order of score, the worst drops out if
+    //there are enough
+    private void insertLine(int value, int lines) {
+        int slot = Math.min(lineCount, lines - 1);
+        int[] spare = linePv[slot];
+        while (slot > 0 && lineScores[slot - 1] < value) {
+            linePv[slot] = linePv[slot - 1];
+            linePvLength[slot] = linePvLength[slot - 1];
+            lineScores[slot] = lineScores[slot - 1];
+            slot--;
+        }
+        linePv[slot] = spare;
+        System.arraycopy(pv[0], 0, spare, 0, pvLength[0]);
+        linePvLength[slot] = pvLength[0];
+        lineScores[slot] = value;
+        lineCount = Math.min(lineCount + 1, lines);
+    }
+
+    private boolean isLineMove(int move) {
+        for (int line = 0; line < lineCount; line++) {
+            if (linePv[line][0] == move)
+                return true;
+        }
+        return false;
+    }
+
+    private int evaluate() {
+        return accumulator != null ? accumulator.evaluate() : Evaluator.evaluate(position);
+    }
+
+    private boolean isExcluded(int move) {
+        for (int i = 0; i < rootExcludedCount; i++) {
+            if (rootExcluded[i] == move)
+                return true;
+        }
+        return false;
+    }
+
+    //negamax alpha-beta with principal variation search, allowNull is false right after a null move
+    private int alphaBeta(int depth, int alpha, int beta, int ply, boolean allowNull) {
+        pvLength[ply] = 0;
+        if (ply > 0 && (position.isRepetition() || position.isFiftyMoveDraw() || position.hasInsufficientMaterial()))
+            return 0;       //before the quiescence search, which would miss a draw reached on the horizon
+        boolean inCheck = position.inCheck();
+        if (inCheck && checkExtensions)
+            depth++;        //a check is never left to the quiescence search, which only looks at captures
+        if (depth <= 0)
+            return quiescence(alpha, beta, ply);
+
+        checkLimits();
+        if (stopped())
+            return 0;
+        if (ply >= MAX_PLY)
+            return evaluate();
+
+        boolean pvNode = beta - alpha > 1;
+        long hash = position.getHash();
+        long entry = table.probe(hash);
+        int ttMove = Move.NONE;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (!pvNode && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int ttScore = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT ||
+                        bound == TranspositionTable.LOWER && ttScore >= beta ||
+                        bound == TranspositionTable.UPPER && ttScore <= alpha)
+                    return ttScore;
+            }
+        }
+        if (ply == 0 && rootExcludedCount > 0 && rootHint != Move.NONE)
+            ttMove = rootHint;      //the table move is usually an earlier line's move, which is left out
+
+        //the root is always searched so there is a move to play
+        if (tablebase != null && ply > 0 && Long.bitCount(position.getOccupied()) <= TablebaseMaterial.MAX_PIECES) {
+            int plies = tablebase.probeDtm(position);
+            //a mated position reads as 0 like a draw, the move loop below finds the mate instead
+            if (plies != Tablebase.UNKNOWN && (plies != 0 || !inCheck))
+                return plies > 0 ? MATE - ply - plies : plies < 0 ? -MATE + ply - plies : 0;
+        }
+
+        //pruning decisions use the static evaluation, never on the principal variation or in check
+        boolean prunable = !pvNode && !inCheck && ply > 0;
+        boolean futile = false;
+        if (prunable) {
+            int staticEval = evaluate();
+
+            //razoring, so far below alpha near the horizon that only a capture could help
+            if (razoring && depth <= RAZOR_DEPTH && staticEval + RAZOR_MARGIN * depth < alpha) {
+                int value = quiescence(alpha - 1, alpha, ply);
+                if (value < alpha)
+                    return value;
+            }
+
+            //reverse futility, so far above beta that one quiet reply cannot bring the opponent back
+            if (futility && depth <= FUTILITY_DEPTH && Math.abs(beta) < MATE_BOUND &&
+                    staticEval - FUTILITY_MARGIN * depth >= beta)
+                return staticEval;
+
+            //null move, needs pieces besides king and pawns because those endings are full of zugzwang
+            if (nullMove && allowNull && depth >= NULL_MOVE_DEPTH && staticEval >= beta &&
+                    hasPieces(position.getSideToMove())) {
+                int reduction = depth > 6 ? 3 : 2;
+                position.makeNullMove();
+                int value = -alphaBeta(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+                position.undoMove();
+                if (stopped())
+                    return 0;
+                if (value >= beta) {
+                    if (value >= MATE_BOUND)
+                        value = beta;       //a mate found after passing is not a real mate
+                    //deep cutoffs are searched again without null moves, the last zugzwang guard
+                    if (depth < VERIFY_DEPTH || alphaBeta(depth - 1 - reduction, beta - 1, beta, ply, false) >= beta)
+                        return value;
+                }
+            }
+
+            futile = futility && depth <= FUTILITY_DEPTH && Math.abs(alpha) < MATE_BOUND &&
+                    staticEval + FUTILITY_MARGIN * depth <= alpha;
+        }
+
+        MovePicker picker = pickers[ply];
+        picker.init(position, ttMove, killers[ply], history);
+
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        int legalMoves = 0;
+        int quietCount = 0;
+        int originalAlpha = alpha;
+
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            boolean quiet = isQuiet(move);
+            if (ply == 0 && rootExcludedCount > 0 && isExcluded(move))
+                continue;
+            if (!position.makeLegalMove(move))
+                continue;
+            legalMoves++;
+            if (quiet)
+                quietsTried[ply][quietCount++] = move;
+            boolean givesCheck = position.inCheck();
+
+            //futility, quiet moves cannot lift a hopeless score back to alpha this close to the horizon
+            if (futile && quiet && !givesCheck && legalMoves > 1) {
+                position.undoMove();
+                continue;
+            }
+
+            int value;
+            if (legalMoves == 1) {
+                value = -alphaBeta(depth - 1, -beta, -alpha, ply + 1, true);
+            }
+            else {
+                //late quiet moves are searched less deeply, less so if they caused cutoffs before
+                int reduction = 0;
+                if (lateMoveReductions && quiet && depth >= LMR_DEPTH && legalMoves > LMR_MOVES && !inCheck &&
+                        !givesCheck && move != killers[ply][0] && move != killers[ply][1])
+                    reduction = lateMoveReduction(depth, legalMoves, move, pvNode);
+
+                //null window search first, full depth and then full window only if the move might be better
+                value = -alphaBeta(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+                if (value > alpha && reduction > 0)
+                    value = -alphaBeta(depth - 1, -alpha - 1, -alpha, ply + 1, true);
+                if (value > alpha && value < beta)
+                    value = -alphaBeta(depth - 1, -beta, -alpha, ply + 1, true);
+            }
+            position.undoMove();
+            if (stopped())
+                return 0;
+
+            if (value > bestScore) {
+                bestScore = value;
+                bestMove = move;
+                if (value > alpha) {
+                    alpha = value;
+                    updatePv(ply, move);
+                    if (value >= beta) {
+                        if (quiet)
+                            rememberQuietMove(ply, move, depth, quietCount - 1);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (legalMoves == 0 && ply == 0 && rootExcludedCount > 0)
+            return -INFINITY;       //every root move was left out
+        if (legalMoves == 0)
+            return inCheck ? -MATE + ply : 0;     //checkmate or stalemate
+        if (ply == 0 && rootExcludedCount > 0)
+            return bestScore;       //not the true score of the root, so it is not stored
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER :
+                bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(hash, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    //searches captures only until the position is quiet
+    private int quiescence(int alpha, int beta, int ply) {
+        checkLimits();
+        if (stopped())
+            return 0;
+
+        int standPat = evaluate();
+        if (standPat >= beta || ply >= MAX_PLY)
+            return standPat;
+        if (standPat > alpha)
+            alpha = standPat;
+
+        //captures that lose material are not tried, standing pat is better
+        MovePicker picker = pickers[ply];
+        picker.initCaptures(position);
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            if (!position.makeLegalMove(move))
+                continue;
+            int value = -quiescence(-beta, -alpha, ply + 1);
+            position.undoMove();
+            if (stopped())
+                return 0;
+
+            if (value > alpha) {
+                alpha = value;
+                if (value >= beta)
+                    break;
+            }
+        }
+        return alpha;
+    }
+
+    //plies a late quiet move is searched less deeply, fewer if it caused cutoffs before or on the principal variation
+    private int lateMoveReduction(int depth, int legalMoves, int move, boolean pvNode) {
+        int reduction = REDUCTIONS[Math.min(depth, MAX_PLY)][legalMoves];
+        int moveHistory = history[move & 4095];
+        if (moveHistory > 0)
+            reduction--;
+        else if (moveHistory < 0)
+            reduction++;
+        if (pvNode)
+            reduction--;
+        return Math.max(0, Math.min(reduction, depth - 2));
+    }
+
+    private boolean isQuiet(int move) {
+        return Move.promotion(move) == 0 && !position.isCapture(move);
+    }
+
+    //the cutoff move gains history, the quiet moves tried before it (quietsTried entries 0 to index - 1) lose some
+    private void rememberQuietMove(int ply, int move, int depth, int index) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        addHistory(move, depth * depth);
+        int[] tried = quietsTried[ply];
+        for (int i = 0; i < index; i++)
+            addHistory(tried[i], -depth * depth);
+    }
+
+    private void addHistory(int move, int bonus) {
+        int index = move & 4095;
+        history[index] += bonus;
+        if (Math.abs(history[index]) > HISTORY_LIMIT) {
+            //halves every entry so old successes fade
+            for (int j = 0; j < history.length; j++)
+                history[j] /= 2;
+        }
+    }
+
+    //true if a side has a knight, bishop, rook or queen
+    private boolean hasPieces(int colour) {
+        return (position.getColourPieces(colour) & ~position.getPieces(colour, Position.PAWN) &
+                ~position.getPieces(colour, Position.KING)) != 0;
+    }
+
+    //the search gives up once stop is set, except while it must finish depth 1
+    private boolean stopped() {
+        return stop.get() && !mustFinish;
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][0] = move;
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    private void checkLimits() {
+        if ((++nodes & (CHECK_INTERVAL - 1)) != 0 || !mainThread)
+            return;
+        if (limits.getNodes() > 0 && nodes >= limits.getNodes() ||
+                limits.getMoveTime() > 0 && System.currentTimeMillis() - startTime >= limits.getMoveTime())
+            stop.set(true);
+    }
+
+    //mate scores are stored relative to the position instead of the root
+    private static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND)
+            return score + ply;
+        if (score <= -MATE_BOUND)
+            return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND)
+            return score - ply;
+        if (score <= -MATE_BOUND)
+            return score + ply;
+        return score;
+    }
+}
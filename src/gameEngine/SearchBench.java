@@ -0,0 +1,128 @@
+package gameEngine;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Fixed benchmark for the selective search features. Every position of a fixed suite is searched to the
+ * same depth with a fresh transposition table, first as a plain alpha-beta search, then with each SearchOptions
+ * feature on by itself and finally with all of them. For each setup it prints the nodes, the time to reach the depth
+ * and how many best moves agree with the plain search, so the effect of a change can be compared from run to run.
+ * The last row searches MULTI_PV lines with every feature on, showing what the extra lines cost over one.
+ * Node counts do not depend on the machine, times do.
+ *
+ * Method List:
+ * public static Result run(SearchOptions options, int depth) - Method to search the suite with some features on
+ * public static Result run(SearchOptions options, int depth, int lines) - Method to search the suite for several lines
+ * public static void main(String[] args) - Method to run the benchmark, the depth is the optional argument
+ */
+
+public final class SearchBench {
+    //opening, middlegame and endgame positions, including tactical ones and a zugzwang-prone pawn ending
+    public static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4",
+            "r2q1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 9",
+            "r1b2rk1/2q1b1pp/p2ppn2/1p6/3QP3/1BN1B3/PPP3PP/R4RK1 w - - 0 1",
+            "2r3k1/pp3ppp/2n5/3p4/3P4/2P2N2/P4PPP/2R3K1 b - - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/8/p1p5/1p5p/1P5p/8/PPP2K1p/4R1rk w - - 0 1",
+            "8/8/8/4k3/8/3PK3/8/8 w - - 0 1",
+            "6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1"
+    };
+
+    private static final int DEFAULT_DEPTH = 7;
+    private static final int MULTI_PV = 3;
+    private static final int HASH_MEGABYTES = 16;
+
+    private SearchBench() {
+    }
+
+    /**
+     * Totals of one benchmark run
+     */
+    public static final class Result {
+        public final long nodes;
+        public final long millis;
+        public final int[] bestMoves;
+
+        Result(long nodes, long millis, int[] bestMoves) {
+            this.nodes = nodes;
+            this.millis = millis;
+            this.bestMoves = bestMoves;
+        }
+    }
+
+    /**
+     * Method to search every position of the suite to a fixed depth with some features on
+     * @param options features to use
+     * @param depth search depth
+     * @return nodes, time to depth in milliseconds and the best move of each position
+     */
+    public static Result run(SearchOptions options, int depth) {
+        return run(options, depth, 1);
+    }
+
+    /**
+     * Method to search every position of the suite to a fixed depth for several of the best lines
+     * @param options features to use
+     * @param depth search depth
+     * @param lines number of lines (MultiPV)
+     * @return nodes, time to depth in milliseconds and the best move of each position
+     */
+    public static Result run(SearchOptions options, int depth, int lines) {
+        TranspositionTable table = new TranspositionTable(HASH_MEGABYTES);
+        Search search = new Search(table);
+        search.setOptions(options);
+        search.setMultiPv(lines);
+        Position position = new Position();
+        int[] bestMoves = new int[POSITIONS.length];
+        long nodes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < POSITIONS.length; i++) {
+            //every position starts from an empty table so the order of the suite does not matter
+            table.clear();
+            Fen.load(position, POSITIONS[i]);
+            bestMoves[i] = search.search(PositionSnapshot.of(position), SearchLimits.depth(depth),
+                    new AtomicBoolean(), null);
+            nodes += search.getNodes();
+        }
+        return new Result(nodes, (System.nanoTime() - start) / 1_000_000, bestMoves);
+    }
+
+    /**
+     * Method to run the benchmark and print one line for each setup
+     * @param args optional search depth
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        run(SearchOptions.all(), Math.min(depth, 5));     //warm-up so the first setup is not timed cold
+
+        Result plain = run(SearchOptions.none(), depth);
+        System.out.printf("depth %d, %d positions%n", depth, POSITIONS.length);
+        System.out.printf("%-20s %12s %8s %8s %9s%n", "features", "nodes", "ratio", "ms", "agree");
+        print("none", plain, plain);
+        for (int feature = 0; feature < SearchOptions.FEATURES.length; feature++) {
+            SearchOptions options = SearchOptions.none();
+            options.setEnabled(feature, true);
+            print(SearchOptions.FEATURES[feature], run(options, depth), plain);
+        }
+        Result all = run(SearchOptions.all(), depth);
+        print("all", all, plain);
+        Result multiPv = run(SearchOptions.all(), depth, MULTI_PV);
+        print("all, multipv " + MULTI_PV, multiPv, plain);
+        System.out.printf("multipv %d costs %.2fx the nodes of one line%n", MULTI_PV, (double) multiPv.nodes / all.nodes);
+    }
+
+    private static void print(String name, Result result, Result plain) {
+        int agree = 0;
+        for (int i = 0; i < POSITIONS.length; i++) {
+            if (result.bestMoves[i] == plain.bestMoves[i])
+                agree++;
+        }
+        System.out.printf("%-20s %,12d %8.2f %8d %6d/%d%n", name, result.nodes, (double) result.nodes / plain.nodes,
+                result.millis, agree, POSITIONS.length);
+    }
+}
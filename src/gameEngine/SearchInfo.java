@@ -0,0 +1,160 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Immutable progress report from a search, sent to a SearchListener after each finished depth.
+ *
+ * Method List:
+ * public int getDepth() - Method to get the depth that was finished
+ * public int getScore() - Method to get the score for the side to move
+ * public int getWhiteScore() - Method to get the score from white's point of view
+ * public boolean isMate() - Method to check if the score is a forced mate
+ * public int getMateIn() - Method to get the number of moves to mate (negative if the side to move is mated)
+ * public long getNodes() - Method to get the number of nodes searched
+ * public long getTimeMillis() - Method to get the time spent searching
+ * public int[] getPrincipalVariation() - Method to get the expected line of play
+ * public int getBestMove() - Method to get the first move of the expected line
+ * public String getPrincipalVariationText() - Method to get the expected line as text ("e2e4 e7e5")
+ * public int getMultiPv() - Method to get the rank of the line among the best moves (1 for the best)
+ */
+
+public final class SearchInfo {
+    //Global variables
+    private final int depth;
+    private final int score;
+    private final int sideToMove;
+    private final long nodes;
+    private final long timeMillis;
+    private final int[] pv;
+    private final int multiPv;
+
+    /**
+     * Constructor for a search report
+     * @param depth depth that was finished
+     * @param score score for the side to move
+     * @param sideToMove side to move in the searched position
+     * @param nodes nodes searched
+     * @param timeMillis time spent searching
+     * @param pv expected line of play (copied)
+     */
+    public SearchInfo(int depth, int score, int sideToMove, long nodes, long timeMillis, int[] pv) {
+        this(depth, score, sideToMove, nodes, timeMillis, pv, 1);
+    }
+
+    /**
+     * Constructor for a report on one of several lines of a MultiPV search
+     * @param depth depth that was finished
+     * @param score score of the line for the side to move
+     * @param sideToMove side to move in the searched position
+     * @param nodes nodes searched
+     * @param timeMillis time spent searching
+     * @param pv expected line of play (copied)
+     * @param multiPv rank of the line, 1 for the best move
+     */
+    public SearchInfo(int depth, int score, int sideToMove, long nodes, long timeMillis, int[] pv, int multiPv) {
+        this.depth = depth;
+        this.score = score;
+        this.sideToMove = sideToMove;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.pv = pv.clone();
+        this.multiPv = multiPv;
+    }
+
+    /**
+     * Method to get the depth that was finished
+     * @return depth in plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Method to get the score for the side to move
+     * @return score in hundredths of a pawn
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Method to get the score from white's point of view
+     * @return score in hundredths of a pawn, positive if white is better
+     */
+    public int getWhiteScore() {
+        return sideToMove == Position.WHITE ? score : -score;
+    }
+
+    /**
+     * Method to check if the score is a forced mate
+     * @return true for mate scores
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+
+    /**
+     * Method to get the number of moves to mate
+     * @return moves to mate, negative if the side to move is getting mated, 0 if the score is not a mate
+     */
+    public int getMateIn() {
+        if (!isMate())
+            return 0;
+        return score > 0 ? (Search.MATE - score + 1) / 2 : -(Search.MATE + score) / 2;
+    }
+
+    /**
+     * Method to get the number of nodes searched
+     * @return node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Method to get the time spent searching
+     * @return time in milliseconds
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Method to get the expected line of play
+     * @return copy of the principal variation
+     */
+    public int[] getPrincipalVariation() {
+        return pv.clone();
+    }
+
+    /**
+     * Method to get the first move of the expected line
+     * @return best move, Move.NONE if there is none
+     */
+    public int getBestMove() {
+        return pv.length > 0 ? pv[0] : Move.NONE;
+    }
+
+    /**
+     * Method to get the expected line as text
+     * @return moves separated by spaces
+     */
+    public String getPrincipalVariationText() {
+        StringBuilder text = new StringBuilder();
+        for (int move : pv) {
+            if (text.length() > 0)
+                text.append(' ');
+            text.append(Move.toString(move));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Method to get the rank of the line among the best moves of a MultiPV search
+     * @return 1 for the best move, 2 for the second best and so on
+     */
+    public int getMultiPv() {
+        return multiPv;
+    }
+}
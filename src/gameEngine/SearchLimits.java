@@ -0,0 +1,125 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Limits for one search. A search stops at the first limit that is reached; a search without limits
+ * runs until it is stopped from outside.
+ *
+ * Method List:
+ * public static SearchLimits infinite() - Method to create limits that never stop the search
+ * public static SearchLimits depth(int depth) - Method to create limits for a fixed depth
+ * public static SearchLimits nodes(long nodes) - Method to create limits for a fixed number of nodes
+ * public static SearchLimits moveTime(long millis) - Method to create limits for a fixed time
+ * public int getDepth() - Method to get the maximum depth
+ * public void setDepth(int depth) - Method to set the maximum depth
+ * public long getNodes() - Method to get the maximum number of nodes (0 for no limit)
+ * public void setNodes(long nodes) - Method to set the maximum number of nodes
+ * public long getMoveTime() - Method to get the time limit in milliseconds (0 for no limit)
+ * public void setMoveTime(long millis) - Method to set the time limit in milliseconds
+ */
+
+public class SearchLimits {
+    //Global variables
+    private int depth;
+    private long nodes;
+    private long moveTime;
+
+    /**
+     * Default constructor, no limits
+     */
+    public SearchLimits() {
+        this.depth = Search.MAX_PLY;
+        this.nodes = 0;
+        this.moveTime = 0;
+    }
+
+    /**
+     * Method to create limits that never stop the search
+     * @return new limits
+     */
+    public static SearchLimits infinite() {
+        return new SearchLimits();
+    }
+
+    /**
+     * Method to create limits for a fixed depth
+     * @param depth depth in plies
+     * @return new limits
+     */
+    public static SearchLimits depth(int depth) {
+        SearchLimits limits = new SearchLimits();
+        limits.setDepth(depth);
+        return limits;
+    }
+
+    /**
+     * Method to create limits for a fixed number of nodes
+     * @param nodes node count
+     * @return new limits
+     */
+    public static SearchLimits nodes(long nodes) {
+        SearchLimits limits = new SearchLimits();
+        limits.setNodes(nodes);
+        return limits;
+    }
+
+    /**
+     * Method to create limits for a fixed time
+     * @param millis time in milliseconds
+     * @return new limits
+     */
+    public static SearchLimits moveTime(long millis) {
+        SearchLimits limits = new SearchLimits();
+        limits.setMoveTime(millis);
+        return limits;
+    }
+
+    /**
+     * Method to get the maximum depth
+     * @return depth in plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Method to set the maximum depth
+     * @param depth depth in plies, capped at Search.MAX_PLY
+     */
+    public void setDepth(int depth) {
+        this.depth = Math.max(1, Math.min(depth, Search.MAX_PLY));
+    }
+
+    /**
+     * Method to get the maximum number of nodes
+     * @return node limit, 0 for no limit
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Method to set the maximum number of nodes
+     * @param nodes node limit, 0 for no limit
+     */
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * Method to get the time limit
+     * @return time limit in milliseconds, 0 for no limit
+     */
+    public long getMoveTime() {
+        return moveTime;
+    }
+
+    /**
+     * Method to set the time limit
+     * @param millis time limit in milliseconds, 0 for no limit
+     */
+    public void setMoveTime(long millis) {
+        this.moveTime = millis;
+    }
+}
@@ -0,0 +1,20 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Receives progress reports from a search. Reports are sent from the search thread, so a listener that
+ * updates Swing components has to pass the work on with SwingUtilities.invokeLater.
+ *
+ * Method List:
+ * void onInfo(SearchInfo info) - Method called after each finished depth
+ */
+
+public interface SearchListener {
+
+    /**
+     * Method called after each finished depth
+     * @param info progress report
+     */
+    void onInfo(SearchInfo info);
+}
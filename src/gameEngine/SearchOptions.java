@@ -0,0 +1,118 @@
+package gameEngine;
+
+import java.util.Arrays;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Switches for the selective parts of the search. Each one trades a little accuracy for a much smaller
+ * tree, so they can be turned off one at a time to measure what they are worth (see SearchBench) or to look for a
+ * bug. Every feature is on by default.
+ *
+ * NullMove - skips the move to see if the position is still good enough (not with only king and pawns, zugzwang)
+ * LateMoveReductions - searches late quiet moves less deeply, moves with a good history are reduced less
+ * Futility - stops searching quiet moves one or two plies from the horizon that cannot get back to alpha
+ * Razoring - drops hopeless nodes close to the horizon straight into the quiescence search
+ * CheckExtensions - searches one ply deeper when the side to move is in check
+ *
+ * Method List:
+ * public static SearchOptions all() - Method to create options with every feature on
+ * public static SearchOptions none() - Method to create options with every feature off (plain alpha-beta)
+ * public static int feature(String name) - Method to find a feature by name
+ * public boolean isEnabled(int feature) - Method to check if a feature is on
+ * public void setEnabled(int feature, boolean enabled) - Method to turn a feature on or off
+ * public SearchOptions copy() - Method to copy the options
+ * public String toString() - Method to list the features that are on
+ */
+
+public class SearchOptions {
+    //features, the names are also the UCI option names
+    public static final int NULL_MOVE = 0, LATE_MOVE_REDUCTIONS = 1, FUTILITY = 2, RAZORING = 3, CHECK_EXTENSIONS = 4;
+    public static final String[] FEATURES = {"NullMove", "LateMoveReductions", "Futility", "Razoring",
+            "CheckExtensions"};
+
+    //Global variables
+    private final boolean[] enabled;
+
+    /**
+     * Default constructor, every feature is on
+     */
+    public SearchOptions() {
+        this.enabled = new boolean[FEATURES.length];
+        Arrays.fill(enabled, true);
+    }
+
+    /**
+     * Method to create options with every feature on
+     * @return new options
+     */
+    public static SearchOptions all() {
+        return new SearchOptions();
+    }
+
+    /**
+     * Method to create options with every feature off, the search is then a plain alpha-beta search
+     * @return new options
+     */
+    public static SearchOptions none() {
+        SearchOptions options = new SearchOptions();
+        for (int feature = 0; feature < FEATURES.length; feature++)
+            options.setEnabled(feature, false);
+        return options;
+    }
+
+    /**
+     * Method to find a feature by name
+     * @param name feature name, case is ignored
+     * @return feature index, -1 if there is no feature with that name
+     */
+    public static int feature(String name) {
+        for (int feature = 0; feature < FEATURES.length; feature++) {
+            if (FEATURES[feature].equalsIgnoreCase(name))
+                return feature;
+        }
+        return -1;
+    }
+
+    /**
+     * Method to check if a feature is on
+     * @param feature NULL_MOVE, LATE_MOVE_REDUCTIONS, FUTILITY, RAZORING or CHECK_EXTENSIONS
+     * @return true if the feature is used
+     */
+    public boolean isEnabled(int feature) {
+        return enabled[feature];
+    }
+
+    /**
+     * Method to turn a feature on or off
+     * @param feature NULL_MOVE, LATE_MOVE_REDUCTIONS, FUTILITY, RAZORING or CHECK_EXTENSIONS
+     * @param enabled true to use the feature
+     */
+    public void setEnabled(int feature, boolean enabled) {
+        this.enabled[feature] = enabled;
+    }
+
+    /**
+     * Method to copy the options
+     * @return new options with the same features on
+     */
+    public SearchOptions copy() {
+        SearchOptions options = new SearchOptions();
+        System.arraycopy(enabled, 0, options.enabled, 0, enabled.length);
+        return options;
+    }
+
+    /**
+     * Method to list the features that are on
+     * @return feature names separated by spaces, "none" if every feature is off
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int feature = 0; feature < FEATURES.length; feature++) {
+            if (enabled[feature])
+                text.append(text.length() > 0 ? " " : "").append(FEATURES[feature]);
+        }
+        return text.length() > 0 ? text.toString() : "none";
+    }
+}
@@ -0,0 +1,175 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Static exchange evaluation (SEE): works out what a capture wins once every piece that can recapture on
+ * the same square has joined in, each side always recapturing with its least valuable piece and stopping when going
+ * on would lose. The attackers come from one attackers-to-square bitboard; after each capture the moving piece is
+ * taken out of the occupancy and the bishops, rooks and queens behind it are added (x-rays). Nothing is played on the
+ * position, so a capture is judged without searching it. Pins are not looked at.
+ *
+ * Values are PieceValues in pawns. A promotion counts as gaining the new piece and losing the pawn.
+ *
+ * Method List:
+ * public static int evaluate(Position position, int move) - Method to get the material a move wins or loses
+ * public static boolean isAtLeast(Position position, int move, int threshold) - Method to test if a move wins at
+ *                                                                             least a given amount of material
+ */
+
+public final class StaticExchange {
+    //piece types from the least to the most valuable, the order in which a side recaptures (the king always last)
+    private static final int[] CAPTURE_ORDER = new int[6];
+
+    static {
+        int[] types = {Position.PAWN, Position.KNIGHT, Position.BISHOP, Position.ROOK, Position.QUEEN};
+        for (int i = 0; i < types.length; i++) {
+            int j = i;
+            for (; j > 0 && PieceValues.get(CAPTURE_ORDER[j - 1]) > PieceValues.get(types[i]); j--)
+                CAPTURE_ORDER[j] = CAPTURE_ORDER[j - 1];
+            CAPTURE_ORDER[j] = types[i];
+        }
+        CAPTURE_ORDER[5] = Position.KING;
+    }
+
+    //no exchange on one square can have more captures than there are pieces
+    private static final int MAX_CAPTURES = 32;
+
+    private StaticExchange() {
+    }
+
+    /**
+     * Method to get the material a move wins or loses after the best sequence of recaptures on its square
+     * @param position position before the move
+     * @param move pseudo-legal move of the side to move
+     * @return material balance in pawns, 0 for a quiet move nobody can take back, negative if the move loses material
+     */
+    public static int evaluate(Position position, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int promotion = Move.promotion(move);
+        int moving = promotion != 0 ? promotion : Position.pieceType(position.getPiece(from));
+        if (moving == Position.KING && (to - from == 2 || from - to == 2))
+            return 0;       //castling captures nothing and the king never ends on an attacked square
+
+        int[] gain = new int[MAX_CAPTURES];
+        gain[0] = capturedValue(position, move);
+        long occupied = occupiedAfter(position, move);
+        long attackers = position.attackersTo(to, occupied) & occupied;
+        int side = position.getSideToMove();
+        int onSquare = PieceValues.get(moving);
+        int depth = 0;
+
+        while (true) {
+            side ^= 1;
+            long ours = attackers & position.getColourPieces(side);
+            if (ours == 0)
+                break;
+            int type = leastValuable(position, side, ours);
+            if (type == Position.KING && (attackers & position.getColourPieces(side ^ 1)) != 0)
+                break;      //the king cannot take a defended piece
+
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = PieceValues.get(type);
+            long bit = Long.lowestOneBit(ours & position.getPieces(side, type));
+            occupied ^= bit;
+            attackers = xrays(position, to, occupied, attackers) & occupied;
+        }
+
+        //each side may stop capturing when going on would lose
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * Method to test if a move wins at least a given amount of material. This gives the same answer as comparing
+     * evaluate() with the threshold, but it can stop as soon as the answer is known and creates no objects, so it is
+     * the one used inside the search.
+     * @param position position before the move
+     * @param move pseudo-legal move of the side to move
+     * @param threshold material in pawns, 0 to test that the move does not lose material
+     * @return true if the exchange wins at least the threshold
+     */
+    public static boolean isAtLeast(Position position, int move, int threshold) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int promotion = Move.promotion(move);
+        int moving = promotion != 0 ? promotion : Position.pieceType(position.getPiece(from));
+        if (moving == Position.KING && (to - from == 2 || from - to == 2))
+            return threshold <= 0;
+
+        //balance from the mover's point of view if the other side stops now, then if it takes the moved piece
+        int swap = capturedValue(position, move) - threshold;
+        if (swap < 0)
+            return false;
+        swap = PieceValues.get(moving) - swap;
+        if (swap <= 0)
+            return true;
+
+        long occupied = occupiedAfter(position, move);
+        long attackers = position.attackersTo(to, occupied) & occupied;
+        int side = position.getSideToMove();
+        int result = 1;
+
+        while (true) {
+            side ^= 1;
+            long ours = attackers & position.getColourPieces(side);
+            if (ours == 0)
+                break;
+            int type = leastValuable(position, side, ours);
+            if (type == Position.KING)
+                return (attackers & position.getColourPieces(side ^ 1)) != 0 ? result != 0 : result == 0;
+
+            result ^= 1;
+            swap = PieceValues.get(type) - swap;
+            if (swap < result)
+                break;
+            occupied ^= Long.lowestOneBit(ours & position.getPieces(side, type));
+            attackers = xrays(position, to, occupied, attackers) & occupied;
+        }
+        return result != 0;
+    }
+
+    //value taken by the move itself, a promotion also gains the new piece for the pawn
+    private static int capturedValue(Position position, int move) {
+        int value = position.isCapture(move) ? PieceValues.get(Position.PAWN) : 0;
+        int captured = position.getPiece(Move.to(move));
+        if (captured != Position.EMPTY)
+            value = PieceValues.get(Position.pieceType(captured));
+        if (Move.promotion(move) != 0)
+            value += PieceValues.get(Move.promotion(move)) - PieceValues.get(Position.PAWN);
+        return value;
+    }
+
+    //occupancy once the move is made, an en passant capture also empties the captured pawn's square
+    private static long occupiedAfter(Position position, int move) {
+        int to = Move.to(move);
+        long occupied = position.getOccupied() ^ 1L << Move.from(move) | 1L << to;
+        if (position.getPiece(to) == Position.EMPTY && position.isCapture(move))
+            occupied ^= 1L << (to ^ 8);
+        return occupied;
+    }
+
+    //adds the sliding pieces that see the square now that a piece in front of them is gone
+    private static long xrays(Position position, int square, long occupied, long attackers) {
+        long bishops = position.getPieces(Position.WHITE, Position.BISHOP) |
+                position.getPieces(Position.BLACK, Position.BISHOP);
+        long rooks = position.getPieces(Position.WHITE, Position.ROOK) | position.getPieces(Position.BLACK, Position.ROOK);
+        long queens = position.getPieces(Position.WHITE, Position.QUEEN) |
+                position.getPieces(Position.BLACK, Position.QUEEN);
+        return attackers | Bitboards.bishopAttacks(square, occupied) & (bishops | queens) |
+                Bitboards.rookAttacks(square, occupied) & (rooks | queens);
+    }
+
+    private static int leastValuable(Position position, int side, long attackers) {
+        for (int type : CAPTURE_ORDER) {
+            if ((attackers & position.getPieces(side, type)) != 0)
+                return type;
+        }
+        return Position.KING;
+    }
+}
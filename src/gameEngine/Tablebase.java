@@ -0,0 +1,191 @@
+package gameEngine;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Reads endgame tables written by TablebaseGenerator. Files are memory mapped the first time a position
+ * with their material is probed, so only the tables that are actually used take memory and the operating system
+ * shares the pages between processes. Probing does not allocate once a table is open and is safe from several
+ * search threads: the material is found in TablebaseMaterial's precomputed tables and the open files are kept in an
+ * array indexed by table number.
+ *
+ * Method List:
+ * public static Tablebase open(Path directory) - Method to use the tables in a directory
+ * public int probeWdl(Position position) - Method to get the win/draw/loss result of a position
+ * public int probeDtm(Position position) - Method to get the distance to mate of a position
+ * public Path getDirectory() - Method to get the table directory
+ */
+
+public final class Tablebase {
+    public static final int WDL_LOSS = -1;
+    public static final int WDL_DRAW = 0;
+    public static final int WDL_WIN = 1;
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    //widest DTM entry a table may have, and the longest distance to mate in plies probeDtm can return with it
+    public static final int MAX_DTM_BITS = 8;
+    public static final int MAX_DTM = 2 * ((1 << MAX_DTM_BITS) - 1) + 1;
+
+    //mapped files are split into chunks because one mapping is limited to 2 GB
+    private static final int CHUNK_BITS = 30;
+
+    //Global variables
+    private final Path directory;
+    private final AtomicReferenceArray<MappedTable> tables;     //null until a table is first probed
+
+    private Tablebase(Path directory) {
+        this.directory = directory;
+        this.tables = new AtomicReferenceArray<>(TablebaseMaterial.TABLE_COUNT);
+    }
+
+    /**
+     * Method to use the tables in a directory, files are opened when first needed
+     * @param directory directory with ".tb" files
+     * @return tablebase
+     * @throws IOException if the directory does not exist
+     */
+    public static Tablebase open(Path directory) throws IOException {
+        if (!Files.isDirectory(directory))
+            throw new IOException("No tablebase directory " + directory);
+        return new Tablebase(directory);
+    }
+
+    /**
+     * Method to get the win/draw/loss result of a position
+     * @param position position to look up
+     * @return WDL_WIN, WDL_DRAW or WDL_LOSS for the side to move, UNKNOWN if no table covers the position
+     */
+    public int probeWdl(Position position) {
+        TablebaseMaterial material = material(position);
+        MappedTable table = material == null ? null : table(material);
+        return table == null ? UNKNOWN : wdl(table, material.index(position));
+    }
+
+    /**
+     * Method to get the distance to mate of a position
+     * @param position position to look up
+     * @return plies to mate, positive if the side to move wins and negative if it loses, 0 for a draw or when the
+     *         side to move is already mated, UNKNOWN if no table covers the position
+     */
+    public int probeDtm(Position position) {
+        TablebaseMaterial material = material(position);
+        MappedTable table = material == null ? null : table(material);
+        if (table == null)
+            return UNKNOWN;
+        long index = material.index(position);
+        int wdl = wdl(table, index);
+        if (wdl == UNKNOWN || wdl == WDL_DRAW)
+            return wdl;
+        //the winner mates on its own move, so wins take an odd number of plies and losses an even number
+        int moves = table.getBits(table.dtmStart, index, table.dtmBits);
+        return wdl == WDL_WIN ? 2 * moves + 1 : -2 * moves;
+    }
+
+    /**
+     * Method to get the table directory
+     * @return directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    //the tables hold positions without castling rights or en passant captures
+    private static TablebaseMaterial material(Position position) {
+        if (position.getCastlingRights() != 0 || position.getEnPassantSquare() != Position.NO_SQUARE)
+            return null;
+        return TablebaseMaterial.of(position);
+    }
+
+    private static int wdl(MappedTable table, long index) {
+        int code = table.getBits(table.wdlStart, index, 2);
+        if (code == 1)
+            return WDL_WIN;
+        if (code == 2)
+            return WDL_LOSS;
+        return code == 0 ? WDL_DRAW : UNKNOWN;
+    }
+
+    //opens a table the first time it is used, a missing file is remembered so it is not looked for again
+    private MappedTable table(TablebaseMaterial material) {
+        MappedTable table = tables.get(material.getId());
+        if (table == null) {
+            synchronized (this) {
+                table = tables.get(material.getId());
+                if (table == null) {
+                    table = load(material);
+                    tables.set(material.getId(), table);
+                }
+            }
+        }
+        return table == MappedTable.MISSING ? null : table;
+    }
+
+    private MappedTable load(TablebaseMaterial material) {
+        String name = material.getName();
+        Path file = directory.resolve(name + ".tb");
+        if (!Files.isRegularFile(file))
+            return MappedTable.MISSING;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != TablebaseGenerator.MAGIC || in.readInt() != TablebaseGenerator.VERSION)
+                return MappedTable.MISSING;
+            in.readInt();
+            String stored = in.readUTF();
+            long entries = in.readLong();
+            int dtmBits = in.readInt();
+            if (!stored.equals(name) || entries != material.getSize() || dtmBits < 1 || dtmBits > MAX_DTM_BITS)
+                return MappedTable.MISSING;
+
+            //magic, version and piece count, then the name (2 byte length), the entry count and the DTM width
+            long headerSize = 12 + 2 + stored.getBytes(StandardCharsets.UTF_8).length + 8 + 4;
+            long size = channel.size();
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + (1L << CHUNK_BITS) - 1) >>> CHUNK_BITS)];
+            for (int i = 0; i < chunks.length; i++) {
+                long offset = (long) i << CHUNK_BITS;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(1L << CHUNK_BITS,
+                        size - offset));
+            }
+            return new MappedTable(chunks, headerSize, headerSize + (entries + 3) / 4, dtmBits);
+        } catch (IOException e) {
+            return MappedTable.MISSING;
+        }
+    }
+
+    private static final class MappedTable {
+        static final MappedTable MISSING = new MappedTable(new MappedByteBuffer[0], 0, 0, 1);
+
+        final MappedByteBuffer[] chunks;
+        final long wdlStart;
+        final long dtmStart;
+        final int dtmBits;      //width of one DTM entry
+
+        MappedTable(MappedByteBuffer[] chunks, long wdlStart, long dtmStart, int dtmBits) {
+            this.chunks = chunks;
+            this.wdlStart = wdlStart;
+            this.dtmStart = dtmStart;
+            this.dtmBits = dtmBits;
+        }
+
+        //entry of a section packed with a fixed number of bits (at most 8) per entry, lowest bits first
+        int getBits(long sectionStart, long index, int bits) {
+            long bit = index * bits;
+            long offset = sectionStart + (bit >>> 3);
+            int pair = get(offset) | get(offset + 1) << 8;
+            return (pair >>> (int) (bit & 7)) & ((1 << bits) - 1);
+        }
+
+        //absolute reads do not touch the buffer position, so one mapping can serve every thread
+        int get(long offset) {
+            return chunks[(int) (offset >>> CHUNK_BITS)].get((int) (offset & ((1L << CHUNK_BITS) - 1))) & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package gameEngine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Builds endgame tables by retrograde analysis. The first pass marks every checkmate (distance to mate
+ * 0); each following pass resolves the positions whose result follows from positions resolved before, until a pass
+ * changes nothing. Whatever is left is a draw. Captures and promotions lead into smaller tables, which are built
+ * first. Every pass is split over index ranges and run on a fork-join pool with one reusable position per thread.
+ *
+ * Tables take one byte per entry while they are built (see TablebaseMaterial for the entry count after the board's
+ * symmetries), so 3 and 4 piece tables build in seconds. A 5 piece table without pawns needs a heap of about 512 MB;
+ * one with pawns takes 1 GB itself and keeps the 5 piece tables it promotes into, so it needs several gigabytes.
+ *
+ * File layout: magic "JCTB", version, piece count, table name, entry count, DTM width, then the WDL section (2 bits
+ * per entry: 0 draw, 1 win, 2 loss, 3 invalid, for the side to move) and the DTM section. A won position is always
+ * an odd number of plies from mate and a lost one an even number, so the DTM section only stores whole moves (plies
+ * / 2), packed with as many bits per entry as the longest mate in the table needs.
+ *
+ * Method List:
+ * public void generate(String name) - Method to build a table (and the smaller tables it needs) and write the files
+ * public static void main(String[] args) - Method to build tables from the command line
+ */
+
+public class TablebaseGenerator {
+    static final int MAGIC = 0x4A435442;   //"JCTB"
+    static final int VERSION = 2;
+
+    //values used while building, anything else is the distance to mate in plies plus one
+    private static final int UNKNOWN = 0;
+    private static final int DRAW = 254;
+    private static final int INVALID = 255;
+    private static final int MAX_DTM = 252;
+
+    private static final int PAGE_BITS = 24;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final long SPLIT_SIZE = 1 << 15;
+
+    //Global variables
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private final Map<String, Table> tables;
+    private final ThreadLocal<Position> positions = ThreadLocal.withInitial(Position::new);
+    private final ThreadLocal<int[]> buffers = ThreadLocal.withInitial(() -> new int[MoveGenerator.MAX_MOVES]);
+
+    /**
+     * Constructor for a generator that writes its files into a directory
+     * @param directory output directory
+     * @param pool pool the passes run on
+     */
+    public TablebaseGenerator(Path directory, ForkJoinPool pool) {
+        this.directory = directory;
+        this.pool = pool;
+        this.tables = new HashMap<>();
+    }
+
+    /**
+     * Method to build a table, and every smaller table it leads into, and write the files
+     * @param name table name such as "KQvK"
+     * @throws IOException if a file cannot be written
+     */
+    public void generate(String name) throws IOException {
+        build(TablebaseMaterial.parse(name));
+    }
+
+    private Table build(TablebaseMaterial material) throws IOException {
+        Table existing = tables.get(material.getName());
+        if (existing != null)
+            return existing;
+
+        //builds every table a capture or promotion can lead into first
+        int longestChild = 0;
+        for (TablebaseMaterial child : successors(material))
+            longestChild = Math.max(longestChild, build(child).longest);
+
+        long start = System.currentTimeMillis();
+        Table table = new Table(material);
+        tables.put(material.getName(), table);
+        pool.invoke(new Pass(table, 0, 0, table.size));
+        int pass = 1;
+        while (pass <= MAX_DTM) {
+            LongAdder changes = new LongAdder();
+            pool.invoke(new Pass(table, pass, 0, table.size, changes));
+            if (changes.sum() > 0)
+                table.longest = pass;
+            else if (pass > longestChild + 1)
+                break;      //nothing left that a longer line in a smaller table could still decide
+            pass++;
+        }
+        write(table);
+        System.out.printf("%s: %d entries, %d passes, %.1fs%n", material.getName(), table.size, pass,
+                (System.currentTimeMillis() - start) / 1000.0);
+        return table;
+    }
+
+    //tables reachable by one capture or promotion
+    private static TablebaseMaterial[] successors(TablebaseMaterial material) {
+        Map<String, TablebaseMaterial> found = new HashMap<>();
+        String[] sides = material.getName().split("v");
+        for (int side = 0; side < 2; side++) {
+            for (int i = 1; i < sides[side].length(); i++) {
+                //capture of this piece
+                String[] copy = sides.clone();
+                copy[side] = sides[side].substring(0, i) + sides[side].substring(i + 1);
+                TablebaseMaterial captured = TablebaseMaterial.parse(copy[0] + "v" + copy[1]);
+                found.put(captured.getName(), captured);
+
+                //promotion of a pawn
+                if (sides[side].charAt(i) == 'P') {
+                    for (char promotion : new char[]{'Q', 'R', 'B', 'N'}) {
+                        copy[side] = sides[side].substring(0, i) + promotion + sides[side].substring(i + 1);
+                        TablebaseMaterial promoted = TablebaseMaterial.parse(copy[0] + "v" + copy[1]);
+                        found.put(promoted.getName(), promoted);
+                    }
+                }
+            }
+        }
+        found.remove(material.getName());
+        return found.values().toArray(new TablebaseMaterial[0]);
+    }
+
+    //value of the position after a move, from the point of view of the side to move there
+    private int lookup(Table table, Position position, boolean sameMaterial) {
+        if (sameMaterial)
+            return table.get(table.material.index(position));
+        TablebaseMaterial material = TablebaseMaterial.of(position);
+        Table other = tables.get(material.getName());
+        return other.get(material.index(position));
+    }
+
+    //works out one entry, returns true if it was resolved
+    private boolean resolve(Table table, long index, int pass) {
+        int current = table.get(index);
+        if (current != UNKNOWN)
+            return false;
+
+        Position position = positions.get();
+        int[] moves = buffers.get();
+        if (!table.material.setUp(position, index)) {
+            table.set(index, INVALID);
+            return false;
+        }
+        //the side that just moved must not be in check
+        int them = position.getSideToMove() ^ 1;
+        if (position.isAttacked(position.getKingSquare(them), them ^ 1)) {
+            table.set(index, INVALID);
+            return false;
+        }
+
+        //pass n only looks at results shorter than n plies, so every entry gets its shortest distance even though
+        //entries written earlier in the same pass are visible
+        boolean win = false;
+        boolean allLose = true;
+        boolean anyMove = false;
+        int count = MoveGenerator.generate(position, moves, 0);
+        for (int i = 0; i < count && !win; i++) {
+            int move = moves[i];
+            boolean sameMaterial = position.getPiece(Move.to(move)) == Position.EMPTY && Move.promotion(move) == 0;
+            if (!position.makeLegalMove(move))
+                continue;
+            anyMove = true;
+            int child = lookup(table, position, sameMaterial);
+            position.undoMove();
+
+            int dtm = child - 1;
+            if (child == UNKNOWN || child >= DRAW || dtm >= pass)
+                allLose = false;
+            else if ((dtm & 1) == 0)
+                win = true;         //the opponent gets mated
+        }
+
+        if (!anyMove) {
+            table.set(index, position.inCheck() ? 1 : DRAW);     //checkmate or stalemate
+            return true;
+        }
+        if (pass > 0 && (win || allLose)) {
+            table.set(index, pass + 1);
+            return true;
+        }
+        return false;
+    }
+
+    private void write(Table table) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(table.material.getName() + ".tb");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file),
+                1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(table.material.getPieceCount());
+            out.writeUTF(table.material.getName());
+            out.writeLong(table.size);
+            int longestMoves = 0;
+            for (long i = 0; i < table.size; i++)
+                longestMoves = Math.max(longestMoves, dtmMoves(table.get(i)));
+            int dtmBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(longestMoves));
+            if (dtmBits > Tablebase.MAX_DTM_BITS)
+                throw new IllegalStateException(table.material.getName() + " has a mate too long to store");
+            out.writeInt(dtmBits);
+
+            //WDL section, four entries per byte
+            for (long i = 0; i < table.size; i += 4) {
+                int packed = 0;
+                for (int j = 0; j < 4 && i + j < table.size; j++)
+                    packed |= wdlCode(table.get(i + j)) << (2 * j);
+                out.write(packed);
+            }
+            //DTM section, packed lowest bits first, with one spare byte so a reader can always read two bytes
+            long pending = 0;
+            int pendingBits = 0;
+            for (long i = 0; i < table.size; i++) {
+                pending |= (long) dtmMoves(table.get(i)) << pendingBits;
+                pendingBits += dtmBits;
+                while (pendingBits >= 8) {
+                    out.write((int) pending);
+                    pending >>>= 8;
+                    pendingBits -= 8;
+                }
+            }
+            if (pendingBits > 0)
+                out.write((int) pending);
+            out.write(0);
+        }
+    }
+
+    //whole moves to mate stored for an entry, 0 for draws and invalid entries
+    private static int dtmMoves(int value) {
+        return value == UNKNOWN || value >= DRAW ? 0 : (value - 1) >>> 1;
+    }
+
+    private static int wdlCode(int value) {
+        if (value == INVALID)
+            return 3;
+        if (value == UNKNOWN || value == DRAW)
+            return 0;
+        return ((value - 1) & 1) == 1 ? 1 : 2;
+    }
+
+    //one byte per entry, stored in pages so tables can be larger than one array
+    private static final class Table {
+        final TablebaseMaterial material;
+        final long size;
+        final byte[][] pages;
+        int longest;        //longest distance to mate in the table
+
+        Table(TablebaseMaterial material) {
+            this.material = material;
+            this.size = material.getSize();
+            this.pages = new byte[(int) ((size + PAGE_SIZE - 1) >>> PAGE_BITS)][];
+            for (int i = 0; i < pages.length; i++)
+                pages[i] = new byte[(int) Math.min(PAGE_SIZE, size - ((long) i << PAGE_BITS))];
+        }
+
+        int get(long index) {
+            return pages[(int) (index >>> PAGE_BITS)][(int) (index & (PAGE_SIZE - 1))] & 0xFF;
+        }
+
+        void set(long index, int value) {
+            pages[(int) (index >>> PAGE_BITS)][(int) (index & (PAGE_SIZE - 1))] = (byte) value;
+        }
+    }
+
+    //one pass over an index range, split in half until the range is small
+    private final class Pass extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Table table;
+        private final int pass;
+        private final long from, to;
+        private final LongAdder changes;
+
+        Pass(Table table, int pass, long from, long to) {
+            this(table, pass, from, to, new LongAdder());
+        }
+
+        Pass(Table table, int pass, long from, long to, LongAdder changes) {
+            this.table = table;
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+            this.changes = changes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_SIZE) {
+                long middle = (from + to) >>> 1;
+                invokeAll(new Pass(table, pass, from, middle, changes), new Pass(table, pass, middle, to, changes));
+                return;
+            }
+            int resolved = 0;
+            for (long index = from; index < to; index++) {
+                if (resolve(table, index, pass))
+                    resolved++;
+            }
+            changes.add(resolved);
+        }
+    }
+
+    /**
+     * Method to build tables from the command line
+     * @param args output directory followed by table names, for example "tables KQvK KRvK KPvK"
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: TablebaseGenerator <directory> <table> [<table> ...], e.g. tables KQvK KRvK");
+            return;
+        }
+        TablebaseGenerator generator = new TablebaseGenerator(Paths.get(args[0]), ForkJoinPool.commonPool());
+        for (int i = 1; i < args.length; i++)
+            generator.generate(args[i]);
+    }
+}
@@ -0,0 +1,344 @@
+package gameEngine;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Describes the pieces of one endgame table (for example "KQvK") and converts between positions and
+ * table indexes. Tables are always stored with the stronger side as white; a position where black is the stronger
+ * side is looked up mirrored (colours swapped and the board flipped top to bottom).
+ *
+ * The board's symmetries keep the tables small. Castling is never part of a table, so a pawnless position has the same
+ * value after any reflection of the board, and a position with pawns after swapping the a and h side. Each position
+ * is reflected until the stronger side's king is on the a1-d1-d4 triangle (10 squares) or, with pawns, on the a-d
+ * files (32 squares). The king's square is numbered inside that region, every other piece gets 6 bits for its square
+ * and the side to move is the top bit, so a table with n pieces has 2 * 10 * 64^(n-1) entries, or 2 * 32 * 64^(n-1)
+ * with pawns.
+ *
+ * Every material of up to MAX_PIECES pieces is created once when the class is loaded and found again from the piece
+ * counts of a position, so of() and index() do not allocate and can be called at every node of a search.
+ *
+ * Method List:
+ * public static TablebaseMaterial parse(String name) - Method to read a table name such as "KBNvK"
+ * public static TablebaseMaterial of(Position position) - Method to get the table a position belongs to
+ * public boolean isMirrored() - Method to check if positions have to be mirrored to use the table
+ * public String getName() - Method to get the table name
+ * public int getPieceCount() - Method to get the number of pieces
+ * public long getSize() - Method to get the number of table entries
+ * public long index(Position position) - Method to get the table index of a position
+ * public boolean setUp(Position position, long index) - Method to set up the position stored at an index
+ */
+
+public final class TablebaseMaterial {
+    public static final int MAX_PIECES = 5;
+
+    private static final String LETTERS = " PRNBQK";
+    private static final int[] NAMING_VALUES = {0, 1, 5, 3, 3, 8, 0};
+    private static final int[] TYPE_ORDER = {Position.KING, Position.QUEEN, Position.ROOK, Position.BISHOP,
+            Position.KNIGHT, Position.PAWN};
+
+    //squares the stronger king is brought to without pawns: a1 b1 c1 d1 b2 c2 d2 c3 d3 d4
+    private static final int[] TRIANGLE = {56, 57, 58, 59, 49, 50, 51, 42, 43, 35};
+    private static final int[] TRIANGLE_INDEX = new int[64];
+
+    //material keys hold 2 bits per kind of piece other than a king: white pawn to queen, then black pawn to queen
+    private static final int KINDS = 10;
+    private static final int CACHE_BITS = 10;
+    private static final int[] cacheKeys = new int[1 << CACHE_BITS];
+    private static final TablebaseMaterial[] cacheMaterials = new TablebaseMaterial[1 << CACHE_BITS];
+    private static final Map<String, TablebaseMaterial> tables = new HashMap<>();
+
+    //number of different tables, ids run from 0 to TABLE_COUNT - 1
+    static final int TABLE_COUNT;
+
+    static {
+        Arrays.fill(TRIANGLE_INDEX, -1);
+        for (int i = 0; i < TRIANGLE.length; i++)
+            TRIANGLE_INDEX[TRIANGLE[i]] = i;
+        Arrays.fill(cacheKeys, -1);
+        Map<String, Integer> ids = new HashMap<>();
+        addAll(0, MAX_PIECES - 2, 0, ids);
+        TABLE_COUNT = ids.size();
+    }
+
+    //Global variables
+    private final int[] pieceCodes;     //piece code of each slot, white pieces first, the white king in slot 0
+    private final String name;
+    private final boolean mirrored;
+    private final boolean pawns;
+    private final int regionSize;       //squares the white king can be on after the symmetries
+    private final int id;               //same for a table and its mirrored form
+
+    private TablebaseMaterial(int[] pieceCodes, String name, boolean mirrored, int id) {
+        this.pieceCodes = pieceCodes;
+        this.name = name;
+        this.mirrored = mirrored;
+        this.id = id;
+        boolean hasPawns = false;
+        for (int code : pieceCodes)
+            hasPawns |= Position.pieceType(code) == Position.PAWN;
+        this.pawns = hasPawns;
+        this.regionSize = hasPawns ? 32 : TRIANGLE.length;
+    }
+
+    /**
+     * Method to read a table name such as "KBNvK" (white pieces, 'v', black pieces)
+     * @param name table name
+     * @return material of the table, with the stronger side as white whichever side the name lists first
+     * @throws IllegalArgumentException if the name is not a valid table
+     */
+    public static TablebaseMaterial parse(String name) {
+        String[] sides = name.toUpperCase().split("V");
+        if (sides.length != 2 || !sides[0].startsWith("K") || !sides[1].startsWith("K"))
+            throw new IllegalArgumentException("Table names look like KQvK: " + name);
+        if (sides[0].length() + sides[1].length() > MAX_PIECES)
+            throw new IllegalArgumentException("Tables have at most " + MAX_PIECES + " pieces: " + name);
+
+        int key = 0;
+        for (int side = 0; side < 2; side++) {
+            for (int i = 1; i < sides[side].length(); i++) {
+                int type = LETTERS.indexOf(sides[side].charAt(i));
+                if (type <= 0 || type == Position.KING)
+                    throw new IllegalArgumentException("Unknown piece " + sides[side].charAt(i) + " in " + name);
+                key += 1 << (2 * kind(side, type));
+            }
+        }
+        return tables.get(find(key).name);
+    }
+
+    /**
+     * Method to get the table a position belongs to, without creating objects
+     * @param position position to look up
+     * @return material of the table, null if the position has too many pieces or is missing a king
+     */
+    public static TablebaseMaterial of(Position position) {
+        if (Long.bitCount(position.getOccupied()) > MAX_PIECES ||
+                Long.bitCount(position.getPieces(Position.WHITE, Position.KING)) != 1 ||
+                Long.bitCount(position.getPieces(Position.BLACK, Position.KING)) != 1)
+            return null;
+        int key = 0;
+        for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+            for (int type = Position.PAWN; type < Position.KING; type++)
+                key += Long.bitCount(position.getPieces(colour, type)) << (2 * kind(colour, type));
+        }
+        return find(key);
+    }
+
+    /**
+     * Method to check if positions have to be mirrored to use the table
+     * @return true if black is the stronger side in the positions this object was made from
+     */
+    public boolean isMirrored() {
+        return mirrored;
+    }
+
+    /**
+     * Method to get the table name
+     * @return name such as "KQvK"
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method to get the number of pieces
+     * @return piece count including both kings
+     */
+    public int getPieceCount() {
+        return pieceCodes.length;
+    }
+
+    /**
+     * Method to get the number of table entries
+     * @return 2 * 10 * 64^(pieces-1), or 2 * 32 * 64^(pieces-1) with pawns
+     */
+    public long getSize() {
+        return 2L * regionSize << (6 * (pieceCodes.length - 1));
+    }
+
+    /**
+     * Method to get the table index of a position with this material
+     * @param position position to look up
+     * @return table index
+     */
+    public long index(Position position) {
+        long rest = 0;
+        long used = 0;
+        int region = 0;
+        int symmetry = 0;
+        for (int slot = 0; slot < pieceCodes.length; slot++) {
+            int code = pieceCodes[slot];
+            if (mirrored)
+                code ^= 8;      //the stronger side is stored as white
+            //identical pieces fill their slots in square order
+            long candidates = position.getPieces(code) & ~used;
+            int square = Long.numberOfTrailingZeros(candidates);
+            used |= 1L << square;
+            if (mirrored)
+                square ^= 56;
+            if (slot == 0) {
+                //the white king decides which reflection every piece gets
+                symmetry = symmetryFor(square);
+                region = regionIndex(transform(square, symmetry));
+            }
+            else {
+                rest |= (long) transform(square, symmetry) << (6 * (slot - 1));
+            }
+        }
+        int side = position.getSideToMove() ^ (mirrored ? 1 : 0);
+        rest |= (long) side << (6 * (pieceCodes.length - 1));
+        return region + regionSize * rest;
+    }
+
+    /**
+     * Method to set up the position stored at an index
+     * @param position position to overwrite
+     * @param index table index
+     * @return false if the index does not describe a possible placement (two pieces on one square or a pawn on the
+     *         first or last row)
+     */
+    public boolean setUp(Position position, long index) {
+        position.clear();
+        int king = regionSquare((int) (index % regionSize));
+        long rest = index / regionSize;
+        position.putPiece(king, pieceCodes[0]);
+        long used = 1L << king;
+        for (int slot = 1; slot < pieceCodes.length; slot++) {
+            int square = (int) (rest >>> (6 * (slot - 1))) & 63;
+            int row = Bitboards.row(square);
+            if ((used & 1L << square) != 0 ||
+                    Position.pieceType(pieceCodes[slot]) == Position.PAWN && (row == 0 || row == 7))
+                return false;
+            used |= 1L << square;
+            position.putPiece(square, pieceCodes[slot]);
+        }
+        position.setSideToMove((int) (rest >>> (6 * (pieceCodes.length - 1))) & 1);
+        return true;
+    }
+
+    //number of the table, the same for both colours, used by Tablebase to find its open file
+    int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    //reflection that brings the white king into its region: bit 0 swaps the a and h side, bit 1 the top and bottom,
+    //bit 2 reflects in the a1-h8 diagonal; positions with pawns are only reflected left to right
+    private int symmetryFor(int king) {
+        int symmetry = (king & 7) > 3 ? 1 : 0;
+        if (pawns)
+            return symmetry;
+        if ((king >>> 3) < 4)
+            symmetry |= 2;
+        int moved = transform(king, symmetry);
+        if ((moved & 7) < 7 - (moved >>> 3))
+            symmetry |= 4;      //the column is below the rank, so the king is above the diagonal
+        return symmetry;
+    }
+
+    private static int transform(int square, int symmetry) {
+        if ((symmetry & 1) != 0)
+            square ^= 7;
+        if ((symmetry & 2) != 0)
+            square ^= 56;
+        if ((symmetry & 4) != 0)
+            square = (7 - (square & 7)) << 3 | (7 - (square >>> 3));
+        return square;
+    }
+
+    private int regionIndex(int square) {
+        return pawns ? (square >>> 3) * 4 + (square & 7) : TRIANGLE_INDEX[square];
+    }
+
+    private int regionSquare(int region) {
+        return pawns ? (region >>> 2) * 8 + (region & 3) : TRIANGLE[region];
+    }
+
+    //position of a kind of piece in the material key
+    private static int kind(int colour, int type) {
+        return colour * 5 + type - Position.PAWN;
+    }
+
+    //looks a material key up in the cache, linear probing, null if no material has the key
+    private static TablebaseMaterial find(int key) {
+        int slot = (key * 0x9E3779B9) >>> (32 - CACHE_BITS);
+        while (cacheKeys[slot] != key) {
+            if (cacheKeys[slot] == -1)
+                return null;
+            slot = (slot + 1) & ((1 << CACHE_BITS) - 1);
+        }
+        return cacheMaterials[slot];
+    }
+
+    //creates the material of every combination of up to piecesLeft more pieces, kinds in ascending order
+    private static void addAll(int firstKind, int piecesLeft, int key, Map<String, Integer> ids) {
+        int[] counts = new int[16];
+        for (int kind = 0; kind < KINDS; kind++)
+            counts[Position.pieceCode(kind / 5, kind % 5 + Position.PAWN)] = (key >>> (2 * kind)) & 3;
+        counts[Position.pieceCode(Position.WHITE, Position.KING)] = 1;
+        counts[Position.pieceCode(Position.BLACK, Position.KING)] = 1;
+        TablebaseMaterial material = fromCounts(counts, ids);
+        if (!material.mirrored)
+            tables.put(material.name, material);
+        int slot = (key * 0x9E3779B9) >>> (32 - CACHE_BITS);
+        while (cacheKeys[slot] != -1)
+            slot = (slot + 1) & ((1 << CACHE_BITS) - 1);
+        cacheKeys[slot] = key;
+        cacheMaterials[slot] = material;
+
+        if (piecesLeft == 0)
+            return;
+        for (int kind = firstKind; kind < KINDS; kind++)
+            addAll(kind, piecesLeft - 1, key + (1 << (2 * kind)), ids);
+    }
+
+    //builds the canonical table for the piece counts, with the stronger side as white
+    private static TablebaseMaterial fromCounts(int[] counts, Map<String, Integer> ids) {
+        String white = sideName(counts, Position.WHITE);
+        String black = sideName(counts, Position.BLACK);
+        boolean mirrored = strength(counts, Position.BLACK) > strength(counts, Position.WHITE) ||
+                strength(counts, Position.BLACK) == strength(counts, Position.WHITE) && black.compareTo(white) > 0;
+
+        int[] codes = new int[0];
+        for (int side = 0; side < 2; side++) {
+            int colour = mirrored ? side ^ 1 : side;
+            for (int type : TYPE_ORDER) {
+                for (int i = 0; i < counts[Position.pieceCode(colour, type)]; i++) {
+                    codes = Arrays.copyOf(codes, codes.length + 1);
+                    codes[codes.length - 1] = Position.pieceCode(side, type);
+                }
+            }
+        }
+        String name = mirrored ? black + "v" + white : white + "v" + black;
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = ids.size();
+            ids.put(name, id);
+        }
+        return new TablebaseMaterial(codes, name, mirrored, id);
+    }
+
+    private static String sideName(int[] counts, int colour) {
+        StringBuilder text = new StringBuilder();
+        for (int type : TYPE_ORDER) {
+            for (int i = 0; i < counts[Position.pieceCode(colour, type)]; i++)
+                text.append(LETTERS.charAt(type));
+        }
+        return text.toString();
+    }
+
+    //fixed values rather than PieceValues, so table names and files never depend on the configured values
+    private static int strength(int[] counts, int colour) {
+        int total = 0;
+        for (int type = Position.PAWN; type < Position.KING; type++)
+            total += counts[Position.pieceCode(colour, type)] * NAMING_VALUES[type];
+        return total;
+    }
+}
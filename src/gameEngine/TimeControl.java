@@ -0,0 +1,167 @@
+package gameEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Immutable description of a time control made of one or more periods. Each period gives a base time
+ * for a number of moves (or the rest of the game), an increment added after every move and a delay during which the
+ * clock does not run at the start of every move. Text form: periods separated by ':', each written as
+ * [moves/]seconds[+increment][d delay], for example "300+2", "180d3" or "40/5400+30:900+30".
+ *
+ * Method List:
+ * public static TimeControl parse(String text) - Method to read a time control such as "40/5400+30:900+30"
+ * public static TimeControl of(long seconds, long incrementSeconds) - Method to create a single period control
+ * public int getPeriodCount() - Method to get the number of periods
+ * public int getMoves(int period) - Method to get the number of moves of a period
+ * public long getBaseNanos(int period) - Method to get the time a period adds to the clock
+ * public long getIncrementNanos(int period) - Method to get the increment of a period
+ * public long getDelayNanos(int period) - Method to get the delay of a period
+ * public String toString() - Method to write the time control in its text form
+ */
+
+public final class TimeControl {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    //Global variables, one entry per period
+    private final int[] moves;          //0 means the rest of the game
+    private final long[] baseNanos;
+    private final long[] incrementNanos;
+    private final long[] delayNanos;
+
+    private TimeControl(int[] moves, long[] baseNanos, long[] incrementNanos, long[] delayNanos) {
+        this.moves = moves;
+        this.baseNanos = baseNanos;
+        this.incrementNanos = incrementNanos;
+        this.delayNanos = delayNanos;
+    }
+
+    /**
+     * Method to read a time control in its text form
+     * @param text text such as "300+2", "180d3" or "40/5400+30:900+30" (times in seconds, decimals allowed)
+     * @return time control
+     * @throws IllegalArgumentException if the text cannot be read
+     */
+    public static TimeControl parse(String text) {
+        String[] periods = text.trim().split(":");
+        int[] moves = new int[periods.length];
+        long[] base = new long[periods.length];
+        long[] increment = new long[periods.length];
+        long[] delay = new long[periods.length];
+
+        try {
+            for (int i = 0; i < periods.length; i++) {
+                String period = periods[i];
+                int slash = period.indexOf('/');
+                if (slash >= 0) {
+                    moves[i] = Integer.parseInt(period.substring(0, slash));
+                    period = period.substring(slash + 1);
+                }
+                int d = period.indexOf('d');
+                if (d >= 0) {
+                    delay[i] = seconds(period.substring(d + 1));
+                    period = period.substring(0, d);
+                }
+                int plus = period.indexOf('+');
+                if (plus >= 0) {
+                    increment[i] = seconds(period.substring(plus + 1));
+                    period = period.substring(0, plus);
+                }
+                base[i] = seconds(period);
+                if (moves[i] < 0 || base[i] <= 0 && i == 0 || moves[i] == 0 && i < periods.length - 1)
+                    throw new IllegalArgumentException("Bad period " + periods[i] + " in time control " + text);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad time control " + text);
+        }
+        return new TimeControl(moves, base, increment, delay);
+    }
+
+    /**
+     * Method to create a single period time control
+     * @param seconds time for the whole game
+     * @param incrementSeconds time added after every move
+     * @return time control
+     */
+    public static TimeControl of(long seconds, long incrementSeconds) {
+        return new TimeControl(new int[]{0}, new long[]{seconds * NANOS_PER_SECOND},
+                new long[]{incrementSeconds * NANOS_PER_SECOND}, new long[]{0});
+    }
+
+    /**
+     * Method to get the number of periods
+     * @return period count, at least 1
+     */
+    public int getPeriodCount() {
+        return moves.length;
+    }
+
+    /**
+     * Method to get the number of moves a period lasts
+     * @param period period index
+     * @return move count, 0 for the rest of the game
+     */
+    public int getMoves(int period) {
+        return moves[period];
+    }
+
+    /**
+     * Method to get the time a period adds to the clock when it starts
+     * @param period period index
+     * @return time in nanoseconds
+     */
+    public long getBaseNanos(int period) {
+        return baseNanos[period];
+    }
+
+    /**
+     * Method to get the time added after every move of a period
+     * @param period period index
+     * @return time in nanoseconds
+     */
+    public long getIncrementNanos(int period) {
+        return incrementNanos[period];
+    }
+
+    /**
+     * Method to get the time at the start of every move of a period during which the clock does not run
+     * @param period period index
+     * @return time in nanoseconds
+     */
+    public long getDelayNanos(int period) {
+        return delayNanos[period];
+    }
+
+    /**
+     * Method to write the time control in its text form
+     * @return text that parse() reads back
+     */
+    @Override
+    public String toString() {
+        List<String> periods = new ArrayList<>();
+        for (int i = 0; i < moves.length; i++) {
+            StringBuilder text = new StringBuilder();
+            if (moves[i] > 0)
+                text.append(moves[i]).append('/');
+            text.append(format(baseNanos[i]));
+            if (incrementNanos[i] > 0)
+                text.append('+').append(format(incrementNanos[i]));
+            if (delayNanos[i] > 0)
+                text.append('d').append(format(delayNanos[i]));
+            periods.add(text.toString());
+        }
+        return String.join(":", periods);
+    }
+
+    private static long seconds(String text) {
+        return Math.round(Double.parseDouble(text) * NANOS_PER_SECOND);
+    }
+
+    private static String format(long nanos) {
+        if (nanos % NANOS_PER_SECOND == 0)
+            return Long.toString(nanos / NANOS_PER_SECOND);
+        return Double.toString(nanos / (double) NANOS_PER_SECOND);
+    }
+}
@@ -0,0 +1,483 @@
+package gameEngine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Headless self-play tournament for finding out if an engine change made it stronger or weaker. A
+ * candidate engine plays a baseline engine (each a Search with its own SearchOptions) from an opening suite, every
+ * opening twice with the colours swapped. Each worker thread plays one game at a time with its own positions,
+ * searches and tables, so games run on all cores without sharing anything but the counters.
+ *
+ * Moves go through the same headless rules the Swing game uses for its copy of the board (Position.makeLegalMove,
+ * getResult and getDrawReason), so games end by checkmate, stalemate, repetition, the 50-move rule and insufficient
+ * material exactly as on screen; games still going after MAX_PLIES are scored as draws. Each move is searched for a
+ * fixed number of nodes or a fixed time.
+ *
+ * Every finished game is written to the results file straight away. The score gives an Elo difference with a 95%
+ * error margin, and a sequential probability ratio test (SPRT) between elo0 and elo1 stops the tournament as soon as
+ * one of the two is accepted.
+ *
+ * If a worker fails (the results file cannot be written, or an engine finds no move) the other workers stop after
+ * their current game and run() throws that failure instead of returning a partial score.
+ *
+ * Method List:
+ * public Score run(int games, int threads, Path output) - Method to play the tournament
+ * public Score getScore() - Method to get the candidate's score so far
+ * public static String[] defaultOpenings() - Method to get the built-in opening suite as FEN text
+ * public static void main(String[] args) - Method to run a tournament from the command line
+ */
+
+public class Tournament {
+    //games longer than this are drawn, no engine game this long is still being decided
+    public static final int MAX_PLIES = 400;
+
+    //SPRT error rates, 5% for both false positives and false negatives
+    private static final double ALPHA = 0.05, BETA = 0.05;
+    private static final int HASH_MEGABYTES = 8;
+    private static final int REPORT_EVERY = 100;
+
+    //short opening lines, played from the start position
+    private static final String[] OPENING_LINES = {
+            "e2e4 e7e5 g1f3 b8c6 f1b5",
+            "e2e4 e7e5 g1f3 b8c6 f1c4",
+            "e2e4 c7c5 g1f3 d7d6",
+            "e2e4 c7c5 b1c3 b8c6",
+            "e2e4 e7e6 d2d4 d7d5",
+            "e2e4 c7c6 d2d4 d7d5",
+            "e2e4 d7d6 d2d4 g8f6",
+            "e2e4 d7d5 e4d5 d8d5",
+            "d2d4 d7d5 c2c4 e7e6",
+            "d2d4 d7d5 c2c4 c7c6",
+            "d2d4 d7d5 c2c4 d5c4",
+            "d2d4 g8f6 c2c4 g7g6",
+            "d2d4 g8f6 c2c4 e7e6 b1c3 f8b4",
+            "d2d4 f7f5 g2g3",
+            "c2c4 e7e5 b1c3",
+            "c2c4 c7c5 g1f3",
+            "g1f3 d7d5 g2g3",
+            "g1f3 g8f6 c2c4 b7b6",
+            "e2e4 e7e5 f2f4",
+            "d2d4 g8f6 g1f3 e7e6 c1g5"
+    };
+
+    //Global variables
+    private final SearchOptions candidate, baseline;
+    private final SearchLimits limits;
+    private final String[] openings;
+    private final double elo0, elo1;
+    private final Score score;
+    private final AtomicInteger nextGame;
+    private final AtomicBoolean finished;
+    private BufferedWriter out;
+
+    /**
+     * Constructor for a tournament
+     * @param candidate features of the engine being tested
+     * @param baseline features of the engine it is compared with
+     * @param limits how long each move is searched, fixed nodes or fixed time
+     * @param openings FEN text of the starting positions
+     * @param elo0 Elo difference of the null hypothesis (usually 0, no gain)
+     * @param elo1 Elo difference of the alternative hypothesis (the gain worth having)
+     */
+    public Tournament(SearchOptions candidate, SearchOptions baseline, SearchLimits limits, String[] openings,
+                      double elo0, double elo1) {
+        this.candidate = candidate.copy();
+        this.baseline = baseline.copy();
+        this.limits = limits;
+        this.openings = openings.clone();
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.score = new Score();
+        this.nextGame = new AtomicInteger();
+        this.finished = new AtomicBoolean();
+    }
+
+    /**
+     * Method to play the tournament, blocking until every game is played or the SPRT has decided
+     * @param games largest number of games, rounded up to an even number so each opening is played by both colours
+     * @param threads number of games played at the same time
+     * @param output file the results are written to one line per game, replaced if it exists
+     * @return final score of the candidate
+     * @throws IOException if the results file cannot be written
+     * @throws IllegalStateException if an engine found no legal move in a game that was not over
+     */
+    public Score run(int games, int threads, Path output) throws IOException {
+        int total = games + (games & 1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+            out = writer;
+            writer.write("# game opening candidate result reason plies");
+            writer.newLine();
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++)
+                workers.add(pool.submit(() -> playGames(total)));
+            pool.shutdown();
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS))
+                ;       //waits for the running games
+
+            //a failed worker stopped the others, its failure is the tournament's
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof UncheckedIOException)
+                        throw ((UncheckedIOException) e.getCause()).getCause();
+                    if (e.getCause() instanceof RuntimeException)
+                        throw (RuntimeException) e.getCause();
+                    throw new IllegalStateException("Tournament worker failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            out = null;
+        }
+        return score;
+    }
+
+    /**
+     * Method to get the candidate's score so far, it can be read while the tournament runs
+     * @return score
+     */
+    public Score getScore() {
+        return score;
+    }
+
+    //worker loop, takes the next game until every game is taken or the SPRT has decided
+    private void playGames(int total) {
+        Engine[] engines = {new Engine(candidate), new Engine(baseline)};
+        Position position = new Position();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        AtomicBoolean stop = new AtomicBoolean();
+
+        int game;
+        while (!finished.get() && (game = nextGame.getAndIncrement()) < total) {
+            try {
+                playGame(game, engines, position, buffer, stop);
+            } catch (RuntimeException e) {
+                finished.set(true);     //the other workers stop after their current game
+                throw e;
+            }
+        }
+    }
+
+    //plays one game from its opening to the end and records it
+    private void playGame(int game, Engine[] engines, Position position, int[] buffer, AtomicBoolean stop) {
+        //games 2n and 2n + 1 play the same opening, the candidate is white in the first
+        int opening = (game / 2) % openings.length;
+        int candidateColour = (game & 1) == 0 ? Position.WHITE : Position.BLACK;
+        Fen.load(position, openings[opening]);
+        for (Engine engine : engines)
+            engine.table.clear();
+
+        GameResult result = position.getResult(buffer);
+        int plies = 0;
+        while (result == GameResult.IN_PROGRESS && plies < MAX_PLIES) {
+            Engine engine = engines[position.getSideToMove() == candidateColour ? 0 : 1];
+            stop.set(false);
+            int move = engine.search.search(PositionSnapshot.of(position), limits, stop, null);
+            if (move == Move.NONE || !position.makeLegalMove(move))
+                throw new IllegalStateException("Engine returned no legal move in " + Fen.toFen(position));
+            result = position.getResult(buffer);
+            plies++;
+        }
+        finishGame(game, opening, candidateColour, result, result == GameResult.DRAW ?
+                position.getDrawReason(buffer).toString() : result == GameResult.IN_PROGRESS ? "MAX_PLIES" : "MATE",
+                plies);
+    }
+
+    //adds a game to the score and the results file, and stops the tournament once the SPRT has decided
+    private synchronized void finishGame(int game, int opening, int candidateColour, GameResult result, String reason,
+                                         int plies) {
+        int points;     //candidate's result, 2 for a win, 1 for a draw, 0 for a loss
+        if (result == GameResult.WHITE_WINS)
+            points = candidateColour == Position.WHITE ? 2 : 0;
+        else if (result == GameResult.BLACK_WINS)
+            points = candidateColour == Position.BLACK ? 2 : 0;
+        else
+            points = 1;
+        score.add(points);
+
+        try {
+            out.write(game + " " + opening + " " + (candidateColour == Position.WHITE ? "white" : "black") + " " +
+                    (points == 2 ? "win" : points == 1 ? "draw" : "loss") + " " + reason + " " + plies);
+            out.newLine();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write results", e);
+        }
+
+        int games = score.getGames();
+        double llr = score.llr(elo0, elo1);
+        if (games % REPORT_EVERY == 0)
+            System.out.println(score.summary(elo0, elo1));
+        if (llr >= Score.upperBound() || llr <= Score.lowerBound())
+            finished.set(true);
+    }
+
+    //one side of the match, created per worker thread
+    private static final class Engine {
+        final TranspositionTable table = new TranspositionTable(HASH_MEGABYTES);
+        final Search search = new Search(table);
+
+        Engine(SearchOptions options) {
+            search.setOptions(options);
+        }
+    }
+
+    /**
+     * Wins, draws and losses of the candidate, with the Elo difference and SPRT statistics they give
+     */
+    public static final class Score {
+        private int wins, draws, losses;
+
+        synchronized void add(int points) {
+            if (points == 2)
+                wins++;
+            else if (points == 1)
+                draws++;
+            else
+                losses++;
+        }
+
+        /**
+         * Method to get the number of games played
+         * @return games
+         */
+        public synchronized int getGames() {
+            return wins + draws + losses;
+        }
+
+        /**
+         * Method to get the candidate's wins, draws and losses
+         * @return {wins, draws, losses}
+         */
+        public synchronized int[] getResults() {
+            return new int[]{wins, draws, losses};
+        }
+
+        /**
+         * Method to get the Elo difference of the candidate over the baseline
+         * @return Elo difference, infinite if every game was won or lost
+         */
+        public synchronized double elo() {
+            return eloOf(mean());
+        }
+
+        /**
+         * Method to get the half width of the 95% confidence interval of elo()
+         * @return error margin in Elo
+         */
+        public synchronized double eloError() {
+            int games = getGames();
+            if (games < 2)
+                return Double.POSITIVE_INFINITY;
+            double margin = 1.96 * Math.sqrt(variance() / games);
+            return (eloOf(mean() + margin) - eloOf(mean() - margin)) / 2;
+        }
+
+        /**
+         * Method to get the log-likelihood ratio of elo1 against elo0, using the normal approximation of the
+         * trinomial result distribution
+         * @param elo0 Elo difference of the null hypothesis
+         * @param elo1 Elo difference of the alternative hypothesis
+         * @return log-likelihood ratio, elo1 is accepted at upperBound() and elo0 at lowerBound()
+         */
+        public synchronized double llr(double elo0, double elo1) {
+            double variance = variance();
+            if (variance <= 0)
+                return 0;       //no information yet, all games had the same result
+            double score0 = scoreOf(elo0);
+            double score1 = scoreOf(elo1);
+            return getGames() * (score1 - score0) * (2 * mean() - score0 - score1) / (2 * variance);
+        }
+
+        /**
+         * Method to get the log-likelihood ratio at which elo1 is accepted
+         * @return upper SPRT bound
+         */
+        public static double upperBound() {
+            return Math.log((1 - BETA) / ALPHA);
+        }
+
+        /**
+         * Method to get the log-likelihood ratio at which elo0 is accepted
+         * @return lower SPRT bound
+         */
+        public static double lowerBound() {
+            return Math.log(BETA / (1 - ALPHA));
+        }
+
+        /**
+         * Method to describe the score on one line
+         * @param elo0 Elo difference of the null hypothesis
+         * @param elo1 Elo difference of the alternative hypothesis
+         * @return text such as "games 200 +61 =80 -59 elo 3.5 +- 38.2 llr 0.04 (-2.94, 2.94)"
+         */
+        public synchronized String summary(double elo0, double elo1) {
+            double llr = llr(elo0, elo1);
+            String verdict = llr >= upperBound() ? " H1 accepted" : llr <= lowerBound() ? " H0 accepted" : "";
+            return String.format("games %d +%d =%d -%d elo %.1f +- %.1f llr %.2f (%.2f, %.2f)%s", getGames(), wins,
+                    draws, losses, elo(), eloError(), llr, lowerBound(), upperBound(), verdict);
+        }
+
+        //average points per game, 1 for a win and 0.5 for a draw
+        private double mean() {
+            int games = getGames();
+            return games == 0 ? 0.5 : (wins + 0.5 * draws) / games;
+        }
+
+        private double variance() {
+            int games = getGames();
+            if (games == 0)
+                return 0;
+            double mean = mean();
+            return (wins * (1 - mean) * (1 - mean) + draws * (0.5 - mean) * (0.5 - mean) + losses * mean * mean) /
+                    games;
+        }
+
+        private static double scoreOf(double elo) {
+            return 1 / (1 + Math.pow(10, -elo / 400));
+        }
+
+        private static double eloOf(double score) {
+            if (score <= 0)
+                return Double.NEGATIVE_INFINITY;
+            if (score >= 1)
+                return Double.POSITIVE_INFINITY;
+            return -400 * Math.log10(1 / score - 1);
+        }
+    }
+
+    /**
+     * Method to get the built-in opening suite, short main lines from the start position
+     * @return FEN text of each opening
+     */
+    public static String[] defaultOpenings() {
+        Position position = new Position();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        String[] fens = new String[OPENING_LINES.length];
+        for (int i = 0; i < OPENING_LINES.length; i++) {
+            position.reset();
+            for (String text : OPENING_LINES[i].split(" ")) {
+                int move = MoveGenerator.findMove(position, Move.parse(text, 0, text.length()), buffer);
+                if (move == Move.NONE || !position.makeLegalMove(move))
+                    throw new IllegalStateException("Bad opening move " + text + " in " + OPENING_LINES[i]);
+            }
+            fens[i] = Fen.toFen(position);
+        }
+        return fens;
+    }
+
+    /**
+     * Method to run a tournament from the command line. Options are written as name=value:
+     * games (default 1000), nodes (per move, default 20000) or movetime (milliseconds per move), threads (default
+     * every core), without (features turned off in the candidate, comma separated), baseline-without (the same for
+     * the baseline), openings (file with one FEN per line), elo0 (default 0) and elo1 (default 5)
+     * @param args results file followed by options, such as "results.txt games=2000 without=Futility"
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("usage: Tournament results.txt [games=N] [nodes=N | movetime=MS] [threads=N] " +
+                    "[without=Feature,...] [baseline-without=Feature,...] [openings=file] [elo0=E] [elo1=E]");
+            return;
+        }
+
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        SearchLimits limits = SearchLimits.nodes(20_000);
+        SearchOptions candidate = SearchOptions.all();
+        SearchOptions baseline = SearchOptions.all();
+        String[] openings = null;
+        double elo0 = 0, elo1 = 5;
+        for (int i = 1; i < args.length; i++) {
+            int equals = args[i].indexOf('=');
+            if (equals < 0)
+                throw new IllegalArgumentException("Options are written as name=value: " + args[i]);
+            String name = args[i].substring(0, equals);
+            String value = args[i].substring(equals + 1);
+            switch (name) {
+                case "games":
+                    games = Integer.parseInt(value);
+                    break;
+                case "nodes":
+                    limits = SearchLimits.nodes(Long.parseLong(value));
+                    break;
+                case "movetime":
+                    limits = SearchLimits.moveTime(Long.parseLong(value));
+                    break;
+                case "threads":
+                    threads = Math.max(1, Integer.parseInt(value));
+                    break;
+                case "without":
+                    disable(candidate, value);
+                    break;
+                case "baseline-without":
+                    disable(baseline, value);
+                    break;
+                case "openings":
+                    openings = readOpenings(Paths.get(value));
+                    break;
+                case "elo0":
+                    elo0 = Double.parseDouble(value);
+                    break;
+                case "elo1":
+                    elo1 = Double.parseDouble(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        }
+
+        System.out.println("candidate: " + candidate + ", baseline: " + baseline + ", " + threads + " threads");
+        Tournament tournament = new Tournament(candidate, baseline, limits,
+                openings != null ? openings : defaultOpenings(), elo0, elo1);
+        long start = System.nanoTime();
+        Score score = tournament.run(games, threads, Paths.get(args[0]));
+        System.out.println(score.summary(elo0, elo1));
+        System.out.printf("%.1f games/s%n", score.getGames() / ((System.nanoTime() - start) / 1e9));
+    }
+
+    private static void disable(SearchOptions options, String names) {
+        for (String name : names.split(",")) {
+            int feature = SearchOptions.feature(name.trim());
+            if (feature < 0)
+                throw new IllegalArgumentException("Unknown search feature: " + name);
+            options.setEnabled(feature, false);
+        }
+    }
+
+    //one FEN per line, blank lines and lines starting with # are skipped
+    private static String[] readOpenings(Path file) throws IOException {
+        List<String> fens = new ArrayList<>();
+        Position position = new Position();
+        for (String line : Files.readAllLines(file)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            Fen.load(position, line);     //fails early on a bad line rather than in a worker
+            fens.add(line);
+        }
+        if (fens.isEmpty())
+            throw new IllegalArgumentException("No openings in " + file);
+        return fens.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,155 @@
+package gameEngine;
+
+import java.util.Arrays;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Hash table of search results shared by all search threads. Each entry is two longs: the position
+ * hash mixed with the data, and the data itself (move, score, depth, bound and age). Threads read and write without
+ * locks; an entry that was half written by another thread fails the hash check and is ignored.
+ *
+ * Method List:
+ * public long probe(long hash) - Method to look up a position, returns 0 if it is not stored
+ * public void store(long hash, int move, int score, int depth, int bound) - Method to store a search result
+ * public void newSearch() - Method to age the table so old entries are replaced first
+ * public void clear() - Method to remove every entry
+ * public void resize(int megabytes) - Method to change the table size (clears the table)
+ * public int getMegabytes() - Method to get the table size
+ * public static int move(long data) - Method to read the move from an entry
+ * public static int score(long data) - Method to read the score from an entry
+ * public static int depth(long data) - Method to read the search depth from an entry
+ * public static int bound(long data) - Method to read the bound type from an entry
+ */
+
+public final class TranspositionTable {
+    //bound types, never 0 so a stored entry is never all zero bits
+    public static final int UPPER = 1, LOWER = 2, EXACT = 3;
+
+    private long[] keys;
+    private long[] data;
+    private int mask;
+    private int megabytes;
+    private volatile int age;
+
+    /**
+     * Constructor to create a table of the given size
+     * @param megabytes table size, rounded down to a power of two number of entries
+     */
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /**
+     * Method to look up a position
+     * @param hash position hash
+     * @return entry data, or 0 if the position is not stored
+     */
+    public long probe(long hash) {
+        int index = (int) hash & mask;
+        long entry = data[index];
+        return (keys[index] ^ entry) == hash ? entry : 0L;
+    }
+
+    /**
+     * Method to store a search result. Deeper results and results from the current search are kept first.
+     * @param hash position hash
+     * @param move best move found (Move.NONE if none)
+     * @param score score, mate scores must already be relative to this position
+     * @param depth depth searched
+     * @param bound UPPER, LOWER or EXACT
+     */
+    public void store(long hash, int move, int score, int depth, int bound) {
+        int index = (int) hash & mask;
+        long old = data[index];
+        boolean sameKey = (keys[index] ^ old) == hash;
+
+        //keeps a deeper entry for the same search unless the new one is for a different position
+        if (old != 0 && ageOf(old) == age && depth(old) > depth && !sameKey)
+            return;
+        if (move == Move.NONE && sameKey)
+            move = move(old);
+
+        long entry = (move & 0xFFFFL) | (score & 0xFFFFL) << 16 | (long) (depth & 0xFF) << 32 |
+                (long) bound << 40 | (long) (age & 0xFF) << 42;
+        data[index] = entry;
+        keys[index] = hash ^ entry;
+    }
+
+    /**
+     * Method to age the table so entries from earlier searches are replaced first
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Method to remove every entry
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    /**
+     * Method to change the table size, the table is cleared
+     * @param megabytes new size in megabytes
+     */
+    public void resize(int megabytes) {
+        //16 bytes per entry
+        long entries = Math.max(1L, (long) megabytes * 1024 * 1024 / 16);
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        this.keys = new long[size];
+        this.data = new long[size];
+        this.mask = size - 1;
+        this.megabytes = megabytes;
+    }
+
+    /**
+     * Method to get the table size
+     * @return size in megabytes
+     */
+    public int getMegabytes() {
+        return megabytes;
+    }
+
+    /**
+     * Method to read the move from an entry
+     * @param data entry data
+     * @return packed move
+     */
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    /**
+     * Method to read the score from an entry
+     * @param data entry data
+     * @return stored score
+     */
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    /**
+     * Method to read the search depth from an entry
+     * @param data entry data
+     * @return depth searched
+     */
+    public static int depth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    /**
+     * Method to read the bound type from an entry
+     * @param data entry data
+     * @return UPPER, LOWER or EXACT
+     */
+    public static int bound(long data) {
+        return (int) (data >>> 40) & 3;
+    }
+
+    private static int ageOf(long data) {
+        return (int) (data >>> 42) & 0xFF;
+    }
+}
@@ -0,0 +1,390 @@
+package gameEngine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Headless front-end that speaks the Universal Chess Interface (UCI) over standard input and output, so
+ * tournament managers and chess GUIs can play against the engine. Commands are read on the main thread while the
+ * search runs on its own threads, which means "stop" and "isready" are answered straight away during a search.
+ * No Swing classes are loaded.
+ *
+ * Supported commands: uci, isready, ucinewgame, setoption (Hash, Threads, MultiPV, TablebasePath, EvalFile), position, go (wtime, btime, winc, binc,
+ * movestogo, movetime, depth, nodes, infinite), stop, quit. Each SearchOptions feature (NullMove, LateMoveReductions,
+ * Futility, Razoring, CheckExtensions) is also a check option, so a GUI can turn it off for testing. With MultiPV
+ * above 1 every depth reports that many lines, each info line tagged with "multipv k".
+ *
+ * Method List:
+ * public void run(BufferedReader input) - Method to read and handle commands until "quit" or end of input
+ * public void handleCommand(String line) - Method to handle one command line
+ * public static void main(String[] args) - Method to run the engine on standard input and output
+ */
+
+public class UciEngine {
+    private static final String NAME = "Java Chess";
+    private static final int DEFAULT_HASH = 64;
+    private static final int MAX_HASH = 4096;
+    private static final int MAX_THREADS = 256;
+    private static final int MAX_MULTI_PV = 64;
+
+    //Global variables
+    private final PrintStream out;
+    private final TranspositionTable table;
+    private final Position position;
+    private final int[] moveBuffer;
+    private Tablebase tablebase;
+    private Network network;
+    private final SearchOptions options;
+    private int threads;
+    private int multiPv;
+    private Search[] searches;
+    private ExecutorService pool;
+    private List<Future<?>> running;
+    private AtomicBoolean stopFlag;
+    private CountDownLatch stopCommand;
+
+    /**
+     * Constructor for an engine that writes its answers to the given stream
+     * @param out stream for engine output
+     */
+    public UciEngine(PrintStream out) {
+        this.out = out;
+        this.table = new TranspositionTable(DEFAULT_HASH);
+        this.position = new Position();
+        this.moveBuffer = new int[MoveGenerator.MAX_MOVES];
+        this.running = new ArrayList<>();
+        this.stopFlag = new AtomicBoolean(true);
+        this.stopCommand = new CountDownLatch(0);
+        this.options = SearchOptions.all();
+        this.multiPv = 1;
+        setThreads(1);
+    }
+
+    /**
+     * Method to read and handle commands until "quit" or the end of the input
+     * @param input command source
+     * @throws IOException if reading fails
+     */
+    public void run(BufferedReader input) throws IOException {
+        String line;
+        while ((line = input.readLine()) != null) {
+            if (line.trim().equals("quit"))
+                break;
+            handleCommand(line);
+        }
+        finishSearch();
+        pool.shutdown();
+    }
+
+    /**
+     * Method to handle one command line
+     * @param line command text
+     */
+    public void handleCommand(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author Shivam Sood");
+                send("option name Hash type spin default " + DEFAULT_HASH + " min 1 max " + MAX_HASH);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name MultiPV type spin default 1 min 1 max " + MAX_MULTI_PV);
+                send("option name TablebasePath type string default <empty>");
+                send("option name EvalFile type string default <empty>");
+                for (String feature : SearchOptions.FEATURES)
+                    send("option name " + feature + " type check default true");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "ucinewgame":
+                finishSearch();
+                table.clear();
+                position.reset();
+                break;
+            case "setoption":
+                setOption(tokens);
+                break;
+            case "position":
+                setPosition(tokens);    //a running search works on its own snapshot, so it is left alone
+                break;
+            case "go":
+                finishSearch();
+                go(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            default:
+                break;  //unknown commands are ignored, as the protocol asks
+        }
+    }
+
+    //setoption name <id> value <x>
+    private void setOption(String[] tokens) {
+        String name = valueAfter(tokens, "name");
+        String value = valueAfter(tokens, "value");
+        if (name == null || value == null)
+            return;
+
+        if (name.equalsIgnoreCase("TablebasePath")) {
+            finishSearch();
+            setTablebase(value);
+            return;
+        }
+        if (name.equalsIgnoreCase("EvalFile")) {
+            finishSearch();
+            setNetwork(value);
+            return;
+        }
+
+        int feature = SearchOptions.feature(name);
+        if (feature >= 0) {
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                send("info string bad value for " + name + ": " + value);
+                return;
+            }
+            finishSearch();
+            options.setEnabled(feature, value.equalsIgnoreCase("true"));
+            for (Search search : searches)
+                search.setOptions(options);
+            return;
+        }
+
+        try {
+            int number = Integer.parseInt(value);
+            finishSearch();
+            if (name.equalsIgnoreCase("Hash"))
+                table.resize(Math.max(1, Math.min(number, MAX_HASH)));
+            else if (name.equalsIgnoreCase("Threads"))
+                setThreads(Math.max(1, Math.min(number, MAX_THREADS)));
+            else if (name.equalsIgnoreCase("MultiPV")) {
+                multiPv = Math.max(1, Math.min(number, MAX_MULTI_PV));
+                searches[0].setMultiPv(multiPv);      //only the main thread reports lines
+            }
+        } catch (NumberFormatException e) {
+            send("info string bad value for " + name + ": " + value);
+        }
+    }
+
+    //position [startpos | fen <fen>] [moves <move> ...]
+    private void setPosition(String[] tokens) {
+        int index = 1;
+        try {
+            if (tokens.length > 1 && tokens[1].equals("fen")) {
+                StringBuilder fen = new StringBuilder();
+                for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++)
+                    fen.append(tokens[index]).append(' ');
+                Fen.load(position, fen.toString());
+            }
+            else {
+                position.reset();
+                index = 2;
+            }
+        } catch (IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+            position.reset();
+            return;
+        }
+
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            for (int i = index + 1; i < tokens.length; i++) {
+                int move = MoveGenerator.findMove(position, Move.parse(tokens[i], 0, tokens[i].length()), moveBuffer);
+                if (move == Move.NONE || !position.makeLegalMove(move)) {
+                    send("info string illegal move " + tokens[i]);
+                    return;
+                }
+            }
+        }
+    }
+
+    //starts the search threads, the main thread prints "bestmove" when it is done
+    private void go(String[] tokens) {
+        SearchLimits limits = new SearchLimits();
+        boolean infinite = false;
+        long time = 0, increment = 0;
+        int movesToGo = 0;
+        String ownTime = position.getSideToMove() == Position.WHITE ? "wtime" : "btime";
+        String ownIncrement = position.getSideToMove() == Position.WHITE ? "winc" : "binc";
+
+        for (int i = 1; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (token.equals("infinite")) {
+                infinite = true;
+                continue;
+            }
+            if (i + 1 >= tokens.length)
+                break;
+            try {
+                long value = Long.parseLong(tokens[i + 1]);
+                if (token.equals("depth"))
+                    limits.setDepth((int) value);
+                else if (token.equals("nodes"))
+                    limits.setNodes(value);
+                else if (token.equals("movetime"))
+                    limits.setMoveTime(value);
+                else if (token.equals("movestogo"))
+                    movesToGo = (int) value;
+                else if (token.equals(ownTime))
+                    time = value;
+                else if (token.equals(ownIncrement))
+                    increment = value;
+                else
+                    continue;
+                i++;
+            } catch (NumberFormatException e) {
+                //not a number, the token is skipped
+            }
+        }
+
+        //spends an even share of the remaining time plus most of the increment, keeping a safety margin
+        if (!infinite && limits.getMoveTime() == 0 && time > 0) {
+            long share = time / (movesToGo > 0 ? movesToGo + 1 : 30) + increment * 3 / 4;
+            limits.setMoveTime(Math.max(1, Math.min(share, time - 50)));
+        }
+
+        PositionSnapshot root = PositionSnapshot.of(position);
+        AtomicBoolean stop = new AtomicBoolean(false);
+        CountDownLatch stopped = new CountDownLatch(1);
+        boolean waitForStop = infinite;
+        stopFlag = stop;
+        stopCommand = stopped;
+        running = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            int helperIndex = i;
+            running.add(pool.submit(() -> {
+                int best = searches[helperIndex].search(root, limits, stop, helperIndex == 0 ? this::sendInfo : null,
+                        helperIndex);
+                if (helperIndex == 0) {
+                    //"go infinite" must not answer before "stop" even if the search ended early
+                    if (waitForStop) {
+                        try {
+                            stopped.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    send("bestmove " + Move.toString(best));
+                }
+            }));
+        }
+    }
+
+    private void sendInfo(SearchInfo info) {
+        long nps = info.getTimeMillis() > 0 ? info.getNodes() * 1000 / info.getTimeMillis() : info.getNodes();
+        String score = info.isMate() ? "mate " + info.getMateIn() : "cp " + info.getScore();
+        send("info depth " + info.getDepth() + " score " + score + " nodes " + info.getNodes() + " nps " + nps +
+                " time " + info.getTimeMillis() + (multiPv > 1 ? " multipv " + info.getMultiPv() : "") +
+                " pv " + info.getPrincipalVariationText());
+    }
+
+    private void stopSearch() {
+        stopFlag.set(true);
+        stopCommand.countDown();
+    }
+
+    //stops the running search (if any) and blocks until it has printed its best move
+    private void finishSearch() {
+        stopSearch();
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                send("info string search failed: " + e.getCause());
+            }
+        }
+        running.clear();
+    }
+
+    private void setTablebase(String path) {
+        tablebase = null;
+        if (!path.isEmpty() && !path.equals("<empty>")) {
+            try {
+                tablebase = Tablebase.open(Paths.get(path));
+            } catch (IOException e) {
+                send("info string " + e.getMessage());
+            }
+        }
+        for (Search search : searches)
+            search.setTablebase(tablebase);
+    }
+
+    //an empty path goes back to the hand-written evaluation
+    private void setNetwork(String path) {
+        network = null;
+        if (!path.isEmpty() && !path.equals("<empty>")) {
+            try {
+                network = Network.load(Paths.get(path));
+            } catch (IOException e) {
+                send("info string " + e.getMessage());
+            }
+        }
+        for (Search search : searches)
+            search.setNetwork(network);
+    }
+
+    private void setThreads(int count) {
+        if (pool != null)
+            pool.shutdown();
+        threads = count;
+        searches = new Search[count];
+        for (int i = 0; i < count; i++) {
+            searches[i] = new Search(table);
+            searches[i].setTablebase(tablebase);
+            searches[i].setOptions(options);
+            searches[i].setNetwork(network);
+        }
+        searches[0].setMultiPv(multiPv);
+        pool = Executors.newFixedThreadPool(count, task -> {
+            Thread thread = new Thread(task, "uci-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private synchronized void send(String line) {
+        out.println(line);
+        out.flush();
+    }
+
+    //returns the words after a keyword up to the next keyword, used by setoption
+    private static String valueAfter(String[] tokens, String keyword) {
+        StringBuilder value = new StringBuilder();
+        boolean found = false;
+        for (String token : tokens) {
+            if (found && (token.equals("name") || token.equals("value")))
+                break;
+            if (found)
+                value.append(value.length() > 0 ? " " : "").append(token);
+            if (token.equals(keyword))
+                found = true;
+        }
+        return found && value.length() > 0 ? value.toString() : null;
+    }
+
+    /**
+     * Method to run the engine on standard input and output
+     * @param args not used
+     * @throws IOException if reading standard input fails
+     */
+    public static void main(String[] args) throws IOException {
+        new UciEngine(System.out).run(new BufferedReader(new InputStreamReader(System.in)));
+    }
+}
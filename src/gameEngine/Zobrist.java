@@ -0,0 +1,93 @@
+package gameEngine;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Random keys used to build the 64-bit position hash. The keys come from a fixed seed so the same
+ * position always hashes to the same value, in every run and on every machine.
+ *
+ * Method List:
+ * public static long piece(int pieceCode, int square) - Method to get the key for a piece standing on a square
+ * public static long side() - Method to get the key that is mixed in when black is to move
+ * public static long castling(int rights) - Method to get the key for a set of castling rights
+ * public static long enPassant(int column) - Method to get the key for an en passant capture on a column
+ */
+
+public final class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[16][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long SIDE_KEY;
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int code = 0; code < PIECE_KEYS.length; code++) {
+            for (int sq = 0; sq < 64; sq++) {
+                seed = next(seed);
+                PIECE_KEYS[code][sq] = mix(seed);
+            }
+        }
+        seed = next(seed);
+        SIDE_KEY = mix(seed);
+        //no castling rights hashes to 0 so positions without rights keep the same hash
+        for (int rights = 1; rights < CASTLING_KEYS.length; rights++) {
+            seed = next(seed);
+            CASTLING_KEYS[rights] = mix(seed);
+        }
+        //drawn last so the keys above are the same as before en passant was hashed
+        for (int column = 0; column < EN_PASSANT_KEYS.length; column++) {
+            seed = next(seed);
+            EN_PASSANT_KEYS[column] = mix(seed);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Method to get the key for a piece standing on a square
+     * @param pieceCode piece code (see Position)
+     * @param square square index
+     * @return random key
+     */
+    public static long piece(int pieceCode, int square) {
+        return PIECE_KEYS[pieceCode][square];
+    }
+
+    /**
+     * Method to get the key that is mixed in when black is to move
+     * @return random key
+     */
+    public static long side() {
+        return SIDE_KEY;
+    }
+
+    /**
+     * Method to get the key for a set of castling rights
+     * @param rights castling rights (Position.WHITE_KINGSIDE etc. combined)
+     * @return random key, 0 when no rights are left
+     */
+    public static long castling(int rights) {
+        return CASTLING_KEYS[rights];
+    }
+
+    /**
+     * Method to get the key for an en passant capture on a column, only mixed in while the capture is possible
+     * @param column column of the en passant square
+     * @return random key
+     */
+    public static long enPassant(int column) {
+        return EN_PASSANT_KEYS[column];
+    }
+
+    //splitmix64 step and finaliser
+    private static long next(long seed) {
+        return seed + 0x9E3779B97F4A7C15L;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
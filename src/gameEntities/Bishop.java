@@ -13,18 +13,30 @@ import gameComponents.Tile;
  *                                                            move parameters for the current piece
  * public boolean isValidPath(Tile startTile, Tile endTile, Tile[][] tileMap) - Method to check board and see if the
  *                                                                              move is still valid (checks for obstructions)
+ * public static Bishop get(Alliance pieceAlliance) - Method to get the shared bishop of an alliance
  */
 
 public class Bishop extends Piece {
 
+    //shared instances, one for each alliance
+    public static final Bishop WHITE = new Bishop(Alliance.WHITE);
+    public static final Bishop BLACK = new Bishop(Alliance.BLACK);
+
+    /**
+     * Constructor for the shared bishop instances
+     * @param pieceAlliance alliance the piece is part of
+     */
+    private Bishop(Alliance pieceAlliance) {
+        super(pieceAlliance, PieceType.BISHOP, "Images/wBishop.png", "Images/bBishop.png");
+    }
+
     /**
-     * Default constructor for the bishop piece
+     * Method to get the shared bishop of an alliance
      * @param pieceAlliance alliance the piece is part of
+     * @return shared bishop instance
      */
-    public Bishop(Alliance pieceAlliance) {
-        super(pieceAlliance);
-        this.setPieceType(PieceType.BISHOP);
-        this.setPieceImg("Images/wBishop.png",  "Images/bBishop.png");
+    public static Bishop get(Alliance pieceAlliance) {
+        return pieceAlliance == Alliance.WHITE ? WHITE : BLACK;
     }
 
     /**
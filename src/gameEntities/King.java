@@ -8,29 +8,42 @@ import java.util.ArrayList;
 /**
  * @author Shivam Sood
  * Date: 2020-04-04
- * Description: King piece class. Holds information regarding movement of the King piece. Also tests for check
- * and checkmate.
+ * Description: King piece class. Holds information regarding movement of the King piece, including castling. Also
+ * tests for check and checkmate.
  *
  * Method List:
  * public boolean isValidMove(Tile startTile, Tile endTile) - Method to check if selected tiles fall within acceptable
  *                                                            move parameters for the current piece
  * public boolean isValidPath(Tile startTile, Tile endTile, Tile[][] tileMap) - Method to check board and see if the
  *                                                                              move is still valid (checks for obstructions)
+ * public static King get(Alliance pieceAlliance) - Method to get the shared king of an alliance
  * public Tile findKing(Tile[][] tileMap) - Method to locate king on gameboard
  * public boolean inCheck(Tile[][] tileMap, Tile kingTile) - Method to test if the king is in check
+ * public Tile findAttacker(Tile[][] tileMap, Tile kingTile) - Method to find a piece that is checking the king
  * public boolean checkMate (Tile[][] tileMap) - Method to check if the king is in checkmate
  */
 
 public class King extends Piece {
-    //Global Variables
-    private Tile checkedBy;
-    private ArrayList<Tile> checkedPath = new ArrayList<>();
-
-    public King (Alliance pieceAlliance) {
-        super (pieceAlliance);
-        this.setPieceType(PieceType.KING);
-        this.checkedBy = null;
-        this.setPieceImg("Images/wKing.png", "Images/bKing.png");
+
+    //shared instances, one for each alliance
+    public static final King WHITE = new King(Alliance.WHITE);
+    public static final King BLACK = new King(Alliance.BLACK);
+
+    /**
+     * Constructor for the shared king instances
+     * @param pieceAlliance alliance the piece is part of
+     */
+    private King(Alliance pieceAlliance) {
+        super(pieceAlliance, PieceType.KING, "Images/wKing.png", "Images/bKing.png");
+    }
+
+    /**
+     * Method to get the shared king of an alliance
+     * @param pieceAlliance alliance the piece is part of
+     * @return shared king instance
+     */
+    public static King get(Alliance pieceAlliance) {
+        return pieceAlliance == Alliance.WHITE ? WHITE : BLACK;
     }
 
     /**
@@ -48,6 +61,10 @@ public class King extends Piece {
 
         if(isAllianceOverlap(startTile, endTile))
             return false;
+        //castling moves the king two tiles along its home row, only if it has never moved
+        else if (changeX == 2 && changeY == 0)
+            return startTile.getColumn() == 4 && !startTile.hasMoved() &&
+                    startTile.getRow() == (getPieceAlliance() == Alliance.WHITE ? 7 : 0);
         else
             return changeX <= 1 && changeY <= 1; //can only move one tile
     }
@@ -80,6 +97,9 @@ public class King extends Piece {
      */
     @Override
     public boolean isValidPath(Tile startTile, Tile endTile, Tile[][] tileMap) {
+        if (Math.abs(endTile.getColumn() - startTile.getColumn()) == 2)
+            return canCastle(startTile, endTile, tileMap);
+
         Piece temp = endTile.getPiece();
         endTile.setPiece(startTile.getPiece());
         if (!this.inCheck(tileMap, endTile)) {
@@ -90,6 +110,33 @@ public class King extends Piece {
         return false;
     }
 
+    //castling needs the rook unmoved, empty tiles in between, and a king that is not in check and does not pass
+    //or land on an attacked tile
+    private boolean canCastle(Tile startTile, Tile endTile, Tile[][] tileMap) {
+        int row = startTile.getRow();
+        int dir = Integer.signum(endTile.getColumn() - startTile.getColumn());
+        Tile rookTile = tileMap[row][dir > 0 ? 7 : 0];
+        if (endTile.isOccupied() || rookTile.hasMoved() || rookTile.getPiece() != Rook.get(getPieceAlliance()))
+            return false;
+        for (int col = startTile.getColumn() + dir; col != rookTile.getColumn(); col += dir) {
+            if (tileMap[row][col].isOccupied())
+                return false;
+        }
+        if (inCheck(tileMap, startTile))
+            return false;
+
+        //places the king on the passed and end tiles in turn, as isValidPath does for a normal move
+        for (int col = startTile.getColumn() + dir; col != endTile.getColumn() + dir; col += dir) {
+            Tile tile = tileMap[row][col];
+            tile.setPiece(this);
+            boolean attacked = inCheck(tileMap, tile);
+            tile.setPiece(null);
+            if (attacked)
+                return false;
+        }
+        return true;
+    }
+
     /**
      * Method to test if the king is in check
      * @param tileMap take tiles on game board
@@ -97,6 +144,16 @@ public class King extends Piece {
      * @return boolean depending on if the king is in check
      */
     public boolean inCheck(Tile[][] tileMap, Tile kingTile) {
+        return findAttacker(tileMap, kingTile) != null;
+    }
+
+    /**
+     * Method to find a piece that is checking the king
+     * @param tileMap take tiles on game board
+     * @param kingTile takes tile with king on it
+     * @return tile of the attacking piece or null if the king is not in check
+     */
+    public Tile findAttacker(Tile[][] tileMap, Tile kingTile) {
 
         for (Tile[] tiles : tileMap) {
             for (int j = 0; j < tileMap.length; j++) {
@@ -105,21 +162,19 @@ public class King extends Piece {
                     if (tiles[j].getPiece() instanceof Pawn) { //tests for diagonal pawn movement (pawns only kill diagonally)
                         if (tiles[j].getPiece().isValidMove(tiles[j], kingTile))  {
                             if(Math.abs(kingTile.getColumn() - tiles[j].getColumn()) > 0) {
-                                this.checkedBy = tiles[j];
-                                return true;
+                                return tiles[j];
                             }
                         }
                     }
                     //if king is in path of another piece than it is in check
                     else if (tiles[j].getPiece().isValidMove(tiles[j], kingTile) &&
                             tiles[j].getPiece().isValidPath(tiles[j], kingTile, tileMap)) {
-                        this.checkedBy = tiles[j];
-                        return true;
+                        return tiles[j];
                     }
                 }
             }
         }
-        return false;
+        return null;
     }
 
     /**
@@ -129,6 +184,11 @@ public class King extends Piece {
      */
     public boolean checkMate (Tile[][] tileMap) {
         Tile kingTile = findKing(tileMap);
+        Tile checkedBy = findAttacker(tileMap, kingTile);
+        ArrayList<Tile> checkedPath = new ArrayList<>();  //kept local since the king instance is shared
+        if (checkedBy == null)
+            return false;
+
         int rowDiff = kingTile.getRow() - checkedBy.getRow();
         int colDiff = kingTile.getColumn() - checkedBy.getColumn();
         int tileAmt = Math.max(Math.abs(rowDiff), Math.abs(colDiff));
@@ -161,7 +221,6 @@ public class King extends Piece {
                                 tiles[j].getPiece().isValidPath(tiles[j], value[c], tileMap)) {
                             for (Tile pathTile : checkedPath) {
                                 if (value[c] == pathTile) { //tests if piece is able to move into path
-                                    checkedPath.clear();
                                     return false;
                                 }
                             }
@@ -170,7 +229,6 @@ public class King extends Piece {
                 }
             }
         }
-        checkedPath.clear();
         return true;
     } //end of method
 }
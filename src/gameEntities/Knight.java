@@ -13,14 +13,30 @@ import gameComponents.Tile;
  *                                                            move parameters for the current piece
  * public boolean isValidPath(Tile startTile, Tile endTile, Tile[][] tileMap) - Method to check board and see if the
  *                                                                              move is still valid (checks for obstructions)
+ * public static Knight get(Alliance pieceAlliance) - Method to get the shared knight of an alliance
  */
 
 public class Knight extends Piece {
 
-    public Knight(Alliance pieceAlliance) {
-        super(pieceAlliance);
-        this.setPieceType(PieceType.KNIGHT);
-        this.setPieceImg("Images/wKnight.png", "Images/bKnight.png");
+    //shared instances, one for each alliance
+    public static final Knight WHITE = new Knight(Alliance.WHITE);
+    public static final Knight BLACK = new Knight(Alliance.BLACK);
+
+    /**
+     * Constructor for the shared knight instances
+     * @param pieceAlliance alliance the piece is part of
+     */
+    private Knight(Alliance pieceAlliance) {
+        super(pieceAlliance, PieceType.KNIGHT, "Images/wKnight.png", "Images/bKnight.png");
+    }
+
+    /**
+     * Method to get the shared knight of an alliance
+     * @param pieceAlliance alliance the piece is part of
+     * @return shared knight instance
+     */
+    public static Knight get(Alliance pieceAlliance) {
+        return pieceAlliance == Alliance.WHITE ? WHITE : BLACK;
     }
 
     /**
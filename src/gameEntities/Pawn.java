@@ -13,25 +13,29 @@ import gameComponents.Tile;
  *                                                            move parameters for the current piece
  * public boolean isValidPath(Tile startTile, Tile endTile, Tile[][] tileMap) - Method to check board and see if the
  *                                                                              move is still valid (checks for obstructions)
+ * public static Pawn get(Alliance pieceAlliance) - Method to get the shared pawn of an alliance
  */
 
 public class Pawn extends Piece {
+    //shared instances, one for each alliance
+    public static final Pawn WHITE = new Pawn(Alliance.WHITE);
+    public static final Pawn BLACK = new Pawn(Alliance.BLACK);
 
-    private boolean firstMove;
-
-    public Pawn (Alliance pieceAlliance) {
-        super(pieceAlliance);
-        this.setPieceType(PieceType.PAWN);
-        this.setPieceImg("Images/wPawn.png", "Images/bPawn.png");
-        firstMove = true;
+    /**
+     * Constructor for the shared pawn instances
+     * @param pieceAlliance alliance the piece is part of
+     */
+    private Pawn(Alliance pieceAlliance) {
+        super(pieceAlliance, PieceType.PAWN, "Images/wPawn.png", "Images/bPawn.png");
     }
 
     /**
-     * method to update boolean variable for pawns first move
-     * @param newValue takes new boolean value for first move
+     * Method to get the shared pawn of an alliance
+     * @param pieceAlliance alliance the piece is part of
+     * @return shared pawn instance
      */
-    public void setFirstMove(boolean newValue) {
-        this.firstMove = newValue;
+    public static Pawn get(Alliance pieceAlliance) {
+        return pieceAlliance == Alliance.WHITE ? WHITE : BLACK;
     }
 
     /**
@@ -51,8 +55,9 @@ public class Pawn extends Piece {
         int changeY = endTile.getRow() - startTile.getRow();
         int changeX = Math.abs(endTile.getColumn() - startTile.getColumn());
 
-        //pawn can move 2 spaces on first move and 1 on every move thereafter
-        if (firstMove)
+        //pawn can move 2 spaces on first move and 1 on every move thereafter, pawns never move backwards so a pawn
+        //still on its starting row has not moved yet
+        if (startTile.getRow() == (getPieceAlliance() == Alliance.WHITE ? 6 : 1))
             moveSpaces = 2;
         else
             moveSpaces = 1;
@@ -107,10 +112,15 @@ public class Pawn extends Piece {
             return !endTile.isOccupied() || endTile.getPiece().getPieceAlliance() == startTile.getPiece().getPieceAlliance();
         }
         else if (Math.abs(yChange) == 1 && Math.abs(xChange) == 1) {
-            return endTile.isOccupied() && endTile.getPiece().getPieceAlliance() != startTile.getPiece().getPieceAlliance();
+            if (endTile.isOccupied())
+                return endTile.getPiece().getPieceAlliance() != startTile.getPiece().getPieceAlliance();
+            //en passant, the pawn that skipped the end tile stands beside the capturing pawn
+            Tile passedTile = tileMap[startTile.getRow()][endTile.getColumn()];
+            return endTile.isEnPassant() && passedTile.isOccupied() &&
+                    passedTile.getPiece().getPieceType() == PieceType.PAWN &&
+                    passedTile.getPiece().getPieceAlliance() != startTile.getPiece().getPieceAlliance();
         }
 
-        //firstMove = false; //TODO INCORPORATE LATER
         return true;
     }
 }
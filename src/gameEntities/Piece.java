@@ -4,16 +4,21 @@ import gameComponents.Alliance;
 import gameComponents.Tile;
 
 import javax.swing.*;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class Piece {
-    private Alliance pieceAlliance;
-    private PieceType pieceType;
-    private ImageIcon pieceImg;
+    private final Alliance pieceAlliance;
+    private final PieceType pieceType;
+    private final String imgFileName;
+    private volatile ImageIcon pieceImg;      //loaded on first use, so the rules never touch AWT
 
     /**
      * @author Shivam Sood
      * Date: 2020-04-04
-     * Description: Pawn piece class. Holds information regarding movement of the Pawn piece.
+     * Description: Base class for all pieces. Pieces hold no per-game state, so there is exactly one shared instance
+     * for each of the 12 kinds of piece (see Piece.of). Anything that changes during a game, such as whether a
+     * piece has moved, is stored on the board's tiles instead. Pictures are only loaded when they are first shown,
+     * or ahead of time on background threads with preloadImages().
      * <p>
      * Method List:
      * public boolean isValidMove(Tile startTile, Tile endTile) - Method to check if selected tiles fall within acceptable
@@ -21,16 +26,64 @@ public abstract class Piece {
      * public boolean isValidPath(Tile startTile, Tile endTile, Tile[][] tileMap) - Method to check board and see if the
      * move is still valid (checks for obstructions)
      * public ImageIcon getPieceImg() - Method to get piece image
-     * public void setPieceType (PieceType pieceType) - Method to set the type of piece
      * public PieceType getPieceType () - Method to get the type of piece
-     * public void setPieceImg(String imgWFileName, String imgBFileName) - Method to set piece image
      * public boolean isAllianceOverlap (Tile startTile, Tile endTile) - Method to test if move will overlap
      * public Alliance getPieceAlliance() - Method to get piece alliance
+     * public static Piece of(PieceType pieceType, Alliance pieceAlliance) - Method to get the shared piece instance
+     * public static CompletableFuture<Void> preloadImages() - Method to load every piece picture in parallel
      */
 
-    public Piece(Alliance pieceAlliance) {
+    /**
+     * Constructor used by the piece classes to create their shared instances
+     * @param pieceAlliance alliance the piece is part of
+     * @param pieceType type of piece
+     * @param imgWFileName white piece picture name
+     * @param imgBFileName black piece picture name
+     */
+    protected Piece(Alliance pieceAlliance, PieceType pieceType, String imgWFileName, String imgBFileName) {
         this.pieceAlliance = pieceAlliance;
-        this.pieceImg = null;
+        this.pieceType = pieceType;
+        this.imgFileName = pieceAlliance == Alliance.WHITE ? imgWFileName : imgBFileName;
+    }
+
+    /**
+     * Method to get the shared piece instance for a type and alliance
+     * @param pieceType type of piece
+     * @param pieceAlliance alliance the piece is part of
+     * @return shared piece instance
+     */
+    public static Piece of(PieceType pieceType, Alliance pieceAlliance) {
+        switch (pieceType) {
+            case PAWN:
+                return Pawn.get(pieceAlliance);
+            case ROOK:
+                return Rook.get(pieceAlliance);
+            case KNIGHT:
+                return Knight.get(pieceAlliance);
+            case BISHOP:
+                return Bishop.get(pieceAlliance);
+            case QUEEN:
+                return Queen.get(pieceAlliance);
+            default:
+                return King.get(pieceAlliance);
+        }
+    }
+
+    /**
+     * Method to load the pictures of all 12 kinds of piece at the same time on the common pool, while the window is
+     * still being built
+     * @return future that completes once every picture is loaded
+     */
+    public static CompletableFuture<Void> preloadImages() {
+        CompletableFuture<?>[] loads = new CompletableFuture<?>[2 * PieceType.values().length];
+        int i = 0;
+        for (Alliance alliance : Alliance.values()) {
+            for (PieceType type : PieceType.values()) {
+                Piece piece = of(type, alliance);
+                loads[i++] = CompletableFuture.runAsync(piece::getPieceImg);
+            }
+        }
+        return CompletableFuture.allOf(loads);
     }
 
     /**
@@ -59,16 +112,15 @@ public abstract class Piece {
      * @return image of piece
      */
     public ImageIcon getPieceImg() {
-        return pieceImg;
-    }
-
-    /**
-     * Method to set the type of piece
-     *
-     * @param pieceType type of piece
-     */
-    public void setPieceType(PieceType pieceType) {
-        this.pieceType = pieceType;
+        ImageIcon img = pieceImg;
+        if (img == null) {
+            synchronized (this) {
+                img = pieceImg;
+                if (img == null)
+                    pieceImg = img = new ImageIcon(imgFileName);
+            }
+        }
+        return img;
     }
 
     /**
@@ -80,19 +132,6 @@ public abstract class Piece {
         return this.pieceType;
     }
 
-    /**
-     * Method to set piece image
-     *
-     * @param imgWFileName white piece picture name
-     * @param imgBFileName black piece picture name
-     */
-    public void setPieceImg(String imgWFileName, String imgBFileName) {
-        if (pieceAlliance == Alliance.WHITE)
-            this.pieceImg = new ImageIcon(imgWFileName);
-        else
-            this.pieceImg = new ImageIcon(imgBFileName);
-    }
-
     /**
      * Method to test if move will overlap
      *
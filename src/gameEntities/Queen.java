@@ -14,14 +14,30 @@ import gameComponents.Tile;
  *                                                            move parameters for the current piece
  * public boolean isValidPath(Tile startTile, Tile endTile, Tile[][] tileMap) - Method to check board and see if the
  *                                                                              move is still valid (checks for obstructions)
+ * public static Queen get(Alliance pieceAlliance) - Method to get the shared queen of an alliance
  */
 
 public class Queen extends Piece {
 
-    public Queen(Alliance pieceAlliance) {
-        super(pieceAlliance);
-        this.setPieceType(PieceType.QUEEN);
-        this.setPieceImg("Images/wQueen.png", "Images/bQueen.png");
+    //shared instances, one for each alliance
+    public static final Queen WHITE = new Queen(Alliance.WHITE);
+    public static final Queen BLACK = new Queen(Alliance.BLACK);
+
+    /**
+     * Constructor for the shared queen instances
+     * @param pieceAlliance alliance the piece is part of
+     */
+    private Queen(Alliance pieceAlliance) {
+        super(pieceAlliance, PieceType.QUEEN, "Images/wQueen.png", "Images/bQueen.png");
+    }
+
+    /**
+     * Method to get the shared queen of an alliance
+     * @param pieceAlliance alliance the piece is part of
+     * @return shared queen instance
+     */
+    public static Queen get(Alliance pieceAlliance) {
+        return pieceAlliance == Alliance.WHITE ? WHITE : BLACK;
     }
 
     /**
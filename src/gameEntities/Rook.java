@@ -13,14 +13,30 @@ import gameComponents.Tile;
  *                                                            move parameters for the current piece
  * public boolean isValidPath(Tile startTile, Tile endTile, Tile[][] tileMap) - Method to check board and see if the
  *                                                                              move is still valid (checks for obstructions)
+ * public static Rook get(Alliance pieceAlliance) - Method to get the shared rook of an alliance
  */
 
 public class Rook extends Piece {
 
-    public Rook (Alliance pieceAlliance) {
-        super(pieceAlliance);
-        this.setPieceType(PieceType.ROOK);
-        this.setPieceImg("Images/wRook.png", "Images/bRook.png");
+    //shared instances, one for each alliance
+    public static final Rook WHITE = new Rook(Alliance.WHITE);
+    public static final Rook BLACK = new Rook(Alliance.BLACK);
+
+    /**
+     * Constructor for the shared rook instances
+     * @param pieceAlliance alliance the piece is part of
+     */
+    private Rook(Alliance pieceAlliance) {
+        super(pieceAlliance, PieceType.ROOK, "Images/wRook.png", "Images/bRook.png");
+    }
+
+    /**
+     * Method to get the shared rook of an alliance
+     * @param pieceAlliance alliance the piece is part of
+     * @return shared rook instance
+     */
+    public static Rook get(Alliance pieceAlliance) {
+        return pieceAlliance == Alliance.WHITE ? WHITE : BLACK;
     }
 
     /**
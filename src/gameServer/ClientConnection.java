@@ -0,0 +1,209 @@
+package gameServer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: State of one client socket on the game server. Buffers are only created once a client actually sends
+ * or receives something, so an idle connection costs little more than its socket. Only the event loop thread uses
+ * this class.
+ *
+ * Output waits in a queue until the socket takes it. A client that stops reading, such as a spectator whose program
+ * hangs, would make that queue grow with every broadcast, so once more than MAX_OUTPUT bytes are waiting the queue is
+ * dropped and the server disconnects the client at the end of the pass.
+ *
+ * The server can mark the end of the output queued so far with the time the command it answers was read; once the
+ * socket has taken every byte up to the mark, the time since then is recorded as a move latency in ServerMetrics.
+ *
+ * Method List:
+ * public int getId() - Method to get the connection number
+ * public boolean isOpen() - Method to check if the connection has not been closed
+ */
+
+public class ClientConnection {
+    static final int MAX_LINE = 256;
+    static final int MAX_OUTPUT = 1 << 20;     //bytes a client may fall behind by, far more than a long game's moves
+
+    //Global variables
+    private final int id;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ServerMetrics metrics;
+    private byte[] line;                //partial command line, created on first use
+    private int lineLength;
+    private ArrayDeque<ByteBuffer> output;
+    private int outputBytes;            //bytes waiting in output
+    private long queuedTotal;           //bytes queued since the connection opened
+    private long writtenTotal;          //bytes written since the connection opened
+    private long[] timings;             //pairs of queuedTotal at a reply's end and its command's read time, a ring
+    private int timingHead;
+    private int timingCount;
+    private boolean overflowed;         //true once the client fell more than MAX_OUTPUT bytes behind
+    private List<ServerGame> games;
+    private boolean queued;             //true while the connection waits in the event loop's flush list
+    private boolean streaming;          //true once the client has subscribed to a binary move stream
+
+    ClientConnection(int id, SocketChannel channel, SelectionKey key, ServerMetrics metrics) {
+        this.id = id;
+        this.channel = channel;
+        this.key = key;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Method to get the connection number
+     * @return number given by the server, starting at 1
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Method to check if the connection has not been closed
+     * @return true if the socket is open
+     */
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    //adds one byte of input, returns false if the line is too long
+    boolean append(byte b) {
+        if (line == null)
+            line = new byte[64];
+        if (lineLength == line.length) {
+            if (line.length >= MAX_LINE)
+                return false;
+            line = Arrays.copyOf(line, MAX_LINE);
+        }
+        line[lineLength++] = b;
+        return true;
+    }
+
+    //returns the finished line and starts a new one
+    String takeLine() {
+        if (lineLength == 0)
+            return "";
+        String text = new String(line, 0, lineLength, StandardCharsets.US_ASCII);
+        lineLength = 0;
+        return text.trim();
+    }
+
+    //queues bytes for the next flush, the buffer must not be changed afterwards; a client too far behind gets nothing
+    //more and is marked to be disconnected
+    void send(ByteBuffer buffer) {
+        if (overflowed)
+            return;
+        if (outputBytes + buffer.remaining() > MAX_OUTPUT) {
+            overflowed = true;
+            output = null;
+            outputBytes = 0;
+            timingCount = 0;
+            return;
+        }
+        if (output == null)
+            output = new ArrayDeque<>(4);
+        queuedTotal += buffer.remaining();
+        output.add(buffer);
+        outputBytes += buffer.remaining();
+    }
+
+    //the output queued so far ends the reply to a command read at readNanos, its latency is recorded once written
+    void timeReply(long readNanos) {
+        if (overflowed)
+            return;
+        if (timings == null)
+            timings = new long[8];
+        if (2 * timingCount == timings.length) {
+            //unrolls the full ring into a bigger array
+            long[] bigger = new long[timings.length * 2];
+            for (int i = 0; i < timingCount; i++) {
+                int from = 2 * ((timingHead + i) % timingCount);
+                bigger[2 * i] = timings[from];
+                bigger[2 * i + 1] = timings[from + 1];
+            }
+            timings = bigger;
+            timingHead = 0;
+        }
+        int slot = 2 * ((timingHead + timingCount) % (timings.length / 2));
+        timings[slot] = queuedTotal;
+        timings[slot + 1] = readNanos;
+        timingCount++;
+    }
+
+    //true once the client has fallen too far behind, the server then closes the connection
+    boolean hasOverflowed() {
+        return overflowed;
+    }
+
+    boolean isStreaming() {
+        return streaming;
+    }
+
+    void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    boolean hasOutput() {
+        return output != null && !output.isEmpty();
+    }
+
+    boolean isQueued() {
+        return queued;
+    }
+
+    void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    //writes as much as the socket takes, asks for a write event if something is left
+    void flush() throws IOException {
+        while (hasOutput()) {
+            ByteBuffer head = output.peek();
+            int written = channel.write(head);
+            outputBytes -= written;
+            writtenTotal += written;
+            if (head.hasRemaining())
+                break;
+            output.poll();
+        }
+        if (timingCount > 0 && timings[2 * timingHead] <= writtenTotal) {
+            long now = System.nanoTime();
+            while (timingCount > 0 && timings[2 * timingHead] <= writtenTotal) {
+                metrics.replyWritten(now - timings[2 * timingHead + 1]);
+                timingHead = (timingHead + 1) % (timings.length / 2);
+                timingCount--;
+            }
+        }
+        int ops = SelectionKey.OP_READ | (hasOutput() ? SelectionKey.OP_WRITE : 0);
+        if (key.isValid() && key.interestOps() != ops)
+            key.interestOps(ops);
+    }
+
+    List<ServerGame> getGames() {
+        if (games == null)
+            games = new ArrayList<>(2);
+        return games;
+    }
+
+    void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            //the connection is gone either way
+        }
+    }
+}
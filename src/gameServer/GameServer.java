@@ -0,0 +1,648 @@
+package gameServer;
+
+import gameEngine.ChessClock;
+import gameEngine.ClockScheduler;
+import gameEngine.Fen;
+import gameEngine.GameResult;
+import gameEngine.Move;
+import gameEngine.MoveGenerator;
+import gameEngine.Position;
+import gameEngine.PositionSnapshot;
+import gameEngine.TimeControl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Headless server that hosts many games over TCP on localhost. One thread runs a selector loop for every
+ * connection, so idle clients only cost their socket and a small object. Moves are checked with the headless
+ * position, which follows the same rules as the Swing pieces. Replies produced while handling one batch of input
+ * are written together at the end of the loop pass. A client that stops reading is disconnected once more than
+ * ClientConnection.MAX_OUTPUT bytes wait for it, so it cannot make the server keep every broadcast.
+ *
+ * With a GameStore every game start, move and result is logged. A move or an END line is only sent to the players,
+ * spectators and subscribers once its record is on disk; the store groups the records of all games into one fsync, so this costs a
+ * pass of the committer rather than an fsync per move. Unfinished games found in the store at start-up are hosted
+ * again with empty seats: they can be watched, and players continue them (without a clock) by joining twice, white
+ * first. Finished games are only kept in the store's archive, and new games are numbered after them.
+ *
+ * Protocol, one ASCII command per line, replies end with a newline:
+ * NEW [control]       -> GAME id WHITE, with an optional time control such as 180+2 (see TimeControl)
+ * JOIN id             -> GAME id BLACK, then both players get START id and a clocked game's clock starts
+ *                        (GAME id WHITE for the first player joining a recovered game)
+ * WATCH id            -> WATCHING id fen
+ * MOVE id e2e4        -> players and spectators get MOVE id e2e4 result [whiteMillis blackMillis], the sender gets
+ *                        ERROR text if illegal
+ * (flag fall)         -> players and spectators get END id result
+ * SUBSCRIBE id        -> binary MoveBroadcaster frames: the starting snapshot, every move so far, then each new
+ *                        move; the connection only receives frames from then on and further commands are ignored
+ * STATS               -> STATS connections=.. games=.. moves=.. movesPerSecond=.. avgLatencyMicros=.. maxLatencyMicros=..
+ * PING                -> PONG
+ * QUIT                -> closes the connection, games of a player who leaves end with END id result
+ *
+ * Method List:
+ * public void bind(int port) - Method to open the listening socket on localhost
+ * public int getPort() - Method to get the port the server listens on
+ * public void run() - Method to run the event loop until close() is called
+ * public Thread start() - Method to run the event loop on a background thread
+ * public void close() - Method to stop the event loop and close every connection
+ * public ServerMetrics getMetrics() - Method to get the server counters
+ * public MoveBroadcaster createBroadcast(PositionSnapshot start) - Method to host a move stream for a game played
+ *        somewhere else, such as the Swing board
+ * public static void main(String[] args) - Method to run the server, or a self test with idle connections
+ */
+
+public class GameServer implements Runnable {
+    public static final int DEFAULT_PORT = 5050;
+
+    //Global variables
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ServerMetrics metrics;
+    private final Map<Integer, ServerGame> games;
+    private final Map<Integer, MoveBroadcaster> broadcasts;
+    private final Queue<MoveBroadcaster> scheduled;
+    private final Queue<Runnable> tasks;
+    private final AtomicInteger nextGameId;
+    private final List<ClientConnection> flushList;
+    private final ByteBuffer readBuffer;
+    private final int[] moveBuffer;
+    private final GameStore store;              //null if games are only kept in memory
+    private volatile boolean running;
+    private volatile Thread loopThread;
+    private int nextConnectionId;
+
+    /**
+     * Default constructor to create a server that is not bound yet and keeps its games in memory only
+     * @throws IOException if the selector cannot be opened
+     */
+    public GameServer() throws IOException {
+        this(null);
+    }
+
+    /**
+     * Constructor for a server that logs its games to a store and hosts the games already in it again
+     * @param store open game store, may be null; the caller closes it after the server has stopped
+     * @throws IOException if the selector cannot be opened
+     */
+    public GameServer(GameStore store) throws IOException {
+        this.store = store;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.metrics = new ServerMetrics();
+        this.games = new HashMap<>();
+        this.broadcasts = new ConcurrentHashMap<>();
+        this.scheduled = new ConcurrentLinkedQueue<>();
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.nextGameId = new AtomicInteger();
+        this.flushList = new ArrayList<>();
+        this.readBuffer = ByteBuffer.allocateDirect(1 << 16);     //shared by every connection
+        this.moveBuffer = new int[MoveGenerator.MAX_MOVES];
+        if (store != null)
+            restoreGames();
+    }
+
+    /**
+     * Method to open the listening socket on localhost
+     * @param port port number, 0 picks a free port
+     * @throws IOException if the port cannot be used
+     */
+    public void bind(int port) throws IOException {
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Method to get the port the server listens on
+     * @return port number
+     * @throws IOException if the socket is closed
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Method to run the event loop on the calling thread until close() is called
+     */
+    @Override
+    public void run() {
+        running = true;
+        loopThread = Thread.currentThread();
+        while (running) {
+            try {
+                selector.select(1000);
+            } catch (IOException e) {
+                break;
+            }
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                try {
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable())
+                        accept();
+                    else {
+                        ClientConnection connection = (ClientConnection) key.attachment();
+                        if (key.isReadable())
+                            read(connection);
+                        if (key.isValid() && key.isWritable())
+                            connection.flush();
+                    }
+                } catch (IOException e) {
+                    if (key.attachment() != null)
+                        disconnect((ClientConnection) key.attachment());
+                }
+            }
+
+            //work handed over by other threads, such as flag falls from the clock scheduler
+            Runnable task;
+            while ((task = tasks.poll()) != null)
+                task.run();
+
+            //moves published during this pass, also from other threads, go out together
+            MoveBroadcaster broadcaster;
+            while ((broadcaster = scheduled.poll()) != null)
+                broadcaster.flush();
+            flushAll();
+            metrics.tick(System.nanoTime());
+        }
+        shutdown();
+    }
+
+    /**
+     * Method to run the event loop on a background thread
+     * @return the event loop thread
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "game-server");
+        thread.setDaemon(true);
+        running = true;
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Method to stop the event loop, which then closes every connection
+     */
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Method to get the server counters
+     * @return metrics
+     */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Method to host a move stream for a game played somewhere else, such as the Swing board. Clients follow it with
+     * SUBSCRIBE and the returned object's number; may be called from any thread.
+     * @param start position the game starts from
+     * @return broadcaster to publish the moves to
+     */
+    public MoveBroadcaster createBroadcast(PositionSnapshot start) {
+        return createBroadcast(nextGameId.incrementAndGet(), start);
+    }
+
+    private MoveBroadcaster createBroadcast(int id, PositionSnapshot start) {
+        MoveBroadcaster broadcaster = new MoveBroadcaster(id, start, this);
+        broadcasts.put(id, broadcaster);
+        return broadcaster;
+    }
+
+    //hosts the unfinished stored games again under their old numbers, new games are numbered after every stored one
+    private void restoreGames() {
+        nextGameId.set(Math.max(nextGameId.get(), store.getLastGameId()));
+        for (GameStore.StoredGame stored : store.getGames()) {
+            ServerGame game = new ServerGame(createBroadcast(stored.getId(), PositionSnapshot.START), null);
+            game.restore(stored, moveBuffer);
+            games.put(game.getId(), game);
+            metrics.gameCreated();
+        }
+    }
+
+    //asks the event loop to flush a broadcaster at the end of its current or next pass
+    void schedule(MoveBroadcaster broadcaster) {
+        scheduled.add(broadcaster);
+        if (Thread.currentThread() != loopThread)
+            selector.wakeup();
+    }
+
+    //runs a task on the event loop at its current or next pass
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (Thread.currentThread() != loopThread)
+            selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new ClientConnection(++nextConnectionId, channel, key, metrics));
+            metrics.connectionOpened();
+        }
+    }
+
+    private void read(ClientConnection connection) throws IOException {
+        readBuffer.clear();
+        long readStart = System.nanoTime();
+        int count = connection.getChannel().read(readBuffer);
+        if (count < 0) {
+            disconnect(connection);
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining() && connection.isOpen()) {
+            byte b = readBuffer.get();
+            if (b == '\n') {
+                handleCommand(connection, connection.takeLine(), readStart);
+            }
+            else if (b != '\r' && !connection.append(b)) {
+                reply(connection, "ERROR line too long");
+                connection.flush();
+                disconnect(connection);
+            }
+        }
+    }
+
+    //readNanos is when the read that brought the line started, the move latency counts from there
+    private void handleCommand(ClientConnection connection, String line, long readNanos) {
+        if (line.isEmpty() || connection.isStreaming())
+            return;
+        String[] tokens = line.split("\\s+");
+        String command = tokens[0].toUpperCase();
+        switch (command) {
+            case "NEW": {
+                TimeControl timeControl = null;
+                if (tokens.length > 1) {
+                    try {
+                        timeControl = TimeControl.parse(tokens[1]);
+                    } catch (IllegalArgumentException e) {
+                        reply(connection, "ERROR " + e.getMessage());
+                        break;
+                    }
+                }
+                ServerGame game = new ServerGame(createBroadcast(PositionSnapshot.START), connection);
+                if (timeControl != null) {
+                    //the flag fall arrives on the scheduler thread and is handled on the event loop
+                    game.setClock(new ChessClock(timeControl, ClockScheduler.shared(),
+                            (clock, colour) -> execute(() -> flag(game, colour))));
+                }
+                games.put(game.getId(), game);
+                connection.getGames().add(game);
+                metrics.gameCreated();
+                if (store != null)
+                    store.create(game.getId());
+                reply(connection, "GAME " + game.getId() + " WHITE");
+                break;
+            }
+            case "JOIN": {
+                ServerGame game = findGame(connection, tokens);
+                if (game == null)
+                    break;
+                if (game.getPlayer(Position.BLACK) != null || game.getPlayer(Position.WHITE) == connection) {
+                    reply(connection, "ERROR game " + game.getId() + " is full");
+                    break;
+                }
+                if (game.getPlayer(Position.WHITE) == null) {
+                    //only a recovered game has an empty white seat
+                    game.setPlayer(Position.WHITE, connection);
+                    connection.getGames().add(game);
+                    reply(connection, "GAME " + game.getId() + " WHITE");
+                    break;
+                }
+                game.setPlayer(Position.BLACK, connection);
+                connection.getGames().add(game);
+                reply(connection, "GAME " + game.getId() + " BLACK");
+                broadcast(game, "START " + game.getId());
+                if (game.getClock() != null)
+                    game.getClock().start(Position.WHITE);
+                break;
+            }
+            case "WATCH": {
+                ServerGame game = findGame(connection, tokens);
+                if (game == null)
+                    break;
+                game.getSpectators().add(connection);
+                connection.getGames().add(game);
+                reply(connection, "WATCHING " + game.getId() + " " + Fen.toFen(game.getPosition()));
+                break;
+            }
+            case "MOVE": {
+                ServerGame game = findGame(connection, tokens);
+                if (game == null)
+                    break;
+                if (tokens.length < 3) {
+                    reply(connection, "ERROR usage: MOVE id move");
+                    break;
+                }
+                int move = game.play(connection, tokens[2], moveBuffer);
+                if (move == Move.NONE) {
+                    ChessClock clock = game.getClock();
+                    if (clock != null && clock.getFlagged() >= 0 && game.getResult() == GameResult.IN_PROGRESS)
+                        flag(game, clock.getFlagged());     //the move came in after the flag fell
+                    else
+                        reply(connection, "ERROR illegal move " + tokens[2]);
+                    break;
+                }
+                metrics.moveAccepted();
+                String times = "";
+                if (game.getClock() != null) {
+                    times = " " + game.getClock().getRemainingNanos(Position.WHITE) / 1_000_000 + " " +
+                            game.getClock().getRemainingNanos(Position.BLACK) / 1_000_000;
+                }
+                String text = "MOVE " + game.getId() + " " + Move.toString(move) + " " + game.getResult() + times;
+                int captured = game.getLastCaptured();
+                long hash = game.getPosition().getHash();
+                GameResult result = game.getResult();
+                //players, spectators and subscribers all hear of the move at the same time
+                Runnable confirm = () -> {
+                    game.getBroadcaster().publish(move, captured, hash, result);
+                    broadcast(game, text);
+                    if (connection.isOpen())
+                        connection.timeReply(readNanos);
+                };
+                if (store == null) {
+                    confirm.run();
+                    break;
+                }
+                long sequence = store.move(game.getId(), move);
+                if (result != GameResult.IN_PROGRESS)
+                    sequence = store.finish(game.getId(), result);
+                store.whenDurable(sequence, () -> execute(confirm));
+                break;
+            }
+            case "SUBSCRIBE": {
+                MoveBroadcaster broadcaster = null;
+                try {
+                    broadcaster = tokens.length > 1 ? broadcasts.get(Integer.parseInt(tokens[1])) : null;
+                } catch (NumberFormatException e) {
+                    //handled below
+                }
+                if (broadcaster == null) {
+                    reply(connection, "ERROR no such game");
+                    break;
+                }
+                connection.setStreaming(true);
+                broadcaster.subscribe(connection);
+                break;
+            }
+            case "STATS":
+                reply(connection, "STATS " + metrics);
+                break;
+            case "PING":
+                reply(connection, "PONG");
+                break;
+            case "QUIT":
+                disconnect(connection);
+                break;
+            default:
+                reply(connection, "ERROR unknown command " + tokens[0]);
+                break;
+        }
+    }
+
+    //ends a game on time, the END line is only sent once
+    private void flag(ServerGame game, int colour) {
+        if (game.flag(colour))
+            sendEnd(game);
+    }
+
+    //logs the result of a game that ended off the board, END goes out once the record is on disk
+    private void sendEnd(ServerGame game) {
+        String text = "END " + game.getId() + " " + game.getResult();
+        if (store == null) {
+            broadcast(game, text);
+            return;
+        }
+        long sequence = store.finish(game.getId(), game.getResult());
+        store.whenDurable(sequence, () -> execute(() -> broadcast(game, text)));
+    }
+
+    //looks up the game number in the second token, answers with an error if there is none
+    private ServerGame findGame(ClientConnection connection, String[] tokens) {
+        ServerGame game = null;
+        if (tokens.length > 1) {
+            try {
+                game = games.get(Integer.parseInt(tokens[1]));
+            } catch (NumberFormatException e) {
+                //handled below
+            }
+        }
+        if (game == null)
+            reply(connection, "ERROR no such game");
+        return game;
+    }
+
+    private void reply(ClientConnection connection, String text) {
+        queue(connection, encode(text));
+    }
+
+    //every receiver gets a view of the same bytes
+    private void broadcast(ServerGame game, String text) {
+        ByteBuffer message = encode(text);
+        for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+            ClientConnection player = game.getPlayer(colour);
+            if (player != null && player.isOpen())
+                queue(player, message.duplicate());
+        }
+        for (ClientConnection spectator : game.getSpectators()) {
+            if (spectator.isOpen())
+                queue(spectator, message.duplicate());
+        }
+    }
+
+    void queue(ClientConnection connection, ByteBuffer buffer) {
+        connection.send(buffer);
+        if (!connection.isQueued()) {
+            connection.setQueued(true);
+            flushList.add(connection);
+        }
+    }
+
+    //writes everything queued during this pass of the loop
+    private void flushAll() {
+        for (int i = 0; i < flushList.size(); i++) {
+            ClientConnection connection = flushList.get(i);
+            connection.setQueued(false);
+            if (!connection.isOpen())
+                continue;
+            if (connection.hasOverflowed()) {
+                disconnect(connection);     //stopped reading, the server does not keep its output any longer
+                continue;
+            }
+            try {
+                connection.flush();
+            } catch (IOException e) {
+                disconnect(connection);
+            }
+        }
+        flushList.clear();
+    }
+
+    private void disconnect(ClientConnection connection) {
+        if (!connection.isOpen())
+            return;
+        connection.close();
+        metrics.connectionClosed();
+        for (ServerGame game : connection.getGames()) {
+            boolean wasRunning = game.getResult() == GameResult.IN_PROGRESS;
+            game.resign(connection);
+            if (wasRunning && game.getResult() != GameResult.IN_PROGRESS)
+                sendEnd(game);
+            game.getSpectators().remove(connection);
+            if (game.isAbandoned() && games.remove(game.getId()) != null) {
+                broadcasts.remove(game.getId());
+                metrics.gameRemoved();
+            }
+        }
+    }
+
+    private void shutdown() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof ClientConnection)
+                ((ClientConnection) key.attachment()).close();
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            //nothing left to release
+        }
+    }
+
+    private static ByteBuffer encode(String text) {
+        return ByteBuffer.wrap((text + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Method to run the server. With "--selftest n" it instead starts a server on a free port, opens n idle
+     * connections, plays a short game with a spectator and a late binary subscriber, and prints the counters and
+     * memory used.
+     * @param args port number, optionally followed by "--store" and a folder to keep the games in, or "--selftest"
+     *             and a connection count
+     * @throws Exception if the server or test clients fail
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !args[0].equals("--selftest")) {
+            int port = args.length > 0 && !args[0].equals("--store") ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            int storeIndex = Arrays.asList(args).indexOf("--store");
+            try (GameStore store = storeIndex >= 0 && storeIndex + 1 < args.length ?
+                    GameStore.open(Paths.get(args[storeIndex + 1])) : null) {
+                GameServer server = new GameServer(store);
+                server.bind(port);
+                System.out.println("Game server listening on localhost:" + server.getPort() +
+                        (store != null ? ", " + store.getGames().size() + " games recovered" : ""));
+                server.run();
+            }
+            return;
+        }
+
+        GameServer server = new GameServer();
+
+        int idle = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        server.bind(0);
+        server.start();
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        List<SocketChannel> idleClients = new ArrayList<>();
+        for (int i = 0; i < idle; i++)
+            idleClients.add(SocketChannel.open(address));
+        while (server.getMetrics().getConnections() < idle)
+            Thread.sleep(10);
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%d idle connections, about %d bytes of heap each (client and server side)%n", idle,
+                (after - before) / Math.max(1, idle));
+
+        try (Socket white = new Socket(address.getAddress(), address.getPort());
+             Socket black = new Socket(address.getAddress(), address.getPort());
+             Socket viewer = new Socket(address.getAddress(), address.getPort())) {
+            BufferedReader whiteIn = new BufferedReader(new InputStreamReader(white.getInputStream()));
+            BufferedReader blackIn = new BufferedReader(new InputStreamReader(black.getInputStream()));
+            BufferedReader viewerIn = new BufferedReader(new InputStreamReader(viewer.getInputStream()));
+            PrintWriter whiteOut = new PrintWriter(white.getOutputStream(), true);
+            PrintWriter blackOut = new PrintWriter(black.getOutputStream(), true);
+            PrintWriter viewerOut = new PrintWriter(viewer.getOutputStream(), true);
+
+            whiteOut.println("NEW");
+            String id = whiteIn.readLine().split(" ")[1];
+            blackOut.println("JOIN " + id);
+            System.out.println("black: " + blackIn.readLine() + ", " + blackIn.readLine());
+            System.out.println("white: " + whiteIn.readLine());
+            viewerOut.println("WATCH " + id);
+            System.out.println("viewer: " + viewerIn.readLine());
+
+            //fool's mate, with one illegal attempt
+            String[] moves = {"f2f3", "e7e5", "g2g4", "d8h4"};
+            whiteOut.println("MOVE " + id + " e2e5");
+            System.out.println("white: " + whiteIn.readLine());
+            for (int i = 0; i < moves.length; i++) {
+                PrintWriter mover = i % 2 == 0 ? whiteOut : blackOut;
+                mover.println("MOVE " + id + " " + moves[i]);
+                whiteIn.readLine();
+                blackIn.readLine();
+                System.out.println("viewer: " + viewerIn.readLine());
+            }
+            whiteOut.println("STATS");
+            System.out.println("white: " + whiteIn.readLine());
+
+            //a late binary subscriber rebuilds the game from the snapshot and the move log
+            try (SocketChannel subscriber = SocketChannel.open(address)) {
+                subscriber.write(encode("SUBSCRIBE " + id));
+                ByteBuffer frames = ByteBuffer.allocate(1024);
+                Position replay = new Position();
+                int received = 0;
+                while (received < moves.length + 1) {
+                    subscriber.read(frames);
+                    frames.flip();
+                    while (MoveBroadcaster.readFrame(frames, replay) != 0)
+                        received++;
+                    frames.compact();
+                }
+                System.out.println("subscriber: " + received + " frames, " + Fen.toFen(replay));
+            }
+        }
+        for (SocketChannel client : idleClients)
+            client.close();
+        server.close();
+    }
+}
@@ -0,0 +1,719 @@
+package gameServer;
+
+import gameEngine.GameResult;
+import gameEngine.Move;
+import gameEngine.MoveGenerator;
+import gameEngine.Position;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Keeps every server game on disk so a crash loses nothing. Game starts, moves and results are appended
+ * to a write-ahead log; adding a record only copies a few bytes into memory, and one committer thread writes all
+ * records gathered since its last pass with a single write and a single fsync (group commit), so thousands of games
+ * share each fsync instead of paying for one per move. A caller that must not answer before its move is on disk
+ * registers an action with whenDurable.
+ *
+ * Every SNAPSHOT_RECORDS records the committer starts a new log file, appends the games that have finished to the
+ * archive and writes a compact snapshot of the games still being played (their moves) next to the log, after which
+ * the older logs are deleted. Opening a store reads the newest snapshot and replays only the logs written after it,
+ * then archives the games those logs finished, so recovery time depends on the games in progress and not on the age
+ * of the server. A record cut off by a crash fails its checksum; the log is cut back to the last whole record. The
+ * snapshot records how long the archive was when it was written, and a longer archive (games archived by a snapshot
+ * that never replaced the old one) is cut back to that length, as those games are replayed from the logs again.
+ *
+ * Files in the store directory (big-endian):
+ * games-N.log      records: length of the rest (2 bytes), type, game id (4 bytes), payload, CRC32 (4 bytes)
+ *                  'C' game created, no payload / 'M' move, packed move (2 bytes) / 'R' result, GameResult ordinal
+ * games.snapshot   log number N the snapshot ends before (4 bytes), archive length (8 bytes), highest game id
+ *                  (4 bytes), game count (4 bytes), the games, then a CRC32 of it all
+ * games.archive    finished games, one after another
+ * a game is stored as its id (4 bytes), result, move count (4 bytes) and packed moves (2 bytes each)
+ *
+ * Method List:
+ * public static GameStore open(Path directory) - Method to open a store, recovering the games already in it
+ * public Collection<StoredGame> getGames() - Method to get the games in progress when the store was opened
+ * public List<StoredGame> getArchive() - Method to read the finished games
+ * public int getLastGameId() - Method to get the highest game number in the store when it was opened
+ * public long create(int gameId) - Method to log the start of a game
+ * public long move(int gameId, int move) - Method to log a move
+ * public long finish(int gameId, GameResult result) - Method to log the end of a game
+ * public void whenDurable(long sequence, Runnable action) - Method to run an action once a record is on disk
+ * public void sync() - Method to wait until every record added so far is on disk
+ * public long getDurableSequence() - Method to get the number of records known to be on disk
+ * public long getFsyncs() - Method to get the number of fsyncs made
+ * public void close() - Method to write the remaining records and stop the committer
+ * public static void main(String[] args) - Self-testing main method
+ */
+
+public class GameStore implements Closeable {
+    //records between snapshots, bounds how much log a recovery replays
+    public static final int SNAPSHOT_RECORDS = 1 << 20;
+
+    private static final byte CREATE = 'C', MOVE = 'M', RESULT = 'R';
+    private static final int HEADER_BYTES = 2 + 1 + 4;       //length, type, game id
+    private static final int CRC_BYTES = 4;
+    private static final String SNAPSHOT = "games.snapshot";
+    private static final String ARCHIVE = "games.archive";
+
+    //Global variables
+    private final Path directory;
+    private final Map<Integer, StoredGame> games;       //games not archived yet, only used by the committer
+    private Collection<StoredGame> recovered;
+    private int recoveredLastId;
+    private int lastGameId;             //highest game id logged, only used by the committer
+    private final ArrayDeque<Waiter> waiters;
+    private final Thread committer;
+    private final int snapshotRecords;
+    private FileChannel log;
+    private int logNumber;
+    private ByteBuffer pending;         //records not yet handed to the committer, guarded by this object
+    private ByteBuffer writing;         //records the committer is writing, only used by the committer
+    private long sequence;              //records added so far
+    private long durable;               //records on disk
+    private long fsyncs;
+    private int sinceSnapshot;
+    private long archiveLength;         //bytes of the archive the newest snapshot counts, guarded by this object
+    private boolean closed;
+    private IOException failure;
+
+    private GameStore(Path directory, int snapshotRecords) {
+        this.directory = directory;
+        this.snapshotRecords = snapshotRecords;
+        this.games = new LinkedHashMap<>();
+        this.waiters = new ArrayDeque<>();
+        this.pending = ByteBuffer.allocate(1 << 16);
+        this.writing = ByteBuffer.allocate(1 << 16);
+        this.committer = new Thread(this::commitLoop, "game-store");
+        this.committer.setDaemon(true);
+    }
+
+    /**
+     * Method to open a store, creating the directory if needed and recovering the games already in it
+     * @param directory folder holding the snapshot and the logs
+     * @return open store, its committer thread is running
+     * @throws IOException if the files cannot be read or written
+     */
+    public static GameStore open(Path directory) throws IOException {
+        return open(directory, SNAPSHOT_RECORDS);
+    }
+
+    static GameStore open(Path directory, int snapshotRecords) throws IOException {
+        Files.createDirectories(directory);
+        GameStore store = new GameStore(directory, snapshotRecords);
+        store.recover();
+        store.committer.start();
+        return store;
+    }
+
+    /**
+     * One stored game, its moves and result
+     */
+    public static final class StoredGame {
+        private final int id;
+        private short[] moves;
+        private int moveCount;
+        private GameResult result;
+
+        StoredGame(int id) {
+            this.id = id;
+            this.moves = new short[64];
+            this.result = GameResult.IN_PROGRESS;
+        }
+
+        /**
+         * Method to get the game number
+         * @return game number given by the server
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Method to get the moves played, in order from the starting position
+         * @return packed moves
+         */
+        public int[] getMoves() {
+            int[] list = new int[moveCount];
+            for (int i = 0; i < moveCount; i++)
+                list[i] = moves[i];
+            return list;
+        }
+
+        /**
+         * Method to get the result of the game
+         * @return result, IN_PROGRESS if the game had not ended
+         */
+        public GameResult getResult() {
+            return result;
+        }
+
+        StoredGame copy() {
+            StoredGame game = new StoredGame(id);
+            game.moves = Arrays.copyOf(moves, Math.max(1, moveCount));
+            game.moveCount = moveCount;
+            game.result = result;
+            return game;
+        }
+
+        void add(int move) {
+            if (moveCount == moves.length)
+                moves = Arrays.copyOf(moves, moveCount * 2);
+            moves[moveCount++] = (short) move;
+        }
+    }
+
+    /**
+     * Method to get the games that were still being played when the store was opened, finished games are in the
+     * archive
+     * @return recovered games in the order they were created
+     */
+    public Collection<StoredGame> getGames() {
+        return recovered;
+    }
+
+    /**
+     * Method to get the highest game number in the store when it was opened, archived games included, so new games
+     * can be numbered after it
+     * @return highest game id, 0 if the store was empty
+     */
+    public int getLastGameId() {
+        return recoveredLastId;
+    }
+
+    /**
+     * Method to read the finished games from the archive, up to the newest snapshot (games finished since then are
+     * added to the archive by the next one)
+     * @return archived games in the order they were archived
+     * @throws IOException if the archive cannot be read
+     */
+    public List<StoredGame> getArchive() throws IOException {
+        long length;
+        synchronized (this) {
+            length = archiveLength;
+        }
+        List<StoredGame> archived = new ArrayList<>();
+        if (length == 0)
+            return archived;
+        ByteBuffer data = ByteBuffer.allocate(Math.toIntExact(length));
+        try (FileChannel file = FileChannel.open(directory.resolve(ARCHIVE), StandardOpenOption.READ)) {
+            while (data.hasRemaining() && file.read(data) >= 0)
+                ;
+        }
+        if (data.hasRemaining())
+            throw new IOException("Archive is shorter than the snapshot says");
+        data.flip();
+        while (data.hasRemaining())
+            archived.add(readGame(data));
+        return archived;
+    }
+
+    /**
+     * Method to log the start of a game
+     * @param gameId game number
+     * @return sequence number of the record, for whenDurable
+     * @throws IllegalStateException if the store is closed or cannot write
+     */
+    public long create(int gameId) {
+        return append(CREATE, gameId, 0);
+    }
+
+    /**
+     * Method to log a move
+     * @param gameId game number
+     * @param move packed move that was played
+     * @return sequence number of the record, for whenDurable
+     * @throws IllegalStateException if the store is closed or cannot write
+     */
+    public long move(int gameId, int move) {
+        return append(MOVE, gameId, move);
+    }
+
+    /**
+     * Method to log the end of a game
+     * @param gameId game number
+     * @param result final result
+     * @return sequence number of the record, for whenDurable
+     * @throws IllegalStateException if the store is closed or cannot write
+     */
+    public long finish(int gameId, GameResult result) {
+        return append(RESULT, gameId, result.ordinal());
+    }
+
+    /**
+     * Method to run an action once a record is on disk. The action runs on the committer thread (or straight away
+     * if the record is already on disk), so it should only hand work on, for example to the server's event loop.
+     * @param sequence sequence number returned when the record was added
+     * @param action work to run
+     */
+    public void whenDurable(long sequence, Runnable action) {
+        synchronized (this) {
+            if (sequence > durable) {
+                waiters.add(new Waiter(sequence, action));
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Method to wait until every record added so far is on disk
+     * @throws IOException if writing failed
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized void sync() throws IOException, InterruptedException {
+        long target = sequence;
+        notifyAll();
+        while (durable < target && failure == null)
+            wait();
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Method to get the number of records known to be on disk
+     * @return durable sequence number
+     */
+    public synchronized long getDurableSequence() {
+        return durable;
+    }
+
+    /**
+     * Method to get the number of fsyncs made, records per fsync shows how well commits are grouped
+     * @return fsync count
+     */
+    public synchronized long getFsyncs() {
+        return fsyncs;
+    }
+
+    /**
+     * Method to write the remaining records to disk and stop the committer
+     * @throws IOException if the last records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed)
+                return;
+            closed = true;
+            notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+        synchronized (this) {
+            if (failure != null)
+                throw failure;
+        }
+    }
+
+    //copies a record into the pending buffer and updates the game it belongs to
+    private synchronized long append(byte type, int gameId, int value) {
+        if (closed || failure != null)
+            throw new IllegalStateException("Game store is closed", failure);
+        int payload = type == CREATE ? 0 : type == MOVE ? 2 : 1;
+        if (pending.remaining() < HEADER_BYTES + payload + CRC_BYTES) {
+            ByteBuffer bigger = ByteBuffer.allocate(pending.capacity() * 2);
+            pending.flip();
+            bigger.put(pending);
+            pending = bigger;
+        }
+        int start = pending.position();
+        pending.putShort((short) (1 + 4 + payload)).put(type).putInt(gameId);
+        if (type == MOVE)
+            pending.putShort((short) value);
+        else if (type == RESULT)
+            pending.put((byte) value);
+        pending.putInt(checksum(pending, start + 2, pending.position()));
+        if (start == 0)
+            notifyAll();        //the committer may be waiting for work
+        return ++sequence;
+    }
+
+    //reads the records in a buffer into the games, returns the end of the last whole record
+    private int applyRecords(ByteBuffer data) {
+        int valid = data.position();
+        while (data.remaining() >= HEADER_BYTES + CRC_BYTES) {
+            int start = data.position();
+            int length = data.getShort(start) & 0xFFFF;
+            if (length < 5 || data.remaining() < 2 + length + CRC_BYTES ||
+                    checksum(data, start + 2, start + 2 + length) != data.getInt(start + 2 + length))
+                break;
+            byte type = data.get(start + 2);
+            int gameId = data.getInt(start + 3);
+            int value = type == MOVE ? data.getShort(start + 7) : type == RESULT ? data.get(start + 7) : 0;
+            apply(type, gameId, value);
+            data.position(start + 2 + length + CRC_BYTES);
+            valid = data.position();
+        }
+        return valid;
+    }
+
+    private void apply(byte type, int gameId, int value) {
+        StoredGame game = games.computeIfAbsent(gameId, StoredGame::new);
+        lastGameId = Math.max(lastGameId, gameId);
+        if (type == MOVE)
+            game.add(value);
+        else if (type == RESULT)
+            game.result = GameResult.values()[value];
+    }
+
+    //committer thread: one write and one fsync for everything added since the last pass
+    private void commitLoop() {
+        while (true) {
+            long batchEnd;
+            synchronized (this) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0)
+                    return;     //closed and everything written
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                batchEnd = sequence;
+            }
+
+            List<Waiter> ready = new ArrayList<>();
+            try {
+                writing.flip();
+                while (writing.hasRemaining())
+                    log.write(writing);
+                log.force(false);
+                //the games only hold what is on disk, so a snapshot never has records the next log repeats
+                writing.flip();
+                applyRecords(writing);
+                writing.clear();
+                synchronized (this) {
+                    fsyncs++;
+                    sinceSnapshot += (int) (batchEnd - durable);
+                    durable = batchEnd;
+                    while (!waiters.isEmpty() && waiters.peek().sequence <= durable)
+                        ready.add(waiters.poll());
+                    notifyAll();
+                }
+                for (Waiter waiter : ready)
+                    waiter.action.run();
+                if (sinceSnapshot >= snapshotRecords)
+                    snapshot();
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    //starts a new log, archives the finished games and writes the rest as a snapshot, then deletes the logs it
+    //replaces
+    private void snapshot() throws IOException {
+        //records added from now on go to the new log, everything written so far is in the archive or the snapshot
+        long archived = archive();
+        int size = 4 + 8 + 4 + 4 + CRC_BYTES;
+        for (StoredGame game : games.values())
+            size += gameBytes(game);
+        ByteBuffer image = ByteBuffer.allocate(size);
+        int number = logNumber + 1;
+        image.putInt(number).putLong(archived).putInt(lastGameId).putInt(games.size());
+        for (StoredGame game : games.values())
+            writeGame(image, game);
+        image.putInt(checksum(image, 0, image.position()));
+        image.flip();
+        synchronized (this) {
+            sinceSnapshot = 0;
+        }
+
+        //a crash before the rename leaves the old snapshot and the logs after it, which still hold everything
+        FileChannel next = openLog(number);
+        log.close();
+        log = next;
+        logNumber = number;
+        Path temporary = directory.resolve(SNAPSHOT + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (image.hasRemaining())
+                file.write(image);
+            file.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        synchronized (this) {
+            archiveLength = archived;
+        }
+        deleteLogsBefore(number);
+    }
+
+    //appends the finished games to the archive and drops them, returns the archive's length with them
+    private long archive() throws IOException {
+        List<StoredGame> finished = new ArrayList<>();
+        int size = 0;
+        for (StoredGame game : games.values()) {
+            if (game.result != GameResult.IN_PROGRESS) {
+                finished.add(game);
+                size += gameBytes(game);
+            }
+        }
+        long length;
+        synchronized (this) {
+            length = archiveLength;
+        }
+        if (finished.isEmpty())
+            return length;
+
+        ByteBuffer entries = ByteBuffer.allocate(size);
+        for (StoredGame game : finished)
+            writeGame(entries, game);
+        entries.flip();
+        try (FileChannel file = FileChannel.open(directory.resolve(ARCHIVE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            file.position(length);
+            while (entries.hasRemaining())
+                file.write(entries);
+            file.force(true);
+        }
+        for (StoredGame game : finished)
+            games.remove(game.id);
+        return length + size;
+    }
+
+    private static int gameBytes(StoredGame game) {
+        return 4 + 1 + 4 + 2 * game.moveCount;
+    }
+
+    private static void writeGame(ByteBuffer buffer, StoredGame game) {
+        buffer.putInt(game.id).put((byte) game.result.ordinal()).putInt(game.moveCount);
+        for (int i = 0; i < game.moveCount; i++)
+            buffer.putShort(game.moves[i]);
+    }
+
+    private static StoredGame readGame(ByteBuffer buffer) {
+        StoredGame game = new StoredGame(buffer.getInt());
+        game.result = GameResult.values()[buffer.get()];
+        int moves = buffer.getInt();
+        for (int j = 0; j < moves; j++)
+            game.add(buffer.getShort());
+        return game;
+    }
+
+    //reads the snapshot, replays the logs written after it and opens the newest log for appending
+    private void recover() throws IOException {
+        int first = 0;
+        Path snapshotFile = directory.resolve(SNAPSHOT);
+        if (Files.exists(snapshotFile)) {
+            ByteBuffer image = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+            int end = image.limit() - CRC_BYTES;
+            if (end < 8 || checksum(image, 0, end) != image.getInt(end))
+                throw new IOException("Damaged snapshot " + snapshotFile);
+            first = image.getInt();
+            archiveLength = image.getLong();
+            lastGameId = image.getInt();
+            int count = image.getInt();
+            for (int i = 0; i < count; i++) {
+                StoredGame game = readGame(image);
+                games.put(game.id, game);
+            }
+        }
+
+        //games archived after the snapshot are still in the logs and are archived again
+        Path archiveFile = directory.resolve(ARCHIVE);
+        if (Files.exists(archiveFile) && Files.size(archiveFile) > archiveLength) {
+            try (FileChannel file = FileChannel.open(archiveFile, StandardOpenOption.WRITE)) {
+                file.truncate(archiveLength);
+                file.force(true);
+            }
+        }
+
+        deleteLogsBefore(first);
+        logNumber = first;
+        while (Files.exists(logPath(logNumber + 1)))
+            logNumber++;
+        for (int number = first; number <= logNumber; number++)
+            replay(number, number == logNumber);
+        log = openLog(logNumber);
+        log.position(log.size());
+        for (StoredGame game : games.values()) {
+            if (game.result != GameResult.IN_PROGRESS) {
+                snapshot();     //archives the games the logs finished, so they are not replayed again
+                break;
+            }
+        }
+
+        List<StoredGame> copies = new ArrayList<>(games.size());
+        for (StoredGame game : games.values())
+            copies.add(game.copy());
+        recovered = Collections.unmodifiableList(copies);
+        recoveredLastId = lastGameId;
+    }
+
+    //reads one log, a damaged tail can only come from a crash and is cut off
+    private void replay(int number, boolean last) throws IOException {
+        Path path = logPath(number);
+        if (!Files.exists(path))
+            return;
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        int valid = applyRecords(data);
+        if (valid < data.limit()) {
+            if (!last)
+                throw new IOException("Damaged log " + path);
+            try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                file.truncate(valid);
+                file.force(true);
+            }
+        }
+    }
+
+    private FileChannel openLog(int number) throws IOException {
+        return FileChannel.open(logPath(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private Path logPath(int number) {
+        return directory.resolve("games-" + number + ".log");
+    }
+
+    private void deleteLogsBefore(int number) throws IOException {
+        for (int i = number - 1; i >= 0 && Files.deleteIfExists(logPath(i)); i--)
+            ;       //logs are numbered without gaps, so the first missing one ends the search
+    }
+
+    private static int checksum(ByteBuffer buffer, int from, int to) {
+        CRC32 crc = new CRC32();
+        ByteBuffer view = buffer.duplicate();
+        view.limit(to).position(from);
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Self-testing main method: several threads play random games into a store in a temporary folder, a torn record
+     * is added to the end of the log as a crash would leave it, and the reopened store must give back every game,
+     * the unfinished ones as its games and the finished ones in its archive
+     * @param args optional game count
+     * @throws Exception if the store fails or a game is not recovered
+     */
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int threads = 4;
+        Path folder = Files.createTempDirectory("game-store");
+        long[] hashes = new long[count];
+        int[] lengths = new int[count];
+
+        long start = System.nanoTime();
+        GameStore store = open(folder, 20_000);
+        Thread[] players = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            players[t] = new Thread(() -> {
+                Random random = new Random(first);
+                Position position = new Position();
+                int[] buffer = new int[MoveGenerator.MAX_MOVES];
+                for (int id = first; id < count; id += threads) {
+                    position.reset();
+                    store.create(id);
+                    GameResult result = GameResult.IN_PROGRESS;
+                    for (int ply = 0; ply < 80 && result == GameResult.IN_PROGRESS; ply++) {
+                        int moves = MoveGenerator.generate(position, buffer, 0);
+                        int move = buffer[random.nextInt(moves)];
+                        if (!position.makeLegalMove(move))
+                            continue;
+                        store.move(id, move);
+                        lengths[id]++;
+                        result = position.getResult(buffer);
+                    }
+                    if (result != GameResult.IN_PROGRESS)
+                        store.finish(id, result);
+                    hashes[id] = position.getHash();
+                }
+            });
+            players[t].start();
+        }
+        for (Thread player : players)
+            player.join();
+        store.sync();
+        long records = store.getDurableSequence();
+        System.out.printf("%d records from %d threads in %.2fs, %.1f records per fsync%n", records, threads,
+                (System.nanoTime() - start) / 1e9, (double) records / store.getFsyncs());
+        store.close();
+
+        //half a move record at the end of the log, as a crash in the middle of a write leaves it
+        int number = 0;
+        while (!Files.exists(folder.resolve("games-" + number + ".log")) ||
+                Files.exists(folder.resolve("games-" + (number + 1) + ".log")))
+            number++;
+        Path newest = folder.resolve("games-" + number + ".log");
+        Files.write(newest, new byte[]{0, 7, MOVE, 0, 0}, StandardOpenOption.APPEND);
+
+        start = System.nanoTime();
+        GameStore reopened = open(folder);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Position position = new Position();
+        int restored = 0;
+        List<StoredGame> all = new ArrayList<>(reopened.getGames());
+        for (StoredGame game : all) {
+            if (game.getResult() != GameResult.IN_PROGRESS)
+                throw new IllegalStateException("Finished game " + game.getId() + " was not archived");
+        }
+        int unfinished = all.size();
+        all.addAll(reopened.getArchive());
+        for (StoredGame game : all) {
+            position.reset();
+            for (int move : game.getMoves())
+                position.makeMove(move);
+            if (position.getHash() != hashes[game.getId()] || game.getMoves().length != lengths[game.getId()])
+                throw new IllegalStateException("Game " + game.getId() + " was not recovered, last move " +
+                        Move.toString(game.moveCount > 0 ? game.moves[game.moveCount - 1] : Move.NONE));
+            restored++;
+        }
+        //the log is gone if the reopened store archived finished games from it
+        System.out.printf("recovered %d of %d games (%d unfinished) in %.3fs, log %s %s%n", restored, count,
+                unfinished, seconds, newest.getFileName(),
+                Files.exists(newest) ? "cut to " + Files.size(newest) + " bytes" : "replaced by a snapshot");
+        reopened.close();
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : (Iterable<Path>) files::iterator)
+                Files.delete(file);
+        }
+        Files.delete(folder);
+        if (restored != count)
+            throw new IllegalStateException("Games missing after recovery");
+    }
+
+    //action waiting for a record to reach the disk
+    private static final class Waiter {
+        final long sequence;
+        final Runnable action;
+
+        Waiter(long sequence, Runnable action) {
+            this.sequence = sequence;
+            this.action = action;
+        }
+    }
+}
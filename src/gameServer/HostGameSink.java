@@ -0,0 +1,203 @@
+package gameServer;
+
+import gameEngine.DrawReason;
+import gameEngine.Fen;
+import gameEngine.GameResult;
+import gameEngine.GameSink;
+import gameEngine.Move;
+import gameEngine.RandomGameGenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Plays the games of a RandomGameGenerator on a running GameServer, as load for the server. Each game
+ * opens two connections, white creates the game with NEW and black joins it, and the players send their moves in
+ * turn, each waiting for the server's MOVE reply before the next move, the way two real clients would. The server
+ * checks every move with its own copy of the rules, so a move it refuses, or a result it reports differently from
+ * the generator, is an error. Unfinished games end when their connections close, which lets the server remove them.
+ *
+ * The protocol's NEW command always starts from the starting position, so the generator has to use it too.
+ *
+ * Method List:
+ * public long getGames() - Method to get the number of games played on the server
+ * public long getMoves() - Method to get the number of moves the server accepted
+ * public static void main(String[] args) - Method to load a server with random games, or a self test with its own
+ *        server
+ */
+
+public class HostGameSink implements GameSink {
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    //Global variables
+    private final InetSocketAddress address;
+    private final AtomicLong games = new AtomicLong();
+    private final AtomicLong moves = new AtomicLong();
+
+    /**
+     * Constructor for a sink that plays on the server at an address
+     * @param address address of the server
+     * @param starts starting positions of the generator, from getStarts()
+     * @throws IllegalArgumentException if a game would not start from the starting position
+     */
+    public HostGameSink(InetSocketAddress address, String[] starts) {
+        for (String fen : starts) {
+            if (!fen.equals(Fen.START))
+                throw new IllegalArgumentException("The server only hosts games from the starting position");
+        }
+        this.address = address;
+    }
+
+    @Override
+    public void onGame(long game, int start, int[] moves, int plies, GameResult result, DrawReason reason)
+            throws IOException {
+        try (Player white = new Player(address); Player black = new Player(address)) {
+            white.send("NEW");
+            String id = white.expect("GAME").split(" ")[1];
+            black.send("JOIN " + id);
+            black.expect("GAME");
+            black.expect("START");
+            white.expect("START");
+
+            String reply = null;
+            for (int i = 0; i < plies; i++) {
+                String move = Move.toString(moves[i]);
+                (i % 2 == 0 ? white : black).send("MOVE " + id + " " + move);
+                reply = white.expect("MOVE");
+                black.expect("MOVE");
+                if (!reply.startsWith("MOVE " + id + " " + move + " "))
+                    throw new IOException("Game " + game + ": unexpected reply " + reply);
+            }
+            this.moves.addAndGet(plies);
+
+            //the server's result of the last move has to match the generator's
+            String hosted = reply != null ? reply.split(" ")[3] : GameResult.IN_PROGRESS.toString();
+            if (!hosted.equals(result.toString()))
+                throw new IOException("Game " + game + ": server result " + hosted + ", generator result " + result);
+            white.send("QUIT");
+            black.send("QUIT");
+        }
+        games.incrementAndGet();
+    }
+
+    /**
+     * Method to get the number of games played on the server
+     * @return games
+     */
+    public long getGames() {
+        return games.get();
+    }
+
+    /**
+     * Method to get the number of moves the server accepted
+     * @return moves
+     */
+    public long getMoves() {
+        return moves.get();
+    }
+
+    //one side's connection, line by line
+    private static final class Player implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        Player(InetSocketAddress address) throws IOException {
+            socket = new Socket(address.getAddress(), address.getPort());
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(TIMEOUT_MILLIS);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+        }
+
+        void send(String line) throws IOException {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+
+        //reads the next line, which has to start with the given reply
+        String expect(String reply) throws IOException {
+            String line = in.readLine();
+            if (line == null || !line.startsWith(reply))
+                throw new IOException("Expected " + reply + ", server sent " + line);
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Method to play random games on a server on localhost. With "--selftest" it starts its own server on a free
+     * port first and prints the server's counters at the end.
+     * @param args port number or "--selftest", then options as name=value: games, threads, seed, weighted
+     * @throws Exception if the server cannot be reached or refuses a move
+     */
+    public static void main(String[] args) throws Exception {
+        boolean selfTest = args.length > 0 && args[0].equals("--selftest");
+        long gameCount = 1000;
+        int threads = 4;
+        long seed = 1;
+        boolean weighted = false;
+        for (int i = 1; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            if (option.length < 2)
+                throw new IllegalArgumentException("Options are written as name=value: " + args[i]);
+            switch (option[0]) {
+                case "games":
+                    gameCount = Long.parseLong(option[1]);
+                    break;
+                case "threads":
+                    threads = Math.max(1, Integer.parseInt(option[1]));
+                    break;
+                case "seed":
+                    seed = Long.parseLong(option[1]);
+                    break;
+                case "weighted":
+                    weighted = Boolean.parseBoolean(option[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + option[0]);
+            }
+        }
+
+        GameServer server = null;
+        int port = GameServer.DEFAULT_PORT;
+        if (selfTest) {
+            server = new GameServer();
+            server.bind(0);
+            server.start();
+            port = server.getPort();
+        }
+        else if (args.length > 0) {
+            port = Integer.parseInt(args[0]);
+        }
+
+        RandomGameGenerator generator = new RandomGameGenerator(seed);
+        generator.setWeighted(weighted);
+        HostGameSink sink = new HostGameSink(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                generator.getStarts());
+        long start = System.nanoTime();
+        generator.run(gameCount, threads, sink);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%,d games, %,d moves accepted by the server in %.1f s (%,.0f moves/s)%n", sink.getGames(),
+                sink.getMoves(), seconds, sink.getMoves() / seconds);
+        if (server != null) {
+            System.out.println("server: " + server.getMetrics());
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package gameServer;
+
+import gameEngine.GameResult;
+import gameEngine.Move;
+import gameEngine.Position;
+import gameEngine.PositionSnapshot;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Sends the moves of one game to its subscribers as small binary deltas instead of whole boards. Every
+ * accepted move is written once into the game's move log; at the end of each event loop pass the new part of the
+ * log is handed to every subscriber as a read-only view of the same bytes, so a move is never copied per viewer and
+ * all moves published during one pass go out in one write. A late joiner gets the starting snapshot followed by the
+ * whole log.
+ *
+ * Frames (big-endian):
+ * snapshot 'S', game id (4 bytes), PositionSnapshot (26 bytes)                          - 31 bytes
+ * move     'M', from, to, promotion type, captured piece code, result, ply (2 bytes), hash after the move (8 bytes)
+ *                                                                                          - 16 bytes
+ *
+ * Method List:
+ * public int getId() - Method to get the game number
+ * public int getMoveCount() - Method to get the number of published moves
+ * public void publish(int move, int captured, long hash, GameResult result) - Method to publish an accepted move
+ * public static int readFrame(ByteBuffer buffer, Position position) - Method to apply one received frame to a position
+ */
+
+public class MoveBroadcaster {
+    public static final byte SNAPSHOT_FRAME = 'S';
+    public static final byte MOVE_FRAME = 'M';
+    public static final int SNAPSHOT_BYTES = 5 + PositionSnapshot.BYTES;
+    public static final int MOVE_BYTES = 16;
+
+    //Global variables
+    private final int id;
+    private final ByteBuffer snapshotFrame;
+    private final GameServer server;
+    private final List<ClientConnection> subscribers;
+    private ByteBuffer log;          //every move frame so far, guarded by this object
+    private int sent;               //bytes of the log already handed to the subscribers
+    private int moves;
+    private boolean pending;        //true while the broadcaster waits in the server's flush queue
+
+    MoveBroadcaster(int id, PositionSnapshot start, GameServer server) {
+        this.id = id;
+        this.server = server;
+        this.subscribers = new ArrayList<>();
+        this.log = ByteBuffer.allocate(64 * MOVE_BYTES);
+
+        ByteBuffer frame = ByteBuffer.allocate(SNAPSHOT_BYTES);
+        frame.put(SNAPSHOT_FRAME).putInt(id);
+        start.writeTo(frame);
+        frame.flip();
+        this.snapshotFrame = frame.asReadOnlyBuffer();
+    }
+
+    /**
+     * Method to get the game number subscribers use
+     * @return game number
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Method to get the number of published moves
+     * @return move count
+     */
+    public synchronized int getMoveCount() {
+        return moves;
+    }
+
+    /**
+     * Method to publish an accepted move, may be called from any thread
+     * @param move packed move that was played
+     * @param captured piece code that was captured, Position.EMPTY if none
+     * @param hash position hash after the move
+     * @param result game result after the move
+     */
+    public void publish(int move, int captured, long hash, GameResult result) {
+        boolean schedule;
+        synchronized (this) {
+            if (log.remaining() < MOVE_BYTES) {
+                //views handed out earlier keep the old array, so growing never changes bytes already sent
+                ByteBuffer bigger = ByteBuffer.allocate(log.capacity() * 2);
+                log.flip();
+                bigger.put(log);
+                log = bigger;
+            }
+            log.put(MOVE_FRAME).put((byte) Move.from(move)).put((byte) Move.to(move)).put((byte) Move.promotion(move))
+                    .put((byte) captured).put((byte) result.ordinal()).putShort((short) moves).putLong(hash);
+            moves++;
+            schedule = !pending;
+            pending = true;
+        }
+        if (schedule)
+            server.schedule(this);
+    }
+
+    //adds a subscriber and sends it the snapshot and every move it has missed, runs on the event loop
+    void subscribe(ClientConnection connection) {
+        subscribers.add(connection);
+        server.queue(connection, snapshotFrame.duplicate());
+        ByteBuffer history;
+        synchronized (this) {
+            history = view(0, sent);
+        }
+        if (history.hasRemaining())
+            server.queue(connection, history);
+    }
+
+    //hands the moves published since the last pass to every subscriber, runs on the event loop
+    void flush() {
+        ByteBuffer batch;
+        synchronized (this) {
+            batch = view(sent, log.position());
+            sent = log.position();
+            pending = false;
+        }
+        if (!batch.hasRemaining())
+            return;
+        subscribers.removeIf(connection -> !connection.isOpen());
+        for (ClientConnection connection : subscribers)
+            server.queue(connection, batch.duplicate());
+    }
+
+    //read-only view of part of the log, shares the bytes instead of copying them
+    private ByteBuffer view(int from, int to) {
+        ByteBuffer view = log.duplicate();
+        view.limit(to).position(from);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Method to apply one received frame to a position, used by subscribers
+     * @param buffer received bytes, the position of the buffer moves past the frame if it is complete
+     * @param position position to update
+     * @return SNAPSHOT_FRAME or MOVE_FRAME, 0 if the buffer does not hold a whole frame yet
+     * @throws IllegalStateException if a move does not lead to the published hash
+     */
+    public static int readFrame(ByteBuffer buffer, Position position) {
+        if (!buffer.hasRemaining())
+            return 0;
+        byte type = buffer.get(buffer.position());
+        if (type == SNAPSHOT_FRAME) {
+            if (buffer.remaining() < SNAPSHOT_BYTES)
+                return 0;
+            buffer.get();
+            buffer.getInt();
+            PositionSnapshot.readFrom(buffer).copyTo(position);
+            return SNAPSHOT_FRAME;
+        }
+        if (type != MOVE_FRAME)
+            throw new IllegalStateException("Unknown frame type " + type);
+        if (buffer.remaining() < MOVE_BYTES)
+            return 0;
+
+        buffer.get();
+        int from = buffer.get();
+        int to = buffer.get();
+        int promotion = buffer.get();
+        buffer.get();       //captured piece, already known from the position
+        buffer.get();       //result
+        buffer.getShort();  //ply
+        long hash = buffer.getLong();
+        position.makeMove(Move.of(from, to, promotion));
+        if (position.getHash() != hash)
+            throw new IllegalStateException("Position differs from the broadcast after " + Move.toString(
+                    Move.of(from, to, promotion)));
+        return MOVE_FRAME;
+    }
+}
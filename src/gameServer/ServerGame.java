@@ -0,0 +1,192 @@
+package gameServer;
+
+import gameEngine.ChessClock;
+import gameEngine.GameResult;
+import gameEngine.Move;
+import gameEngine.MoveGenerator;
+import gameEngine.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: One game hosted by the server: the headless position (same move rules as the Swing board), the two
+ * players and the spectators. Only the event loop thread uses this class.
+ *
+ * Method List:
+ * public int getId() - Method to get the game number
+ * public Position getPosition() - Method to get the current position
+ * public GameResult getResult() - Method to get the result of the game
+ * public ClientConnection getPlayer(int colour) - Method to get the connection playing a colour
+ * public List<ClientConnection> getSpectators() - Method to get the connections watching the game
+ * public MoveBroadcaster getBroadcaster() - Method to get the binary move stream of the game
+ * public ChessClock getClock() - Method to get the chess clock of the game
+ */
+
+public class ServerGame {
+    //Global variables
+    private final int id;
+    private final Position position;
+    private final ClientConnection[] players;
+    private final List<ClientConnection> spectators;
+    private final MoveBroadcaster broadcaster;
+    private ChessClock clock;
+    private GameResult result;
+    private int lastCaptured;       //piece code the last move played with play() captured
+
+    ServerGame(MoveBroadcaster broadcaster, ClientConnection white) {
+        this.id = broadcaster.getId();
+        this.broadcaster = broadcaster;
+        this.position = new Position();
+        this.players = new ClientConnection[]{white, null};
+        this.spectators = new ArrayList<>();
+        this.result = GameResult.IN_PROGRESS;
+    }
+
+    /**
+     * Method to get the game number
+     * @return number given by the server
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Method to get the current position
+     * @return position, only to be read on the event loop thread
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Method to get the result of the game
+     * @return result, IN_PROGRESS while moves can still be played
+     */
+    public GameResult getResult() {
+        return result;
+    }
+
+    /**
+     * Method to get the connection playing a colour
+     * @param colour Position.WHITE or Position.BLACK
+     * @return connection, null if nobody has taken the seat
+     */
+    public ClientConnection getPlayer(int colour) {
+        return players[colour];
+    }
+
+    /**
+     * Method to get the connections watching the game
+     * @return spectator list
+     */
+    public List<ClientConnection> getSpectators() {
+        return spectators;
+    }
+
+    /**
+     * Method to get the binary move stream of the game
+     * @return broadcaster with the same game number
+     */
+    public MoveBroadcaster getBroadcaster() {
+        return broadcaster;
+    }
+
+    /**
+     * Method to get the chess clock of the game
+     * @return clock, null if the game is played without a time control
+     */
+    public ChessClock getClock() {
+        return clock;
+    }
+
+    void setClock(ChessClock clock) {
+        this.clock = clock;
+    }
+
+    void setPlayer(int colour, ClientConnection connection) {
+        players[colour] = connection;
+    }
+
+    //replays a game recovered from the store, seats stay empty until players JOIN again
+    void restore(GameStore.StoredGame stored, int[] buffer) {
+        int[] moves = stored.getMoves();
+        for (int i = 0; i < moves.length; i++) {
+            int captured = capturedPiece(moves[i]);
+            position.makeMove(moves[i]);
+            broadcaster.publish(moves[i], captured, position.getHash(),
+                    i == moves.length - 1 ? position.getResult(buffer) : GameResult.IN_PROGRESS);
+        }
+        result = stored.getResult();
+    }
+
+    //plays a move for a connection, returns the packed move or Move.NONE if it was not allowed; the move is not
+    //published, the server does that once it is on disk
+    int play(ClientConnection connection, CharSequence text, int[] buffer) {
+        if (result != GameResult.IN_PROGRESS || players[Position.BLACK] == null ||
+                players[position.getSideToMove()] != connection)
+            return Move.NONE;
+        int move = MoveGenerator.findMove(position, Move.parse(text, 0, text.length()), buffer);
+        if (move == Move.NONE)
+            return Move.NONE;
+        int captured = capturedPiece(move);
+        if (!position.makeLegalMove(move))
+            return Move.NONE;
+        if (clock != null && !clock.press()) {
+            position.undoMove();      //the flag fell before the move was made, the server ends the game
+            return Move.NONE;
+        }
+        result = position.getResult(buffer);
+        if (clock != null && result != GameResult.IN_PROGRESS)
+            clock.stop();
+        lastCaptured = captured;
+        return move;
+    }
+
+    //piece code a move captures before it is played, the passed pawn for en passant
+    private int capturedPiece(int move) {
+        int square = position.captureSquare(move);
+        return square != Position.NO_SQUARE ? position.getPiece(square) : Position.EMPTY;
+    }
+
+    //piece code captured by the last move played with play(), Position.EMPTY if it captured nothing
+    int getLastCaptured() {
+        return lastCaptured;
+    }
+
+    //ends the game when a side runs out of time (see Position.getTimeoutResult), returns false if the game was
+    //already over
+    boolean flag(int colour) {
+        if (result != GameResult.IN_PROGRESS)
+            return false;
+        result = position.getTimeoutResult(colour);
+        return true;
+    }
+
+    //called when a player disconnects, the game is over but spectators keep the final position
+    void resign(ClientConnection connection) {
+        if (result != GameResult.IN_PROGRESS)
+            return;
+        if (players[Position.WHITE] == connection)
+            result = GameResult.BLACK_WINS;
+        else if (players[Position.BLACK] == connection)
+            result = GameResult.WHITE_WINS;
+        if (clock != null && result != GameResult.IN_PROGRESS)
+            clock.stop();
+    }
+
+    //true once nobody is connected to the game any more
+    boolean isAbandoned() {
+        for (ClientConnection player : players) {
+            if (player != null && player.isOpen())
+                return false;
+        }
+        for (ClientConnection spectator : spectators) {
+            if (spectator.isOpen())
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+package gameServer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Shivam Sood
+ * Date: 2026-10-19
+ * Description: Counters kept by the game server: open connections, games, moves, moves per second and how long a
+ * move takes from the moment its bytes are read until the reply to the mover has been written to its socket. With a
+ * GameStore that includes the wait for the move to reach the disk, which is most of what a player waits for. The
+ * event loop writes the counters and any thread may read them.
+ *
+ * Method List:
+ * public int getConnections() - Method to get the number of open connections
+ * public int getGames() - Method to get the number of games being hosted
+ * public long getMoves() - Method to get the number of accepted moves
+ * public double getMovesPerSecond() - Method to get the moves accepted over the last full second
+ * public double getAverageLatencyMicros() - Method to get the average move latency
+ * public long getMaxLatencyMicros() - Method to get the largest move latency
+ * public String toString() - Method to write every counter on one line
+ */
+
+public class ServerMetrics {
+    private static final long SECOND = 1_000_000_000L;
+
+    //Global variables
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong games = new AtomicLong();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder latencyTotal = new LongAdder();
+    private final LongAdder latencyCount = new LongAdder();
+    private final AtomicLong latencyMax = new AtomicLong();
+    private volatile double movesPerSecond;
+    private long windowStart = System.nanoTime();
+    private long windowMoves;
+
+    void connectionOpened() {
+        connections.incrementAndGet();
+    }
+
+    void connectionClosed() {
+        connections.decrementAndGet();
+    }
+
+    void gameCreated() {
+        games.incrementAndGet();
+    }
+
+    void gameRemoved() {
+        games.decrementAndGet();
+    }
+
+    //called by the event loop when it accepts a move
+    void moveAccepted() {
+        moves.increment();
+        windowMoves++;
+        tick(System.nanoTime());
+    }
+
+    //called by the event loop once the reply to a move has been written to the mover's socket
+    void replyWritten(long latencyNanos) {
+        latencyTotal.add(latencyNanos);
+        latencyCount.increment();
+        latencyMax.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    //closes the one second window used for the move rate, called by the event loop
+    void tick(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed >= SECOND) {
+            movesPerSecond = windowMoves * (double) SECOND / elapsed;
+            windowMoves = 0;
+            windowStart = now;
+        }
+    }
+
+    /**
+     * Method to get the number of open connections
+     * @return connection count
+     */
+    public int getConnections() {
+        return (int) connections.get();
+    }
+
+    /**
+     * Method to get the number of games being hosted
+     * @return game count
+     */
+    public int getGames() {
+        return (int) games.get();
+    }
+
+    /**
+     * Method to get the number of accepted moves since the server started
+     * @return move count
+     */
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    /**
+     * Method to get the moves accepted over the last full second
+     * @return move rate
+     */
+    public double getMovesPerSecond() {
+        return movesPerSecond;
+    }
+
+    /**
+     * Method to get the average time from reading a move to writing the reply to the mover
+     * @return latency in microseconds
+     */
+    public double getAverageLatencyMicros() {
+        long count = latencyCount.sum();
+        return count == 0 ? 0 : latencyTotal.sum() / 1000.0 / count;
+    }
+
+    /**
+     * Method to get the largest time from reading a move to writing the reply to the mover
+     * @return latency in microseconds
+     */
+    public long getMaxLatencyMicros() {
+        return latencyMax.get() / 1000;
+    }
+
+    /**
+     * Method to write every counter on one line
+     * @return text such as "connections=2 games=1 moves=10 movesPerSecond=4.0 avgLatencyMicros=35.2 maxLatencyMicros=90"
+     */
+    @Override
+    public String toString() {
+        return String.format("connections=%d games=%d moves=%d movesPerSecond=%.1f avgLatencyMicros=%.1f " +
+                        "maxLatencyMicros=%d", getConnections(), getGames(), getMoves(), getMovesPerSecond(),
+                getAverageLatencyMicros(), getMaxLatencyMicros());
+    }
+}